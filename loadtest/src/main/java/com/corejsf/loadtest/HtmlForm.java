@@ -0,0 +1,103 @@
+package com.corejsf.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+* Just enough of an HTML form parser to replay JSF postbacks.
+* <p>
+* Pages rendered by Mojarra are regular enough that a few patterns find the form, its
+* action and its <code>&lt;input&gt;</code> fields (including <code>jakarta.faces.ViewState</code>);
+* this avoids pulling an HTML library into the harness.
+*/
+final class HtmlForm {
+
+    private static final Pattern FORM = Pattern.compile("<form\\b([^>]*)>(.*?)</form>",
+            Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+    private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTR = Pattern.compile("([\\w:.-]+)\\s*=\\s*\"([^\"]*)\"");
+
+    private final String id;
+    private final String action;
+    private final List<Map<String, String>> inputs;
+
+    private HtmlForm(String id, String action, List<Map<String, String>> inputs) {
+        this.id = id;
+        this.action = action;
+        this.inputs = inputs;
+    }
+
+    /**
+    * @param html page body
+    * @param id   client id of the form
+    * @return the form, or null if the page has none with that id
+    */
+    static HtmlForm find(String html, String id) {
+        Matcher m = FORM.matcher(html);
+        while (m.find()) {
+            Map<String, String> attrs = attributes(m.group(1));
+            if (!id.equals(attrs.get("id"))) continue;
+            List<Map<String, String>> inputs = new ArrayList<>();
+            Matcher in = INPUT.matcher(m.group(2));
+            while (in.find()) inputs.add(attributes(in.group(1)));
+            return new HtmlForm(id, attrs.getOrDefault("action", ""), inputs);
+        }
+        return null;
+    }
+
+    String getId() { return id; }
+
+    /** @return the form action, possibly relative */
+    String getAction() { return action; }
+
+    /** @return every input of the form as its attribute map, in document order */
+    List<Map<String, String>> getInputs() { return inputs; }
+
+    /**
+    * @return what a browser would post without pressing a button: all named inputs except
+    *         buttons and unchecked boxes, in document order
+    */
+    Map<String, String> values() {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map<String, String> in : inputs) {
+            String name = in.get("name");
+            if (name == null) continue;
+            String type = in.getOrDefault("type", "text").toLowerCase();
+            if (type.equals("submit") || type.equals("button") || type.equals("image")) continue;
+            if ((type.equals("checkbox") || type.equals("radio")) && !in.containsKey("checked")) continue;
+            values.put(name, in.getOrDefault("value", type.equals("checkbox") ? "on" : ""));
+        }
+        return values;
+    }
+
+    /**
+    * @param label visible value of a submit button
+    * @return the button's name, or null
+    */
+    String button(String label) {
+        for (Map<String, String> in : inputs) {
+            if ("submit".equalsIgnoreCase(in.get("type")) && label.equals(in.get("value"))) return in.get("name");
+        }
+        return null;
+    }
+
+    /** Parse tag attributes; valueless attributes such as <code>checked</code> map to "". */
+    private static Map<String, String> attributes(String tag) {
+        Map<String, String> attrs = new HashMap<>();
+        Matcher m = ATTR.matcher(tag);
+        while (m.find()) attrs.put(m.group(1).toLowerCase(), unescape(m.group(2)));
+        if (tag.matches("(?s).*\\bchecked\\b(?!\\s*=).*")) attrs.putIfAbsent("checked", "");
+        return attrs;
+    }
+
+    static String unescape(String s) {
+        if (s.indexOf('&') < 0) return s;
+        return s.replace("&quot;", "\"").replace("&#39;", "'").replace("&lt;", "<")
+                .replace("&gt;", ">").replace("&amp;", "&");
+    }
+}
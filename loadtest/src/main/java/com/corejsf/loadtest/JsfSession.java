@@ -0,0 +1,206 @@
+package com.corejsf.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+* One browser session against the application: its own cookies, the last page seen and
+* the JSF postback mechanics (form fields, <code>jakarta.faces.ViewState</code>,
+* command links, partial requests).
+* <p>
+* Redirects are followed here rather than by {@link HttpClient}, so a session id changed
+* on a 302 (login) is kept and the redirect counts towards the step that caused it, as
+* it would for a user.
+*/
+final class JsfSession {
+
+    /** Mojarra's command link handler: <code>mojarra.cljs(document.getElementById('form'),{'link':'link'},'')</code>. */
+    private static final Pattern LINK = Pattern.compile(
+            "mojarra\\.(?:jsf)?cljs\\(document\\.getElementById\\('([^']+)'\\),\\{'([^']+)':'[^']*'");
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final HttpClient http;
+    private final URI base;
+    private final Duration timeout;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    /** A fetched page. */
+    static final class Page {
+        private final URI uri;
+        private final int status;
+        private final String body;
+
+        Page(URI uri, int status, String body) {
+            this.uri = uri;
+            this.status = status;
+            this.body = body;
+        }
+
+        URI getUri() { return uri; }
+
+        int getStatus() { return status; }
+
+        String getBody() { return body; }
+
+        /** @return true if the page was reached under {@code path} (after redirects) */
+        boolean isAt(String path) { return uri.getPath().endsWith(path); }
+    }
+
+    /** A step did not get the response a browser would have continued with. */
+    static final class StepFailedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        StepFailedException(String message) { super(message); }
+    }
+
+    JsfSession(HttpClient http, URI base, Duration timeout) {
+        this.http = http;
+        this.base = base;
+        this.timeout = timeout;
+    }
+
+    /** Plain GET, relative to the application root. */
+    Page get(String path) throws IOException, InterruptedException, StepFailedException {
+        return send(HttpRequest.newBuilder(base.resolve(path)).GET());
+    }
+
+    /**
+    * Submit a form of {@code page} the way the browser would.
+    *
+    * @param button    label of the submit button pressed, or null
+    * @param overrides field values typed by the user
+    */
+    Page submit(Page page, String formId, String button, Map<String, String> overrides)
+            throws IOException, InterruptedException, StepFailedException {
+        HtmlForm form = form(page, formId);
+        Map<String, String> fields = form.values();
+        fields.putAll(overrides);
+        if (button != null) {
+            String name = form.button(button);
+            if (name == null) throw new StepFailedException("No '" + button + "' button in " + formId);
+            fields.put(name, button);
+        }
+        return post(page.getUri().resolve(form.getAction()), fields, false);
+    }
+
+    /**
+    * Click the command link placed next to {@code label}, as the sidebar renders them:
+    * an empty <code>h:commandLink</code> overlaying the label text.
+    */
+    Page clickLink(Page page, String label) throws IOException, InterruptedException, StepFailedException {
+        String html = page.getBody().replace("&#39;", "'");
+        int at = html.indexOf(label);
+        if (at < 0) throw new StepFailedException("No '" + label + "' link on " + page.getUri().getPath());
+        Matcher m = LINK.matcher(html);
+        String formId = null;
+        String linkId = null;
+        while (m.find() && m.start() < at) {
+            formId = m.group(1);
+            linkId = m.group(2);
+        }
+        if (formId == null) throw new StepFailedException("No command link before '" + label + "'");
+        HtmlForm form = form(page, formId);
+        Map<String, String> fields = form.values();
+        fields.put(linkId, linkId);
+        return post(page.getUri().resolve(form.getAction()), fields, false);
+    }
+
+    /**
+    * Send a JSF partial (AJAX) request from a form of {@code page}. The response is a
+    * partial-response document, so the session stays on {@code page}.
+    */
+    Page ajax(Page page, String formId, String source, Map<String, String> params)
+            throws IOException, InterruptedException, StepFailedException {
+        HtmlForm form = form(page, formId);
+        Map<String, String> fields = form.values();
+        fields.put("jakarta.faces.partial.ajax", "true");
+        fields.put("jakarta.faces.source", source);
+        fields.putAll(params);
+        Page res = post(page.getUri().resolve(form.getAction()), fields, true);
+        if (res.getBody().contains("<error>")) throw new StepFailedException("Partial response error from " + source);
+        return res;
+    }
+
+    /** POST a JSON document, as the page scripts do. */
+    int postJson(String path, String json) throws IOException, InterruptedException {
+        HttpRequest.Builder req = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        addCookies(req);
+        HttpResponse<Void> res = http.send(req.build(), HttpResponse.BodyHandlers.discarding());
+        keepCookies(res);
+        return res.statusCode();
+    }
+
+    // ---------------- Internals ----------------
+
+    private static HtmlForm form(Page page, String formId) throws StepFailedException {
+        HtmlForm form = HtmlForm.find(page.getBody(), formId);
+        if (form == null) throw new StepFailedException("No form '" + formId + "' on " + page.getUri().getPath());
+        return form;
+    }
+
+    private Page post(URI target, Map<String, String> fields, boolean partial)
+            throws IOException, InterruptedException, StepFailedException {
+        StringJoiner body = new StringJoiner("&");
+        for (Map.Entry<String, String> f : fields.entrySet()) {
+            body.add(URLEncoder.encode(f.getKey(), StandardCharsets.UTF_8) + "="
+                    + URLEncoder.encode(f.getValue(), StandardCharsets.UTF_8));
+        }
+        HttpRequest.Builder req = HttpRequest.newBuilder(target)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (partial) {
+            req.header("Faces-Request", "partial/ajax").header("X-Requested-With", "XMLHttpRequest");
+        }
+        return send(req);
+    }
+
+    private Page send(HttpRequest.Builder req) throws IOException, InterruptedException, StepFailedException {
+        for (int hop = 0; ; hop++) {
+            req.timeout(timeout);
+            addCookies(req);
+            HttpRequest sent = req.build();
+            HttpResponse<String> res = http.send(sent, HttpResponse.BodyHandlers.ofString());
+            keepCookies(res);
+            int status = res.statusCode();
+            if (status >= 300 && status < 400 && hop < MAX_REDIRECTS) {
+                String location = res.headers().firstValue("Location").orElse(null);
+                if (location == null) throw new StepFailedException(status + " without Location from " + sent.uri());
+                req = HttpRequest.newBuilder(sent.uri().resolve(location)).GET();
+                continue;
+            }
+            if (status >= 400) throw new StepFailedException(status + " from " + sent.uri().getPath());
+            return new Page(sent.uri(), status, res.body());
+        }
+    }
+
+    private void addCookies(HttpRequest.Builder req) {
+        if (cookies.isEmpty()) return;
+        StringJoiner header = new StringJoiner("; ");
+        cookies.forEach((name, value) -> header.add(name + "=" + value));
+        req.setHeader("Cookie", header.toString());
+    }
+
+    private void keepCookies(HttpResponse<?> res) {
+        for (String set : res.headers().allValues("Set-Cookie")) {
+            int semi = set.indexOf(';');
+            String pair = semi < 0 ? set : set.substring(0, semi);
+            int eq = pair.indexOf('=');
+            if (eq > 0) cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+        }
+    }
+}
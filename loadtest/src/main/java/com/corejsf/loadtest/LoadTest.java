@@ -0,0 +1,76 @@
+package com.corejsf.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Reproduces the Monday-morning peak against a running server and reports per-step
+* throughput and latency percentiles, compared with a stored baseline.
+* <p>
+* Typical local run:
+* <ol>
+* <li>create the schema from <code>sql/Assignment 2.sql</code> in a local MySQL;</li>
+* <li>seed it: <code>java -cp target/timesheet-loadtest.jar com.corejsf.loadtest.SeedGenerator
+*     employees=1000 weeks=104 rows=5 out=target/seed.sql</code>, then
+*     <code>mysql timesheets &lt; target/seed.sql</code>;</li>
+* <li>start the WAR on a local WildFly (<code>mvn wildfly:run</code> in the project root);</li>
+* <li><code>java -jar target/timesheet-loadtest.jar monday-peak.properties</code>, adding
+*     <code>key=value</code> overrides as needed (see {@link Settings}).</li>
+* </ol>
+* Users start spread over <code>rampSeconds</code>; after <code>warmupSeconds</code> more,
+* <code>durationSeconds</code> are measured. The results are written to <code>results</code>.
+* If <code>baseline</code> exists every step is compared with it and the process exits
+* with status 2 on a regression; <code>saveBaseline=true</code> stores this run as the
+* new baseline. Record baselines on the same machine and data set as later runs.
+*/
+public final class LoadTest {
+
+    private LoadTest() { }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        Recorder rec = new Recorder();
+        HttpClient http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long now = System.nanoTime();
+        long measureAt = now + TimeUnit.SECONDS.toNanos(settings.rampSeconds + settings.warmupSeconds);
+        long stopAt = measureAt + TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+        long rampStep = TimeUnit.SECONDS.toNanos(settings.rampSeconds) / settings.users;
+
+        System.out.printf("%d users against %s: %ds ramp, %ds warm-up, %ds measured%n",
+                settings.users, settings.baseUrl, settings.rampSeconds, settings.warmupSeconds,
+                settings.durationSeconds);
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.users; i++) {
+                users.execute(new VirtualUser(settings, http, rec, i, now + i * rampStep, stopAt));
+            }
+            Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(measureAt - System.nanoTime())));
+            rec.startMeasuring();
+            System.out.println("Measuring...");
+            Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(stopAt - System.nanoTime())));
+            List<StepStats.Summary> results = rec.summarize(VirtualUser.STEPS);
+            users.shutdownNow();
+
+            Report report = new Report(settings);
+            report.print(results);
+            report.write(results, settings.results);
+            boolean regressed = Files.exists(settings.baseline) && report.compare(results, settings.baseline);
+            if (settings.saveBaseline) {
+                if (settings.baseline.getParent() != null) Files.createDirectories(settings.baseline.getParent());
+                Files.copy(settings.results, settings.baseline, StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("Baseline saved to " + settings.baseline);
+            }
+            if (regressed) System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.corejsf.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+* Times scenario steps into per-step {@link StepStats}. Nothing is recorded until
+* {@link #startMeasuring()}, so the warm-up does not skew the results.
+*/
+final class Recorder {
+
+    /** A timed unit of work. */
+    @FunctionalInterface
+    interface Step<T> {
+        T run() throws Exception;
+    }
+
+    private final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+    private volatile long measuringSince;
+
+    void startMeasuring() {
+        measuringSince = System.nanoTime();
+        measuring = true;
+    }
+
+    /** @return seconds since {@link #startMeasuring()} */
+    double measuredSeconds() {
+        return measuring ? (System.nanoTime() - measuringSince) / 1e9 : 0;
+    }
+
+    /**
+    * Run and time one step. A failure is counted against the step and rethrown, so the
+    * scenario stops like a user would on an error page.
+    */
+    <T> T time(String name, Step<T> step) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = step.run();
+            if (measuring) stats(name).record((System.nanoTime() - start) / 1000);
+            return result;
+        } catch (InterruptedException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            if (measuring) stats(name).error();
+            throw ex;
+        }
+    }
+
+    /** @param order step names in report order; unknown steps follow alphabetically */
+    List<StepStats.Summary> summarize(List<String> order) {
+        double seconds = measuredSeconds();
+        List<String> names = new ArrayList<>(order);
+        steps.keySet().stream().filter(n -> !order.contains(n)).sorted().forEach(names::add);
+        List<StepStats.Summary> out = new ArrayList<>();
+        for (String n : names) {
+            StepStats s = steps.get(n);
+            if (s != null) out.add(s.summarize(seconds));
+        }
+        return out;
+    }
+
+    private StepStats stats(String name) {
+        return steps.computeIfAbsent(name, StepStats::new);
+    }
+}
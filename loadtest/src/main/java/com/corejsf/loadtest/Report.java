@@ -0,0 +1,110 @@
+package com.corejsf.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+* Prints, stores and compares run results.
+* <p>
+* Results are a flat properties file (<code>&lt;step&gt;.p95=...</code>), so a baseline can
+* be checked in and diffed like any other file. A step regresses when its p95 is more than
+* <code>tolerancePct</code> slower, its throughput more than <code>tolerancePct</code>
+* lower, or its error rate higher than in the baseline.
+*/
+final class Report {
+
+    private final Settings settings;
+
+    Report(Settings settings) {
+        this.settings = settings;
+    }
+
+    void print(List<StepStats.Summary> results) {
+        System.out.printf(Locale.ROOT, "%n%-16s %8s %6s %8s %9s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        for (StepStats.Summary s : results) {
+            System.out.printf(Locale.ROOT, "%-16s %8d %6d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    s.step, s.count, s.errors, s.throughput, s.p50, s.p90, s.p95, s.p99, s.max);
+        }
+    }
+
+    void write(List<StepStats.Summary> results, Path file) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("run.at", Instant.now().toString());
+        p.setProperty("run.users", String.valueOf(settings.users));
+        p.setProperty("run.durationSeconds", String.valueOf(settings.durationSeconds));
+        p.setProperty("run.mix", settings.mixSubmit + "/" + settings.mixView + "/" + settings.mixAdmin);
+        for (StepStats.Summary s : results) {
+            p.setProperty(s.step + ".count", String.valueOf(s.count));
+            p.setProperty(s.step + ".errors", String.valueOf(s.errors));
+            p.setProperty(s.step + ".throughput", num(s.throughput));
+            p.setProperty(s.step + ".p50", num(s.p50));
+            p.setProperty(s.step + ".p90", num(s.p90));
+            p.setProperty(s.step + ".p95", num(s.p95));
+            p.setProperty(s.step + ".p99", num(s.p99));
+            p.setProperty(s.step + ".max", num(s.max));
+        }
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            p.store(w, "Load test results");
+        }
+        System.out.println("\nResults written to " + file);
+    }
+
+    /** @return true if any step regressed against the baseline */
+    boolean compare(List<StepStats.Summary> results, Path baselineFile) throws IOException {
+        Properties base = new Properties();
+        try (Reader r = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            base.load(r);
+        }
+        if (!String.valueOf(settings.users).equals(base.getProperty("run.users"))) {
+            System.out.println("Note: baseline was recorded with " + base.getProperty("run.users") + " users");
+        }
+        double tol = settings.tolerancePct / 100.0;
+        boolean regressed = false;
+        System.out.printf(Locale.ROOT, "%nAgainst %s (%s):%n%-16s %10s %10s %8s %10s %10s %8s%n",
+                baselineFile, base.getProperty("run.at", "?"),
+                "step", "p95 base", "p95 now", "delta", "req/s base", "req/s now", "delta");
+        for (StepStats.Summary s : results) {
+            String p95 = base.getProperty(s.step + ".p95");
+            if (p95 == null) {
+                System.out.printf(Locale.ROOT, "%-16s (not in baseline)%n", s.step);
+                continue;
+            }
+            double baseP95 = Double.parseDouble(p95);
+            double baseTput = Double.parseDouble(base.getProperty(s.step + ".throughput", "0"));
+            long baseCount = Long.parseLong(base.getProperty(s.step + ".count", "0"));
+            long baseErrors = Long.parseLong(base.getProperty(s.step + ".errors", "0"));
+            boolean slower = s.p95 > baseP95 * (1 + tol);
+            boolean fewer = s.throughput < baseTput * (1 - tol);
+            boolean failing = rate(s.errors, s.count) > rate(baseErrors, baseCount);
+            String flag = slower || fewer || failing ? "  REGRESSION" + (failing ? " (errors)" : "") : "";
+            regressed |= !flag.isEmpty();
+            System.out.printf(Locale.ROOT, "%-16s %10.1f %10.1f %7s %10.1f %10.1f %7s%s%n",
+                    s.step, baseP95, s.p95, pct(s.p95, baseP95), baseTput, s.throughput,
+                    pct(s.throughput, baseTput), flag);
+        }
+        System.out.println(regressed ? "\nREGRESSED (tolerance " + settings.tolerancePct + "%)" : "\nWithin baseline");
+        return regressed;
+    }
+
+    private static double rate(long errors, long count) {
+        return errors + count == 0 ? 0 : (double) errors / (errors + count);
+    }
+
+    private static String pct(double now, double base) {
+        return base == 0 ? "n/a" : String.format(Locale.ROOT, "%+.0f%%", (now - base) / base * 100);
+    }
+
+    private static String num(double v) {
+        return String.format(Locale.ROOT, "%.2f", v);
+    }
+}
@@ -0,0 +1,160 @@
+package com.corejsf.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+* Writes a SQL script that seeds N employees &times; M past weeks &times; R rows per sheet
+* into a schema created from <code>sql/Assignment 2.sql</code>:
+* <pre>
+* java -cp timesheet-loadtest.jar com.corejsf.loadtest.SeedGenerator \
+*      employees=1000 weeks=104 rows=5 out=seed.sql
+* mysql timesheets &lt; seed.sql
+* </pre>
+* Employees are <code>userPrefix1..N</code> with password <code>password</code> (default
+* <code>load123</code>, the same default as the load test's <code>password</code> setting;
+* stored as the application stores it). Ids start at <code>idBase</code> / <code>sheetIdBase</code> so
+* the seed can go into a database that already has a few hand-made users. Each week has
+* 36 to 44 hours spread over Monday to Friday and the rows; the overtime/flextime columns
+* and <code>employee_balances</code> follow the same 40-hour rule as <code>BalanceEngine</code>.
+* The current week is left out, so the first visit of each user creates it, as on a real
+* Monday morning. Output is deterministic for a given <code>seed</code>.
+*/
+public final class SeedGenerator {
+
+    /** Rows per multi-row INSERT. */
+    private static final int CHUNK = 1000;
+
+    /** A full week in decihours (see BalanceEngine). */
+    private static final int FULL_WEEK_DECI = 400;
+
+    private SeedGenerator() { }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> a = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) a.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int employees = Integer.parseInt(a.getOrDefault("employees", "1000"));
+        int weeks = Integer.parseInt(a.getOrDefault("weeks", "52"));
+        int rows = Math.max(1, Integer.parseInt(a.getOrDefault("rows", "5")));
+        long idBase = Long.parseLong(a.getOrDefault("idBase", "100000"));
+        long sheetIdBase = Long.parseLong(a.getOrDefault("sheetIdBase", "100000000"));
+        String prefix = a.getOrDefault("userPrefix", "load");
+        String password = a.getOrDefault("password", "load123");
+        Path out = Path.of(a.getOrDefault("out", "seed.sql"));
+        Random rnd = new Random(Long.parseLong(a.getOrDefault("seed", "42")));
+
+        LocalDate thisFriday = LocalDate.now().with(DayOfWeek.FRIDAY);
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write("-- " + employees + " employees x " + weeks + " weeks x " + rows + " rows, generated by SeedGenerator\n");
+            w.write("SET foreign_key_checks = 0;\nSET unique_checks = 0;\nSET autocommit = 0;\n\n");
+
+            Inserts emp = new Inserts(w, "INSERT INTO employees (employee_id, name, emp_number, user_name, role) VALUES ");
+            Inserts cred = new Inserts(w, "INSERT INTO credentials (employee_id, password_hash) VALUES ");
+            for (int n = 1; n <= employees; n++) {
+                long id = idBase + n;
+                emp.add("(" + id + ",'Load User " + n + "'," + id + ",'" + prefix + n + "','USER')");
+                cred.add("(" + id + ",'" + password.replace("'", "''") + "')");
+            }
+            emp.flush();
+            cred.flush();
+
+            Inserts sheets = new Inserts(w, "INSERT INTO timesheets (timesheet_id, employee_id, end_date, overtime_deci, flextime_deci) VALUES ");
+            Inserts lines = new Inserts(w, "INSERT INTO timesheet_rows (timesheet_id, line_no, project_id, work_package_id, packed_hours, notes) VALUES ");
+            Inserts balances = new Inserts(w, "INSERT INTO employee_balances (employee_id, overtime_deci, flextime_deci) VALUES ");
+            long sheetId = sheetIdBase;
+            int[][] deci = new int[rows][7];
+            for (int n = 1; n <= employees; n++) {
+                long empId = idBase + n;
+                long overtime = 0;
+                long flextime = 0;
+                for (int k = weeks; k >= 1; k--) {
+                    int total = fillWeek(rnd, deci);
+                    int delta = total - FULL_WEEK_DECI;
+                    overtime += Math.max(delta, 0);
+                    flextime += Math.min(delta, 0);
+                    sheetId++;
+                    sheets.add("(" + sheetId + "," + empId + ",'" + thisFriday.minusWeeks(k) + "',"
+                            + Math.max(delta, 0) + "," + Math.min(delta, 0) + ")");
+                    for (int r = 0; r < rows; r++) {
+                        lines.add("(" + sheetId + "," + (r + 1) + "," + (100 + r) + ",'WP" + (r + 1) + "',"
+                                + Long.toUnsignedString(pack(deci[r])) + ",NULL)");
+                    }
+                }
+                balances.add("(" + empId + "," + overtime + "," + flextime + ")");
+            }
+            sheets.flush();
+            lines.flush();
+            balances.flush();
+
+            // Keep EmpNumberAllocator clear of the seeded numbers
+            w.write("INSERT INTO id_sequences (name, next_val) VALUES ('emp_number'," + (idBase + employees + 1) + ")\n"
+                    + "  ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));\n\n");
+            w.write("COMMIT;\nSET unique_checks = 1;\nSET foreign_key_checks = 1;\n");
+        }
+        System.out.printf("Wrote %s: %d employees, %d sheets, %d rows%n", out, employees,
+                (long) employees * weeks, (long) employees * weeks * rows);
+    }
+
+    /**
+    * Spread 36..44 hours (in half hours) over Monday to Friday and the rows.
+    *
+    * @return weekly total in decihours
+    */
+    private static int fillWeek(Random rnd, int[][] deci) {
+        for (int[] row : deci) Arrays.fill(row, 0);
+        int halfHours = 72 + rnd.nextInt(17);
+        for (int h = 0; h < halfHours; h++) {
+            int day = 2 + (h % 5);
+            deci[rnd.nextInt(deci.length)][day] += 5;
+        }
+        return halfHours * 5;
+    }
+
+    /** Same layout as TimeSheetRepo.packHours: one byte of decihours per day, Saturday first. */
+    private static long pack(int[] deci) {
+        long v = 0L;
+        for (int d = 0; d < 7; d++) v |= ((long) Math.min(deci[d], 255) & 0xFFL) << (d * 8);
+        return v;
+    }
+
+    /**
+    * Multi-row INSERT writer, {@value #CHUNK} rows per statement. Statements are buffered
+    * whole, so several tables can be filled in an interleaved loop.
+    */
+    private static final class Inserts {
+        private final BufferedWriter w;
+        private final String head;
+        private final StringBuilder sql = new StringBuilder();
+        private int pending;
+
+        Inserts(BufferedWriter w, String head) {
+            this.w = w;
+            this.head = head;
+        }
+
+        void add(String values) throws IOException {
+            sql.append(pending == 0 ? head + "\n  " : ",\n  ").append(values);
+            if (++pending == CHUNK) flush();
+        }
+
+        void flush() throws IOException {
+            if (pending == 0) return;
+            w.append(sql).append(";\n");
+            sql.setLength(0);
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.corejsf.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+* Run parameters: a scenario file (see <code>monday-peak.properties</code>) with
+* <code>key=value</code> command-line overrides on top.
+*/
+final class Settings {
+
+    /** Application root, ending in '/'. */
+    final URI baseUrl;
+
+    /** Concurrent virtual users at the peak. */
+    final int users;
+    /** Users start evenly spread over this many seconds. */
+    final int rampSeconds;
+    /** Seconds after the ramp that are not measured. */
+    final int warmupSeconds;
+    /** Measured seconds. */
+    final int durationSeconds;
+    /** Mean pause between steps (a user reading the page), +/- 50%. */
+    final long thinkMillis;
+    final Duration requestTimeout;
+
+    /** Scenario weights. */
+    final int mixSubmit;
+    final int mixView;
+    final int mixAdmin;
+
+    /** Seeded employees are <code>userPrefix1 .. userPrefixN</code> (see {@link SeedGenerator}). */
+    final String userPrefix;
+    final int userCount;
+    final String password;
+    final String adminUser;
+    final String adminPassword;
+
+    /** Where the results of this run are written. */
+    final Path results;
+    /** Results to compare against; ignored if the file does not exist. */
+    final Path baseline;
+    /** Store this run as the new baseline. */
+    final boolean saveBaseline;
+    /** Allowed slowdown of p95 and drop in throughput, in percent, before a step regresses. */
+    final double tolerancePct;
+
+    private Settings(Properties p) {
+        String url = p.getProperty("baseUrl", "http://localhost:8080/");
+        baseUrl = URI.create(url.endsWith("/") ? url : url + "/");
+        users = Math.max(1, Integer.parseInt(p.getProperty("users", "50")));
+        rampSeconds = Math.max(0, Integer.parseInt(p.getProperty("rampSeconds", "60")));
+        warmupSeconds = Math.max(0, Integer.parseInt(p.getProperty("warmupSeconds", "30")));
+        durationSeconds = Math.max(1, Integer.parseInt(p.getProperty("durationSeconds", "300")));
+        thinkMillis = Math.max(0, Long.parseLong(p.getProperty("thinkMillis", "2000")));
+        requestTimeout = Duration.ofSeconds(Long.parseLong(p.getProperty("requestTimeoutSeconds", "30")));
+        mixSubmit = Math.max(0, Integer.parseInt(p.getProperty("mix.submit", "70")));
+        mixView = Math.max(0, Integer.parseInt(p.getProperty("mix.view", "25")));
+        mixAdmin = Math.max(0, Integer.parseInt(p.getProperty("mix.admin", "5")));
+        userPrefix = p.getProperty("userPrefix", "load");
+        userCount = Math.max(1, Integer.parseInt(p.getProperty("userCount", "1000")));
+        password = p.getProperty("password", "load123");
+        adminUser = p.getProperty("adminUser", "admin");
+        adminPassword = p.getProperty("adminPassword", "admin123");
+        results = Path.of(p.getProperty("results", "target/loadtest-results.properties"));
+        baseline = Path.of(p.getProperty("baseline", "baseline.properties"));
+        saveBaseline = Boolean.parseBoolean(p.getProperty("saveBaseline", "false"));
+        tolerancePct = Double.parseDouble(p.getProperty("tolerancePct", "10"));
+        if (mixSubmit + mixView + mixAdmin == 0) throw new IllegalArgumentException("mix.* weights are all 0");
+    }
+
+    /**
+    * @param args optional scenario file first, then <code>key=value</code> overrides
+    */
+    static Settings parse(String[] args) throws IOException {
+        Properties p = new Properties();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) {
+                p.setProperty(a.substring(0, eq), a.substring(eq + 1));
+            } else {
+                Properties file = new Properties();
+                try (Reader r = Files.newBufferedReader(Path.of(a), StandardCharsets.UTF_8)) {
+                    file.load(r);
+                }
+                file.forEach(p::putIfAbsent);
+            }
+        }
+        return new Settings(p);
+    }
+
+    /** @return user name of seeded employee {@code n} (1-based) */
+    String userName(int n) {
+        return userPrefix + n;
+    }
+}
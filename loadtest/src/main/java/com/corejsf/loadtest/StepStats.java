@@ -0,0 +1,72 @@
+package com.corejsf.loadtest;
+
+import java.util.Arrays;
+
+/**
+* Latency samples and error count of one scenario step.
+* <p>
+* All samples are kept (microseconds, 8 bytes each), so percentiles are exact; an hour at
+* a few hundred requests per second stays well under 100 MB.
+*/
+final class StepStats {
+
+    private final String name;
+    private long[] micros = new long[4096];
+    private int count;
+    private long errors;
+
+    /** Percentiles of a finished run, in milliseconds. */
+    static final class Summary {
+        final String step;
+        final long count;
+        final long errors;
+        final double throughput;
+        final double p50;
+        final double p90;
+        final double p95;
+        final double p99;
+        final double max;
+
+        Summary(String step, long count, long errors, double throughput,
+                double p50, double p90, double p95, double p99, double max) {
+            this.step = step;
+            this.count = count;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+
+    StepStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long elapsedMicros) {
+        if (count == micros.length) micros = Arrays.copyOf(micros, count * 2);
+        micros[count++] = elapsedMicros;
+    }
+
+    synchronized void error() {
+        errors++;
+    }
+
+    /** @param seconds length of the measured window, for throughput */
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(micros, count);
+        Arrays.sort(sorted);
+        return new Summary(name, count, errors, seconds > 0 ? count / seconds : 0,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 95), percentile(sorted, 99),
+                count == 0 ? 0 : sorted[count - 1] / 1000.0);
+    }
+
+    /** Nearest-rank percentile, in milliseconds. */
+    private static double percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+}
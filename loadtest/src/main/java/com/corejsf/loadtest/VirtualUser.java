@@ -0,0 +1,223 @@
+package com.corejsf.loadtest;
+
+import java.net.http.HttpClient;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+* One simulated person. Each iteration is a fresh browser session running one scenario,
+* picked by the <code>mix.*</code> weights:
+* <ul>
+* <li><b>submit</b>: login, open the current sheet, edit it (one autosave), save, logout;</li>
+* <li><b>view</b>: login, open the current sheet, logout;</li>
+* <li><b>admin</b>: login as admin, users dashboard, next page, name search, logout.</li>
+* </ul>
+* Virtual user <i>i</i> always acts as seeded employee <i>i mod userCount</i>, so two
+* users never edit the same sheet unless there are more users than employees.
+*/
+final class VirtualUser implements Runnable {
+
+    /** Report order of the steps. */
+    static final List<String> STEPS = List.of(
+            "login-page", "login", "open-sheet", "open-edit", "autosave", "save",
+            "admin-dashboard", "admin-page", "admin-search", "logout");
+
+    private static final Pattern SHEET_ID = Pattern.compile("data-ts=\"(\\d+)\"");
+    private static final Pattern ROW_0 = Pattern.compile(":0:");
+
+    private final Settings settings;
+    private final HttpClient http;
+    private final Recorder rec;
+    private final String userName;
+    private final long startAtNanos;
+    private final long stopAtNanos;
+
+    VirtualUser(Settings settings, HttpClient http, Recorder rec, int index, long startAtNanos, long stopAtNanos) {
+        this.settings = settings;
+        this.http = http;
+        this.rec = rec;
+        this.userName = settings.userName(index % settings.userCount + 1);
+        this.startAtNanos = startAtNanos;
+        this.stopAtNanos = stopAtNanos;
+    }
+
+    @Override
+    public void run() {
+        try {
+            sleepNanos(startAtNanos - System.nanoTime());
+            while (System.nanoTime() < stopAtNanos) {
+                JsfSession s = new JsfSession(http, settings.baseUrl, settings.requestTimeout);
+                try {
+                    int pick = ThreadLocalRandom.current().nextInt(
+                            settings.mixSubmit + settings.mixView + settings.mixAdmin);
+                    if (pick < settings.mixSubmit) {
+                        submit(s);
+                    } else if (pick < settings.mixSubmit + settings.mixView) {
+                        view(s);
+                    } else {
+                        admin(s);
+                    }
+                } catch (InterruptedException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    // Counted by the recorder; start over with a new session, as a user would
+                    think();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------- Scenarios ----------------
+
+    private void submit(JsfSession s) throws Exception {
+        JsfSession.Page page = login(s, userName, settings.password);
+        page = openSheet(s, page);
+        JsfSession.Page view = page;
+        page = rec.time("open-edit", () -> {
+            JsfSession.Page edit = s.submit(view, "actions", "Edit", Map.of());
+            if (!edit.isAt("timesheet-edit.xhtml")) throw new JsfSession.StepFailedException("Edit did not open the sheet");
+            return edit;
+        });
+        think();
+
+        String[] hours = weekOfHours();
+        Matcher id = SHEET_ID.matcher(page.getBody());
+        if (id.find()) {
+            String json = draftJson(Long.parseLong(id.group(1)), hours);
+            rec.time("autosave", () -> {
+                int status = s.postJson("draft", json);
+                if (status != 204) throw new JsfSession.StepFailedException("Autosave answered " + status);
+                return null;
+            });
+            think();
+        }
+
+        JsfSession.Page edit = page;
+        Map<String, String> typed = typedValues(HtmlForm.find(edit.getBody(), "editForm"), hours);
+        page = rec.time("save", () -> {
+            JsfSession.Page saved = s.submit(edit, "editForm", "Save", typed);
+            if (!saved.isAt("timesheet-view.xhtml")) throw new JsfSession.StepFailedException("Save was rejected");
+            return saved;
+        });
+        think();
+        logout(s, page);
+    }
+
+    private void view(JsfSession s) throws Exception {
+        JsfSession.Page page = login(s, userName, settings.password);
+        page = openSheet(s, page);
+        think();
+        logout(s, page);
+    }
+
+    private void admin(JsfSession s) throws Exception {
+        JsfSession.Page home = login(s, settings.adminUser, settings.adminPassword);
+        JsfSession.Page page = rec.time("admin-dashboard", () -> {
+            JsfSession.Page dash = s.clickLink(home, "Admin Dashboard");
+            if (!dash.isAt("adminDashboard.xhtml")) throw new JsfSession.StepFailedException("Not an admin");
+            return dash;
+        });
+        think();
+        String table = "tblForm:usersTable";
+        rec.time("admin-page", () -> s.ajax(page, "tblForm", table, Map.of(
+                "jakarta.faces.partial.execute", table,
+                "jakarta.faces.partial.render", table,
+                table + "_pagination", "true",
+                table + "_first", "25",
+                table + "_rows", "25",
+                table + "_skipChildren", "true",
+                table + "_encodeFeature", "true")));
+        think();
+        String prefix = settings.userPrefix + ThreadLocalRandom.current().nextInt(1, 10);
+        rec.time("admin-search", () -> s.ajax(page, "tblForm", table, Map.of(
+                "jakarta.faces.partial.execute", table,
+                "jakarta.faces.partial.render", table,
+                table + "_filtering", "true",
+                table + "_encodeFeature", "true",
+                "tblForm:usersTable:globalFilter", prefix)));
+        think();
+        logout(s, page);
+    }
+
+    // ---------------- Steps ----------------
+
+    private JsfSession.Page login(JsfSession s, String user, String password) throws Exception {
+        JsfSession.Page form = rec.time("login-page", () -> s.get("login.xhtml"));
+        think();
+        return rec.time("login", () -> {
+            JsfSession.Page home = s.submit(form, "loginForm", "Sign in",
+                    Map.of("loginForm:user", user, "loginForm:pw", password));
+            if (!home.isAt("dashboard.xhtml")) throw new JsfSession.StepFailedException("Login failed for " + user);
+            return home;
+        });
+    }
+
+    private JsfSession.Page openSheet(JsfSession s, JsfSession.Page home) throws Exception {
+        think();
+        return rec.time("open-sheet", () -> {
+            JsfSession.Page view = s.clickLink(home, "Current Time Sheet");
+            if (!view.isAt("timesheet-view.xhtml")) throw new JsfSession.StepFailedException("No current sheet");
+            return view;
+        });
+    }
+
+    private void logout(JsfSession s, JsfSession.Page page) throws Exception {
+        rec.time("logout", () -> s.clickLink(page, "Logout"));
+        think();
+    }
+
+    // ---------------- Helpers ----------------
+
+    /** @return Saturday..Friday hours of the first row: 7 to 9 hours on weekdays */
+    private static String[] weekOfHours() {
+        String[] hours = new String[7];
+        for (int d = 0; d < 7; d++) {
+            hours[d] = d < 2 ? "" : String.format(Locale.ROOT, "%.1f",
+                    7 + ThreadLocalRandom.current().nextInt(5) * 0.5);
+        }
+        return hours;
+    }
+
+    /** Fill the first grid row the way a user would type it. */
+    private static Map<String, String> typedValues(HtmlForm form, String[] hours) throws JsfSession.StepFailedException {
+        if (form == null) throw new JsfSession.StepFailedException("No edit form");
+        Map<String, String> typed = new HashMap<>();
+        for (Map<String, String> in : form.getInputs()) {
+            String name = in.get("name");
+            String css = in.getOrDefault("class", "");
+            if (name == null || !ROW_0.matcher(name).find()) continue;
+            if (css.contains("hrs")) {
+                typed.put(name, hours[Integer.parseInt(in.getOrDefault("data-day", "0"))]);
+            } else if (css.contains("proj")) {
+                typed.put(name, "1");
+            } else if (css.contains("wp")) {
+                typed.put(name, "LT");
+            }
+        }
+        return typed;
+    }
+
+    private static String draftJson(long sheetId, String[] hours) {
+        StringBuilder h = new StringBuilder();
+        for (String v : hours) h.append(h.length() == 0 ? "" : ",").append('"').append(v).append('"');
+        return "{\"timesheetId\":" + sheetId + ",\"rows\":[{\"project\":\"1\",\"wp\":\"LT\",\"hours\":["
+                + h + "],\"notes\":\"\"}]}";
+    }
+
+    private void think() throws InterruptedException {
+        if (settings.thinkMillis == 0) return;
+        long ms = settings.thinkMillis / 2 + ThreadLocalRandom.current().nextLong(settings.thinkMillis + 1);
+        Thread.sleep(ms);
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+    }
+}
@@ -22,27 +22,63 @@ import ca.bcit.infosys.employee.*;
  */
 @Named("adminUserBean")
 @ConversationScoped
+@ConversationTracked
 public class AdminUserBean implements Serializable{
 	
     /** Repository for managing employees and credentials. */
 	@Inject
-	private EmployeeRepo employees;
+	private EmployeeStore employees;
+
+	/** Engine that rebuilds overtime/flextime balances. */
+	@Inject
+	private BalanceEngine balanceEngine;
+
+	/** Background remover of deleted employees' history. */
+	@Inject
+	private EmployeePurger purger;
+
+	/** Mover of closed years to the archive tables. */
+	@Inject
+	private TimesheetArchiver archiver;
+
+	/** Weekly bulk creation of next week's sheets. */
+	@Inject
+	private WeeklySheetPrecreator precreator;
+
+	/** Monday reminders for last week's missing or empty sheets. */
+	@Inject
+	private MissingTimesheetReminder reminders;
 	
 	/** CDI conversation used to maintain state during multi-step operations. */
 	@Inject
 	private Conversation conversation;
+
+	/** Asynchronous audit trail for admin actions. */
+	@Inject
+	private AuditLog audit;
+
+	/** Circuit breaker and bulkheads around database access. */
+	@Inject
+	private DbGuard dbGuard;
+
+	/** Session user, recorded as the actor of audited actions. */
+	@Inject
+	private CurrentUser currentUser;
 	
 	/** Full name of the new employee being added. */
 	private String name;
 	
-	/** Employee number for the new user (auto-incremented if zero). */
-	private int empNumber;
+	/** Employee number for the new user; {@code null} to have one assigned on save. */
+	private Integer empNumber;
 	
 	/** Username for login credentials. */
 	private String userName;
 	
 	/** Whether the new employee should be created as an administrator. */
 	private boolean admin;
+
+	/** Lazy, paged directory backing the users table. */
+	private EmployeeLazyModel employeeModel;
 	
 	/** @return employee full name */
 	public String getName() {
@@ -54,13 +90,13 @@ public class AdminUserBean implements Serializable{
         this.name = name;
     }
 
-    /** @return employee number */
-    public int getEmpNumber() {
+    /** @return employee number, or {@code null} if it is assigned on save */
+    public Integer getEmpNumber() {
         return empNumber;
     }
 
-    /** @param empNumber sets the employee number */
-    public void setEmpNumber(int empNumber) {
+    /** @param empNumber sets the employee number; {@code null} or 0 assigns one on save */
+    public void setEmpNumber(Integer empNumber) {
         this.empNumber = empNumber;
     }
 
@@ -87,14 +123,10 @@ public class AdminUserBean implements Serializable{
     /**
      * Starts a conversation if not already active.
      * <p>Ensures a consistent bean state across multiple page requests.</p>
-     * <p>Also assigns a new employee number if none is set yet.</p>
      */
 	public void start(){
 		if (conversation.isTransient()) {
 			conversation.begin();
-        }
-		if (empNumber == 0) {
-            empNumber = employees.nextEmpNumber();
         }
 	}
 	
@@ -110,21 +142,33 @@ public class AdminUserBean implements Serializable{
 	
 	/**
      * Retrieves the list of all employees in the system.
-     * <p>Begins a conversation before returning the list.</p>
+     * <p>Loads the full table; the dashboard uses {@link #getEmployeeModel()} instead.</p>
      *
      * @return list of all {@link Employee} objects
      */
 	public List<Employee> getEmployees(){
-		start();
 		return employees.getEmployees();
 	}
+
+	/**
+     * Returns the lazy data model for the paged, sortable, searchable users table.
+     * <p>Only the visible page is queried; the total count is cached by {@link EmployeeRepo}.</p>
+     *
+     * @return the directory model
+     */
+	public EmployeeLazyModel getEmployeeModel() {
+		if (employeeModel == null) {
+			employeeModel = new EmployeeLazyModel(employees);
+		}
+		return employeeModel;
+	}
 	
 	/**
      * Clears all form fields used when adding a new employee.
      */
 	private void clearForm() {
         name = "";
-        empNumber = 0;
+        empNumber = null;
         userName = "";
         admin = false;
     }
@@ -141,9 +185,11 @@ public class AdminUserBean implements Serializable{
 		try{
 			Employee e = admin ? new Admin() : new User();
 			e.setName(name);
-			e.setEmpNumber(empNumber);
+			// 0 has EmployeeRepo allocate the number, so only saved employees use one up
+			e.setEmpNumber(empNumber == null ? 0 : empNumber);
 			e.setUserName(userName);
 			employees.addEmployee(e);
+			audit.record(actor(), AuditLog.EMPLOYEE_ADD, userName, true);
 			
 			FacesContext.getCurrentInstance().addMessage(null,
                 new FacesMessage(FacesMessage.SEVERITY_INFO,
@@ -152,6 +198,7 @@ public class AdminUserBean implements Serializable{
 			clearForm();
 			
 		}catch (Exception ex) {
+			audit.record(actor(), AuditLog.EMPLOYEE_ADD, userName, false);
             FacesContext.getCurrentInstance().addMessage(null,
                 new FacesMessage(FacesMessage.SEVERITY_ERROR, "Error", ex.getMessage()));
         }
@@ -175,8 +222,10 @@ public class AdminUserBean implements Serializable{
         }
 		
         employees.deleteEmployee(emp);
+        audit.record(actor(), AuditLog.EMPLOYEE_DELETE, emp.getUserName(), true);
         FacesContext.getCurrentInstance().addMessage(null,
-            new FacesMessage(FacesMessage.SEVERITY_INFO, emp.getUserName() + " deleted.", null));
+            new FacesMessage(FacesMessage.SEVERITY_INFO,
+                    emp.getUserName() + " deleted; their timesheet history is being removed in the background.", null));
 	}
 	
 	/**
@@ -196,7 +245,104 @@ public class AdminUserBean implements Serializable{
      */
 	public void resetPassword(Employee emp){
 		employees.changePassword(emp.getUserName(), "password");
+		audit.record(actor(), AuditLog.PASSWORD_RESET, emp.getUserName(), true);
+	}
+
+	/**
+     * Starts a background rebuild of all overtime/flextime balances.
+     *
+     * <p>Used after the balance rules change. Employees are recomputed in parallel;
+     * the action returns immediately.</p>
+     */
+	public void recomputeBalances() {
+		balanceEngine.recomputeAll();
+		FacesContext.getCurrentInstance().addMessage(null,
+            new FacesMessage(FacesMessage.SEVERITY_INFO, "Balance recompute started.", null));
+	}
+
+	/**
+     * Starts moving closed years to the archive tables in the background.
+     * Normally done nightly; useful right after a large historical import.
+     */
+	public void archiveClosedYears() {
+		if (archiver.isRunning()) {
+			FacesContext.getCurrentInstance().addMessage(null,
+	            new FacesMessage(FacesMessage.SEVERITY_WARN, "Archiving is already running.", null));
+			return;
+		}
+		archiver.archiveAsync();
+		FacesContext.getCurrentInstance().addMessage(null,
+            new FacesMessage(FacesMessage.SEVERITY_INFO,
+                    "Archiving timesheets ending before " + archiver.cutoff() + ".", null));
+	}
+
+	/**
+     * Creates next week's sheets for every employee who has none yet, copying each
+     * employee's projects forward (set-based, one transaction).
+     */
+	public void precreateNextWeek() {
+		int created = precreator.run();
+		FacesContext.getCurrentInstance().addMessage(null,
+            new FacesMessage(FacesMessage.SEVERITY_INFO,
+                    created + " timesheets created for the week ending " + precreator.nextFriday() + ".", null));
+	}
+
+	/**
+     * Starts reminding everyone without hours for last week, in the background.
+     * Employees already reminded for that week are skipped.
+     */
+	public void sendReminders() {
+		if (reminders.isRunning()) {
+			FacesContext.getCurrentInstance().addMessage(null,
+	            new FacesMessage(FacesMessage.SEVERITY_WARN, "Reminders are already being sent.", null));
+			return;
+		}
+		reminders.remindAsync();
+		FacesContext.getCurrentInstance().addMessage(null,
+            new FacesMessage(FacesMessage.SEVERITY_INFO,
+                    "Sending reminders for the week ending " + reminders.lastFriday() + ".", null));
+	}
+
+	/**
+     * Returns the reminder job, for the last run and the sender's counters on the dashboard.
+     *
+     * @return the missing-timesheet reminder job
+     */
+	public MissingTimesheetReminder getReminders() {
+		return reminders;
+	}
+
+	/**
+     * Returns recent background purges of deleted employees, for the progress table.
+     *
+     * @return newest purge jobs first
+     */
+	public List<PurgeJob> getPurgeJobs() {
+		return purger.recentJobs();
+	}
+
+	/**
+     * Returns the audit writer, for its queue and drop counters on the dashboard.
+     *
+     * @return the application's audit log
+     */
+	public AuditLog getAudit() {
+		return audit;
+	}
+
+	/**
+     * Returns the database guard, for the breaker state and bulkhead counters on the dashboard.
+     *
+     * @return the application's database guard
+     */
+	public DbGuard getDbGuard() {
+		return dbGuard;
+	}
+
+	/** @return user name of the logged-in admin, for audit records */
+	private String actor() {
+		Employee me = currentUser.getEmployee();
+		return me == null ? null : me.getUserName();
 	}
-	
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.corejsf;
+
+import java.util.Locale;
+
+/**
+ * Tiny configuration lookup shared by the infrastructure classes.
+ *
+ * <p>A key such as {@code "timesheet.replica.maxLagMillis"} is resolved from, in order:</p>
+ * <ol>
+ *   <li>the JVM system property of the same name (e.g. {@code -Dtimesheet.replica.maxLagMillis=500}),</li>
+ *   <li>the environment variable with dots turned into underscores and upper-cased
+ *       ({@code TIMESHEET_REPLICA_MAXLAGMILLIS}), which is how helm passes settings,</li>
+ *   <li>the supplied default.</li>
+ * </ol>
+ */
+public final class AppConfig {
+
+    private AppConfig() { }
+
+    /**
+     * @param key configuration key
+     * @param def default when unset
+     * @return configured value or {@code def}
+     */
+    public static String get(String key, String def) {
+        String v = System.getProperty(key);
+        if (v == null || v.isBlank()) {
+            v = System.getenv(key.replace('.', '_').toUpperCase(Locale.ROOT));
+        }
+        return (v == null || v.isBlank()) ? def : v.trim();
+    }
+
+    /** Integer variant of {@link #get(String, String)}; malformed values fall back to {@code def}. */
+    public static int getInt(String key, int def) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(def)));
+        } catch (NumberFormatException ex) {
+            return def;
+        }
+    }
+
+    /** Long variant of {@link #get(String, String)}; malformed values fall back to {@code def}. */
+    public static long getLong(String key, long def) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(def)));
+        } catch (NumberFormatException ex) {
+            return def;
+        }
+    }
+
+    /** Boolean variant of {@link #get(String, String)}. */
+    public static boolean getBoolean(String key, boolean def) {
+        return Boolean.parseBoolean(get(key, String.valueOf(def)));
+    }
+}
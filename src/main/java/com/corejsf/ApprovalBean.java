@@ -0,0 +1,155 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.context.FacesContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backing bean for timesheet approval on the admin dashboard.
+ *
+ * <p>Scope: {@link RequestScoped}. Approving a whole range is one set-based pass in the
+ * store (see {@link TimeSheetRepo#approveSubmitted}), so a manager can sign off a month
+ * of sheets for a team by user-name prefix without loading them. Single sheets are
+ * approved or sent back by id.</p>
+ */
+@Named("approvalBean")
+@RequestScoped
+public class ApprovalBean implements Serializable {
+
+    @Inject
+    private TimesheetStore timeSheetRepo;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private AuditLog audit;
+
+    /** First week end date; default: four weeks back. */
+    private LocalDate from = LocalDate.now().with(DayOfWeek.FRIDAY).minusWeeks(4);
+
+    /** Last week end date; default: this week. */
+    private LocalDate to = LocalDate.now().with(DayOfWeek.FRIDAY);
+
+    /** User-name prefix, or blank for everyone. */
+    private String userPrefix;
+
+    /** Sheet ids separated by commas or spaces. */
+    private String ids;
+
+    /** Reason sent back with a rejection. */
+    private String note;
+
+    public LocalDate getFrom() { return from; }
+
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getUserPrefix() { return userPrefix; }
+
+    public void setUserPrefix(String userPrefix) { this.userPrefix = userPrefix; }
+
+    public String getIds() { return ids; }
+
+    public void setIds(String ids) { this.ids = ids; }
+
+    public String getNote() { return note; }
+
+    public void setNote(String note) { this.note = note; }
+
+    /** @return submitted sheets waiting in the selected range */
+    public int getPendingCount() {
+        return (from == null || to == null || from.isAfter(to)) ? 0 : timeSheetRepo.countSubmitted(from, to);
+    }
+
+    /** Approve every submitted sheet in the range, optionally for one user-name prefix. */
+    public void approveRange() {
+        if (!checkAdmin()) return;
+        if (from == null || to == null || from.isAfter(to)) {
+            message(FacesMessage.SEVERITY_WARN, "Enter an ascending date range.");
+            return;
+        }
+        String prefix = (userPrefix == null || userPrefix.isBlank()) ? null : userPrefix.trim();
+        int n = timeSheetRepo.approveSubmitted(from, to, prefix, actor());
+        audit.record(actor(), AuditLog.TIMESHEET_APPROVE,
+                from + ".." + to + (prefix == null ? "" : " " + prefix + "*") + ": " + n, true);
+        message(FacesMessage.SEVERITY_INFO, n + " timesheet(s) approved.");
+    }
+
+    /** Approve the listed sheets; ids that are not submitted are skipped. */
+    public void approveIds() {
+        if (!checkAdmin()) return;
+        List<Long> list = parseIds();
+        if (list == null) return;
+        int n = timeSheetRepo.approve(list, actor());
+        audit.record(actor(), AuditLog.TIMESHEET_APPROVE, list.size() + " ids: " + n, true);
+        message(FacesMessage.SEVERITY_INFO, n + " of " + list.size() + " timesheet(s) approved.");
+    }
+
+    /** Send the listed sheets back to their owners with {@link #note}. */
+    public void rejectIds() {
+        if (!checkAdmin()) return;
+        List<Long> list = parseIds();
+        if (list == null) return;
+        int n = 0;
+        for (Long id : list) {
+            try {
+                timeSheetRepo.reject(id, actor(), note);
+                audit.record(actor(), AuditLog.TIMESHEET_REJECT, String.valueOf(id), true);
+                n++;
+            } catch (IllegalStateException ex) {
+                audit.record(actor(), AuditLog.TIMESHEET_REJECT, String.valueOf(id), false);
+                message(FacesMessage.SEVERITY_WARN, ex.getMessage());
+            }
+        }
+        message(FacesMessage.SEVERITY_INFO, n + " timesheet(s) sent back.");
+    }
+
+    // ---------------- Internals ----------------
+
+    private boolean checkAdmin() {
+        if (currentUser.isAdmin()) return true;
+        message(FacesMessage.SEVERITY_ERROR, "Only administrators can approve timesheets.");
+        return false;
+    }
+
+    /** @return the entered ids, or null after a message if there are none or one is malformed */
+    private List<Long> parseIds() {
+        List<Long> list = new ArrayList<>();
+        if (ids != null) {
+            for (String s : ids.split("[,\\s]+")) {
+                if (s.isEmpty()) continue;
+                try {
+                    list.add(Long.valueOf(s));
+                } catch (NumberFormatException ex) {
+                    message(FacesMessage.SEVERITY_ERROR, "Not a timesheet id: " + s);
+                    return null;
+                }
+            }
+        }
+        if (list.isEmpty()) {
+            message(FacesMessage.SEVERITY_WARN, "Enter one or more timesheet ids.");
+            return null;
+        }
+        return list;
+    }
+
+    private String actor() {
+        return currentUser.getEmployee() == null ? null : currentUser.getEmployee().getUserName();
+    }
+
+    private static void message(FacesMessage.Severity severity, String text) {
+        FacesContext.getCurrentInstance().addMessage(null, new FacesMessage(severity, text, null));
+    }
+}
@@ -0,0 +1,43 @@
+package com.corejsf;
+
+import java.io.Serializable;
+
+/**
+ * One audit record: who did what to which target, and whether it succeeded.
+ * Immutable; created on the request thread and written later by {@link AuditLog}.
+ */
+public final class AuditEvent implements Serializable {
+
+    private final long atMillis;
+    private final String actor;
+    private final String action;
+    private final String target;
+    private final boolean success;
+    private final String client;
+
+    public AuditEvent(long atMillis, String actor, String action, String target, boolean success, String client) {
+        this.atMillis = atMillis;
+        this.actor = actor;
+        this.action = action;
+        this.target = target;
+        this.success = success;
+        this.client = client;
+    }
+
+    /** @return when the action happened (epoch millis) */
+    public long getAtMillis() { return atMillis; }
+
+    /** @return user name performing the action (attempted name for logins) */
+    public String getActor() { return actor; }
+
+    /** @return action code, e.g. {@code LOGIN} or {@code EMPLOYEE_DELETE} */
+    public String getAction() { return action; }
+
+    /** @return affected user name or timesheet id (nullable) */
+    public String getTarget() { return target; }
+
+    public boolean isSuccess() { return success; }
+
+    /** @return client address (nullable) */
+    public String getClient() { return client; }
+}
@@ -0,0 +1,298 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.faces.context.FacesContext;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Audit trail for logins, timesheet saves and admin actions, written off the request thread.
+* <p>
+* {@link #record} only puts an {@link AuditEvent} into a lock-free {@link AuditRing}
+* (<code>timesheet.audit.capacity</code>, default 8192). One writer thread drains it
+* when <code>timesheet.audit.batchSize</code> (default 200) events are waiting or every
+* <code>timesheet.audit.flushMillis</code> (default 1000 ms), whichever comes first, and
+* writes each batch with a single multi-row statement:
+* <ul>
+* <li><code>timesheet.audit.sink=db</code> (default): <code>audit_log</code> table;</li>
+* <li><code>timesheet.audit.sink=file</code>: JSON Lines in <code>timesheet.audit.dir</code>,
+*     one file per day, rolled over at <code>timesheet.audit.maxFileBytes</code> (default 64 MB).</li>
+* </ul>
+* When the ring is full the <code>timesheet.audit.overflow</code> policy applies:
+* <code>drop</code> (default) discards the new event at once, <code>wait</code> retries for up
+* to <code>timesheet.audit.waitMillis</code> (default 5 ms) before discarding it. Dropped and
+* delayed events are counted and exposed with the other writer metrics.
+* A failed batch is retried once on the next flush, then dropped and counted.
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuditLog {
+
+    private static final Logger LOG = Logger.getLogger(AuditLog.class.getName());
+
+    /** Action codes used by the call sites. */
+    public static final String LOGIN = "LOGIN";
+    public static final String PASSWORD_CHANGE = "PASSWORD_CHANGE";
+    public static final String TIMESHEET_SAVE = "TIMESHEET_SAVE";
+    public static final String EMPLOYEE_ADD = "EMPLOYEE_ADD";
+    public static final String EMPLOYEE_DELETE = "EMPLOYEE_DELETE";
+    public static final String PASSWORD_RESET = "PASSWORD_RESET";
+    public static final String TIMESHEET_SUBMIT = "TIMESHEET_SUBMIT";
+    public static final String TIMESHEET_APPROVE = "TIMESHEET_APPROVE";
+    public static final String TIMESHEET_REJECT = "TIMESHEET_REJECT";
+
+    private final int batchSize = Math.max(1, AppConfig.getInt("timesheet.audit.batchSize", 200));
+    private final long flushMillis = Math.max(10, AppConfig.getLong("timesheet.audit.flushMillis", 1000L));
+    private final boolean waitWhenFull = "wait".equalsIgnoreCase(AppConfig.get("timesheet.audit.overflow", "drop"));
+    private final long waitNanos = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(0, AppConfig.getLong("timesheet.audit.waitMillis", 5L)));
+    private final boolean toFile = "file".equalsIgnoreCase(AppConfig.get("timesheet.audit.sink", "db"));
+    private final String dir = AppConfig.get("timesheet.audit.dir",
+            Paths.get(System.getProperty("java.io.tmpdir"), "timesheet-audit").toString());
+    private final long maxFileBytes = Math.max(1024, AppConfig.getLong("timesheet.audit.maxFileBytes", 64L << 20));
+
+    private final AuditRing ring = new AuditRing(Math.max(16, AppConfig.getInt("timesheet.audit.capacity", 8192)));
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    /** Age of the oldest event in the last written batch. */
+    private volatile long lastLagMillis;
+
+    private volatile boolean stopping;
+    private volatile Thread writer;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @PostConstruct
+    public void init() {
+        Thread t = threadFactory.newThread(this::drainLoop);
+        t.setName("audit-writer");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+    }
+
+    /** Stop the writer after it has flushed what is still queued. */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        Thread t = writer;
+        if (t == null) return;
+        LockSupport.unpark(t);
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    * Queue an audit event. Never touches the database; returns in constant time under
+    * the <code>drop</code> policy and after at most <code>waitMillis</code> under <code>wait</code>.
+    *
+    * @param actor   user performing the action (attempted user name for logins)
+    * @param action  one of the action constants
+    * @param target  affected user name or sheet, or null
+    * @param success whether the action succeeded
+    */
+    public void record(String actor, String action, String target, boolean success) {
+        AuditEvent e = new AuditEvent(System.currentTimeMillis(), truncate(actor, 80), action,
+                truncate(target, 120), success, clientAddress());
+        if (!ring.offer(e) && !(waitWhenFull && offerWaiting(e))) {
+            dropped.incrementAndGet();
+            return;
+        }
+        recorded.incrementAndGet();
+        if (ring.size() >= batchSize) LockSupport.unpark(writer);
+    }
+
+    /** @return events accepted by {@link #record} since startup */
+    public long getRecorded() { return recorded.get(); }
+
+    /** @return events discarded because the ring was full or a batch failed twice */
+    public long getDropped() { return dropped.get(); }
+
+    /** @return events that had to wait for space under the <code>wait</code> policy */
+    public long getDelayed() { return delayed.get(); }
+
+    /** @return events persisted */
+    public long getWritten() { return written.get(); }
+
+    /** @return batches that could not be written */
+    public long getFailedBatches() { return failedBatches.get(); }
+
+    /** @return events waiting to be written */
+    public int getQueued() { return ring.size(); }
+
+    public int getCapacity() { return ring.capacity(); }
+
+    /** @return time between the oldest event of the last batch and its write */
+    public long getLastLagMillis() { return lastLagMillis; }
+
+    // ---------------- Internals ----------------
+
+    private boolean offerWaiting(AuditEvent e) {
+        delayed.incrementAndGet();
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + waitNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000L);
+            if (ring.offer(e)) return true;
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        List<AuditEvent> retry = null;
+        while (true) {
+            if (!stopping && ring.size() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushMillis));
+            }
+            boolean last = stopping;
+            if (retry != null) {
+                if (!write(retry)) {
+                    dropped.addAndGet(retry.size());
+                    LOG.warning("Dropped " + retry.size() + " audit events after a failed retry");
+                }
+                retry = null;
+            }
+            while (ring.drainTo(batch, batchSize) > 0) {
+                if (!write(batch)) {
+                    retry = new ArrayList<>(batch);
+                    batch.clear();
+                    break;
+                }
+                batch.clear();
+            }
+            if (last) {
+                if (retry != null) dropped.addAndGet(retry.size());
+                return;
+            }
+        }
+    }
+
+    /** @return true if the batch was persisted */
+    private boolean write(List<AuditEvent> batch) {
+        try {
+            if (toFile) {
+                writeFile(batch);
+            } else {
+                writeDb(batch);
+            }
+            written.addAndGet(batch.size());
+            lastLagMillis = System.currentTimeMillis() - batch.get(0).getAtMillis();
+            return true;
+        } catch (SQLException | IOException | RuntimeException ex) {
+            failedBatches.incrementAndGet();
+            LOG.log(Level.WARNING, "Audit batch of " + batch.size() + " events failed", ex);
+            return false;
+        }
+    }
+
+    private void writeDb(List<AuditEvent> batch) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO audit_log (at, actor, action, target, success, client) VALUES ");
+        for (int i = 0; i < batch.size(); i++) sql.append(i == 0 ? "(?,?,?,?,?,?)" : ",(?,?,?,?,?,?)");
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (AuditEvent e : batch) {
+                ps.setTimestamp(p++, new Timestamp(e.getAtMillis()));
+                ps.setString(p++, e.getActor());
+                ps.setString(p++, e.getAction());
+                ps.setString(p++, e.getTarget());
+                ps.setBoolean(p++, e.isSuccess());
+                ps.setString(p++, e.getClient());
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private void writeFile(List<AuditEvent> batch) throws IOException {
+        Path folder = Paths.get(dir);
+        Files.createDirectories(folder);
+        Path file = currentFile(folder);
+        try (FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            Writer w = Channels.newWriter(ch, StandardCharsets.UTF_8);
+            for (AuditEvent e : batch) {
+                w.write(Json.createObjectBuilder()
+                    .add("at", Instant.ofEpochMilli(e.getAtMillis()).toString())
+                    .add("actor", String.valueOf(e.getActor()))
+                    .add("action", e.getAction())
+                    .add("target", String.valueOf(e.getTarget()))
+                    .add("success", e.isSuccess())
+                    .add("client", String.valueOf(e.getClient()))
+                    .build().toString());
+                w.write('\n');
+            }
+            w.flush();
+            ch.force(false);
+        }
+    }
+
+    /** @return today's file, or the next numbered one once it is over the size limit */
+    private Path currentFile(Path folder) throws IOException {
+        String day = LocalDate.now(ZoneOffset.UTC).toString();
+        Path file = folder.resolve("audit-" + day + ".jsonl");
+        for (int n = 1; Files.exists(file) && Files.size(file) >= maxFileBytes; n++) {
+            file = folder.resolve(String.format(Locale.ROOT, "audit-%s.%d.jsonl", day, n));
+        }
+        return file;
+    }
+
+    /** @return the client address of the current JSF request, if there is one */
+    private static String clientAddress() {
+        FacesContext fc = FacesContext.getCurrentInstance();
+        if (fc == null) return null;
+        Object req = fc.getExternalContext().getRequest();
+        return req instanceof HttpServletRequest http ? truncate(http.getRemoteAddr(), 64) : null;
+    }
+
+    private static String truncate(String s, int max) {
+        return s == null || s.length() <= max ? s : s.substring(0, max);
+    }
+}
@@ -0,0 +1,71 @@
+package com.corejsf;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring buffer for {@link AuditEvent}s.
+ *
+ * <p>Producers claim a slot by CAS on {@code tail} and then publish the event into it;
+ * the single consumer takes slots in order, clearing each before advancing {@code head}.
+ * A claimed but not yet published slot simply ends the current drain; the event is picked
+ * up on the next one. {@link #offer} never blocks: it returns false when the ring is full
+ * and leaves the backpressure decision to the caller.</p>
+ */
+final class AuditRing {
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /** @param capacity rounded up to a power of two */
+    AuditRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /** @return false if the ring is full */
+    boolean offer(AuditEvent e) {
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() >= slots.length()) return false;
+            if (tail.compareAndSet(t, t + 1)) {
+                slots.set((int) (t & mask), e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code max} published events into {@code out}, in order. Consumer thread only.
+     *
+     * @return number of events moved
+     */
+    int drainTo(List<AuditEvent> out, int max) {
+        long h = head.get();
+        int n = 0;
+        while (n < max) {
+            int idx = (int) (h & mask);
+            AuditEvent e = slots.get(idx);
+            if (e == null) break;
+            slots.set(idx, null);
+            out.add(e);
+            h++;
+            n++;
+            head.lazySet(h);
+        }
+        return n;
+    }
+
+    /** @return events claimed but not yet drained (approximate) */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
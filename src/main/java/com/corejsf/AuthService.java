@@ -19,11 +19,12 @@ import ca.bcit.infosys.employee.*;
  */
 @Named("authService")
 @ApplicationScoped
+@DbWork(DbWork.Kind.LOGIN)
 public class AuthService implements Serializable{
 	
     /** Repository that stores employees and their login credentials. */
 	@Inject
-	private EmployeeRepo employees;
+	private EmployeeStore employees;
 	
 	/**
      * Attempts to authenticate a user using their provided credentials.
@@ -61,15 +62,12 @@ public class AuthService implements Serializable{
 	/**
      * Finds and returns an {@link Employee} by username.
      *
-     * <p>Performs a case-insensitive search through all stored employees.</p>
+     * <p>Performs a case-insensitive indexed lookup (cached) instead of scanning all employees.</p>
      *
      * @param userName the username to search for
      * @return the matching employee, or {@code null} if not found
      */
 	public Employee findByUserName(String userName) {
-        return employees.getEmployees().stream()
-                .filter(e -> e.getUserName().equalsIgnoreCase(userName))
-                .findFirst()
-                .orElse(null);
+        return employees.findEmployee(userName);
     }
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.corejsf;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+* Computes weekly overtime / flextime and maintains per-employee running balances.
+* <p>
+* Rules (all values in decihours, matching the <code>*_deci</code> columns):
+* <ul>
+* <li>Hours above a full week ({@value #FULL_WEEK_DECI} decihours) are <b>overtime</b>.</li>
+* <li>A week with hours recorded but short of a full week produces negative <b>flextime</b>.</li>
+* <li>An empty week contributes nothing, so freshly created sheets do not skew balances.</li>
+* </ul>
+*
+* <p>The running totals live in the <code>employee_balances</code> ledger. {@link TimeSheetRepo#save}
+* applies the delta between the old and new weekly figures inside its own transaction, so a
+* balance read is a single primary-key lookup instead of a scan of the employee's history.
+* {@link #recomputeAll()} rebuilds everything from the rows when the rules change.</p>
+*/
+@Named("balanceEngine")
+@ApplicationScoped
+public class BalanceEngine implements Serializable {
+
+    /** Full work week in decihours (40h). */
+    static final int FULL_WEEK_DECI = 400;
+
+    /** Sum of the seven packed day bytes of <code>packed_hours</code> (see {@link TimeSheetRepo}). */
+    private static final String PACKED_TENTHS_SQL = """
+        ((r.packed_hours & 255) + ((r.packed_hours >> 8) & 255) + ((r.packed_hours >> 16) & 255)
+         + ((r.packed_hours >> 24) & 255) + ((r.packed_hours >> 32) & 255)
+         + ((r.packed_hours >> 40) & 255) + ((r.packed_hours >> 48) & 255))
+    """;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    // ---------------- Weekly computation ----------------
+
+    /**
+    * Compute the weekly figures for a set of rows.
+    * Hours are normalised by {@link TimeSheetRepo#safeHours}, then rounded to tenths and
+    * capped exactly like the packed storage format.
+    *
+    * @param rows timesheet rows (nullable)
+    * @return weekly overtime / flextime
+    */
+    public WeeklyBalance compute(List<TimesheetRow> rows) {
+        if (rows == null) return WeeklyBalance.ZERO;
+        int total = 0;
+        for (TimesheetRow r : rows) {
+            float[] h = TimeSheetRepo.safeHours(r);
+            for (int d = 0; d < 7; d++) {
+                int tenths = Math.round(h[d] * 10f);
+                if (tenths < 0) tenths = 0;
+                if (tenths > 255) tenths = 255;
+                total += tenths;
+            }
+        }
+        return fromTotal(total);
+    }
+
+    /** Apply the rules to a weekly total in decihours. */
+    static WeeklyBalance fromTotal(int totalDeci) {
+        if (totalDeci <= 0) return WeeklyBalance.ZERO;
+        int delta = totalDeci - FULL_WEEK_DECI;
+        return new WeeklyBalance(Math.max(delta, 0), Math.min(delta, 0));
+    }
+
+    // ---------------- Ledger ----------------
+
+    /**
+    * Add {@code delta} to an employee's running balance. Must be called on the caller's
+    * transactional connection so the ledger and the sheet header commit together.
+    */
+    void applyDelta(Connection c, long employeeId, WeeklyBalance delta) throws SQLException {
+        if (delta == null || delta.isZero()) return;
+        final String sql = """
+            INSERT INTO employee_balances (employee_id, overtime_deci, flextime_deci)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                overtime_deci = overtime_deci + VALUES(overtime_deci),
+                flextime_deci = flextime_deci + VALUES(flextime_deci)
+        """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, employeeId);
+            ps.setInt(2, delta.getOvertimeDeci());
+            ps.setInt(3, delta.getFlextimeDeci());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+    * Current running balance for an employee (single indexed lookup).
+    *
+    * @param e employee (nullable)
+    * @return the balance, or {@link WeeklyBalance#ZERO} if none recorded yet
+    */
+    @ReadOnly
+    public WeeklyBalance getBalance(Employee e) {
+        if (e == null) return WeeklyBalance.ZERO;
+        final String sql = """
+            SELECT b.overtime_deci, b.flextime_deci
+            FROM employee_balances b
+            JOIN employees e ON e.employee_id = b.employee_id
+            WHERE e.emp_number = ?
+        """;
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, e.getEmpNumber());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return WeeklyBalance.ZERO;
+                return new WeeklyBalance(rs.getInt(1), rs.getInt(2));
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("getBalance failed for " + e.getUserName(), ex);
+        }
+    }
+
+    // ---------------- Recompute ----------------
+
+    /**
+    * Rebuild every employee's weekly figures and ledger row from the stored rows.
+    * Employees are processed in parallel on the container's managed executor; each
+    * employee is recomputed in its own short transaction.
+    *
+    * @return future completing with the number of employees recomputed
+    */
+    public CompletableFuture<Integer> recomputeAll() {
+        List<Long> ids = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT employee_id FROM employees WHERE deleted_at IS NULL");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) ids.add(rs.getLong(1));
+        } catch (SQLException ex) {
+            throw new RuntimeException("recomputeAll() failed to list employees", ex);
+        }
+
+        AtomicInteger done = new AtomicInteger();
+        CompletableFuture<?>[] jobs = ids.stream()
+            .map(id -> CompletableFuture.runAsync(() -> {
+                recomputeEmployee(id);
+                done.incrementAndGet();
+            }, executor))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(jobs).thenApply(v -> done.get());
+    }
+
+    /**
+    * Recompute one employee: refresh each live header from its rows, then reset the ledger row
+    * to the sum of the live and archived headers (archived weeks are frozen).
+    */
+    void recomputeEmployee(long employeeId) {
+        final String totals = """
+            UPDATE timesheets t
+            LEFT JOIN (
+                SELECT r.timesheet_id, CAST(SUM(%s) AS SIGNED) AS total
+                FROM timesheet_rows r
+                JOIN timesheets t2 ON t2.timesheet_id = r.timesheet_id
+                WHERE t2.employee_id = ?
+                GROUP BY r.timesheet_id
+            ) s ON s.timesheet_id = t.timesheet_id
+            SET t.overtime_deci = CASE WHEN COALESCE(s.total, 0) <= 0 THEN 0
+                                       ELSE GREATEST(s.total - ?, 0) END,
+                t.flextime_deci = CASE WHEN COALESCE(s.total, 0) <= 0 THEN 0
+                                       ELSE LEAST(s.total - ?, 0) END
+            WHERE t.employee_id = ?
+        """.formatted(PACKED_TENTHS_SQL);
+        final String ledger = """
+            REPLACE INTO employee_balances (employee_id, overtime_deci, flextime_deci)
+            SELECT ?, COALESCE(SUM(overtime_deci), 0), COALESCE(SUM(flextime_deci), 0)
+            FROM (
+                SELECT overtime_deci, flextime_deci FROM timesheets WHERE employee_id = ?
+                UNION ALL
+                SELECT overtime_deci, flextime_deci FROM timesheets_archive WHERE employee_id = ?
+            ) h
+        """;
+        try (Connection c = ds.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(totals)) {
+                    ps.setLong(1, employeeId);
+                    ps.setInt(2, FULL_WEEK_DECI);
+                    ps.setInt(3, FULL_WEEK_DECI);
+                    ps.setLong(4, employeeId);
+                    ps.executeUpdate();
+                }
+                try (PreparedStatement ps = c.prepareStatement(ledger)) {
+                    ps.setLong(1, employeeId);
+                    ps.setLong(2, employeeId);
+                    ps.setLong(3, employeeId);
+                    ps.executeUpdate();
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("recomputeEmployee failed for id=" + employeeId, ex);
+        }
+    }
+}
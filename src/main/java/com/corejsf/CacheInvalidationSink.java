@@ -0,0 +1,43 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Node-local sink that drops {@link RepoCache} entries (and cached directory counts)
+ * touched by committed changes on any node. Replaces the former
+ * <code>cache_invalidations</code> log and its poller.
+ */
+@ApplicationScoped
+public class CacheInvalidationSink implements ChangeSink {
+
+    @Inject
+    private RepoCache cache;
+
+    @Inject
+    private EmployeeStore employees;
+
+    @Override
+    public String getName() { return "cache"; }
+
+    @Override
+    public boolean isNodeLocal() { return true; }
+
+    @Override
+    public void publish(List<ChangeEvent> batch) {
+        boolean employeesChanged = false;
+        for (ChangeEvent e : batch) {
+            cache.invalidate(e.getType().getAggregate(), e.getKey());
+            employeesChanged |= RepoCache.EMPLOYEE.equals(e.getType().getAggregate());
+        }
+        if (employeesChanged) employees.invalidateCounts();
+    }
+
+    /** Called when this node missed pruned events: nothing cached can be trusted. */
+    void reset() {
+        cache.clear();
+        employees.invalidateCounts();
+    }
+}
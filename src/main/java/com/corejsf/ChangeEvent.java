@@ -0,0 +1,80 @@
+package com.corejsf;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+
+import java.io.Serializable;
+import java.io.StringReader;
+import java.time.Instant;
+
+/**
+ * One committed change, as stored in <code>outbox_events</code> and handed to
+ * {@link ChangeSink}s by {@link OutboxRelay}.
+ *
+ * <p>Events are compact: they identify what changed (type and key) plus a small JSON
+ * payload, not the full object. Consumers re-read details they need.</p>
+ */
+public final class ChangeEvent implements Serializable {
+
+    /** Kinds of change; the aggregate matches the {@link RepoCache} kinds. */
+    public enum Type {
+        SHEET_CREATED(RepoCache.SHEET),
+        SHEET_SAVED(RepoCache.SHEET),
+        SHEET_STATUS(RepoCache.SHEET),
+        EMPLOYEE_ADDED(RepoCache.EMPLOYEE),
+        EMPLOYEE_DELETED(RepoCache.EMPLOYEE);
+
+        private final String aggregate;
+
+        Type(String aggregate) { this.aggregate = aggregate; }
+
+        /** @return {@link RepoCache#SHEET} or {@link RepoCache#EMPLOYEE} */
+        public String getAggregate() { return aggregate; }
+    }
+
+    private final long seq;
+    private final Type type;
+    private final String key;
+    private final String payload;
+    private final Instant createdAt;
+
+    public ChangeEvent(long seq, Type type, String key, String payload, Instant createdAt) {
+        this.seq = seq;
+        this.type = type;
+        this.key = key;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    /** @return position in the outbox; strictly increasing in publish order */
+    public long getSeq() { return seq; }
+
+    public Type getType() { return type; }
+
+    /** @return timesheet id or user name, depending on the aggregate */
+    public String getKey() { return key; }
+
+    /** @return compact JSON payload (never null; "{}" when empty) */
+    public String getPayload() { return payload; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    /** @return the event as one JSON object, e.g. for a JSON Lines sink */
+    public JsonObject toJson() {
+        JsonObject data;
+        try (JsonReader r = Json.createReader(new StringReader(payload))) {
+            data = r.readObject();
+        }
+        return Json.createObjectBuilder()
+            .add("seq", seq)
+            .add("type", type.name())
+            .add("key", key)
+            .add("at", createdAt.toString())
+            .add("data", data)
+            .build();
+    }
+
+    @Override
+    public String toString() { return seq + " " + type + " " + key; }
+}
@@ -22,12 +22,13 @@ import ca.bcit.infosys.employee.*;
  */
 @Named("changePasswordBean")
 @ConversationScoped
+@ConversationTracked
 public class ChangePasswordBean implements Serializable{
     
     /** Repository containing employees and their credentials. */
 
 	@Inject
-    private EmployeeRepo employees;  
+    private EmployeeStore employees;  
 	
 	 /** Represents the current logged-in user. */
 	@Inject
@@ -37,6 +38,10 @@ public class ChangePasswordBean implements Serializable{
 	@Inject 
 	private Conversation conversation;
 	
+	/** Asynchronous audit trail for password changes. */
+	@Inject
+	private AuditLog audit;
+	
 	/** Current password entered by the user. */
 	private String currentPw;
 	
@@ -138,12 +143,14 @@ public class ChangePasswordBean implements Serializable{
 		
 		boolean ok = employees.verifyUser(cred);
         if (!ok) {
+            audit.record(cred.getUserName(), AuditLog.PASSWORD_CHANGE, cred.getUserName(), false);
             addMsg(FacesMessage.SEVERITY_ERROR, "Incorrect password", "Your current password is wrong.");
             return null;
         }
 		
 		try {
             employees.changePassword(cred.getUserName(), newPw);
+            audit.record(cred.getUserName(), AuditLog.PASSWORD_CHANGE, cred.getUserName(), true);
             end();
             return "userHome";
         } catch (RuntimeException ex) {
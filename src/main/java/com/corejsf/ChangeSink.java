@@ -0,0 +1,34 @@
+package com.corejsf;
+
+import java.util.List;
+
+/**
+ * Destination for committed change events, fed by {@link OutboxRelay}.
+ *
+ * <p>Implementations are CDI beans; the relay discovers all of them. Delivery is
+ * at-least-once and in <code>seq</code> order: a batch that throws is retried from the
+ * same position on the next tick, so sinks should tolerate duplicates (use the seq).</p>
+ */
+public interface ChangeSink {
+
+    /** @return stable name; cluster-wide sinks store their position under it */
+    String getName();
+
+    /**
+     * @return true if every node must see every event (e.g. its own cache); such sinks
+     *         keep their position in memory and start at the current end of the outbox.
+     *         False (default) means one node publishes for the whole cluster.
+     */
+    default boolean isNodeLocal() { return false; }
+
+    /** @return false to skip this sink (e.g. not configured) */
+    default boolean isEnabled() { return true; }
+
+    /**
+     * Publish one ordered batch.
+     *
+     * @param batch events in ascending seq order, never empty
+     * @throws Exception to have the batch retried
+     */
+    void publish(List<ChangeEvent> batch) throws Exception;
+}
@@ -0,0 +1,87 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Answers repeated GETs of the CSV export with <code>304 Not Modified</code> when the
+ * employee's sheets have not changed.
+ *
+ * <p>The version comes from {@link TimesheetVersions} (one indexed query, no timesheet is
+ * loaded). The ETag also covers the user and the deployment. Responses are marked
+ * <code>private, no-cache</code>: browsers keep them but revalidate every time, so a 304
+ * costs one small query instead of loading and writing every sheet.</p>
+ *
+ * <p>Only form-free responses may be mapped here. A Faces page with an
+ * <code>h:form</code> must not be answered from the browser cache: its stored ViewState
+ * belongs to a view the server has since evicted, and the next postback fails with
+ * <code>ViewExpiredException</code>.</p>
+ *
+ * <p>Requests without a session or a known user pass through unchanged.</p>
+ */
+@WebFilter(urlPatterns = {"/export/timesheets.csv"})
+public class ConditionalGetFilter extends HttpFilter {
+
+    /** Changes with every deployment, so new markup is never answered with 304. */
+    private static final String DEPLOYMENT = Long.toString(System.currentTimeMillis(), 36);
+
+    @Inject
+    private TimesheetVersions versions;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        if (!"GET".equals(req.getMethod()) || req.getSession(false) == null || !currentUser.isLoggedIn()) {
+            chain.doFilter(req, res);
+            return;
+        }
+        String user = currentUser.getEmployee().getUserName();
+        TimesheetVersions.Stamp stamp = versions.ofList(user);
+        if (stamp == null) {
+            chain.doFilter(req, res);
+            return;
+        }
+
+        String etag = "W/\"" + stamp.getTag() + "." + Integer.toHexString(user.hashCode())
+                + "." + DEPLOYMENT + "\"";
+        res.setHeader("ETag", etag);
+        res.setHeader("Cache-Control", "private, no-cache");
+        if (stamp.getLastModified() > 0) res.setDateHeader("Last-Modified", stamp.getLastModified());
+
+        if (notModified(req, etag, stamp.getLastModified())) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        chain.doFilter(req, res);
+    }
+
+    /** If-None-Match wins over If-Modified-Since (RFC 9110). */
+    private static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        String inm = req.getHeader("If-None-Match");
+        if (inm != null) {
+            for (String t : inm.split(",")) {
+                String v = t.trim();
+                if (v.equals("*") || v.equals(etag) || ("W/" + v).equals(etag)) return true;
+            }
+            return false;
+        }
+        long ims;
+        try {
+            ims = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        // Header dates have one-second resolution
+        return ims >= 0 && lastModified > 0 && lastModified / 1000 <= ims / 1000;
+    }
+}
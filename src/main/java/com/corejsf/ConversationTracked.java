@@ -0,0 +1,20 @@
+package com.corejsf;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Counts instances of a conversation-scoped bean in {@link SessionTracker} from creation
+ * until its conversation ends or times out. See {@link ConversationTrackingInterceptor}.
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConversationTracked {
+}
@@ -0,0 +1,39 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.io.Serializable;
+
+/** Lifecycle callbacks of {@link ConversationTracked} beans. */
+@ConversationTracked
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class ConversationTrackingInterceptor implements Serializable {
+
+    @Inject
+    private SessionTracker tracker;
+
+    @PostConstruct
+    public void created(InvocationContext ctx) throws Exception {
+        tracker.beanCreated(beanName(ctx.getTarget()));
+        ctx.proceed();
+    }
+
+    @PreDestroy
+    public void destroyed(InvocationContext ctx) throws Exception {
+        tracker.beanDestroyed(beanName(ctx.getTarget()));
+        ctx.proceed();
+    }
+
+    /** Simple name of the bean class, without the container's subclass suffix. */
+    private static String beanName(Object target) {
+        String name = target.getClass().getSimpleName();
+        int cut = name.indexOf('$');
+        return cut > 0 ? name.substring(0, cut) : name;
+    }
+}
@@ -0,0 +1,63 @@
+package com.corejsf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal CSV line splitter used by the import pipelines.
+ *
+ * <p>Supports comma separators, double-quoted fields and doubled quotes inside them
+ * ({@code "a ""b"" c"}). Fields never span lines, which keeps the importers strictly
+ * line-oriented and lets them stream with bounded memory.</p>
+ */
+public final class CsvParser {
+
+    private CsvParser() { }
+
+    /**
+     * Split one CSV line into trimmed fields.
+     *
+     * @param line raw line (nullable)
+     * @return list of fields; empty for a null/blank line
+     */
+    public static List<String> parseLine(String line) {
+        List<String> out = new ArrayList<>();
+        if (line == null || line.isBlank()) return out;
+
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                out.add(cur.toString().trim());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        out.add(cur.toString().trim());
+        return out;
+    }
+
+    /**
+     * @param fields parsed fields
+     * @param index column index
+     * @return the field, or an empty string if the line is short
+     */
+    public static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+}
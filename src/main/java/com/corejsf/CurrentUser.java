@@ -1,6 +1,7 @@
 package com.corejsf;
 
 import jakarta.enterprise.context.SessionScoped;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import java.io.Serializable;
 import ca.bcit.infosys.timesheet.*;
@@ -15,16 +16,29 @@ import ca.bcit.infosys.employee.*;
  * <p>This bean stores the authenticated {@link Employee} and the currently
  * selected {@link Timesheet}, providing convenient helper methods for checking
  * login status and user roles.</p>
+ *
+ * <p>Only compact identifiers (user name and <code>timesheet_id</code>) are held in the
+ * session; the objects are reloaded through {@link EmployeeRepo} / {@link TimeSheetRepo}
+ * and their {@link RepoCache}. This keeps replicated sessions small and lets any
+ * replica serve the next request.</p>
  */
 @Named("currentUser")
 @SessionScoped
 public class CurrentUser implements Serializable {
     
-    /** The authenticated employee for the active session. */
-    private Employee employee;
+    /** Repository used to reload the employee from its user name. */
+    @Inject
+    private EmployeeStore employees;
+
+    /** Repository used to reload the selected timesheet from its id. */
+    @Inject
+    private TimesheetStore timeSheetRepo;
+
+    /** User name of the authenticated employee for the active session. */
+    private String employeeUserName;
 	
-    /** The timesheet currently selected or being viewed by the user. */
-	private Timesheet selectedTimesheet;
+    /** Id of the timesheet currently selected or being viewed by the user. */
+	private Long selectedTimesheetId;
 
 	/**
      * Returns the current logged-in {@link Employee}.
@@ -32,7 +46,7 @@ public class CurrentUser implements Serializable {
      * @return the employee object, or {@code null} if no user is logged in
      */
     public Employee getEmployee() {
-        return employee;
+        return employees.findEmployee(employeeUserName);
     }
     
     /**
@@ -41,7 +55,7 @@ public class CurrentUser implements Serializable {
      * @param employee the authenticated employee object
      */
     public void setEmployee(Employee employee) {
-        this.employee = employee;
+        this.employeeUserName = (employee == null) ? null : employee.getUserName();
     }
     
     /**
@@ -49,35 +63,42 @@ public class CurrentUser implements Serializable {
      *
      * @return {@code true} if a user is authenticated, {@code false} otherwise
      */
-    public boolean isLoggedIn(){return employee != null;}
+    public boolean isLoggedIn(){return getEmployee() != null;}
     
     /**
      * Checks whether the current user is an administrator.
      *
      * @return {@code true} if the logged-in user is an instance of {@link Admin}, otherwise {@code false}
      */
-    public boolean isAdmin(){return employee instanceof Admin;}
+    public boolean isAdmin(){return getEmployee() instanceof Admin;}
     
     /**
      * Returns the display name of the current user.
      *
      * @return user's name, or {@code null} if no user is logged in
      */
-    public String getUserName(){return employee.getName();}
+    public String getUserName(){return getEmployee().getName();}
 	
     /**
      * Returns the currently selected {@link Timesheet}.
+     * <p>Each call returns a fresh instance loaded by id.</p>
      *
      * @return the selected timesheet, or {@code null} if none
      */
-	public Timesheet getSelectedTimesheet() { return selectedTimesheet; }
+	public Timesheet getSelectedTimesheet() { return timeSheetRepo.loadById(selectedTimesheetId); }
 	
 	/**
      * Sets the currently selected {@link Timesheet}.
      *
      * @param ts the timesheet to associate with the current user
      */
-	public void setSelectedTimesheet(Timesheet ts) { this.selectedTimesheet = ts; }
+	public void setSelectedTimesheet(Timesheet ts) { this.selectedTimesheetId = timeSheetRepo.idOf(ts); }
+
+	/** @return id of the selected timesheet, or {@code null} if none */
+	public Long getSelectedTimesheetId() { return selectedTimesheetId; }
+
+	/** @param id id of the timesheet to select, or {@code null} for none */
+	public void setSelectedTimesheetId(Long id) { this.selectedTimesheetId = id; }
 	
 	/**
      * Clears the selected timesheet (sets it to {@code null}).
@@ -85,5 +106,5 @@ public class CurrentUser implements Serializable {
      * <p>Called when navigating away from a timesheet view or logging out
      * to prevent stale data references.</p>
      */
-    public void clearSelectedTimesheet() { this.selectedTimesheet = null; }
+    public void clearSelectedTimesheet() { this.selectedTimesheetId = null; }
 }
@@ -0,0 +1,164 @@
+package com.corejsf;
+
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+* Fans Server-Sent Events out to the admin dashboards connected to this node
+* (see {@link DashboardEventServlet}).
+* <p>
+* {@link #broadcast} never blocks: each client has a bounded queue
+* (<code>timesheet.sse.queue</code>, default 256 events) that is drained with non-blocking
+* servlet output whenever the connection can take more. A client whose queue is full is a
+* slow consumer and is disconnected; its browser reconnects and the dashboard reloads.
+* A comment line every 20 seconds keeps proxies from closing idle streams and detects
+* dead connections.
+*/
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DashboardBroadcaster {
+
+    private static final Logger LOG = Logger.getLogger(DashboardBroadcaster.class.getName());
+
+    private static final byte[] PING = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final int queueSize = Math.max(8, AppConfig.getInt("timesheet.sse.queue", 256));
+    private final int maxClients = Math.max(1, AppConfig.getInt("timesheet.sse.maxClients", 200));
+
+    private final Map<Long, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+    * Register a started async request as a client.
+    *
+    * @return false if the node already serves {@code timesheet.sse.maxClients} dashboards
+    */
+    public boolean register(AsyncContext ac) throws IOException {
+        if (clients.size() >= maxClients) return false;
+        Client client = new Client(ids.incrementAndGet(), ac);
+        clients.put(client.id, client);
+        client.start();
+        return true;
+    }
+
+    /**
+    * Queue one event for every client.
+    *
+    * @param id    SSE id (outbox seq)
+    * @param event SSE event name
+    * @param json  event data, one line
+    */
+    public void broadcast(long id, String event, String json) {
+        if (clients.isEmpty()) return;
+        byte[] frame = ("id: " + id + "\nevent: " + event + "\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (Client c : clients.values()) c.offer(frame);
+    }
+
+    @Schedule(hour = "*", minute = "*", second = "*/20", persistent = false)
+    public void heartbeat() {
+        for (Client c : clients.values()) c.offer(PING);
+    }
+
+    /** @return connected dashboards on this node */
+    public int getClients() { return clients.size(); }
+
+    /** @return frames written since startup */
+    public long getSent() { return sent.get(); }
+
+    /** @return clients disconnected for falling behind */
+    public long getEvicted() { return evicted.get(); }
+
+    /** One connected dashboard. */
+    private final class Client implements WriteListener {
+
+        private final long id;
+        private final AsyncContext ac;
+        private final ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private ServletOutputStream out;
+
+        Client(long id, AsyncContext ac) {
+            this.id = id;
+            this.ac = ac;
+        }
+
+        void start() throws IOException {
+            out = ac.getResponse().getOutputStream();
+            out.setWriteListener(this);
+        }
+
+        void offer(byte[] frame) {
+            if (closed.get()) return;
+            if (!queue.offer(frame)) {
+                evicted.incrementAndGet();
+                LOG.fine("Disconnecting slow dashboard client " + id);
+                close();
+                return;
+            }
+            pump();
+        }
+
+        /** Write queued frames while the connection accepts them without blocking. */
+        private synchronized void pump() {
+            if (closed.get() || out == null) return;
+            try {
+                while (out.isReady()) {
+                    byte[] frame = queue.poll();
+                    if (frame == null) {
+                        out.flush();
+                        return;
+                    }
+                    out.write(frame);
+                    sent.incrementAndGet();
+                }
+                // Not ready: the container calls onWritePossible() when it is
+            } catch (IOException | IllegalStateException ex) {
+                close();
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            pump();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            clients.remove(id);
+            queue.clear();
+            try {
+                ac.complete();
+            } catch (IllegalStateException ignored) {
+                // Already completed by the container (timeout or client gone)
+            }
+        }
+    }
+
+    /** Drop the client of a request that ended on its own (timeout, error, client gone). */
+    void unregister(AsyncContext ac) {
+        for (Client c : clients.values()) {
+            if (c.ac == ac) c.close();
+        }
+    }
+}
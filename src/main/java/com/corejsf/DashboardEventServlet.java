@@ -0,0 +1,56 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Server-Sent Events stream for the admin dashboard (<code>GET /admin/events</code>).
+ *
+ * <p>Admins only. The request is switched to async mode and handed to
+ * {@link DashboardBroadcaster}; no request thread is held while it is open. Streams end
+ * after 30 minutes and the browser's <code>EventSource</code> reconnects on its own.</p>
+ */
+@WebServlet(urlPatterns = "/admin/events", asyncSupported = true)
+public class DashboardEventServlet extends HttpServlet {
+
+    private static final long STREAM_MILLIS = 30 * 60 * 1000L;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private DashboardBroadcaster broadcaster;
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (req.getSession(false) == null || !currentUser.isAdmin()) {
+            res.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        res.setContentType("text/event-stream");
+        res.setCharacterEncoding("UTF-8");
+        res.setHeader("Cache-Control", "no-cache");
+        res.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext ac = req.startAsync();
+        ac.setTimeout(STREAM_MILLIS);
+        ac.addListener(new AsyncListener() {
+            @Override public void onComplete(AsyncEvent e) { broadcaster.unregister(ac); }
+            @Override public void onTimeout(AsyncEvent e) { broadcaster.unregister(ac); }
+            @Override public void onError(AsyncEvent e) { broadcaster.unregister(ac); }
+            @Override public void onStartAsync(AsyncEvent e) { }
+        });
+        if (!broadcaster.register(ac)) {
+            res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            ac.complete();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonReader;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Node-local sink turning change events into compact notifications for the admin
+ * dashboards connected to this node (via {@link DashboardBroadcaster}).
+ *
+ * <p>Notifications carry what the users table shows, so the page can patch one row:
+ * <code>{"t":"SHEET_SAVED","emp":1001,"u":"jdoe","week":"2025-03-07"}</code>
+ * (<code>SHEET_STATUS</code> adds <code>"status":"APPROVED"</code>),
+ * <code>{"t":"EMPLOYEE_ADDED","emp":1002,"u":"asmith","name":"A Smith","role":"USER"}</code>,
+ * <code>{"t":"EMPLOYEE_DELETED","emp":1001,"u":"jdoe"}</code>. Sheet events only know the
+ * internal employee id; employee numbers and names are looked up once per batch and
+ * remembered. A batch with more than {@value #BULK_THRESHOLD} events (imports, weekly
+ * pre-creation, bulk approval) becomes a single <code>{"t":"BULK","n":…}</code> telling the page to reload
+ * the table instead.</p>
+ */
+@ApplicationScoped
+public class DashboardEventSink implements ChangeSink {
+
+    static final int BULK_THRESHOLD = 50;
+
+    private static final int NAME_CACHE_MAX = 10_000;
+
+    @Inject
+    private DashboardBroadcaster broadcaster;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    /** employee_id -> {emp_number, user_name, name}; access-ordered, bounded. */
+    private final Map<Long, String[]> names = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String[]> eldest) {
+                return size() > NAME_CACHE_MAX;
+            }
+        });
+
+    @Override
+    public String getName() { return "dashboard"; }
+
+    @Override
+    public boolean isNodeLocal() { return true; }
+
+    @Override
+    public void publish(List<ChangeEvent> batch) throws SQLException {
+        if (broadcaster.getClients() == 0) return;
+        ChangeEvent last = batch.get(batch.size() - 1);
+        if (batch.size() > BULK_THRESHOLD) {
+            broadcaster.broadcast(last.getSeq(), "change",
+                Json.createObjectBuilder().add("t", "BULK").add("n", batch.size()).build().toString());
+            return;
+        }
+        resolve(batch);
+        for (ChangeEvent e : batch) {
+            JsonObject data = parse(e.getPayload());
+            JsonObjectBuilder n = Json.createObjectBuilder().add("t", e.getType().name());
+            switch (e.getType()) {
+                case SHEET_CREATED, SHEET_SAVED, SHEET_STATUS -> {
+                    String[] who = names.get(data.getJsonNumber("employeeId").longValue());
+                    if (who == null) continue; // employee already purged
+                    n.add("emp", Integer.parseInt(who[0])).add("u", who[1])
+                     .add("week", data.getString("endDate", ""));
+                    if (data.containsKey("status")) n.add("status", data.getString("status"));
+                }
+                case EMPLOYEE_ADDED -> {
+                    String[] who = names.get(data.getJsonNumber("employeeId").longValue());
+                    n.add("emp", data.getInt("empNumber")).add("u", e.getKey())
+                     .add("name", who == null ? "" : who[2])
+                     .add("role", data.getString("role", "USER"));
+                }
+                case EMPLOYEE_DELETED -> n.add("emp", data.getInt("empNumber")).add("u", e.getKey());
+            }
+            broadcaster.broadcast(e.getSeq(), "change", n.build().toString());
+        }
+    }
+
+    /** Load names of employees mentioned in the batch that are not remembered yet. */
+    private void resolve(List<ChangeEvent> batch) throws SQLException {
+        Set<Long> missing = new LinkedHashSet<>();
+        for (ChangeEvent e : batch) {
+            if (e.getType() == ChangeEvent.Type.EMPLOYEE_DELETED) continue;
+            long id = parse(e.getPayload()).getJsonNumber("employeeId").longValue();
+            if (!names.containsKey(id)) missing.add(id);
+        }
+        if (missing.isEmpty()) return;
+        String sql = "SELECT employee_id, emp_number, user_name, name FROM employees WHERE employee_id IN ("
+            + String.join(",", Collections.nCopies(missing.size(), "?")) + ")";
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            int i = 1;
+            for (Long id : missing) ps.setLong(i++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.put(rs.getLong(1), new String[] {
+                        String.valueOf(rs.getInt(2)), rs.getString(3), rs.getString(4)});
+                }
+            }
+        }
+    }
+
+    private static JsonObject parse(String payload) {
+        try (JsonReader r = Json.createReader(new StringReader(payload))) {
+            return r.readObject();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+
+/**
+* Hands out JDBC connections for the repositories, routing reads to a replica when safe.
+* <p>
+* Routing rules for {@link #getConnection()}:
+* <ol>
+* <li>Outside a {@link ReadOnly} method: always the primary.</li>
+* <li>The current session wrote within the pin window
+*     (<code>timesheet.replica.pinMillis</code>, default 5s): primary (read-your-writes).</li>
+* <li>No replica configured, or its measured lag exceeds
+*     <code>timesheet.replica.maxLagMillis</code> (default 2s), or it failed recently: primary.</li>
+* <li>Otherwise: the replica.</li>
+* </ol>
+*
+* <p>The replica is the JNDI datasource named by <code>timesheet.read.ds</code>
+* (default <code>java:jboss/datasources/timesheetsReadDS</code>). If it does not exist, the
+* router silently runs primary-only. Lag is measured by {@link ReplicaLagMonitor} through the
+* <code>replication_heartbeat</code> row, which works with any two MySQL instances connected by
+* ordinary replication and needs no extra privileges.</p>
+*
+* <p>Connections are wrapped by {@link SqlMonitor}. Inside a {@link DbWork} scope,
+* statements get that scope's query timeout (see {@link DbGuard}), and a connection that cannot be obtained is reported as a
+* {@link SQLTransientConnectionException} so it counts for the circuit breaker.</p>
+*/
+@ApplicationScoped
+public class DataSourceRouter implements Serializable {
+
+    private static final Logger LOG = Logger.getLogger(DataSourceRouter.class.getName());
+
+    /** Nesting depth of {@link ReadOnly} methods on this thread. */
+    private static final ThreadLocal<int[]> READ_ONLY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Resource(lookup = "java:jboss/datasources/timesheetsDS")
+    private DataSource primary;
+
+    @Inject
+    private WriteToken writeToken;
+
+    /** Query timeout of the current {@link DbWork} scope. */
+    @Inject
+    private DbGuard guard;
+
+    /** Wraps every connection handed out, for timeouts and diagnostics. */
+    @Inject
+    private SqlMonitor monitor;
+
+    /** Optional replica; {@code null} when not configured. */
+    private transient DataSource replica;
+
+    private final long maxLagMillis = AppConfig.getLong("timesheet.replica.maxLagMillis", 2000);
+    private final long pinMillis = AppConfig.getLong("timesheet.replica.pinMillis", 5000);
+
+    /** Last measured replica lag; {@link Long#MAX_VALUE} until the first measurement. */
+    private volatile long replicaLagMillis = Long.MAX_VALUE;
+
+    @PostConstruct
+    public void init() {
+        String jndi = AppConfig.get("timesheet.read.ds", "java:jboss/datasources/timesheetsReadDS");
+        try {
+            replica = (DataSource) new InitialContext().lookup(jndi);
+            LOG.info("Read replica enabled: " + jndi);
+        } catch (NamingException | ClassCastException ex) {
+            replica = null;
+            LOG.info("No read replica at " + jndi + "; all queries use the primary.");
+        }
+    }
+
+    // ---------------- Connections ----------------
+
+    /**
+    * @return a replica connection inside a safe {@link ReadOnly} scope, otherwise a primary one
+    * @throws SQLException if the primary cannot be reached
+    */
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            long start = System.nanoTime();
+            try {
+                return monitor.track(replica.getConnection(), start, guard.currentTimeoutSeconds());
+            } catch (SQLException ex) {
+                monitor.track(null, start, 0);
+                replicaLagMillis = Long.MAX_VALUE; // fail over until the monitor sees it again
+                LOG.log(Level.WARNING, "Replica unavailable, falling back to primary", ex);
+            }
+        }
+        return getPrimaryConnection();
+    }
+
+    /**
+    * @return true if {@link #getConnection()} would hand out a replica connection right now.
+    *         Results read from it may be stale and must not be put into a shared cache.
+    */
+    public boolean readsFromReplica() {
+        return useReplica();
+    }
+
+    /** @return a connection to the primary, regardless of scope */
+    public Connection getPrimaryConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection c;
+        try {
+            c = primary.getConnection();
+        } catch (SQLException ex) {
+            monitor.track(null, start, 0);
+            if (ex instanceof SQLTransientConnectionException || ex instanceof SQLNonTransientConnectionException) throw ex;
+            // Pool timeouts come without a SQL state; say what they are
+            throw new SQLTransientConnectionException("No connection from the primary pool", "08001", ex);
+        }
+        return monitor.track(c, start, guard.currentTimeoutSeconds());
+    }
+
+    /**
+    * Record that the current session wrote, pinning its reads to the primary for a while.
+    * Harmless outside an HTTP session (background jobs).
+    */
+    public void markWrite() {
+        try {
+            writeToken.touch();
+        } catch (ContextNotActiveException ignored) {
+            // No session: nobody to guarantee read-your-writes for.
+        }
+    }
+
+    // ---------------- Lag ----------------
+
+    /**
+    * Measure replica lag: bump the heartbeat on the primary, then read it back from the replica.
+    * Called periodically by {@link ReplicaLagMonitor}.
+    */
+    void refreshLag() {
+        if (replica == null) return;
+        try (Connection c = primary.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                 "REPLACE INTO replication_heartbeat (id, beat_at) VALUES (1, NOW(3))")) {
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            return; // primary trouble is reported elsewhere
+        }
+        final String sql = "SELECT TIMESTAMPDIFF(MICROSECOND, beat_at, NOW(3)) FROM replication_heartbeat WHERE id = 1";
+        try (Connection c = replica.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            replicaLagMillis = rs.next() ? Math.max(0, rs.getLong(1) / 1000) : Long.MAX_VALUE;
+        } catch (SQLException ex) {
+            replicaLagMillis = Long.MAX_VALUE;
+        }
+    }
+
+    /** @return last measured replica lag in millis ({@link Long#MAX_VALUE} if unknown/unhealthy) */
+    public long getReplicaLagMillis() { return replicaLagMillis; }
+
+    /** @return true if a replica datasource is configured */
+    public boolean isReplicaConfigured() { return replica != null; }
+
+    // ---------------- Scope ----------------
+
+    static void enterReadOnly() { READ_ONLY_DEPTH.get()[0]++; }
+
+    static void exitReadOnly() { READ_ONLY_DEPTH.get()[0]--; }
+
+    private boolean useReplica() {
+        if (replica == null || READ_ONLY_DEPTH.get()[0] <= 0) return false;
+        if (replicaLagMillis > maxLagMillis) return false;
+        try {
+            long since = System.currentTimeMillis() - writeToken.getLastWriteMillis();
+            return since > Math.max(pinMillis, replicaLagMillis);
+        } catch (ContextNotActiveException ex) {
+            return true;
+        }
+    }
+}
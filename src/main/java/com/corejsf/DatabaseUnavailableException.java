@@ -0,0 +1,23 @@
+package com.corejsf;
+
+/**
+ * The database was not asked: its circuit breaker is open, or the operation's bulkhead
+ * had no free slot in time. The message is meant for the user.
+ *
+ * <p>Faces requests show <code>unavailable.html</code> (see <code>web.xml</code>); the JSON
+ * API answers 503 with <code>Retry-After</code> (see {@link DatabaseUnavailableMapper}).</p>
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** @return how long the caller should wait before trying again */
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,60 @@
+package com.corejsf;
+
+import jakarta.faces.FacesException;
+import jakarta.faces.context.ExceptionHandler;
+import jakarta.faces.context.ExceptionHandlerFactory;
+import jakarta.faces.context.ExceptionHandlerWrapper;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.ExceptionQueuedEvent;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Sends Faces requests that {@link DbGuard} turned away to <code>unavailable.html</code>.
+ *
+ * <p>By the time a {@link DatabaseUnavailableException} reaches the servlet container it
+ * is wrapped in EL and Faces exceptions, which the <code>web.xml</code> error page does not
+ * look through, and AJAX requests would only get a partial-response error. Registered in
+ * <code>faces-config.xml</code>.</p>
+ */
+public class DatabaseUnavailableHandler extends ExceptionHandlerWrapper {
+
+    /** Installs the handler in front of the implementation's. */
+    public static class Factory extends ExceptionHandlerFactory {
+
+        public Factory(ExceptionHandlerFactory wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public ExceptionHandler getExceptionHandler() {
+            return new DatabaseUnavailableHandler(getWrapped().getExceptionHandler());
+        }
+    }
+
+    public DatabaseUnavailableHandler(ExceptionHandler wrapped) {
+        super(wrapped);
+    }
+
+    @Override
+    public void handle() {
+        for (Iterator<ExceptionQueuedEvent> it = getUnhandledExceptionQueuedEvents().iterator(); it.hasNext(); ) {
+            Throwable t = it.next().getContext().getException();
+            while (t != null && !(t instanceof DatabaseUnavailableException)) t = t.getCause();
+            if (t == null) continue;
+            it.remove();
+            FacesContext ctx = FacesContext.getCurrentInstance();
+            ExternalContext ext = ctx.getExternalContext();
+            try {
+                ext.redirect(ext.getRequestContextPath() + "/unavailable.html");
+            } catch (IOException ex) {
+                throw new FacesException(ex);
+            }
+            ctx.responseComplete();
+            break;
+        }
+        getWrapped().handle();
+    }
+}
@@ -0,0 +1,24 @@
+package com.corejsf;
+
+import jakarta.json.Json;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Answers API calls that {@link DbGuard} turned away with 503 and a
+ * <code>Retry-After</code> header, so clients back off instead of retrying at once.
+ */
+@Provider
+public class DatabaseUnavailableMapper implements ExceptionMapper<DatabaseUnavailableException> {
+
+    @Override
+    public Response toResponse(DatabaseUnavailableException ex) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", ex.getRetryAfterSeconds())
+            .type(MediaType.APPLICATION_JSON)
+            .entity(Json.createObjectBuilder().add("error", ex.getMessage()).build())
+            .build();
+    }
+}
@@ -0,0 +1,271 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+* Keeps a slow or dead database from taking the whole server with it.
+* <p>
+* Every {@link DbWork} scope passes three checks:
+* <ol>
+* <li><b>Circuit breaker.</b> After <code>timesheet.db.breaker.failures</code> (default 5)
+*     consecutive connection failures or query timeouts, calls fail fast with
+*     {@link DatabaseUnavailableException} for <code>timesheet.db.breaker.openMillis</code>
+*     (default 30s). Then one trial call is let through; it closes the breaker or opens it
+*     again.</li>
+* <li><b>Bulkhead.</b> Each {@link DbWork.Kind} has its own number of concurrent calls
+*     (<code>timesheet.db.&lt;kind&gt;.maxConcurrent</code>) and waits at most
+*     <code>.waitMillis</code> for a slot, so exports cannot starve logins of worker
+*     threads and pool connections.</li>
+* <li><b>Query timeout.</b> Connections handed out by {@link DataSourceRouter} inside the
+*     scope set <code>.timeoutSeconds</code> on every statement they create (see
+*     {@link SqlMonitor}).</li>
+* </ol>
+* Waiting for a pool connection is bounded by the datasource's
+* <code>blocking-timeout-wait-millis</code>; a failure to get one counts for the breaker.
+* Other SQL errors (constraint violations, deadlocks) mean the database answered and count
+* as success. Counters are shown on the admin dashboard.
+*/
+@ApplicationScoped
+public class DbGuard {
+
+    private static final Logger LOG = Logger.getLogger(DbGuard.class.getName());
+
+    /** Kind of the guarded scope running on this thread, or null. */
+    private static final ThreadLocal<DbWork.Kind> CURRENT = new ThreadLocal<>();
+
+    /** What the guarded scope on this thread is doing (<code>Class.method</code>), or null. */
+    private static final ThreadLocal<String> OPERATION = new ThreadLocal<>();
+
+    /** Work run inside a guarded scope. */
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Concurrency limit and counters of one {@link DbWork.Kind}. */
+    public static final class Bulkhead {
+        private final DbWork.Kind kind;
+        private final int max;
+        private final long waitMillis;
+        private final int timeoutSeconds;
+        private final Semaphore slots;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        Bulkhead(DbWork.Kind kind) {
+            this.kind = kind;
+            this.max = Math.max(0, kind.maxConcurrent());
+            this.waitMillis = Math.max(0, kind.waitMillis());
+            this.timeoutSeconds = Math.max(0, kind.timeoutSeconds());
+            this.slots = max == 0 ? null : new Semaphore(max);
+        }
+
+        public String getName() { return kind.getName(); }
+
+        /** @return concurrent calls allowed; 0 for unlimited */
+        public int getMax() { return max; }
+
+        public int getInUse() { return slots == null ? 0 : max - slots.availablePermits(); }
+
+        public int getTimeoutSeconds() { return timeoutSeconds; }
+
+        public long getCalls() { return calls.sum(); }
+
+        /** @return calls turned away because no slot freed up in time */
+        public long getRejected() { return rejected.sum(); }
+
+        /** @return statements cancelled by the query timeout */
+        public long getTimeouts() { return timeouts.sum(); }
+
+        boolean acquire() throws InterruptedException {
+            return slots == null || slots.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        }
+
+        void release() {
+            if (slots != null) slots.release();
+        }
+    }
+
+    private final int failureThreshold = AppConfig.getInt("timesheet.db.breaker.failures", 5);
+    private final long openMillis = AppConfig.getLong("timesheet.db.breaker.openMillis", 30_000);
+
+    private final Map<DbWork.Kind, Bulkhead> bulkheads = new EnumMap<>(DbWork.Kind.class);
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private volatile String lastFailure;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialRunning = new AtomicBoolean();
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        for (DbWork.Kind kind : DbWork.Kind.values()) bulkheads.put(kind, new Bulkhead(kind));
+    }
+
+    /**
+    * Run {@code work} as {@code kind}. Inside an existing scope it simply runs, under the
+    * outer kind.
+    *
+    * @param operation what the work is, as shown by {@link SqlMonitor}
+    * @throws DatabaseUnavailableException if the breaker is open or no slot was free in time
+    */
+    public <T, E extends Exception> T call(DbWork.Kind kind, String operation, Work<T, E> work) throws E {
+        if (CURRENT.get() != null) return work.call();
+
+        boolean trial = admit();
+        Bulkhead b = bulkheads.get(kind);
+        boolean acquired = false;
+        try {
+            acquired = b.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!acquired) {
+            if (trial) trialRunning.set(false);
+            b.rejected.increment();
+            throw new DatabaseUnavailableException("The server is busy. Please try again in a moment.", 1);
+        }
+        b.calls.increment();
+        CURRENT.set(kind);
+        OPERATION.set(operation);
+        try {
+            T result = work.call();
+            onSuccess();
+            return result;
+        } catch (Exception ex) {
+            SQLException cause = healthFailure(ex);
+            if (cause == null) {
+                onSuccess();
+            } else {
+                if (cause instanceof SQLTimeoutException) b.timeouts.increment();
+                onFailure(cause, trial);
+            }
+            throw ex;
+        } finally {
+            CURRENT.remove();
+            OPERATION.remove();
+            b.release();
+        }
+    }
+
+    /**
+    * Fail fast while the breaker is open, without taking a slot or the half-open trial.
+    * For responses that are committed before their database work runs (streaming).
+    *
+    * @throws DatabaseUnavailableException if the breaker is open
+    */
+    public void checkAvailable() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt < openMillis) {
+            shortCircuited.increment();
+            throw unavailable();
+        }
+    }
+
+    /** @return query timeout of the scope on this thread in seconds; 0 outside a scope or for none */
+    int currentTimeoutSeconds() {
+        DbWork.Kind kind = CURRENT.get();
+        return kind == null ? 0 : bulkheads.get(kind).timeoutSeconds;
+    }
+
+    /** @return operation of the scope on this thread, or null */
+    static String currentOperation() {
+        return OPERATION.get();
+    }
+
+    // ---------------- Breaker ----------------
+
+    /** @return true if this call is the half-open trial */
+    private boolean admit() {
+        if (state == State.CLOSED) return false;
+        if (System.currentTimeMillis() - openedAt >= openMillis && trialRunning.compareAndSet(false, true)) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        shortCircuited.increment();
+        throw unavailable();
+    }
+
+    private DatabaseUnavailableException unavailable() {
+        long left = Math.max(1, (openedAt + openMillis - System.currentTimeMillis()) / 1000);
+        return new DatabaseUnavailableException(
+                "The database is not responding. Please try again in a minute.", left);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            trialRunning.set(false);
+            LOG.info("Database circuit breaker closed");
+        }
+    }
+
+    private void onFailure(SQLException cause, boolean trial) {
+        lastFailure = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        if (trial || (consecutiveFailures.incrementAndGet() >= failureThreshold && state == State.CLOSED)) {
+            openedAt = System.currentTimeMillis();
+            state = State.OPEN;
+            trialRunning.set(false);
+            opens.increment();
+            LOG.warning("Database circuit breaker opened for " + openMillis + " ms: " + lastFailure);
+        }
+    }
+
+    /** @return the SQL error in {@code ex}'s causes that says the database is unhealthy, or null */
+    static SQLException healthFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLTimeoutException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException) {
+                return (SQLException) t;
+            }
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("08")) return (SQLException) t;
+            }
+            if (t.getCause() == t) break;
+        }
+        return null;
+    }
+
+    // ---------------- Metrics ----------------
+
+    public State getState() { return state; }
+
+    public int getConsecutiveFailures() { return consecutiveFailures.get(); }
+
+    /** @return how often the breaker has opened since startup */
+    public long getOpens() { return opens.sum(); }
+
+    /** @return calls failed fast while the breaker was open */
+    public long getShortCircuited() { return shortCircuited.sum(); }
+
+    /** @return the last connection failure or timeout, or null */
+    public String getLastFailure() { return lastFailure; }
+
+    /** @return one entry per operation class, in declaration order */
+    public List<Bulkhead> getBulkheads() {
+        return new ArrayList<>(bulkheads.values());
+    }
+}
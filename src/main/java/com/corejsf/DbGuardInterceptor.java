@@ -0,0 +1,31 @@
+package com.corejsf;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.io.Serializable;
+
+/**
+ * Runs methods annotated with {@link DbWork} through {@link DbGuard}. Placed before
+ * {@link ReadOnlyInterceptor} so a rejected call never touches the router.
+ */
+@DbWork
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION - 10)
+public class DbGuardInterceptor implements Serializable {
+
+    @Inject
+    private DbGuard guard;
+
+    @AroundInvoke
+    public Object guard(InvocationContext ctx) throws Exception {
+        DbWork work = ctx.getMethod().getAnnotation(DbWork.class);
+        if (work == null) work = ctx.getMethod().getDeclaringClass().getAnnotation(DbWork.class);
+        DbWork.Kind kind = work == null ? DbWork.Kind.INTERACTIVE : work.value();
+        String operation = ctx.getMethod().getDeclaringClass().getSimpleName() + "." + ctx.getMethod().getName();
+        return guard.call(kind, operation, ctx::proceed);
+    }
+}
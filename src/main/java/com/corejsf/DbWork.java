@@ -0,0 +1,71 @@
+package com.corejsf;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the class of database work a bean or method does, so {@link DbGuard} can give it
+ * its own query timeout and concurrency limit (bulkhead).
+ *
+ * <p>A method annotation overrides the class annotation. Scopes do not nest: a call made
+ * inside a guarded scope runs under the outer kind, so a login that looks up the
+ * employee is one login, not a login plus an interactive read. See {@link DbGuardInterceptor}.</p>
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface DbWork {
+
+    /** Operation classes, each with its own limits (<code>timesheet.db.&lt;name&gt;.*</code>). */
+    enum Kind {
+        /** Credential checks and the login lookup: must stay responsive. */
+        LOGIN("login", 3, 20, 500),
+        /** Loading and saving one user's timesheets. */
+        INTERACTIVE("interactive", 5, 40, 1000),
+        /** Directory pages, counts and bulk approval on the admin dashboard. */
+        ADMIN("admin", 10, 10, 1000),
+        /** Range reads and CSV exports that stream many rows. */
+        REPORT("report", 60, 4, 0),
+        /** Scheduled jobs: no limit and no timeout, but stopped by the breaker. */
+        BATCH("batch", 0, 0, 0);
+
+        private final String name;
+        private final int timeoutSeconds;
+        private final int maxConcurrent;
+        private final long waitMillis;
+
+        Kind(String name, int timeoutSeconds, int maxConcurrent, long waitMillis) {
+            this.name = name;
+            this.timeoutSeconds = timeoutSeconds;
+            this.maxConcurrent = maxConcurrent;
+            this.waitMillis = waitMillis;
+        }
+
+        public String getName() { return name; }
+
+        /** @return configured statement timeout in seconds; 0 for none */
+        int timeoutSeconds() {
+            return AppConfig.getInt("timesheet.db." + name + ".timeoutSeconds", timeoutSeconds);
+        }
+
+        /** @return configured number of concurrent calls; 0 for unlimited */
+        int maxConcurrent() {
+            return AppConfig.getInt("timesheet.db." + name + ".maxConcurrent", maxConcurrent);
+        }
+
+        /** @return configured wait for a free slot before giving up */
+        long waitMillis() {
+            return AppConfig.getLong("timesheet.db." + name + ".waitMillis", waitMillis);
+        }
+    }
+
+    @Nonbinding
+    Kind value() default Kind.INTERACTIVE;
+}
@@ -0,0 +1,105 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backing bean for <code>diagnostics.xhtml</code>: startup, live JDBC, cache, session and
+ * database-guard state of the node serving the request.
+ *
+ * <p>Scope: {@link RequestScoped}; every view reads fresh values. All figures come from
+ * counters that are always on ({@link SqlMonitor}, {@link RepoCache},
+ * {@link SessionTracker}, {@link DbGuard}); only the session memory estimate does work
+ * when the page is shown.</p>
+ */
+@Named("diagnosticsBean")
+@RequestScoped
+public class DiagnosticsBean implements Serializable {
+
+    /** Statements listed in the slow-statement table. */
+    private static final int TOP_STATEMENTS = 15;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private SqlMonitor sql;
+
+    @Inject
+    private RepoCache cache;
+
+    @Inject
+    private SessionTracker sessions;
+
+    @Inject
+    private DbGuard dbGuard;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private WarmUp warmUp;
+
+    @Inject
+    private StartupLatency startup;
+
+    @Inject
+    private SchemaMigrator schema;
+
+    @Inject
+    private OutboxRelay outbox;
+
+    private SessionTracker.MemoryEstimate memory;
+
+    /**
+     * View action: only administrators may see this page.
+     *
+     * @return null to render, or "login" / "userHome" to send the visitor away
+     */
+    public String requireAdmin() {
+        if (!currentUser.isLoggedIn()) return "login";
+        return currentUser.isAdmin() ? null : "userHome";
+    }
+
+    public SqlMonitor getSql() { return sql; }
+
+    public List<SqlMonitor.Stat> getTopStatements() { return sql.topStatements(TOP_STATEMENTS); }
+
+    /** @return the WildFly pool statistics as a list, for <code>ui:repeat</code> */
+    public List<Map.Entry<String, String>> getPoolStatistics() {
+        return new ArrayList<>(sql.getPoolStatistics().entrySet());
+    }
+
+    public RepoCache getCache() { return cache; }
+
+    public SessionTracker getSessions() { return sessions; }
+
+    /** @return the session memory estimate, computed once per request */
+    public SessionTracker.MemoryEstimate getMemory() {
+        if (memory == null) memory = sessions.estimateMemory();
+        return memory;
+    }
+
+    public DbGuard getDbGuard() { return dbGuard; }
+
+    public DataSourceRouter getRouter() { return ds; }
+
+    public WarmUp getWarmUp() { return warmUp; }
+
+    public StartupLatency getStartup() { return startup; }
+
+    public SchemaMigrator getSchema() { return schema; }
+
+    public OutboxRelay getOutbox() { return outbox; }
+
+    /** Clears the slow-statement totals. */
+    public void resetStatements() {
+        if (currentUser.isAdmin()) sql.resetStatements();
+    }
+}
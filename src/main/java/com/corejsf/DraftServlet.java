@@ -0,0 +1,112 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Autosave endpoint of the timesheet edit page (<code>POST /draft</code>).
+ *
+ * <p>Accepts the current grid of the sheet selected in the caller's session as JSON
+ * (see {@link TimesheetDraft}), normalises it and hands it to {@link DraftStore}. The
+ * page debounces edits, so a busy editor sends one request every few seconds.</p>
+ *
+ * <p>Responses: 204 stored, 400 malformed, 401 not logged in, 409 not the selected
+ * sheet, 413 too large, 429 too many pending drafts (retry later).</p>
+ */
+@WebServlet("/draft")
+public class DraftServlet extends HttpServlet {
+
+    private static final int MAX_BYTES = 64 * 1024;
+    private static final int MAX_ROWS = 100;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private DraftStore drafts;
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (req.getSession(false) == null || !currentUser.isLoggedIn()) {
+            res.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (req.getContentLengthLong() > MAX_BYTES) {
+            res.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        byte[] raw;
+        try (InputStream in = req.getInputStream()) {
+            raw = in.readNBytes(MAX_BYTES + 1);
+        }
+        if (raw.length > MAX_BYTES) {
+            res.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        long timesheetId;
+        String payload;
+        try (JsonReader reader = Json.createReader(new ByteArrayInputStream(raw))) {
+            JsonObject body = reader.readObject();
+            timesheetId = body.getJsonNumber("timesheetId").longValueExact();
+            payload = normalise(body.getJsonArray("rows"));
+        } catch (JsonException | NullPointerException | ClassCastException | ArithmeticException ex) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (!Objects.equals(timesheetId, currentUser.getSelectedTimesheetId())) {
+            res.sendError(HttpServletResponse.SC_CONFLICT);
+            return;
+        }
+        if (!drafts.offer(new TimesheetDraft(timesheetId, payload, System.currentTimeMillis()))) {
+            res.setHeader("Retry-After", "10");
+            res.sendError(429);
+            return;
+        }
+        res.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    /**
+    * Rebuild the rows with only the known fields, bounded in count and length.
+    *
+    * @return compact JSON payload
+    */
+    private static String normalise(JsonArray rows) {
+        if (rows.size() > MAX_ROWS) throw new JsonException("too many rows");
+        JsonArrayBuilder out = Json.createArrayBuilder();
+        for (JsonValue v : rows) {
+            JsonObject r = v.asJsonObject();
+            JsonArrayBuilder hours = Json.createArrayBuilder();
+            JsonArray h = r.getJsonArray("hours");
+            for (int d = 0; d < 7; d++) {
+                hours.add(d < h.size() ? clip(h.getString(d, ""), 8) : "");
+            }
+            out.add(Json.createObjectBuilder()
+                .add("project", clip(r.getString("project", ""), 11))
+                .add("wp", clip(r.getString("wp", ""), 64))
+                .add("hours", hours)
+                .add("notes", clip(r.getString("notes", ""), 512)));
+        }
+        return Json.createObjectBuilder().add("rows", out).build().toString();
+    }
+
+    private static String clip(String s, int max) {
+        s = s.trim();
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+}
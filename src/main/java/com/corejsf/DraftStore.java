@@ -0,0 +1,229 @@
+package com.corejsf;
+
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Unsaved timesheet edits, autosaved from the edit page by {@link DraftServlet}.
+* <p>
+* Only the latest draft per timesheet is kept: a newer autosave replaces the pending one
+* in a bounded in-memory map (<code>timesheet.draft.maxPending</code>, default 20000), so
+* any number of keystrokes between two flushes costs one write. Every five seconds the
+* pending drafts are upserted into <code>timesheet_drafts</code> with multi-row statements
+* of up to {@value #BATCH_SIZE} drafts and dropped from memory; a draft replaced during the
+* flush stays pending for the next one.
+* <p>
+* Drafts never touch <code>timesheets</code> / <code>timesheet_rows</code>. The edit page
+* restores a draft when it is opened and {@link #discard}s it once the sheet is saved.
+* <p>
+* Nodes flush independently, so a discard leaves a tombstone (<code>payload</code> NULL,
+* <code>saved_at</code> = discard time) instead of deleting the row: a flush only replaces
+* a stored draft or tombstone with a newer one, and {@link #find} ignores a pending draft
+* older than the stored tombstone. Tombstones are deleted after {@value #TOMBSTONE_HOURS}
+* hours. Flushes use a <code>VALUES ROW(...)</code> table constructor, which needs
+* MySQL 8.0.19 or later.
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DraftStore {
+
+    private static final Logger LOG = Logger.getLogger(DraftStore.class.getName());
+
+    private static final int BATCH_SIZE = 500;
+
+    /** How long a discard is remembered; far longer than any flush can be delayed. */
+    private static final int TOMBSTONE_HOURS = 24;
+
+    private final int maxPending = Math.max(100, AppConfig.getInt("timesheet.draft.maxPending", 20_000));
+
+    /** Drafts not yet written, by timesheet id. */
+    private final Map<Long, TimesheetDraft> pending = new ConcurrentHashMap<>();
+
+    /** Serialises this node's table writes with {@link #discard}; tombstones cover the other nodes. */
+    private final Object writeLock = new Object();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong statements = new AtomicLong();
+
+    @Inject
+    private DataSourceRouter ds;
+
+    /**
+    * Keep the latest draft of a timesheet until the next flush.
+    *
+    * @return false if the map is full (the client retries later)
+    */
+    public boolean offer(TimesheetDraft draft) {
+        if (pending.size() >= maxPending && !pending.containsKey(draft.getTimesheetId())) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        accepted.incrementAndGet();
+        if (pending.put(draft.getTimesheetId(), draft) != null) coalesced.incrementAndGet();
+        return true;
+    }
+
+    /**
+    * @param timesheetId sheet being edited
+    * @return its latest draft (pending or stored), or null if there is none
+    */
+    public TimesheetDraft find(Long timesheetId) {
+        if (timesheetId == null) return null;
+        TimesheetDraft d = pending.get(timesheetId);
+        final String sql = "SELECT payload, saved_at FROM timesheet_drafts WHERE timesheet_id = ?";
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, timesheetId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return d;
+                long savedAt = rs.getTimestamp("saved_at").getTime();
+                // Pending here, but discarded or replaced on another node since
+                if (d != null && d.getSavedAt() > savedAt) return d;
+                String payload = rs.getString("payload");
+                return payload == null ? null : new TimesheetDraft(timesheetId, payload, savedAt);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("find draft failed", ex);
+        }
+    }
+
+    /**
+    * Forget a draft after its sheet was saved (or the user threw it away), leaving a
+    * tombstone so older drafts still pending on other nodes are not written back.
+    */
+    public void discard(Long timesheetId) {
+        if (timesheetId == null) return;
+        final String sql = """
+            INSERT INTO timesheet_drafts (timesheet_id, employee_id, payload, saved_at)
+            SELECT timesheet_id, employee_id, NULL, ? FROM timesheets WHERE timesheet_id = ?
+            ON DUPLICATE KEY UPDATE payload = NULL, saved_at = ?
+        """;
+        synchronized (writeLock) {
+            pending.remove(timesheetId);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            try (Connection c = ds.getPrimaryConnection();
+                 PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, timesheetId);
+                ps.setTimestamp(3, now);
+                ps.executeUpdate();
+            } catch (SQLException ex) {
+                throw new RuntimeException("discard draft failed", ex);
+            }
+        }
+    }
+
+    /** Write all pending drafts. */
+    @Schedule(hour = "*", minute = "*", second = "*/5", persistent = false)
+    public void flush() {
+        if (pending.isEmpty() || !running.compareAndSet(false, true)) return;
+        try {
+            List<TimesheetDraft> batch = new ArrayList<>(BATCH_SIZE);
+            for (TimesheetDraft d : pending.values()) {
+                batch.add(d);
+                if (batch.size() == BATCH_SIZE) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) write(batch);
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Draft flush failed; drafts stay pending", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Delete old tombstones. */
+    @Schedule(hour = "*", minute = "17", persistent = false)
+    public void pruneTombstones() {
+        final String sql = "DELETE FROM timesheet_drafts WHERE payload IS NULL AND saved_at < NOW(3) - INTERVAL ? HOUR LIMIT 10000";
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, TOMBSTONE_HOURS);
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            LOG.log(Level.FINE, "Draft tombstone cleanup failed; retried next hour", ex);
+        }
+    }
+
+    /** @return autosaves received since startup */
+    public long getAccepted() { return accepted.get(); }
+
+    /** @return autosaves that replaced a pending draft instead of causing a write */
+    public long getCoalesced() { return coalesced.get(); }
+
+    /** @return autosaves refused because the pending map was full */
+    public long getRejected() { return rejected.get(); }
+
+    /** @return drafts written to the table */
+    public long getWritten() { return written.get(); }
+
+    /** @return upsert statements executed */
+    public long getStatements() { return statements.get(); }
+
+    /** @return drafts waiting for the next flush */
+    public int getPending() { return pending.size(); }
+
+    // ---------------- Internals ----------------
+
+    /**
+    * Upsert one batch. The join with <code>timesheets</code> supplies the owner and skips
+    * sheets that were deleted or archived meanwhile. A stored draft or tombstone is only
+    * replaced by a newer draft. <code>VALUES ROW(...)</code> needs MySQL 8.0.19+.
+    */
+    private void write(List<TimesheetDraft> batch) throws SQLException {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) values.append(i == 0 ? "ROW(?,?,?)" : ",ROW(?,?,?)");
+        final String sql = """
+            INSERT INTO timesheet_drafts (timesheet_id, employee_id, payload, saved_at)
+            SELECT t.timesheet_id, t.employee_id, d.payload, d.saved_at
+            FROM (VALUES %s) AS d (timesheet_id, payload, saved_at)
+            JOIN timesheets t ON t.timesheet_id = d.timesheet_id
+            ON DUPLICATE KEY UPDATE
+                payload = IF(d.saved_at > timesheet_drafts.saved_at, d.payload, timesheet_drafts.payload),
+                saved_at = GREATEST(timesheet_drafts.saved_at, d.saved_at)
+        """.formatted(values);
+        synchronized (writeLock) {
+            try (Connection c = ds.getPrimaryConnection();
+                 PreparedStatement ps = c.prepareStatement(sql)) {
+                int p = 1;
+                for (TimesheetDraft d : batch) {
+                    ps.setLong(p++, d.getTimesheetId());
+                    ps.setString(p++, d.getPayload());
+                    ps.setTimestamp(p++, new Timestamp(d.getSavedAt()));
+                }
+                ps.executeUpdate();
+            }
+            statements.incrementAndGet();
+            for (TimesheetDraft d : batch) {
+                // Only if not replaced while we were writing (written or superseded alike)
+                if (pending.remove(d.getTimesheetId(), d)) written.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+* Hi/lo allocator for <code>employees.emp_number</code>.
+* <p>
+* Numbers are reserved from the <code>id_sequences</code> table in blocks
+* (<code>timesheet.empNumber.blockSize</code>, default 50): one short transaction takes a
+* row lock on the sequence, advances it by the block size and commits. Numbers inside the
+* block are then handed out with a lock-free counter, so concurrent adds on one node never
+* touch the database and never collide across nodes.
+*
+* <p>Unused numbers of a block are lost on restart, so employee numbers may have gaps.
+* The sequence row is seeded from <code>MAX(emp_number)+1</code> the first time it is used.</p>
+*/
+@ApplicationScoped
+public class EmpNumberAllocator implements Serializable {
+
+    /** Name of the row in <code>id_sequences</code>. */
+    private static final String SEQUENCE = "emp_number";
+
+    private final int blockSize = Math.max(1, AppConfig.getInt("timesheet.empNumber.blockSize", 50));
+
+    /** Block currently being handed out on this node. */
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+
+    @Inject
+    private DataSourceRouter ds;
+
+    /**
+    * @return the next unused employee number
+    */
+    public int next() {
+        while (true) {
+            Block b = current.get();
+            int n = b.next.getAndIncrement();
+            if (n < b.limit) return n;
+            synchronized (this) {
+                if (current.get() == b) {
+                    int start = reserve(blockSize);
+                    current.set(new Block(start, start + blockSize));
+                }
+            }
+        }
+    }
+
+    /**
+    * Reserve a contiguous range directly from the sequence, bypassing the node-local block.
+    * Used by bulk provisioning.
+    *
+    * @param count how many numbers are needed
+    * @return first number of the range {@code [start, start + count)}
+    */
+    public int reserve(int count) {
+        final String seed = """
+            INSERT IGNORE INTO id_sequences (name, next_val)
+            SELECT ?, COALESCE(MAX(emp_number), 0) + 1 FROM employees
+        """;
+        final String lock = "SELECT next_val FROM id_sequences WHERE name = ? FOR UPDATE";
+        final String bump = "UPDATE id_sequences SET next_val = next_val + ? WHERE name = ?";
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                int start;
+                try (PreparedStatement ps = c.prepareStatement(lock)) {
+                    ps.setString(1, SEQUENCE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        start = rs.next() ? rs.getInt(1) : -1;
+                    }
+                }
+                if (start < 0) {
+                    // First use: seed once, then take the lock on the new row
+                    try (PreparedStatement ps = c.prepareStatement(seed)) {
+                        ps.setString(1, SEQUENCE);
+                        ps.executeUpdate();
+                    }
+                    try (PreparedStatement ps = c.prepareStatement(lock)) {
+                        ps.setString(1, SEQUENCE);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            rs.next();
+                            start = rs.getInt(1);
+                        }
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(bump)) {
+                    ps.setInt(1, count);
+                    ps.setString(2, SEQUENCE);
+                    ps.executeUpdate();
+                }
+                c.commit();
+                return start;
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Employee number allocation failed", ex);
+        }
+    }
+
+    /** Half-open range {@code [next, limit)} of reserved numbers. */
+    private static final class Block implements Serializable {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicInteger next;
+        final int limit;
+
+        Block(int start, int limit) {
+            this.next = new AtomicInteger(start);
+            this.limit = limit;
+        }
+    }
+}
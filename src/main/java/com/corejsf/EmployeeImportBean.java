@@ -0,0 +1,63 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.context.FacesContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.servlet.http.Part;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+
+/**
+ * Backing bean for the CSV employee upload on the admin dashboard.
+ *
+ * <p>Scope: {@link RequestScoped} — the upload is a single request; the outcome is
+ * reported with {@link FacesMessage}s.</p>
+ *
+ * <p>The heavy lifting (set-based validation, batched chunked inserts) happens in
+ * {@link EmployeeImportService}.</p>
+ */
+@Named("employeeImportBean")
+@RequestScoped
+public class EmployeeImportBean implements Serializable {
+
+    /** How many individual row errors are echoed back to the page. */
+    private static final int MAX_SHOWN_ERRORS = 20;
+
+    /** Service that performs the import. */
+    @Inject
+    private EmployeeImportService importService;
+
+    /** Uploaded CSV file. */
+    private Part file;
+
+    /** @return the uploaded file part */
+    public Part getFile() { return file; }
+
+    /** @param file the uploaded file part */
+    public void setFile(Part file) { this.file = file; }
+
+    /**
+     * Imports the uploaded CSV and reports counts plus the first rejected rows.
+     */
+    public void upload() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        if (file == null || file.getSize() == 0) {
+            ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, "Choose a CSV file first.", null));
+            return;
+        }
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = importService.importCsv(in);
+            ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
+                String.format("Imported %d employees in %.1f s; %d rows rejected.",
+                    report.getImported(), report.getElapsedMillis() / 1000.0, report.getErrorCount()),
+                null));
+            report.getErrors().stream().limit(MAX_SHOWN_ERRORS).forEach(err ->
+                ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, err.toString(), null)));
+        } catch (IOException | RuntimeException ex) {
+            ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, "Import failed", ex.getMessage()));
+        }
+    }
+}
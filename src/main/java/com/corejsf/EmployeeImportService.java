@@ -0,0 +1,285 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+* Bulk provisioning of employees and their default credentials.
+* <p>
+* Compared with calling {@link EmployeeRepo#addEmployee} per person (three lookups plus two
+* inserts each), the import:
+* <ul>
+* <li>validates uniqueness against the whole batch and the database with set-based
+*     <code>IN (...)</code> queries,</li>
+* <li>reserves all missing employee numbers with one {@link EmpNumberAllocator#reserve} call,</li>
+* <li>inserts <code>employees</code> and <code>credentials</code> with JDBC batches, one
+*     transaction per chunk of {@value #CHUNK_SIZE} rows.</li>
+* </ul>
+* A chunk that fails as a whole (e.g. a concurrent add took a user name) is retried row by
+* row, so bad rows are reported individually and never abort the batch.
+*
+* <p>CSV format, one employee per line, optional header line:
+* <code>name,user_name[,emp_number[,role]]</code> where an empty or 0 emp_number is allocated and
+* role is <code>ADMIN</code> or <code>USER</code> (default).</p>
+*/
+@ApplicationScoped
+public class EmployeeImportService implements Serializable {
+
+    /** Rows per insert transaction. */
+    static final int CHUNK_SIZE = 500;
+
+    /** Values per set-based lookup query. */
+    private static final int LOOKUP_SIZE = 1000;
+
+    /** Default password assigned to imported accounts (same policy as addEmployee). */
+    private static final String DEFAULT_PASSWORD = "password";
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private EmpNumberAllocator empNumbers;
+
+    @Inject
+    private EmployeeStore employees;
+
+    @Inject
+    private Outbox outbox;
+
+    /** One parsed input line. */
+    static final class Candidate {
+        final long line;
+        final String name;
+        final String userName;
+        int empNumber;
+        final boolean admin;
+
+        Candidate(long line, String name, String userName, int empNumber, boolean admin) {
+            this.line = line;
+            this.name = name;
+            this.userName = userName;
+            this.empNumber = empNumber;
+            this.admin = admin;
+        }
+    }
+
+    /**
+    * Parse and import a CSV stream.
+    *
+    * @param in UTF-8 CSV input (closed by the caller)
+    * @return per-row outcome
+    */
+    public ImportReport importCsv(InputStream in) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        List<Candidate> candidates = new ArrayList<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String raw;
+        long lineNo = 0;
+        while ((raw = reader.readLine()) != null) {
+            lineNo++;
+            if (raw.isBlank()) continue;
+            List<String> f = CsvParser.parseLine(raw);
+            if (lineNo == 1 && "name".equalsIgnoreCase(CsvParser.field(f, 0))) continue; // header
+
+            String name = CsvParser.field(f, 0);
+            String userName = CsvParser.field(f, 1);
+            String num = CsvParser.field(f, 2);
+            String role = CsvParser.field(f, 3);
+            int empNumber;
+            try {
+                empNumber = num.isEmpty() ? 0 : Integer.parseInt(num);
+            } catch (NumberFormatException ex) {
+                report.addError(lineNo, "Employee # is not a whole number: " + num);
+                continue;
+            }
+            if (!role.isEmpty() && !role.equalsIgnoreCase("ADMIN") && !role.equalsIgnoreCase("USER")) {
+                report.addError(lineNo, "Unknown role: " + role);
+                continue;
+            }
+            candidates.add(new Candidate(lineNo, name, userName, empNumber, role.equalsIgnoreCase("ADMIN")));
+        }
+
+        importCandidates(candidates, report);
+        report.setElapsedMillis(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    /**
+    * Validate and insert already parsed candidates, adding results to {@code report}.
+    * Entry point for API callers that do not start from CSV.
+    */
+    public void importCandidates(List<Candidate> candidates, ImportReport report) {
+        List<Candidate> valid = validate(candidates, report);
+        if (valid.isEmpty()) return;
+
+        // Reserve numbers for everyone without one, in a single sequence round trip
+        long missing = valid.stream().filter(c -> c.empNumber == 0).count();
+        if (missing > 0) {
+            int next = empNumbers.reserve((int) missing);
+            for (Candidate c : valid) {
+                if (c.empNumber == 0) c.empNumber = next++;
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            List<Candidate> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+            try {
+                insertChunk(chunk);
+                report.addImported(chunk.size());
+            } catch (SQLException ex) {
+                // Isolate the offending rows
+                for (Candidate c : chunk) {
+                    try {
+                        insertChunk(List.of(c));
+                        report.addImported(1);
+                    } catch (SQLException rowEx) {
+                        report.addError(c.line, rowEx.getMessage());
+                    }
+                }
+            }
+        }
+        ds.markWrite();
+        employees.invalidateCounts();
+    }
+
+    // ---------------- Validation ----------------
+
+    /** Field checks, in-batch duplicates, then set-based checks against the database. */
+    private List<Candidate> validate(List<Candidate> candidates, ImportReport report) {
+        Set<String> seenUsers = new HashSet<>();
+        Set<Integer> seenNumbers = new HashSet<>();
+        List<Candidate> ok = new ArrayList<>();
+        for (Candidate c : candidates) {
+            if (c.name == null || c.name.isBlank()) {
+                report.addError(c.line, "Name is required.");
+            } else if (!c.name.matches("^[A-Za-z\\s'-]+$")) {
+                report.addError(c.line, "Use letters, spaces, hyphens, apostrophes only.");
+            } else if (c.userName == null || c.userName.isBlank()) {
+                report.addError(c.line, "Username is required.");
+            } else if (!seenUsers.add(c.userName.toLowerCase(Locale.ROOT))) {
+                report.addError(c.line, "Username repeated in this file: " + c.userName);
+            } else if (c.empNumber != 0 && !seenNumbers.add(c.empNumber)) {
+                report.addError(c.line, "Employee number repeated in this file: " + c.empNumber);
+            } else {
+                ok.add(c);
+            }
+        }
+
+        Set<String> takenUsers = existing("user_name", ok.stream().map(c -> (Object) c.userName).toList());
+        Set<String> takenNumbers = existing("emp_number",
+                ok.stream().filter(c -> c.empNumber != 0).map(c -> (Object) c.empNumber).toList());
+
+        List<Candidate> valid = new ArrayList<>();
+        for (Candidate c : ok) {
+            if (takenUsers.contains(c.userName.toLowerCase(Locale.ROOT))) {
+                report.addError(c.line, "Username already exists: " + c.userName);
+            } else if (c.empNumber != 0 && takenNumbers.contains(String.valueOf(c.empNumber))) {
+                report.addError(c.line, "Employee number already exists: " + c.empNumber);
+            } else {
+                valid.add(c);
+            }
+        }
+        return valid;
+    }
+
+    /**
+    * @return the values of {@code column} (lower-cased strings) that already exist,
+    *         looked up in chunks with <code>IN (...)</code>
+    */
+    private Set<String> existing(String column, List<Object> values) {
+        Set<String> found = new HashSet<>();
+        for (int from = 0; from < values.size(); from += LOOKUP_SIZE) {
+            List<Object> part = values.subList(from, Math.min(from + LOOKUP_SIZE, values.size()));
+            String sql = "SELECT " + column + " FROM employees WHERE " + column + " IN ("
+                    + String.join(",", java.util.Collections.nCopies(part.size(), "?")) + ")";
+            try (Connection c = ds.getPrimaryConnection();
+                 PreparedStatement ps = c.prepareStatement(sql)) {
+                for (int i = 0; i < part.size(); i++) ps.setObject(i + 1, part.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) found.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                }
+            } catch (SQLException ex) {
+                throw new RuntimeException("Bulk uniqueness check failed on " + column, ex);
+            }
+        }
+        return found;
+    }
+
+    // ---------------- Insert ----------------
+
+    /** Insert employees and credentials for one chunk in a single transaction. */
+    private void insertChunk(List<Candidate> chunk) throws SQLException {
+        final String insertEmp = """
+            INSERT INTO employees (name, emp_number, user_name, role)
+            VALUES (?, ?, ?, ?)
+        """;
+        final String insertCred = """
+            INSERT INTO credentials (employee_id, password_hash)
+            VALUES (?, ?)
+        """;
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                List<Long> ids = new ArrayList<>(chunk.size());
+                try (PreparedStatement ps = c.prepareStatement(insertEmp, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Candidate cand : chunk) {
+                        ps.setString(1, cand.name.trim());
+                        ps.setInt(2, cand.empNumber);
+                        ps.setString(3, cand.userName.trim());
+                        ps.setString(4, cand.admin ? "ADMIN" : "USER");
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != chunk.size()) {
+                    throw new SQLException("Expected " + chunk.size() + " generated keys, got " + ids.size());
+                }
+                try (PreparedStatement ps = c.prepareStatement(insertCred)) {
+                    for (Long id : ids) {
+                        ps.setLong(1, id);
+                        ps.setString(2, DEFAULT_PASSWORD);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = outbox.prepareBatch(c)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Candidate cand = chunk.get(i);
+                        outbox.bind(ps, ChangeEvent.Type.EMPLOYEE_ADDED, cand.userName.trim(),
+                            EmployeeRepo.employeePayload(ids.get(i), cand.empNumber, cand.admin ? "ADMIN" : "USER"));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+    }
+}
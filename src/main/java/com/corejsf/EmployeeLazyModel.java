@@ -0,0 +1,82 @@
+package com.corejsf;
+
+import java.util.List;
+import java.util.Map;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
+import ca.bcit.infosys.employee.*;
+
+/**
+ * Lazy PrimeFaces data model for the admin employee directory.
+ *
+ * <p>Each page request asks {@link EmployeeRepo} for exactly one page, sorted and
+ * prefix-filtered in SQL, instead of loading every employee on every render.
+ * The global filter box is matched as a prefix against name or user name.</p>
+ */
+public class EmployeeLazyModel extends LazyDataModel<Employee> {
+
+    /** Repository backing the table (a serializable CDI proxy). */
+    private final EmployeeStore employees;
+
+    /**
+     * @param employees repository to page through
+     */
+    public EmployeeLazyModel(EmployeeStore employees) {
+        this.employees = employees;
+    }
+
+    /**
+     * Counts rows for the paginator (cached by the repository).
+     *
+     * @param filterBy active filters
+     * @return total number of matching employees
+     */
+    @Override
+    public int count(Map<String, FilterMeta> filterBy) {
+        return employees.countEmployees(search(filterBy));
+    }
+
+    /**
+     * Loads a single page.
+     *
+     * @param first index of the first row
+     * @param pageSize rows per page
+     * @param sortBy active sort (first entry wins)
+     * @param filterBy active filters
+     * @return employees on the requested page
+     */
+    @Override
+    public List<Employee> load(int first, int pageSize,
+                               Map<String, SortMeta> sortBy, Map<String, FilterMeta> filterBy) {
+        String field = null;
+        boolean ascending = true;
+        if (sortBy != null && !sortBy.isEmpty()) {
+            SortMeta sort = sortBy.values().iterator().next();
+            field = sort.getField();
+            ascending = sort.getOrder() != SortOrder.DESCENDING;
+        }
+        return employees.findEmployees(search(filterBy), field, ascending, first, pageSize);
+    }
+
+    /** Employees are keyed by their (unique) user name. */
+    @Override
+    public String getRowKey(Employee e) {
+        return e.getUserName();
+    }
+
+    /** Resolve a row key through the repository's cache. */
+    @Override
+    public Employee getRowData(String rowKey) {
+        return employees.findEmployee(rowKey);
+    }
+
+    /** @return the global filter text, or {@code null} */
+    private static String search(Map<String, FilterMeta> filterBy) {
+        if (filterBy == null) return null;
+        FilterMeta global = filterBy.get(FilterMeta.GLOBAL_FILTER_KEY);
+        if (global == null || global.getFilterValue() == null) return null;
+        return global.getFilterValue().toString();
+    }
+}
@@ -0,0 +1,264 @@
+package com.corejsf;
+
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Removes the timesheet history of soft-deleted employees in the background.
+* <p>
+* {@link EmployeeRepo#deleteEmployee} only hides the employee and queues a row in
+* <code>purge_jobs</code>. This bean works through that queue:
+* <ul>
+* <li>a job is claimed with a one-minute lease, so only one replica purges a given employee;</li>
+* <li>timesheets (live, then archived) are deleted <code>timesheet.purge.chunkSheets</code>
+*     (default 200) at a time, rows first, each chunk in its own short transaction, so row locks are held only briefly
+*     and concurrent saves of other employees are not stalled;</li>
+* <li>the bean sleeps <code>timesheet.purge.pauseMillis</code> (default 250 ms) between chunks
+*     and gives up its turn after {@value #TICK_BUDGET_MILLIS} ms; the lease lets it continue
+*     on the next tick;</li>
+* <li>once no timesheets are left the employee row itself is deleted (credentials and the
+*     balance ledger go with it by cascade) and the job is marked DONE.</li>
+* </ul>
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class EmployeePurger {
+
+    private static final Logger LOG = Logger.getLogger(EmployeePurger.class.getName());
+
+    /** Longest a single timer tick keeps purging. */
+    private static final long TICK_BUDGET_MILLIS = 40_000L;
+
+    /** Finished jobs are shown on the dashboard for this many days. */
+    private static final int KEEP_DONE_DAYS = 7;
+
+    private final int chunkSheets = Math.max(1, AppConfig.getInt("timesheet.purge.chunkSheets", 200));
+    private final long pauseMillis = Math.max(0, AppConfig.getLong("timesheet.purge.pauseMillis", 250L));
+
+    /** Lease owner id of this node. */
+    private final String owner = AppConfig.get("HOSTNAME", UUID.randomUUID().toString());
+
+    /** Prevents overlapping ticks (timers still fire while a long tick runs). */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private RepoCache cache;
+
+    /** Pick up queued purges every fifteen seconds. */
+    @Schedule(hour = "*", minute = "*", second = "*/15", persistent = false)
+    public void tick() {
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            long deadline = System.currentTimeMillis() + TICK_BUDGET_MILLIS;
+            Long employeeId;
+            while (System.currentTimeMillis() < deadline && (employeeId = claim()) != null) {
+                if (!purge(employeeId, deadline)) break;
+            }
+            pruneFinished();
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Employee purge tick failed; retrying on the next tick", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** @return the most recent purge jobs for the admin dashboard, newest first */
+    public List<PurgeJob> recentJobs() {
+        final String sql = """
+            SELECT user_name, status, sheets_total, sheets_deleted, requested_at
+            FROM purge_jobs
+            ORDER BY requested_at DESC
+            LIMIT 20
+        """;
+        List<PurgeJob> jobs = new ArrayList<>();
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Timestamp at = rs.getTimestamp("requested_at");
+                jobs.add(new PurgeJob(rs.getString("user_name"), rs.getString("status"),
+                    rs.getLong("sheets_total"), rs.getLong("sheets_deleted"),
+                    at == null ? null : at.toLocalDateTime()));
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("recentJobs failed", ex);
+        }
+        return jobs;
+    }
+
+    // ---------------- Internals ----------------
+
+    /**
+    * Claim (or extend our lease on) the oldest unfinished job.
+    *
+    * @return the employee id to purge, or null when the queue is empty
+    */
+    private Long claim() throws SQLException {
+        final String take = """
+            UPDATE purge_jobs
+               SET status = 'RUNNING', owner = ?, lease_until = NOW() + INTERVAL 1 MINUTE
+             WHERE status <> 'DONE'
+               AND (owner IS NULL OR owner = ? OR lease_until < NOW())
+             ORDER BY requested_at
+             LIMIT 1
+        """;
+        final String mine = """
+            SELECT employee_id FROM purge_jobs
+            WHERE owner = ? AND status = 'RUNNING'
+            ORDER BY requested_at
+            LIMIT 1
+        """;
+        try (Connection c = ds.getPrimaryConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(take)) {
+                ps.setString(1, owner);
+                ps.setString(2, owner);
+                if (ps.executeUpdate() == 0) return null;
+            }
+            try (PreparedStatement ps = c.prepareStatement(mine)) {
+                ps.setString(1, owner);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : null;
+                }
+            }
+        }
+    }
+
+    /**
+    * Delete one employee's history chunk by chunk.
+    *
+    * @return true if the job finished, false if the tick budget ran out first
+    */
+    private boolean purge(long employeeId, long deadline) throws SQLException, InterruptedException {
+        for (boolean archived : new boolean[]{false, true}) {
+            String sheets = archived ? TimeSheetRepo.ARCHIVE_SHEETS : TimeSheetRepo.HOT_SHEETS;
+            String rows = archived ? TimeSheetRepo.ARCHIVE_ROWS : TimeSheetRepo.HOT_ROWS;
+            List<Long> sheetIds;
+            while (!(sheetIds = nextSheets(sheets, employeeId)).isEmpty()) {
+                deleteChunk(sheets, rows, employeeId, sheetIds);
+                if (System.currentTimeMillis() >= deadline) return false;
+                if (pauseMillis > 0) Thread.sleep(pauseMillis);
+            }
+        }
+        finish(employeeId);
+        return true;
+    }
+
+    private List<Long> nextSheets(String sheets, long employeeId) throws SQLException {
+        final String sql = """
+            SELECT timesheet_id FROM %s
+            WHERE employee_id = ?
+            ORDER BY timesheet_id
+            LIMIT ?
+        """.formatted(sheets);
+        List<Long> ids = new ArrayList<>(chunkSheets);
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, employeeId);
+            ps.setInt(2, chunkSheets);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    /** Remove one chunk of sheets (rows first), record progress and renew the lease. */
+    private void deleteChunk(String sheets, String rows, long employeeId, List<Long> sheetIds) throws SQLException {
+        String in = String.join(",", Collections.nCopies(sheetIds.size(), "?"));
+        final String progress = """
+            UPDATE purge_jobs
+               SET sheets_deleted = sheets_deleted + ?, lease_until = NOW() + INTERVAL 1 MINUTE
+             WHERE employee_id = ?
+        """;
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(
+                        "DELETE FROM " + rows + " WHERE timesheet_id IN (" + in + ")")) {
+                    for (int i = 0; i < sheetIds.size(); i++) ps.setLong(i + 1, sheetIds.get(i));
+                    ps.executeUpdate();
+                }
+                int deleted;
+                try (PreparedStatement ps = c.prepareStatement(
+                        "DELETE FROM " + sheets + " WHERE timesheet_id IN (" + in + ")")) {
+                    for (int i = 0; i < sheetIds.size(); i++) ps.setLong(i + 1, sheetIds.get(i));
+                    deleted = ps.executeUpdate();
+                }
+                try (PreparedStatement ps = c.prepareStatement(progress)) {
+                    ps.setInt(1, deleted);
+                    ps.setLong(2, employeeId);
+                    ps.executeUpdate();
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+        // The employee is already unreachable, so other nodes' copies simply expire by TTL.
+        for (Long id : sheetIds) cache.invalidate(RepoCache.SHEET, String.valueOf(id));
+    }
+
+    /** Delete the now empty employee row and close the job. */
+    private void finish(long employeeId) throws SQLException {
+        final String done = """
+            UPDATE purge_jobs
+               SET status = 'DONE', owner = NULL, lease_until = NULL, finished_at = NOW()
+             WHERE employee_id = ?
+        """;
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(
+                        "DELETE FROM employees WHERE employee_id = ? AND deleted_at IS NOT NULL")) {
+                    ps.setLong(1, employeeId);
+                    ps.executeUpdate();
+                }
+                try (PreparedStatement ps = c.prepareStatement(done)) {
+                    ps.setLong(1, employeeId);
+                    ps.executeUpdate();
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void pruneFinished() throws SQLException {
+        final String sql = "DELETE FROM purge_jobs WHERE status = 'DONE' AND finished_at < NOW() - INTERVAL ? DAY";
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, KEEP_DONE_DAYS);
+            ps.executeUpdate();
+        }
+    }
+}
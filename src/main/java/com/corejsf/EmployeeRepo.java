@@ -1,10 +1,11 @@
 package com.corejsf;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.Resource;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Named;
 import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -12,9 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import ca.bcit.infosys.timesheet.*;
 import ca.bcit.infosys.employee.*;
-import javax.sql.DataSource;
 import java.sql.*;
-import javax.sql.DataSource;
 
 
 /**
@@ -37,24 +36,52 @@ import javax.sql.DataSource;
 */
 @Named("employeeRepo")
 @ApplicationScoped
-public class EmployeeRepo implements EmployeeList{
+@DbWork(DbWork.Kind.INTERACTIVE)
+public class EmployeeRepo implements EmployeeStore {
     
-    /** Injected datasource for DB access (WildFly + OKD). */
-    @Resource(lookup = "java:jboss/datasources/timesheetsDS")
-    private DataSource ds;
+    /** Routed datasource for DB access (WildFly + OKD); see {@link DataSourceRouter}. */
+    @Inject
+    private DataSourceRouter ds;
 
     /** Provides access to the logged-in user. */
     @Inject
     private CurrentUser currentUser;
+
+    /** Node-local read cache (see {@link RepoCache}). */
+    @Inject
+    private RepoCache cache;
+
+    /** Change events, written in the same transaction as the change. */
+    @Inject
+    private Outbox outbox;
+
+    /** Hands out employee numbers without a MAX() query. */
+    @Inject
+    private EmpNumberAllocator empNumbers;
+
+    /** How long a cached directory count stays valid on a node. */
+    private static final long COUNT_TTL_MILLIS = 30_000L;
+
+    /** Sortable columns exposed to the admin directory, mapped to DB columns. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "name", "name",
+        "empNumber", "emp_number",
+        "userName", "user_name",
+        "role", "role");
+
+    /** Cached directory counts by normalized search prefix: {count, loadedAtMillis}. */
+    private final Map<String, long[]> countCache = new java.util.concurrent.ConcurrentHashMap<>();
 	
     /**
     * Loads all employees ordered by their employee number.
     */
 	@Override
+	@ReadOnly
+    @DbWork(DbWork.Kind.ADMIN)
     public List<Employee> getEmployees() {
         String sql = """
             SELECT employee_id, name, emp_number, user_name, role
-            FROM employees ORDER BY emp_number
+            FROM employees WHERE deleted_at IS NULL ORDER BY emp_number
         """;
         List<Employee> list = new ArrayList<>();
         try (Connection c = ds.getConnection();
@@ -69,13 +96,15 @@ public class EmployeeRepo implements EmployeeList{
 	
 	/**
 	* Load a single employee from database by username.
-	* Case-insensitive lookup.
+	* Case-insensitive lookup: the column's collation (utf8mb4_0900_ai_ci) ignores case,
+	* so a plain comparison does it and can use <code>uq_emp_user_name</code>.
 	*/
 	@Override
+	@ReadOnly
     public Employee getEmployee(String userName) {
         String sql = """
             SELECT employee_id, name, emp_number, user_name, role
-            FROM employees WHERE LOWER(user_name)=LOWER(?)
+            FROM employees WHERE user_name = ? AND deleted_at IS NULL
         """;
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -89,9 +118,108 @@ public class EmployeeRepo implements EmployeeList{
         return null;
     }
 	
+	/**
+	* Load one page of the employee directory.
+	* <p>
+	* The optional {@code search} is a case-insensitive prefix matched against name or
+	* user name, so both predicates can use the <code>idx_emp_name</code> /
+	* <code>uq_emp_user_name</code> indexes.
+	*
+	* @param search prefix to match (nullable/blank for all)
+	* @param sortField one of {@code name}, {@code empNumber}, {@code userName}, {@code role}
+	*        (anything else sorts by employee number)
+	* @param ascending sort direction
+	* @param offset first row (0-based)
+	* @param limit page size
+	*/
+	@ReadOnly
+	@DbWork(DbWork.Kind.ADMIN)
+	public List<Employee> findEmployees(String search, String sortField, boolean ascending,
+	                                    int offset, int limit) {
+        String column = SORT_COLUMNS.getOrDefault(sortField, "emp_number");
+        String prefix = toPrefix(search);
+        String sql = "SELECT employee_id, name, emp_number, user_name, role FROM employees"
+            + " WHERE deleted_at IS NULL"
+            + (prefix == null ? "" : " AND (name LIKE ? OR user_name LIKE ?)")
+            + " ORDER BY " + column + (ascending ? " ASC" : " DESC")
+            + (column.equals("emp_number") ? "" : ", emp_number")
+            + " LIMIT ? OFFSET ?";
+        List<Employee> list = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            int i = 1;
+            if (prefix != null) {
+                ps.setString(i++, prefix);
+                ps.setString(i++, prefix);
+            }
+            ps.setInt(i++, Math.max(1, limit));
+            ps.setInt(i, Math.max(0, offset));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(mapEmployee(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("findEmployees failed", e);
+        }
+        return list;
+    }
+
+	/**
+	* Count employees matching a search prefix (see {@link #findEmployees}).
+	* Counts are cached per node for a short time and dropped when employees are added or deleted.
+	*/
+	@ReadOnly
+	@DbWork(DbWork.Kind.ADMIN)
+	public int countEmployees(String search) {
+        String prefix = toPrefix(search);
+        String key = (prefix == null) ? "" : prefix;
+        long[] cached = countCache.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached[1] < COUNT_TTL_MILLIS) {
+            return (int) cached[0];
+        }
+        String sql = "SELECT COUNT(*) FROM employees WHERE deleted_at IS NULL"
+            + (prefix == null ? "" : " AND (name LIKE ? OR user_name LIKE ?)");
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            if (prefix != null) {
+                ps.setString(1, prefix);
+                ps.setString(2, prefix);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long count = rs.getLong(1);
+                countCache.put(key, new long[]{count, now});
+                return (int) count;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("countEmployees failed", e);
+        }
+    }
+
+	/** Drop cached directory counts on this node (after bulk changes). */
+	public void invalidateCounts() {
+        countCache.clear();
+    }
+
+	/**
+	* Cached variant of {@link #getEmployee(String)} used to rehydrate session state
+	* on every request without a database round trip.
+	*/
+	public Employee findEmployee(String userName) {
+        if (userName == null) return null;
+        Employee e = cache.getEmployee(userName);
+        if (e == null) {
+            e = getEmployee(userName);
+            cache.putEmployee(e);
+        }
+        return e;
+    }
+
 	/**
 	* Creates a new employee and inserts default credentials.
 	* Validates that username and emp_number are unique.
+	* <p>An emp_number of 0 means "allocate one"; if an allocated number was taken
+	* manually in the meantime, the next one is tried.</p>
 	*/
 	@Override
     public void addEmployee(Employee emp) {
@@ -103,7 +231,31 @@ public class EmployeeRepo implements EmployeeList{
             throw new IllegalStateException("Employee number already exists: " + emp.getEmpNumber());
         }
 
-        int empNumber = (emp.getEmpNumber() == 0) ? nextEmpNumber() : emp.getEmpNumber();
+        if (emp.getEmpNumber() != 0) {
+            insertEmployee(emp, emp.getEmpNumber());
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insertEmployee(emp, empNumbers.next());
+                return;
+            } catch (RuntimeException ex) {
+                if (!isDuplicateKey(ex.getCause()) || attempt >= 5) throw ex;
+                // The other unique key is the user name, taken since the check above
+                if (userExists(emp.getUserName())) {
+                    throw new IllegalStateException("Username already exists: " + emp.getUserName());
+                }
+            }
+        }
+    }
+
+    /** MySQL duplicate-key error (SQLState 23000, error 1062), whatever the message language. */
+    private static boolean isDuplicateKey(Throwable t) {
+        return t instanceof SQLException sql && "23000".equals(sql.getSQLState()) && sql.getErrorCode() == 1062;
+    }
+
+    /** Insert the employee row plus default credentials in one transaction. */
+    private void insertEmployee(Employee emp, int empNumber) {
         String role = (emp instanceof Admin) ? "ADMIN" : "USER";
 
         String insertEmp = """
@@ -118,36 +270,54 @@ public class EmployeeRepo implements EmployeeList{
         try (Connection c = ds.getConnection()) {
             c.setAutoCommit(false);
             long newEmployeeId;
+            try {
+                try (PreparedStatement ps = c.prepareStatement(insertEmp, Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setString(1, emp.getName());
+                    ps.setInt(2, empNumber);
+                    ps.setString(3, emp.getUserName());
+                    ps.setString(4, role);
+                    ps.executeUpdate();
 
-            try (PreparedStatement ps = c.prepareStatement(insertEmp, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setString(1, emp.getName());
-                ps.setInt(2, empNumber);
-                ps.setString(3, emp.getUserName());
-                ps.setString(4, role);
-                ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (!keys.next()) throw new SQLException("No employee_id generated.");
+                        newEmployeeId = keys.getLong(1);
+                    }
+                }
 
-                try (ResultSet keys = ps.getGeneratedKeys()) {
-                    if (!keys.next()) throw new SQLException("No employee_id generated.");
-                    newEmployeeId = keys.getLong(1);
+                // Default password policy: mirror the old repo’s “password”.
+                try (PreparedStatement ps2 = c.prepareStatement(insertCred)) {
+                    ps2.setLong(1, newEmployeeId);
+                    ps2.setString(2, "password");
+                    ps2.executeUpdate();
                 }
-            }
 
-            // Default password policy: mirror the old repo’s “password”.
-            try (PreparedStatement ps2 = c.prepareStatement(insertCred)) {
-                ps2.setLong(1, newEmployeeId);
-                ps2.setString(2, "password");
-                ps2.executeUpdate();
-            }
+                outbox.append(c, ChangeEvent.Type.EMPLOYEE_ADDED, emp.getUserName(),
+                        employeePayload(newEmployeeId, empNumber, role));
 
-            c.commit();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+            emp.setEmpNumber(empNumber);
+            ds.markWrite();
+            countCache.clear();
         } catch (SQLException e) {
             throw new RuntimeException("addEmployee failed for " + emp.getUserName(), e);
         }
     }
 
 	/**
-	* Deletes an employee using their emp_number.
+	* Soft-deletes an employee using their emp_number.
 	* Protects the admin account from deletion.
+	* <p>
+	* Only the employee row is touched here: it is stamped with <code>deleted_at</code> and its
+	* user name and number are replaced by placeholders, so the person vanishes from every
+	* lookup (and both values can be reused) at once. The timesheet history is removed later,
+	* in small chunks, by {@link EmployeePurger}, which is queued through <code>purge_jobs</code>
+	* in the same transaction.</p>
 	*/
 	@Override
     public void deleteEmployee(Employee emp) {
@@ -156,11 +326,67 @@ public class EmployeeRepo implements EmployeeList{
             // Do not delete the bootstrap admin, matching old behavior.
             return;
         }
-        String sql = "DELETE FROM employees WHERE emp_number = ?";
-        try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, emp.getEmpNumber());
-            ps.executeUpdate();
+        final String find = """
+            SELECT e.employee_id,
+                   (SELECT COUNT(*) FROM timesheets t WHERE t.employee_id = e.employee_id)
+                 + (SELECT COUNT(*) FROM timesheets_archive a WHERE a.employee_id = e.employee_id) AS sheets
+            FROM employees e
+            WHERE e.emp_number = ? AND e.deleted_at IS NULL
+            FOR UPDATE
+        """;
+        final String hide = """
+            UPDATE employees
+               SET deleted_at = CURRENT_TIMESTAMP,
+                   user_name  = CONCAT('~deleted-', employee_id),
+                   emp_number = -CAST(employee_id AS SIGNED)
+             WHERE employee_id = ?
+        """;
+        final String queue = """
+            INSERT INTO purge_jobs (employee_id, user_name, sheets_total)
+            VALUES (?, ?, ?)
+        """;
+        try (Connection c = ds.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                long employeeId;
+                long sheets;
+                try (PreparedStatement ps = c.prepareStatement(find)) {
+                    ps.setInt(1, emp.getEmpNumber());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            c.rollback();
+                            return;
+                        }
+                        employeeId = rs.getLong(1);
+                        sheets = rs.getLong(2);
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(hide)) {
+                    ps.setLong(1, employeeId);
+                    ps.executeUpdate();
+                }
+                try (PreparedStatement ps = c.prepareStatement(queue)) {
+                    ps.setLong(1, employeeId);
+                    ps.setString(2, emp.getUserName());
+                    ps.setLong(3, sheets);
+                    ps.executeUpdate();
+                }
+                outbox.append(c, ChangeEvent.Type.EMPLOYEE_DELETED, emp.getUserName(),
+                        Json.createObjectBuilder()
+                            .add("employeeId", employeeId)
+                            .add("empNumber", emp.getEmpNumber())
+                            .add("sheets", sheets)
+                            .build());
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+            ds.markWrite();
+            countCache.clear();
+            cache.invalidate(RepoCache.EMPLOYEE, emp.getUserName());
         } catch (SQLException e) {
             throw new RuntimeException("deleteEmployee failed for " + emp.getUserName(), e);
         }
@@ -170,11 +396,14 @@ public class EmployeeRepo implements EmployeeList{
 	* Load all username/password pairs used for authentication.
 	* Mainly used by login logic.
 	*/
+	@ReadOnly
+	@DbWork(DbWork.Kind.LOGIN)
 	public Map<String, String> getLoginCombos() {
         String sql = """
             SELECT e.user_name, c.password_hash
             FROM credentials c
             JOIN employees e ON e.employee_id = c.employee_id
+            WHERE e.deleted_at IS NULL
         """;
         Map<String, String> map = new HashMap<>();
         try (Connection c = ds.getConnection();
@@ -192,13 +421,14 @@ public class EmployeeRepo implements EmployeeList{
 	/**
 	* Validate username/password against stored credentials.
 	*/
+    @DbWork(DbWork.Kind.LOGIN)
     public boolean verifyUser(Credentials credential) {
         if (credential == null || credential.getUserName() == null) return false;
         String sql = """
             SELECT c.password_hash
             FROM credentials c
             JOIN employees e ON e.employee_id = c.employee_id
-            WHERE LOWER(e.user_name) = LOWER(?)
+            WHERE e.user_name = ? AND e.deleted_at IS NULL
         """;
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -222,13 +452,14 @@ public class EmployeeRepo implements EmployeeList{
             UPDATE credentials c
             JOIN employees e ON e.employee_id = c.employee_id
             SET c.password_hash = ?, c.last_changed = CURRENT_TIMESTAMP
-            WHERE LOWER(e.user_name) = LOWER(?)
+            WHERE e.user_name = ?
         """;
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, newPassword);
             ps.setString(2, userName);
             ps.executeUpdate();
+            ds.markWrite();
         } catch (SQLException e) {
             throw new RuntimeException("changePassword failed for " + userName, e);
         }
@@ -249,11 +480,12 @@ public class EmployeeRepo implements EmployeeList{
     }
 
     /** Return the first ADMIN user found. */
+    @ReadOnly
     public Employee getAdministrator() {
         String sql = """
             SELECT employee_id, name, emp_number, user_name, role
             FROM employees
-            WHERE role='ADMIN'
+            WHERE role='ADMIN' AND deleted_at IS NULL
             ORDER BY employee_id
             LIMIT 1
         """;
@@ -282,25 +514,17 @@ public class EmployeeRepo implements EmployeeList{
     }
 
     /**
-    * Compute next available employee number (MAX+1).
+    * Next available employee number, from the block allocator (no aggregate query).
     */
     public int nextEmpNumber() {
-        String sql = "SELECT COALESCE(MAX(emp_number), 0) + 1 FROM employees";
-        try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            rs.next();
-            return rs.getInt(1);
-        } catch (SQLException e) {
-            throw new RuntimeException("nextEmpNumber failed", e);
-        }
+        return empNumbers.next();
     }
 
     // ---------- Private helpers ----------
 
     /** Check if username already exists. */
     private boolean userExists(String userName) {
-        String sql = "SELECT 1 FROM employees WHERE LOWER(user_name)=LOWER(?)";
+        String sql = "SELECT 1 FROM employees WHERE user_name = ?";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, userName);
@@ -322,6 +546,25 @@ public class EmployeeRepo implements EmployeeList{
         }
     }
 
+    /** Turn user input into a LIKE prefix pattern, escaping wildcards; {@code null} if blank. */
+    static String toPrefix(String search) {
+        if (search == null || search.isBlank()) return null;
+        String escaped = search.trim()
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return escaped + "%";
+    }
+
+    /** Compact outbox payload describing an employee. */
+    static JsonObject employeePayload(long employeeId, int empNumber, String role) {
+        return Json.createObjectBuilder()
+            .add("employeeId", employeeId)
+            .add("empNumber", empNumber)
+            .add("role", role)
+            .build();
+    }
+
     /**
     * Maps a ResultSet row into an Employee or Admin instance.
     */
@@ -0,0 +1,72 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import ca.bcit.infosys.employee.*;
+
+/**
+ * Employees for API clients (<code>/api/employees</code>): the caller, and for admins
+ * a page of the directory using the same prefix search as the admin dashboard.
+ */
+@Path("/employees")
+@RequestScoped
+@Produces(MediaType.APPLICATION_JSON)
+public class EmployeeResource {
+
+    private static final int MAX_PAGE = 500;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private EmployeeStore employees;
+
+    /** @return the logged-in employee */
+    @GET
+    @Path("/me")
+    public Response me() {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return SessionResource.unauthorized();
+        return Response.ok(toJson(me)).build();
+    }
+
+    /**
+    * @return <code>{"total":n,"employees":[…]}</code>; admins only
+    */
+    @GET
+    public Response list(@QueryParam("q") String search,
+                         @QueryParam("offset") @DefaultValue("0") int offset,
+                         @QueryParam("limit") @DefaultValue("50") int limit) {
+        if (!currentUser.isLoggedIn()) return SessionResource.unauthorized();
+        if (!currentUser.isAdmin()) return Response.status(Response.Status.FORBIDDEN).build();
+        JsonArrayBuilder list = Json.createArrayBuilder();
+        for (Employee e : employees.findEmployees(search, "empNumber", true,
+                Math.max(0, offset), Math.min(MAX_PAGE, Math.max(1, limit)))) {
+            list.add(toJson(e));
+        }
+        return Response.ok(Json.createObjectBuilder()
+            .add("total", employees.countEmployees(search))
+            .add("employees", list)
+            .build()).build();
+    }
+
+    static JsonObject toJson(Employee e) {
+        return Json.createObjectBuilder()
+            .add("userName", e.getUserName())
+            .add("name", e.getName() == null ? "" : e.getName())
+            .add("empNumber", e.getEmpNumber())
+            .add("role", e instanceof Admin ? "ADMIN" : "USER")
+            .build();
+    }
+}
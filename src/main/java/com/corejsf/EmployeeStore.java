@@ -0,0 +1,52 @@
+package com.corejsf;
+
+import java.util.List;
+import java.util.Map;
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+* Storage SPI for employees and their credentials: the library's {@link EmployeeList}
+* plus directory paging, cached lookups and password management.
+* <p>
+* The default backend is {@link EmployeeRepo} (JDBC/MySQL); {@link InMemoryEmployeeStore}
+* is a CDI alternative selected in <code>beans.xml</code>. Both are named
+* <code>employeeRepo</code>.
+*/
+public interface EmployeeStore extends EmployeeList {
+
+    /**
+    * One page of active employees.
+    *
+    * @param search case-insensitive prefix of name or user name (nullable/blank for all)
+    * @param sortField {@code name}, {@code empNumber}, {@code userName} or {@code role};
+    *        anything else sorts by employee number
+    */
+    List<Employee> findEmployees(String search, String sortField, boolean ascending, int offset, int limit);
+
+    /** @return number of active employees matching {@code search} */
+    int countEmployees(String search);
+
+    /** Drop cached directory counts (after bulk changes). */
+    void invalidateCounts();
+
+    /** Cached variant of {@link #getEmployee(String)}, called on every request. */
+    Employee findEmployee(String userName);
+
+    Map<String, String> getLoginCombos();
+
+    boolean verifyUser(Credentials credential);
+
+    void changePassword(String userName, String newPassword);
+
+    void changeMyPassword(String newPassword);
+
+    Employee getCurrentEmployee();
+
+    Employee getAdministrator();
+
+    String logout(Employee employee);
+
+    /** @return an unused employee number */
+    int nextEmpNumber();
+}
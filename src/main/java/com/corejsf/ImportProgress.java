@@ -0,0 +1,68 @@
+package com.corejsf;
+
+import java.io.Serializable;
+
+/**
+ * Live progress of one bulk timesheet import job on this node.
+ * Updated by {@link TimesheetImportService} after every committed chunk.
+ */
+public class ImportProgress implements Serializable {
+
+    private final String jobName;
+    private final long startedAt = System.currentTimeMillis();
+    private volatile String status = "RUNNING";
+    private volatile long resumedFromLine;
+    private volatile long committedLine;
+    private volatile long sheetsWritten;
+    private volatile long rowsWritten;
+    private volatile long errorCount;
+
+    public ImportProgress(String jobName) {
+        this.jobName = jobName;
+    }
+
+    /** @return job name (resume key) */
+    public String getJobName() { return jobName; }
+
+    /** @return RUNNING, DONE or FAILED */
+    public String getStatus() { return status; }
+
+    void setStatus(String status) { this.status = status; }
+
+    /** @return line the job resumed after (0 for a fresh job) */
+    public long getResumedFromLine() { return resumedFromLine; }
+
+    void setResumedFromLine(long line) { this.resumedFromLine = line; }
+
+    /** @return last input line whose sheet is committed */
+    public long getCommittedLine() { return committedLine; }
+
+    /** @return timesheet headers written by this run */
+    public long getSheetsWritten() { return sheetsWritten; }
+
+    /** @return timesheet rows written by this run */
+    public long getRowsWritten() { return rowsWritten; }
+
+    /** @return rejected lines so far */
+    public long getErrorCount() { return errorCount; }
+
+    void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+    /** Record a committed chunk. */
+    void chunkCommitted(long lastLine, int sheets, int rows) {
+        committedLine = lastLine;
+        sheetsWritten += sheets;
+        rowsWritten += rows;
+    }
+
+    /** @return rows written per second since this run started */
+    public double getRowsPerSecond() {
+        long ms = Math.max(1, System.currentTimeMillis() - startedAt);
+        return rowsWritten * 1000.0 / ms;
+    }
+
+    /** @return seconds since this run started */
+    public long getElapsedSeconds() {
+        return (System.currentTimeMillis() - startedAt) / 1000;
+    }
+}
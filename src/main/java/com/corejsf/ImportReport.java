@@ -0,0 +1,72 @@
+package com.corejsf;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many records were written and which input lines failed.
+ * Failed lines never abort the rest of the batch.
+ *
+ * <p>Only the first {@value #MAX_KEPT_ERRORS} errors are kept in memory; the total is
+ * still counted, so huge imports stay within bounded memory.</p>
+ */
+public class ImportReport implements Serializable {
+
+    /** Errors kept for display; further errors are only counted. */
+    public static final int MAX_KEPT_ERRORS = 1000;
+
+    /** A rejected input line. */
+    public static final class RowError implements Serializable {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /** @return 1-based input line number */
+        public long getLine() { return line; }
+
+        /** @return why the line was rejected */
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() { return "line " + line + ": " + message; }
+    }
+
+    private long imported;
+    private long errorCount;
+    private final List<RowError> errors = new ArrayList<>();
+    private long elapsedMillis;
+
+    /** Count {@code n} successfully written records. */
+    public void addImported(long n) { imported += n; }
+
+    /** Record a rejected line. */
+    public void addError(long line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_KEPT_ERRORS) errors.add(new RowError(line, message));
+    }
+
+    /** @return records written */
+    public long getImported() { return imported; }
+
+    /** @return total number of rejected lines */
+    public long getErrorCount() { return errorCount; }
+
+    /** @return the first rejected lines, in input order */
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+
+    /** @return wall-clock duration of the import */
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    /** @return imported records per second */
+    public double getRatePerSecond() {
+        return elapsedMillis <= 0 ? imported : imported * 1000.0 / elapsedMillis;
+    }
+}
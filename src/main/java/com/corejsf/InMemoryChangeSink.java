@@ -0,0 +1,53 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent events in memory, for tests and local inspection.
+ *
+ * <p>Enabled with <code>timesheet.outbox.memory.enabled=true</code>. Node-local, so it sees
+ * every event; at most {@value #CAPACITY} events are kept, oldest dropped first.</p>
+ */
+@ApplicationScoped
+public class InMemoryChangeSink implements ChangeSink {
+
+    static final int CAPACITY = 10_000;
+
+    private final boolean enabled = AppConfig.getBoolean("timesheet.outbox.memory.enabled", false);
+
+    private final Deque<ChangeEvent> events = new ArrayDeque<>();
+
+    @Override
+    public String getName() { return "memory"; }
+
+    @Override
+    public boolean isNodeLocal() { return true; }
+
+    @Override
+    public boolean isEnabled() { return enabled; }
+
+    @Override
+    public synchronized void publish(List<ChangeEvent> batch) {
+        for (ChangeEvent e : batch) {
+            if (events.size() == CAPACITY) events.removeFirst();
+            events.addLast(e);
+        }
+    }
+
+    /** @return a copy of the kept events, oldest first */
+    public synchronized List<ChangeEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /** @return and forget all kept events */
+    public synchronized List<ChangeEvent> drain() {
+        List<ChangeEvent> out = new ArrayList<>(events);
+        events.clear();
+        return out;
+    }
+}
@@ -0,0 +1,236 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+* In-memory {@link EmployeeStore}: the test/demo backend and the upper bound the JDBC
+* {@link EmployeeRepo} is benchmarked against.
+* <p>
+* Enabled together with {@link InMemoryTimesheetStore} as alternatives in
+* <code>beans.xml</code>. Starts with the same <code>admin</code> / <code>admin123</code>
+* account as the schema script; nothing survives a restart.
+* <ul>
+* <li>Login and session lookups go through a hash index by lower-cased user name.</li>
+* <li>The directory is served from a map sorted by employee number, so the default page
+*     is a range scan; other sort orders sort the matches.</li>
+* <li>Entries are immutable and replaced on change, so reads take no lock; writes that
+*     must check uniqueness are serialized.</li>
+* </ul>
+*/
+@Named("employeeRepo")
+@Alternative
+@ApplicationScoped
+public class InMemoryEmployeeStore implements EmployeeStore {
+
+    /** One stored employee with credentials. */
+    private static final class Entry {
+        final String name;
+        final int empNumber;
+        final String userName;
+        final boolean admin;
+        final String password;
+
+        Entry(String name, int empNumber, String userName, boolean admin, String password) {
+            this.name = name;
+            this.empNumber = empNumber;
+            this.userName = userName;
+            this.admin = admin;
+            this.password = password;
+        }
+
+        Entry withPassword(String newPassword) {
+            return new Entry(name, empNumber, userName, admin, newPassword);
+        }
+    }
+
+    private static final Map<String, Comparator<Entry>> SORTS = Map.of(
+        "name", Comparator.comparing((Entry e) -> e.name),
+        "userName", Comparator.comparing((Entry e) -> e.userName),
+        "role", Comparator.comparing((Entry e) -> e.admin ? 0 : 1));
+
+    @Inject
+    private CurrentUser currentUser;
+
+    /** Sheets of deleted employees go with them, as EmployeePurger does for the database. */
+    @Inject
+    private Instance<InMemoryTimesheetStore> sheets;
+
+    private final Map<String, Entry> byUser = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Entry> byNumber = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextNumber = new AtomicInteger(1);
+    private final Object writeLock = new Object();
+
+    @PostConstruct
+    public void startup() {
+        put(new Entry("System Admin", 0, "admin", true, "admin123"));
+    }
+
+    @Override
+    public List<Employee> getEmployees() {
+        List<Employee> list = new ArrayList<>(byNumber.size());
+        for (Entry e : byNumber.values()) list.add(toEmployee(e));
+        return list;
+    }
+
+    @Override
+    public Employee getEmployee(String userName) {
+        Entry e = userName == null ? null : byUser.get(key(userName));
+        return e == null ? null : toEmployee(e);
+    }
+
+    @Override
+    public List<Employee> findEmployees(String search, String sortField, boolean ascending, int offset, int limit) {
+        Comparator<Entry> sort = SORTS.get(sortField);
+        Stream<Entry> matches;
+        if (sort == null) {
+            matches = (ascending ? byNumber : byNumber.descendingMap()).values().stream().filter(matcher(search));
+        } else {
+            sort = sort.thenComparingInt(e -> e.empNumber);
+            matches = byNumber.values().stream().filter(matcher(search))
+                    .sorted(ascending ? sort : sort.reversed());
+        }
+        return matches.skip(Math.max(0, offset)).limit(Math.max(1, limit)).map(InMemoryEmployeeStore::toEmployee).toList();
+    }
+
+    @Override
+    public int countEmployees(String search) {
+        return (int) byNumber.values().stream().filter(matcher(search)).count();
+    }
+
+    /** Counts are not cached here. */
+    @Override
+    public void invalidateCounts() {
+    }
+
+    @Override
+    public Employee findEmployee(String userName) {
+        return getEmployee(userName);
+    }
+
+    @Override
+    public void addEmployee(Employee emp) {
+        synchronized (writeLock) {
+            if (byUser.containsKey(key(emp.getUserName()))) {
+                throw new IllegalStateException("Username already exists: " + emp.getUserName());
+            }
+            if (emp.getEmpNumber() != 0 && byNumber.containsKey(emp.getEmpNumber())) {
+                throw new IllegalStateException("Employee number already exists: " + emp.getEmpNumber());
+            }
+            int number = emp.getEmpNumber() != 0 ? emp.getEmpNumber() : nextEmpNumber();
+            put(new Entry(emp.getName(), number, emp.getUserName(), emp instanceof Admin, "password"));
+            emp.setEmpNumber(number);
+        }
+    }
+
+    @Override
+    public void deleteEmployee(Employee emp) {
+        if (emp == null || "admin".equalsIgnoreCase(emp.getUserName())) return;
+        synchronized (writeLock) {
+            Entry e = byNumber.remove(emp.getEmpNumber());
+            if (e == null) return;
+            byUser.remove(key(e.userName));
+            if (sheets.isResolvable()) sheets.get().dropEmployee(e.empNumber);
+        }
+    }
+
+    @Override
+    public Map<String, String> getLoginCombos() {
+        Map<String, String> map = new HashMap<>();
+        for (Entry e : byNumber.values()) map.put(e.userName, e.password);
+        return map;
+    }
+
+    @Override
+    public boolean verifyUser(Credentials credential) {
+        if (credential == null || credential.getUserName() == null) return false;
+        Entry e = byUser.get(key(credential.getUserName()));
+        return e != null && e.password.equals(credential.getPassword());
+    }
+
+    @Override
+    public void changePassword(String userName, String newPassword) {
+        synchronized (writeLock) {
+            Entry e = byUser.get(key(userName));
+            if (e != null) put(e.withPassword(newPassword));
+        }
+    }
+
+    @Override
+    public void changeMyPassword(String newPassword) {
+        if (currentUser == null || currentUser.getEmployee() == null)
+            throw new IllegalStateException("No current user.");
+        changePassword(currentUser.getEmployee().getUserName(), newPassword);
+    }
+
+    @Override
+    public Employee getCurrentEmployee() {
+        return (currentUser == null) ? null : currentUser.getEmployee();
+    }
+
+    @Override
+    public Employee getAdministrator() {
+        for (Entry e : byNumber.values()) {
+            if (e.admin) return toEmployee(e);
+        }
+        return null;
+    }
+
+    @Override
+    public String logout(Employee employee) {
+        return "login";
+    }
+
+    @Override
+    public int nextEmpNumber() {
+        int n;
+        do {
+            n = nextNumber.getAndIncrement();
+        } while (byNumber.containsKey(n));
+        return n;
+    }
+
+    // ---------------- Internals ----------------
+
+    private void put(Entry e) {
+        byUser.put(key(e.userName), e);
+        byNumber.put(e.empNumber, e);
+    }
+
+    private static String key(String userName) {
+        return userName == null ? "" : userName.toLowerCase(Locale.ROOT);
+    }
+
+    /** Same rule as the JDBC directory: case-insensitive prefix of name or user name. */
+    private static java.util.function.Predicate<Entry> matcher(String search) {
+        if (search == null || search.isBlank()) return e -> true;
+        String prefix = search.trim().toLowerCase(Locale.ROOT);
+        return e -> e.name.toLowerCase(Locale.ROOT).startsWith(prefix)
+                || e.userName.toLowerCase(Locale.ROOT).startsWith(prefix);
+    }
+
+    private static Employee toEmployee(Entry e) {
+        Employee emp = e.admin ? new Admin() : new User();
+        emp.setName(e.name);
+        emp.setEmpNumber(e.empNumber);
+        emp.setUserName(e.userName);
+        return emp;
+    }
+}
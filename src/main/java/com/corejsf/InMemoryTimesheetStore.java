@@ -0,0 +1,464 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+* In-memory {@link TimesheetStore}: the test/demo backend and the upper bound the JDBC
+* {@link TimeSheetRepo} is benchmarked against.
+* <p>
+* Enabled together with {@link InMemoryEmployeeStore} as alternatives in
+* <code>beans.xml</code>. Sheets are kept as immutable {@link SheetSnapshot}s, the same
+* form {@link RepoCache} uses, and every caller gets a fresh {@link Timesheet}.
+* <ul>
+* <li>Sheets by id live in a hash map (the "primary key").</li>
+* <li>Each employee has a set sorted by <code>(end_date, id)</code>, the counterpart of the
+*     <code>(employee_id, end_date)</code> index: this week's sheet, the previous sheet and
+*     the closest sheet are all single navigations.</li>
+* <li>Reads take no lock; writes of one employee are serialized on that employee's set.</li>
+* </ul>
+* Only sheets live here. There is no archive, and the balance ledger, outbox, drafts and
+* audit log are not written, so jobs built on them still need the database.
+*/
+@Named("timeSheetRepo")
+@Alternative
+@ApplicationScoped
+public class InMemoryTimesheetStore implements TimesheetStore {
+
+    /** Entry of an employee's sorted index. */
+    private static final class SheetKey implements Comparable<SheetKey> {
+        private final LocalDate endDate;
+        private final long id;
+
+        SheetKey(LocalDate endDate, long id) {
+            this.endDate = endDate;
+            this.id = id;
+        }
+
+        LocalDate endDate() { return endDate; }
+
+        long id() { return id; }
+
+        @Override
+        public int compareTo(SheetKey o) {
+            int c = endDate.compareTo(o.endDate);
+            return c != 0 ? c : Long.compare(id, o.id);
+        }
+    }
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private BalanceEngine balanceEngine;
+
+    @Inject
+    private EmployeeStore employees;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong rowIds = new AtomicLong();
+    private final Map<Long, SheetSnapshot> byId = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableSet<SheetKey>> byEmployee = new ConcurrentHashMap<>();
+
+    /** Ids of handed-out sheets, as in {@link TimeSheetRepo}. */
+    private final Map<Timesheet, Long> timesheetIds = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<Timesheet, TimesheetStatus> statuses = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // ---------------- TimesheetCollection API ----------------
+
+    /** @return all sheets, by employee number, newest end date first */
+    @Override
+    public List<Timesheet> getTimesheets() {
+        List<Timesheet> result = new ArrayList<>();
+        for (NavigableSet<SheetKey> keys : new TreeMap<>(byEmployee).values()) {
+            addAll(result, keys.descendingSet());
+        }
+        return result;
+    }
+
+    @Override
+    public List<Timesheet> getTimesheets(final Employee e) {
+        if (e == null) return Collections.emptyList();
+        List<Timesheet> result = new ArrayList<>();
+        addAll(result, sheetsOf(e).descendingSet());
+        return result;
+    }
+
+    /** @return an empty list: this store has no archive */
+    @Override
+    public List<Timesheet> getArchivedTimesheets() {
+        return Collections.emptyList();
+    }
+
+    /** @return an empty list: this store has no archive */
+    @Override
+    public List<Timesheet> getArchivedTimesheets(final Employee e) {
+        return Collections.emptyList();
+    }
+
+    /** Same rules as {@link TimeSheetRepo#getCurrentTimesheet}: this Friday, else the closest sheet. */
+    @Override
+    public Timesheet getCurrentTimesheet(final Employee e) {
+        if (e == null) return null;
+        NavigableSet<SheetKey> keys = sheetsOf(e);
+        LocalDate today = LocalDate.now();
+        SheetKey exact = newestOf(keys, endOfWeekFriday(today));
+        if (exact != null) return load(exact.id());
+
+        SheetKey after = keys.ceiling(new SheetKey(today, Long.MIN_VALUE));
+        SheetKey before = keys.lower(new SheetKey(today, Long.MIN_VALUE));
+        if (after != null) after = newestOf(keys, after.endDate());
+        SheetKey best;
+        if (after == null) best = before;
+        else if (before == null) best = after;
+        else best = ChronoUnit.DAYS.between(before.endDate(), today) < ChronoUnit.DAYS.between(today, after.endDate())
+                ? before : after;
+        return best == null ? null : load(best.id());
+    }
+
+    /** Create this week's sheet for the current user with five blank rows. */
+    @Override
+    public String addTimesheet() {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return "no-user";
+        NavigableSet<SheetKey> keys = sheetsOf(me);
+        synchronized (keys) {
+            store(keys, ids.incrementAndGet(), me, endOfWeekFriday(LocalDate.now()),
+                    WeeklyBalance.ZERO, TimesheetStatus.DRAFT, blankRows());
+        }
+        return "created";
+    }
+
+    // ---------------- TimesheetStore ----------------
+
+    @Override
+    public Timesheet getMyCurrentTimesheet() {
+        return getCurrentTimesheet(currentUser.getEmployee());
+    }
+
+    @Override
+    public List<Timesheet> getMyTimesheets() {
+        return getTimesheets(currentUser.getEmployee());
+    }
+
+    @Override
+    public Timesheet getMyNewest() {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return null;
+        long newest = 0;
+        for (SheetKey k : sheetsOf(me)) newest = Math.max(newest, k.id());
+        return newest == 0 ? null : load(newest);
+    }
+
+    @Override
+    public void save(final Timesheet ts) {
+        if (ts == null) return;
+        WeeklyBalance week = balanceEngine.compute(ts.getDetails());
+        Employee e = ts.getEmployee();
+        LocalDate end = ts.getEndDate() != null ? ts.getEndDate() : endOfWeekFriday(LocalDate.now());
+        NavigableSet<SheetKey> keys = sheetsOf(e);
+        synchronized (keys) {
+            Long id = timesheetIds.get(ts);
+            TimesheetStatus status = TimesheetStatus.DRAFT;
+            if (id == null) {
+                id = ids.incrementAndGet();
+                timesheetIds.put(ts, id);
+            } else {
+                SheetSnapshot old = byId.get(id);
+                if (old == null) throw new RuntimeException("save(Timesheet) failed: timesheet not found: id=" + id);
+                status = requireEditable(old, "Timesheet " + id);
+                keys.remove(new SheetKey(old.endDate, id));
+            }
+            store(keys, id, e, end, week, status, toRows(ts));
+        }
+        ts.setOvertime(week.getOvertimeDeci());
+        ts.setFlextime(week.getFlextimeDeci());
+    }
+
+    @Override
+    public void save(final Timesheet ts, final Long timesheetId) {
+        if (ts == null) return;
+        if (timesheetId != null) timesheetIds.put(ts, timesheetId);
+        save(ts);
+    }
+
+    /** Each sheet replaces the employee's newest sheet with the same end date, or is created. */
+    @Override
+    public List<Long> saveWeeks(final Employee e, final List<Timesheet> sheets) {
+        List<Long> result = new ArrayList<>(sheets.size());
+        NavigableSet<SheetKey> keys = sheetsOf(e);
+        synchronized (keys) {
+            // Check every week first: all sheets are saved or none
+            for (Timesheet ts : sheets) {
+                SheetKey existing = newestOf(keys, ts.getEndDate());
+                if (existing != null) requireEditable(byId.get(existing.id()), "Week ending " + ts.getEndDate());
+            }
+            for (Timesheet ts : sheets) {
+                SheetKey existing = newestOf(keys, ts.getEndDate());
+                long id = existing != null ? existing.id() : ids.incrementAndGet();
+                TimesheetStatus status = existing != null ? byId.get(id).status : TimesheetStatus.DRAFT;
+                if (existing != null) keys.remove(existing);
+                WeeklyBalance week = balanceEngine.compute(ts.getDetails());
+                store(keys, id, e, ts.getEndDate(), week, status, toRows(ts));
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Timesheet loadById(final Long timesheetId) {
+        return timesheetId == null ? null : load(timesheetId);
+    }
+
+    /** As {@link TimeSheetRepo#copyForward}; a blank sheet for this week is replaced. */
+    @Override
+    public Long copyForward(final Employee e, boolean withHours, boolean withNotes) {
+        if (e == null) return null;
+        LocalDate target = endOfWeekFriday(LocalDate.now());
+        NavigableSet<SheetKey> keys = sheetsOf(e);
+        synchronized (keys) {
+            SheetKey source = keys.lower(new SheetKey(target, Long.MIN_VALUE));
+            if (source == null) return null;
+            SheetKey existing = newestOf(keys, target);
+            TimesheetStatus status = TimesheetStatus.DRAFT;
+            if (existing != null) {
+                status = requireEditable(byId.get(existing.id()), "This week's timesheet");
+                for (SheetSnapshot.Row r : byId.get(existing.id()).rows) {
+                    if (r.projectId != 0 || !r.workPackageId.isEmpty() || r.packedHours != 0
+                            || (r.notes != null && !r.notes.isEmpty())) {
+                        throw new IllegalStateException("This week's timesheet already has entries");
+                    }
+                }
+                keys.remove(existing);
+            }
+            long id = existing != null ? existing.id() : ids.incrementAndGet();
+            copyFrom(keys, id, e, target, status, byId.get(source.id()), withHours, withNotes);
+            return id;
+        }
+    }
+
+    @Override
+    public int precreateWeek(LocalDate endDate, boolean copyForward, boolean withHours, boolean withNotes) {
+        int created = 0;
+        for (Employee e : employees.getEmployees()) {
+            NavigableSet<SheetKey> keys = sheetsOf(e);
+            synchronized (keys) {
+                if (newestOf(keys, endDate) != null) continue;
+                SheetKey source = copyForward ? keys.lower(new SheetKey(endDate, Long.MIN_VALUE)) : null;
+                long id = ids.incrementAndGet();
+                if (source != null) {
+                    copyFrom(keys, id, e, endDate, TimesheetStatus.DRAFT, byId.get(source.id()), withHours, withNotes);
+                } else {
+                    store(keys, id, e, endDate, WeeklyBalance.ZERO, TimesheetStatus.DRAFT, blankRows());
+                }
+                created++;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public Long idOf(final Timesheet ts) {
+        return (ts == null) ? null : timesheetIds.get(ts);
+    }
+
+    @Override
+    public TimesheetStatus statusOf(final Timesheet ts) {
+        TimesheetStatus status = (ts == null) ? null : statuses.get(ts);
+        return status == null ? TimesheetStatus.DRAFT : status;
+    }
+
+    @Override
+    public void submit(final Employee e, final Long timesheetId) {
+        if (e == null) throw new IllegalStateException("No current user.");
+        SheetSnapshot snap = timesheetId == null ? null : byId.get(timesheetId);
+        if (snap != null && snap.employee.getEmpNumber() != e.getEmpNumber()) {
+            throw new IllegalStateException("Timesheet " + timesheetId + " belongs to another employee");
+        }
+        transition(timesheetId, TimesheetStatus.SUBMITTED);
+    }
+
+    @Override
+    public void reject(final Long timesheetId, String actor, String note) {
+        transition(timesheetId, TimesheetStatus.REJECTED);
+    }
+
+    @Override
+    public int approve(final List<Long> ids, String actor) {
+        int approved = 0;
+        for (Long id : ids) {
+            if (tryApprove(id)) approved++;
+        }
+        return approved;
+    }
+
+    @Override
+    public int approveSubmitted(LocalDate from, LocalDate to, String userPrefix, String actor) {
+        String prefix = userPrefix == null ? "" : userPrefix.trim().toLowerCase(Locale.ROOT);
+        int approved = 0;
+        for (SheetSnapshot snap : byId.values()) {
+            if (snap.status == TimesheetStatus.SUBMITTED && inRange(snap.endDate, from, to)
+                    && snap.employee.getUserName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                    && tryApprove(snap.timesheetId)) {
+                approved++;
+            }
+        }
+        return approved;
+    }
+
+    @Override
+    public int countSubmitted(LocalDate from, LocalDate to) {
+        int n = 0;
+        for (SheetSnapshot snap : byId.values()) {
+            if (snap.status == TimesheetStatus.SUBMITTED && inRange(snap.endDate, from, to)) n++;
+        }
+        return n;
+    }
+
+    /** Drop all sheets of a deleted employee (called by {@link InMemoryEmployeeStore}). */
+    void dropEmployee(int empNumber) {
+        NavigableSet<SheetKey> keys = byEmployee.remove(empNumber);
+        if (keys == null) return;
+        synchronized (keys) {
+            for (SheetKey k : keys) byId.remove(k.id());
+        }
+    }
+
+    // ---------------- Internals ----------------
+
+    private NavigableSet<SheetKey> sheetsOf(Employee e) {
+        return byEmployee.computeIfAbsent(e.getEmpNumber(), n -> new ConcurrentSkipListSet<>());
+    }
+
+    /** @return the highest-id sheet ending {@code endDate}, or null */
+    private static SheetKey newestOf(NavigableSet<SheetKey> keys, LocalDate endDate) {
+        SheetKey k = keys.lower(new SheetKey(endDate.plusDays(1), Long.MIN_VALUE));
+        return k != null && k.endDate().equals(endDate) ? k : null;
+    }
+
+    private void store(NavigableSet<SheetKey> keys, long id, Employee e, LocalDate end,
+                       WeeklyBalance week, TimesheetStatus status, List<SheetSnapshot.Row> rows) {
+        byId.put(id, new SheetSnapshot(id, e, end, week.getOvertimeDeci(), week.getFlextimeDeci(), status, rows));
+        keys.add(new SheetKey(end, id));
+    }
+
+    private void copyFrom(NavigableSet<SheetKey> keys, long id, Employee e, LocalDate end, TimesheetStatus status,
+                          SheetSnapshot source, boolean withHours, boolean withNotes) {
+        List<SheetSnapshot.Row> rows = new ArrayList<>(source.rows.size());
+        for (SheetSnapshot.Row r : source.rows) {
+            rows.add(new SheetSnapshot.Row(rowIds.incrementAndGet(), r.projectId, r.workPackageId,
+                    withHours ? r.packedHours : 0L, withNotes ? r.notes : null));
+        }
+        WeeklyBalance week = withHours ? new WeeklyBalance(source.overtimeDeci, source.flextimeDeci) : WeeklyBalance.ZERO;
+        store(keys, id, e, end, week, status, rows);
+    }
+
+    /** @return the sheet's status if it may be edited */
+    private static TimesheetStatus requireEditable(SheetSnapshot snap, String what) {
+        if (!snap.status.isEditable()) {
+            throw new IllegalStateException(what + " is " + snap.status.label() + " and read-only");
+        }
+        return snap.status;
+    }
+
+    private void transition(Long id, TimesheetStatus next) {
+        if (id == null) throw new IllegalStateException("Timesheet has not been saved yet");
+        SheetSnapshot snap = byId.get(id);
+        if (snap == null) throw new IllegalStateException("Timesheet not found: id=" + id);
+        synchronized (sheetsOf(snap.employee)) {
+            snap = byId.get(id);
+            if (!snap.status.canMoveTo(next)) {
+                throw new IllegalStateException("Timesheet " + id + " is " + snap.status.label()
+                        + " and cannot be " + next.label());
+            }
+            byId.put(id, withStatus(snap, next));
+        }
+    }
+
+    /** @return true if sheet {@code id} was submitted and is now approved */
+    private boolean tryApprove(Long id) {
+        SheetSnapshot snap = id == null ? null : byId.get(id);
+        if (snap == null) return false;
+        synchronized (sheetsOf(snap.employee)) {
+            snap = byId.get(id);
+            if (snap == null || snap.status != TimesheetStatus.SUBMITTED) return false;
+            byId.put(id, withStatus(snap, TimesheetStatus.APPROVED));
+            return true;
+        }
+    }
+
+    private static SheetSnapshot withStatus(SheetSnapshot s, TimesheetStatus status) {
+        return new SheetSnapshot(s.timesheetId, s.employee, s.endDate, s.overtimeDeci, s.flextimeDeci, status, s.rows);
+    }
+
+    private static boolean inRange(LocalDate d, LocalDate from, LocalDate to) {
+        return !d.isBefore(from) && !d.isAfter(to);
+    }
+
+    private List<SheetSnapshot.Row> blankRows() {
+        List<SheetSnapshot.Row> rows = new ArrayList<>(5);
+        for (int i = 0; i < 5; i++) rows.add(new SheetSnapshot.Row(rowIds.incrementAndGet(), 0, "", 0L, null));
+        return rows;
+    }
+
+    private List<SheetSnapshot.Row> toRows(Timesheet ts) {
+        List<SheetSnapshot.Row> rows = new ArrayList<>(ts.getDetails().size());
+        for (TimesheetRow r : ts.getDetails()) {
+            long packed = TimeSheetRepo.packHours(TimeSheetRepo.safeHours(r));
+            rows.add(new SheetSnapshot.Row(rowIds.incrementAndGet(), r.getProjectId(),
+                    r.getWorkPackageId() == null ? "" : r.getWorkPackageId(), packed, r.getNotes()));
+        }
+        return rows;
+    }
+
+    private void addAll(List<Timesheet> out, NavigableSet<SheetKey> keys) {
+        for (SheetKey k : keys) {
+            Timesheet ts = load(k.id());
+            if (ts != null) out.add(ts);
+        }
+    }
+
+    /** @return a fresh model copy of sheet {@code id}, or null */
+    private Timesheet load(long id) {
+        SheetSnapshot snap = byId.get(id);
+        if (snap == null) return null;
+        Timesheet ts = new Timesheet(snap.employee, snap.endDate);
+        ts.setOvertime(snap.overtimeDeci);
+        ts.setFlextime(snap.flextimeDeci);
+        for (SheetSnapshot.Row row : snap.rows) {
+            TimesheetRow r = new TimesheetRow();
+            r.setProjectId(row.projectId);
+            r.setWorkPackageId(row.workPackageId);
+            r.setHours(TimeSheetRepo.unpackHours(row.packedHours));
+            r.setNotes(row.notes);
+            ts.getDetails().add(r);
+        }
+        timesheetIds.put(ts, id);
+        statuses.put(ts, snap.status);
+        return ts;
+    }
+
+    private static LocalDate endOfWeekFriday(LocalDate ref) {
+        return ref.with(DayOfWeek.FRIDAY);
+    }
+}
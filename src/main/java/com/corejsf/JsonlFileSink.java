@@ -0,0 +1,53 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Cluster-wide sink appending events as JSON Lines to a daily file
+ * (<code>changes-YYYY-MM-DD.jsonl</code>) in <code>timesheet.outbox.dir</code>.
+ *
+ * <p>Disabled unless the directory is configured. The directory should be shared storage,
+ * since any node may publish. Each batch is forced to disk before the relay advances, and
+ * every line carries its <code>seq</code> so consumers can drop duplicates after a retry.</p>
+ */
+@ApplicationScoped
+public class JsonlFileSink implements ChangeSink {
+
+    private final String dir = AppConfig.get("timesheet.outbox.dir", "");
+
+    @Override
+    public String getName() { return "jsonl"; }
+
+    @Override
+    public boolean isEnabled() { return !dir.isBlank(); }
+
+    @Override
+    public void publish(List<ChangeEvent> batch) throws IOException {
+        Path folder = Paths.get(dir);
+        Files.createDirectories(folder);
+        Path file = folder.resolve("changes-" + LocalDate.now(ZoneOffset.UTC) + ".jsonl");
+        try (FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            Writer w = Channels.newWriter(ch, StandardCharsets.UTF_8);
+            for (ChangeEvent e : batch) {
+                w.write(e.toJson().toString());
+                w.write('\n');
+            }
+            w.flush();
+            ch.force(false);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in transport (<code>timesheet.reminders.transport=log</code>, the default):
+ * writes each reminder to the server log instead of sending it. Used for development and
+ * load tests; nothing leaves the machine.
+ */
+@ApplicationScoped
+public class LogReminderTransport implements ReminderTransport {
+
+    private static final Logger LOG = Logger.getLogger(LogReminderTransport.class.getName());
+
+    private final String link = AppConfig.get("timesheet.reminders.link", "");
+
+    @Override
+    public String getName() { return "log"; }
+
+    @Override
+    public Map<Reminder, Exception> send(List<Reminder> batch) {
+        for (Reminder r : batch) {
+            LOG.info("Reminder to " + r.getAddress() + ": " + r.getSubject() + "\n" + r.getBody(link));
+        }
+        return Map.of();
+    }
+}
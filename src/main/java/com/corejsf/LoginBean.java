@@ -30,6 +30,10 @@ public class LoginBean implements Serializable {
     @Inject
     private CurrentUser currentUser;
 
+    /** Asynchronous audit trail for login attempts. */
+    @Inject
+    private AuditLog audit;
+
     /** Stores the username and password entered by the user. */
     private Credentials cred = new Credentials();
 
@@ -70,7 +74,15 @@ public class LoginBean implements Serializable {
             cred.setUserName(cred.getUserName().trim());
         }
 
-        final Employee emp = authService.authenticate(cred);
+        final Employee emp;
+        try {
+            emp = authService.authenticate(cred);
+        } catch (DatabaseUnavailableException ex) {
+            FacesContext.getCurrentInstance().addMessage(
+                null, new FacesMessage(FacesMessage.SEVERITY_ERROR, ex.getMessage(), null));
+            return null;
+        }
+        audit.record(cred == null ? null : cred.getUserName(), AuditLog.LOGIN, null, emp != null);
         if (emp == null) {
             FacesContext.getCurrentInstance().addMessage(
                 null,
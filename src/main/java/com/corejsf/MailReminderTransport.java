@@ -0,0 +1,88 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+
+/**
+ * SMTP transport (<code>timesheet.reminders.transport=mail</code>) over the server's
+ * Jakarta Mail session <code>timesheet.reminders.mailSession</code> (default
+ * <code>java:jboss/mail/Default</code>).
+ *
+ * <p>A batch goes over one SMTP connection, one message per reminder, and each reminder's
+ * failure is reported on its own; an address the server refuses
+ * (<code>AddressException</code>, <code>SendFailedException</code>) is permanent. For
+ * testing, point the session's outbound socket binding at a local SMTP catcher (e.g. port
+ * 1025) instead of a real relay. Sender address: <code>timesheet.reminders.from</code>.</p>
+ */
+@ApplicationScoped
+public class MailReminderTransport implements ReminderTransport {
+
+    private final String jndiName = AppConfig.get("timesheet.reminders.mailSession", "java:jboss/mail/Default");
+    private final String from = AppConfig.get("timesheet.reminders.from", "timesheets@localhost");
+    private final String link = AppConfig.get("timesheet.reminders.link", "");
+
+    private volatile Session session;
+
+    @Override
+    public String getName() { return "mail"; }
+
+    @Override
+    public Map<Reminder, Exception> send(List<Reminder> batch) throws MessagingException, NamingException {
+        Session s = session();
+        Map<Reminder, Exception> failures = new HashMap<>();
+        try (Transport t = s.getTransport()) {
+            t.connect();
+            for (int i = 0; i < batch.size(); i++) {
+                Reminder r = batch.get(i);
+                try {
+                    MimeMessage msg = new MimeMessage(s);
+                    msg.setFrom(new InternetAddress(from));
+                    msg.setRecipient(Message.RecipientType.TO, new InternetAddress(r.getAddress()));
+                    msg.setSubject(r.getSubject(), "UTF-8");
+                    msg.setText(r.getBody(link), "UTF-8");
+                    msg.saveChanges();
+                    t.sendMessage(msg, msg.getAllRecipients());
+                } catch (AddressException | SendFailedException ex) {
+                    failures.put(r, ex);
+                } catch (MessagingException ex) {
+                    if (!t.isConnected()) {
+                        // Connection lost: this and the rest of the batch were not sent
+                        for (Reminder rest : batch.subList(i, batch.size())) failures.put(rest, ex);
+                        break;
+                    }
+                    failures.put(r, ex);
+                }
+            }
+        }
+        return failures;
+    }
+
+    /** Address errors are the recipient's: retrying cannot deliver them. */
+    @Override
+    public boolean isPermanent(Exception failure) {
+        return failure instanceof AddressException || failure instanceof SendFailedException;
+    }
+
+    /** Looked up on first use, so deploying without a mail session only fails when mail is selected. */
+    private Session session() throws NamingException {
+        Session s = session;
+        if (s == null) {
+            s = (Session) new InitialContext().lookup(jndiName);
+            session = s;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,215 @@
+package com.corejsf;
+
+import jakarta.ejb.Asynchronous;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Reminds every employee without saved hours for last week, through {@link ReminderSender}.
+* <p>
+* Missing and empty sheets are found set-based: one query over <code>employees</code>
+* with a <code>NOT EXISTS</code> against the non-zero <code>timesheet_rows</code> of all
+* their sheets for last week (an employee may have several for one week, so the check is
+* per employee, not per sheet), paged by <code>employee_id</code>
+* (<code>timesheet.reminders.pageSize</code>, default 500) so no result set stays open
+* while the sender is busy. Employees already reminded for the week in
+* <code>timesheet_reminders</code> are skipped, and so are those whose address the mail
+* server rejected, so re-running is safe. Administrators and deleted employees are not
+* reminded.
+* <p>
+* Runs Monday 09:00 when <code>timesheet.reminders.enabled</code> is true, and on demand
+* from the admin dashboard. A MySQL named lock keeps replicas from running concurrently.
+* Addresses are <code>user_name@timesheet.reminders.domain</code> unless the user name
+* already is an address.
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class MissingTimesheetReminder {
+
+    private static final Logger LOG = Logger.getLogger(MissingTimesheetReminder.class.getName());
+
+    /** Cluster-wide lock name (GET_LOCK). */
+    private static final String LOCK_NAME = "timesheet_reminders";
+
+    /** How long a run waits for room in the sender's queue before giving up. */
+    private static final long OFFER_TIMEOUT_MILLIS = 60_000L;
+
+    private final boolean enabled = AppConfig.getBoolean("timesheet.reminders.enabled", false);
+    private final int pageSize = Math.max(1, AppConfig.getInt("timesheet.reminders.pageSize", 500));
+    private final String domain = AppConfig.get("timesheet.reminders.domain", "localhost");
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Outcome of the last completed run on this node. */
+    private volatile LocalDate lastWeek;
+    private volatile Instant lastRunAt;
+    private volatile int lastMissing;
+    private volatile int lastEmpty;
+    private volatile int lastQueued;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private ReminderSender sender;
+
+    /** Monday morning, for the week that ended last Friday. */
+    @Schedule(dayOfWeek = "Mon", hour = "9", minute = "0", persistent = false)
+    public void weekly() {
+        if (enabled) remind();
+    }
+
+    /** Start a run in the background (admin action). */
+    @Asynchronous
+    public void remindAsync() {
+        remind();
+    }
+
+    /** @return true while a run is in progress on this node */
+    public boolean isRunning() { return running.get(); }
+
+    /** @return week of the last run, or null before the first one */
+    public LocalDate getLastWeek() { return lastWeek; }
+
+    public Instant getLastRunAt() { return lastRunAt; }
+
+    /** @return employees without a sheet in the last run */
+    public int getLastMissing() { return lastMissing; }
+
+    /** @return employees whose sheet had no hours in the last run */
+    public int getLastEmpty() { return lastEmpty; }
+
+    /** @return reminders handed to the sender by the last run */
+    public int getLastQueued() { return lastQueued; }
+
+    /** @return the sender, for its queue and delivery counters */
+    public ReminderSender getSender() { return sender; }
+
+    /** @return week-ending Friday before this week's (same week rule as the repository) */
+    public LocalDate lastFriday() {
+        return LocalDate.now().with(DayOfWeek.FRIDAY).minusWeeks(1);
+    }
+
+    /**
+    * Queue a reminder for everyone without hours for {@link #lastFriday()}.
+    *
+    * @return reminders queued (0 if another node or thread is already running)
+    */
+    public int remind() {
+        if (!running.compareAndSet(false, true)) return 0;
+        LocalDate week = lastFriday();
+        int missing = 0;
+        int empty = 0;
+        int queued = 0;
+        try (Connection lockConn = ds.getPrimaryConnection()) {
+            if (!acquire(lockConn)) return 0;
+            try {
+                long after = 0;
+                List<Reminder> page;
+                while (!(page = findPage(week, after)).isEmpty()) {
+                    for (Reminder r : page) {
+                        if (r.isSheetMissing()) missing++; else empty++;
+                        if (!sender.offer(r, OFFER_TIMEOUT_MILLIS)) {
+                            LOG.warning("Reminder queue stayed full; the rest goes out on the next run");
+                            return queued;
+                        }
+                        queued++;
+                    }
+                    after = page.get(page.size() - 1).getEmployeeId();
+                }
+                LOG.info("Queued " + queued + " timesheet reminders for the week ending " + week
+                        + " (" + missing + " missing, " + empty + " empty)");
+            } finally {
+                release(lockConn);
+                lastWeek = week;
+                lastRunAt = Instant.now();
+                lastMissing = missing;
+                lastEmpty = empty;
+                lastQueued = queued;
+            }
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Reminder run stopped after " + queued + " reminders; resumes on the next run", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+        return queued;
+    }
+
+    /** One page of employees without hours for {@code week}, after {@code afterId}. */
+    private List<Reminder> findPage(LocalDate week, long afterId) throws SQLException {
+        final String sql = """
+            SELECT e.employee_id, e.name, e.user_name,
+                   NOT EXISTS (SELECT 1 FROM timesheets t
+                               WHERE t.employee_id = e.employee_id AND t.end_date = ?) AS missing
+            FROM employees e
+            WHERE e.deleted_at IS NULL
+              AND e.role = 'USER'
+              AND e.employee_id > ?
+              AND NOT EXISTS (SELECT 1 FROM timesheets t
+                              JOIN timesheet_rows r ON r.timesheet_id = t.timesheet_id
+                              WHERE t.employee_id = e.employee_id AND t.end_date = ?
+                                AND r.packed_hours <> 0)
+              AND NOT EXISTS (SELECT 1 FROM timesheet_reminders m
+                              WHERE m.employee_id = e.employee_id AND m.end_date = ?
+                                AND (m.sent_at IS NOT NULL OR m.rejected_at IS NOT NULL))
+            ORDER BY e.employee_id
+            LIMIT ?
+        """;
+        List<Reminder> page = new ArrayList<>(pageSize);
+        java.sql.Date end = java.sql.Date.valueOf(week);
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setDate(1, end);
+            ps.setLong(2, afterId);
+            ps.setDate(3, end);
+            ps.setDate(4, end);
+            ps.setInt(5, pageSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String user = rs.getString("user_name");
+                    page.add(new Reminder(rs.getLong("employee_id"), rs.getString("name"),
+                            user.contains("@") ? user : user + "@" + domain, week, rs.getBoolean("missing")));
+                }
+            }
+        }
+        return page;
+    }
+
+    private static boolean acquire(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, LOCK_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection c) {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException ignored) {
+            // The lock is released with the session anyway.
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.corejsf;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.enterprise.context.Conversation;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.context.FacesContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import java.io.Serializable;
@@ -31,11 +33,25 @@ public class NavBean implements Serializable{
 	
 	/** Repository for accessing and managing timesheets. */
 	@Inject
-	private TimeSheetRepo timesheetrepo;
+	private TimesheetStore timesheetrepo;
 	
 	/** Represents the current logged-in user and their state. */
 	@Inject
 	private CurrentUser currentuser;
+
+	/** "Start from last week" option: also copy hours. */
+	private boolean copyHours;
+
+	/** "Start from last week" option: also copy notes. */
+	private boolean copyNotes;
+
+	public boolean isCopyHours() { return copyHours; }
+
+	public void setCopyHours(boolean copyHours) { this.copyHours = copyHours; }
+
+	public boolean isCopyNotes() { return copyNotes; }
+
+	public void setCopyNotes(boolean copyNotes) { this.copyNotes = copyNotes; }
 	
 	/**
      * Ends the current CDI conversation if active and clears the user's selected timesheet.
@@ -120,6 +136,33 @@ public class NavBean implements Serializable{
 		return "timesheet-edit.xhtml?faces-redirect=true&new=1";
 	}
 	
+	/**
+     * Starts this week's timesheet from the previous one.
+     *
+     * <p>The copy happens in the database ({@link TimeSheetRepo#copyForward}); projects and
+     * work packages are always copied, hours and notes when the options are set.</p>
+     *
+     * @return redirect to the edit page, or {@code null} with a message if nothing could be copied
+     */
+	public String startFromLastWeek(){
+		end();
+		FacesContext ctx = FacesContext.getCurrentInstance();
+		Long id;
+		try {
+			id = timesheetrepo.copyForward(currentuser.getEmployee(), copyHours, copyNotes);
+		} catch (IllegalStateException ex) {
+			ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, ex.getMessage(), null));
+			return null;
+		}
+		if (id == null) {
+			ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN,
+					"There is no earlier timesheet to start from.", null));
+			return null;
+		}
+		currentuser.setSelectedTimesheet(timesheetrepo.loadById(id));
+		return "timesheet-edit.xhtml?faces-redirect=true";
+	}
+	
 	/**
      * Logs out the current user and ends any active conversation.
      *
@@ -0,0 +1,52 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.json.JsonObject;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Writes change events to <code>outbox_events</code> on the caller's transactional
+ * connection, so an event exists exactly when the change it describes commits.
+ * Publishing is done separately by {@link OutboxRelay}.
+ */
+@ApplicationScoped
+public class Outbox implements Serializable {
+
+    private static final String INSERT =
+        "INSERT INTO outbox_events (event_type, aggregate, aggregate_key, payload) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Append one event.
+     *
+     * @param c connection of the surrounding transaction
+     * @param type kind of change
+     * @param key timesheet id or user name
+     * @param payload compact details (nullable)
+     */
+    public void append(Connection c, ChangeEvent.Type type, String key, JsonObject payload) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(INSERT)) {
+            bind(ps, type, key, payload);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Prepare a batch insert for bulk writers; bind rows with {@link #bind} and
+     * <code>addBatch()</code>, then <code>executeBatch()</code>.
+     */
+    PreparedStatement prepareBatch(Connection c) throws SQLException {
+        return c.prepareStatement(INSERT);
+    }
+
+    /** Bind one event to a statement from {@link #prepareBatch}. */
+    void bind(PreparedStatement ps, ChangeEvent.Type type, String key, JsonObject payload) throws SQLException {
+        ps.setString(1, type.name());
+        ps.setString(2, type.getAggregate());
+        ps.setString(3, key);
+        ps.setString(4, payload == null ? "{}" : payload.toString());
+    }
+}
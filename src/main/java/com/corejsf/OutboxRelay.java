@@ -0,0 +1,327 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.DependsOn;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Publishes <code>outbox_events</code> to every enabled {@link ChangeSink}, in ordered batches.
+* <p>
+* Runs every second on every node:
+* <ul>
+* <li><b>Node-local sinks</b> (e.g. {@link CacheInvalidationSink}) keep their position in
+*     memory, start at the end of the outbox on boot, and see every event on every node.</li>
+* <li><b>Cluster sinks</b> (e.g. {@link JsonlFileSink}) keep their position in
+*     <code>outbox_cursors</code> and are driven by whichever node holds the
+*     <code>outbox_relay</code> named lock for that tick.</li>
+* </ul>
+* A sink's position only advances after its batch succeeded (at-least-once delivery).
+*
+* <p><strong>Gaps</strong>: <code>seq</code> is an auto-increment, so a transaction that
+* started earlier can commit a lower seq after a higher one is visible. A batch therefore
+* stops at a missing seq until this node has seen it missing for
+* <code>timesheet.outbox.gapWaitMillis</code> (default 30s), however old the rows after
+* it are; only then is it taken for a rolled-back insert and skipped. Skips are logged and
+* counted, and skipped seqs are looked for again until they would have been pruned: one
+* that turns up after all was a very long transaction. It is logged, counted, and this
+* node's cache is cleared so the change is not missed there.</p>
+*/
+@Singleton
+@Startup
+@DependsOn("SchemaMigrator")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class OutboxRelay {
+
+    private static final Logger LOG = Logger.getLogger(OutboxRelay.class.getName());
+
+    private static final int BATCH_SIZE = 500;
+
+    /** Skipped seqs remembered for the late check; more in one gap are only counted. */
+    private static final int MAX_SKIPPED = 1000;
+
+    /** Published events are kept this long for late node-local readers. */
+    private static final int RETENTION_MINUTES = 60;
+
+    private static final String LOCK_NAME = "outbox_relay";
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    @Any
+    private Instance<ChangeSink> sinks;
+
+    /** In-memory positions of node-local sinks, by sink name. */
+    private final Map<String, Long> localCursors = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** How long a missing seq may still be an uncommitted transaction. */
+    private final long gapWaitMillis = AppConfig.getLong("timesheet.outbox.gapWaitMillis", 30_000);
+
+    /** When this node first found each missing seq, by seq. */
+    private final Map<Long, Long> gapFirstSeen = new ConcurrentHashMap<>();
+
+    /** Seqs given up on, with the time they were skipped; checked again on every tick. */
+    private final Map<Long, Long> skipped = new ConcurrentHashMap<>();
+
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong lateCount = new AtomicLong();
+
+    /** Current end of the outbox at boot; node-local sinks start here. */
+    private volatile long bootSeq = -1;
+
+    @PostConstruct
+    public void init() {
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT COALESCE(MAX(seq), 0) FROM outbox_events");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            bootSeq = rs.getLong(1);
+        } catch (SQLException ignored) {
+            // Schema not ready yet; the first tick retries.
+        }
+    }
+
+    /** Relay new events to all sinks. */
+    @Schedule(hour = "*", minute = "*", second = "*", persistent = false)
+    public void tick() {
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            if (bootSeq < 0) {
+                init();
+                return;
+            }
+            try (Connection c = ds.getPrimaryConnection()) {
+                checkSkipped(c);
+                for (ChangeSink sink : sinks) {
+                    if (sink.isEnabled() && sink.isNodeLocal()) relayLocal(c, sink);
+                }
+                if (tryLock(c)) {
+                    try {
+                        for (ChangeSink sink : sinks) {
+                            if (sink.isEnabled() && !sink.isNodeLocal()) relayShared(c, sink);
+                        }
+                    } finally {
+                        unlock(c);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            LOG.log(Level.FINE, "Outbox relay tick failed; retrying", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Delete events every cluster sink has published and node-local readers had time to see. */
+    @Schedule(hour = "*", minute = "*/5", persistent = false)
+    public void prune() {
+        final String sql = """
+            DELETE FROM outbox_events
+            WHERE created_at < NOW() - INTERVAL ? MINUTE
+              AND seq <= COALESCE((SELECT MIN(last_seq) FROM outbox_cursors), seq)
+            LIMIT 10000
+        """;
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, RETENTION_MINUTES);
+            ps.executeUpdate();
+        } catch (SQLException ignored) {
+            // Retried on the next run.
+        }
+    }
+
+    // ---------------- Internals ----------------
+
+    private void relayLocal(Connection c, ChangeSink sink) throws SQLException {
+        long from = localCursors.getOrDefault(sink.getName(), bootSeq);
+        if (isBehindRetention(c, from) && sink instanceof CacheInvalidationSink cacheSink) {
+            // Missed events were pruned; start over with an empty cache
+            cacheSink.reset();
+        }
+        List<ChangeEvent> batch = fetch(c, from);
+        if (batch.isEmpty()) return;
+        if (deliver(sink, batch)) {
+            localCursors.put(sink.getName(), batch.get(batch.size() - 1).getSeq());
+        }
+    }
+
+    private void relayShared(Connection c, ChangeSink sink) throws SQLException {
+        long from = sharedCursor(c, sink.getName());
+        List<ChangeEvent> batch = fetch(c, from);
+        if (batch.isEmpty() || !deliver(sink, batch)) return;
+        try (PreparedStatement ps = c.prepareStatement(
+                "UPDATE outbox_cursors SET last_seq = ? WHERE sink = ?")) {
+            ps.setLong(1, batch.get(batch.size() - 1).getSeq());
+            ps.setString(2, sink.getName());
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean deliver(ChangeSink sink, List<ChangeEvent> batch) {
+        try {
+            sink.publish(batch);
+            return true;
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Sink " + sink.getName() + " failed at seq " + batch.get(0).getSeq()
+                    + "; retrying next tick", ex);
+            return false;
+        }
+    }
+
+    /** Read the next ordered batch after {@code afterSeq}, stopping at a gap still waited for. */
+    private List<ChangeEvent> fetch(Connection c, long afterSeq) throws SQLException {
+        final String sql = """
+            SELECT seq, event_type, aggregate_key, payload, created_at
+            FROM outbox_events
+            WHERE seq > ?
+            ORDER BY seq
+            LIMIT ?
+        """;
+        List<ChangeEvent> batch = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setLong(1, afterSeq);
+            ps.setInt(2, BATCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                long expected = afterSeq + 1;
+                while (rs.next()) {
+                    long seq = rs.getLong("seq");
+                    if (seq != expected) {
+                        if (!gapExpired(expected)) break;
+                        skip(expected, seq - 1);
+                    }
+                    gapFirstSeen.remove(seq);
+                    Timestamp at = rs.getTimestamp("created_at");
+                    batch.add(new ChangeEvent(seq, ChangeEvent.Type.valueOf(rs.getString("event_type")),
+                        rs.getString("aggregate_key"), rs.getString("payload"), at.toInstant()));
+                    expected = seq + 1;
+                }
+            }
+        }
+        return batch;
+    }
+
+    /** @return true once the gap starting at {@code missingSeq} has been waited for long enough */
+    private boolean gapExpired(long missingSeq) {
+        long now = System.currentTimeMillis();
+        Long first = gapFirstSeen.putIfAbsent(missingSeq, now);
+        return first != null && now - first >= gapWaitMillis;
+    }
+
+    /** Give up on seqs {@code from..to}; every sink skips the same gap, so it is counted once. */
+    private void skip(long from, long to) {
+        long now = System.currentTimeMillis();
+        long added = 0;
+        for (long seq = from; seq <= to; seq++) {
+            gapFirstSeen.remove(seq);
+            if (skipped.size() < MAX_SKIPPED) {
+                if (skipped.putIfAbsent(seq, now) == null) added++;
+            } else if (!skipped.containsKey(seq)) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            skippedCount.addAndGet(added);
+            LOG.warning("Outbox seq " + (from == to ? from : from + ".." + to) + " still missing after "
+                    + gapWaitMillis + " ms; skipped as rolled back");
+        }
+    }
+
+    /**
+    * Look for skipped seqs that were committed after all. Their events reached no sink
+    * in order; the local cache is cleared so this node does not keep serving stale entries.
+    */
+    private void checkSkipped(Connection c) throws SQLException {
+        long expired = System.currentTimeMillis() - RETENTION_MINUTES * 60_000L;
+        skipped.values().removeIf(at -> at < expired);
+        gapFirstSeen.values().removeIf(at -> at < expired);
+        List<Long> seqs = new ArrayList<>(skipped.keySet());
+        if (seqs.isEmpty()) return;
+        String in = String.join(",", Collections.nCopies(seqs.size(), "?"));
+        List<Long> late = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement("SELECT seq FROM outbox_events WHERE seq IN (" + in + ")")) {
+            for (int i = 0; i < seqs.size(); i++) ps.setLong(i + 1, seqs.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) late.add(rs.getLong(1));
+            }
+        }
+        if (late.isEmpty()) return;
+        late.forEach(skipped::remove);
+        lateCount.addAndGet(late.size());
+        LOG.severe("Outbox seqs " + late + " were committed more than " + gapWaitMillis
+                + " ms late and skipped by the relay; raise timesheet.outbox.gapWaitMillis");
+        for (ChangeSink sink : sinks) {
+            if (sink instanceof CacheInvalidationSink cacheSink) cacheSink.reset();
+        }
+    }
+
+    /** @return missing seqs given up on since startup */
+    public long getSkippedCount() { return skippedCount.get(); }
+
+    /** @return skipped seqs that were committed after all since startup */
+    public long getLateCount() { return lateCount.get(); }
+
+    /** @return the stored position of a cluster sink, creating it at 0 */
+    private static long sharedCursor(Connection c, String sink) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT IGNORE INTO outbox_cursors (sink, last_seq) VALUES (?, 0)")) {
+            ps.setString(1, sink);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = c.prepareStatement("SELECT last_seq FROM outbox_cursors WHERE sink = ?")) {
+            ps.setString(1, sink);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /** @return true if events after {@code afterSeq} were already pruned */
+    private static boolean isBehindRetention(Connection c, long afterSeq) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT MIN(seq) FROM outbox_events");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return false;
+            long min = rs.getLong(1);
+            return !rs.wasNull() && min > afterSeq + 1;
+        }
+    }
+
+    private static boolean tryLock(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, LOCK_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void unlock(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+}
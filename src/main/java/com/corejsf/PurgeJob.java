@@ -0,0 +1,47 @@
+package com.corejsf;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One row of <code>purge_jobs</code>: the background removal of a deleted employee's
+ * timesheet history, as shown on the admin dashboard.
+ */
+public class PurgeJob implements Serializable {
+
+    private final String userName;
+    private final String status;
+    private final long sheetsTotal;
+    private final long sheetsDeleted;
+    private final LocalDateTime requestedAt;
+
+    public PurgeJob(String userName, String status, long sheetsTotal, long sheetsDeleted,
+                    LocalDateTime requestedAt) {
+        this.userName = userName;
+        this.status = status;
+        this.sheetsTotal = sheetsTotal;
+        this.sheetsDeleted = sheetsDeleted;
+        this.requestedAt = requestedAt;
+    }
+
+    /** @return user name the employee had before deletion */
+    public String getUserName() { return userName; }
+
+    /** @return PENDING, RUNNING or DONE */
+    public String getStatus() { return status; }
+
+    /** @return timesheets the employee had when deleted */
+    public long getSheetsTotal() { return sheetsTotal; }
+
+    /** @return timesheets removed so far */
+    public long getSheetsDeleted() { return sheetsDeleted; }
+
+    /** @return when the employee was deleted */
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+
+    /** @return completion in percent (100 when there was nothing to remove) */
+    public int getPercent() {
+        if ("DONE".equals(status) || sheetsTotal <= 0) return "DONE".equals(status) ? 100 : 0;
+        return (int) Math.min(100, sheetsDeleted * 100 / sheetsTotal);
+    }
+}
@@ -0,0 +1,23 @@
+package com.corejsf;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository method as a pure read that may be served by the read replica.
+ *
+ * <p>While such a method runs, {@link DataSourceRouter#getConnection()} hands out replica
+ * connections, unless the replica is lagging or the current session wrote recently
+ * (read-your-writes). See {@link ReadOnlyInterceptor}.</p>
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ReadOnly {
+}
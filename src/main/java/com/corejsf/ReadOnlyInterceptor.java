@@ -0,0 +1,28 @@
+package com.corejsf;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.io.Serializable;
+
+/**
+ * Opens a read-only routing scope around methods annotated with {@link ReadOnly}.
+ * Scopes nest, so a read method calling another read method stays on the replica.
+ */
+@ReadOnly
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class ReadOnlyInterceptor implements Serializable {
+
+    @AroundInvoke
+    public Object route(InvocationContext ctx) throws Exception {
+        DataSourceRouter.enterReadOnly();
+        try {
+            return ctx.proceed();
+        } finally {
+            DataSourceRouter.exitReadOnly();
+        }
+    }
+}
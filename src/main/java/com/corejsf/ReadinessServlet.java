@@ -0,0 +1,36 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Readiness probe of the pod (<code>GET /ready</code>, see <code>helm.yaml</code>).
+ *
+ * <p>Answers 503 until {@link WarmUp} has finished, then 200. The database is not checked
+ * here: when it is down every pod is affected alike, and {@link DbGuard} already answers
+ * quickly with a friendly page, which beats having no pod in service at all.</p>
+ */
+@WebServlet("/ready")
+public class ReadinessServlet extends HttpServlet {
+
+    @Inject
+    private WarmUp warmUp;
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        res.setContentType("text/plain");
+        res.setCharacterEncoding("UTF-8");
+        res.setHeader("Cache-Control", "no-store");
+        if (!warmUp.isDone()) {
+            res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            res.getWriter().write("warming up\n");
+            return;
+        }
+        res.getWriter().write("ready after " + warmUp.getReadyAfterMillis() + " ms " + warmUp.getPhases() + "\n");
+    }
+}
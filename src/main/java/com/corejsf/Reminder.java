@@ -0,0 +1,55 @@
+package com.corejsf;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One "no hours for last week" reminder: who gets it and for which week.
+ * Immutable; created by {@link MissingTimesheetReminder} and sent by {@link ReminderSender}.
+ */
+public final class Reminder implements Serializable {
+
+    private final long employeeId;
+    private final String name;
+    private final String address;
+    private final LocalDate endDate;
+    private final boolean sheetMissing;
+
+    public Reminder(long employeeId, String name, String address, LocalDate endDate, boolean sheetMissing) {
+        this.employeeId = employeeId;
+        this.name = name;
+        this.address = address;
+        this.endDate = endDate;
+        this.sheetMissing = sheetMissing;
+    }
+
+    public long getEmployeeId() { return employeeId; }
+
+    /** @return display name used in the greeting */
+    public String getName() { return name; }
+
+    /** @return recipient e-mail address */
+    public String getAddress() { return address; }
+
+    /** @return week-ending Friday the reminder is about */
+    public LocalDate getEndDate() { return endDate; }
+
+    /** @return true if there is no sheet at all, false if the sheet exists but has no hours */
+    public boolean isSheetMissing() { return sheetMissing; }
+
+    /** @return subject line shared by all transports */
+    public String getSubject() {
+        return "Timesheet reminder: week ending " + endDate;
+    }
+
+    /** @return plain-text body shared by all transports */
+    public String getBody(String link) {
+        StringBuilder b = new StringBuilder()
+            .append("Hi ").append(name).append(",\n\n")
+            .append(sheetMissing ? "We have no timesheet from you" : "Your timesheet has no hours")
+            .append(" for the week ending ").append(endDate).append(".\n")
+            .append("Please fill it in");
+        if (link != null && !link.isBlank()) b.append(": ").append(link);
+        return b.append(".\n").toString();
+    }
+}
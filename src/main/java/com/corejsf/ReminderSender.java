@@ -0,0 +1,246 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Sends {@link Reminder}s off the caller's thread through the configured {@link ReminderTransport}.
+* <p>
+* {@link #offer} puts a reminder into a bounded queue (<code>timesheet.reminders.capacity</code>,
+* default 1000) and waits for space when it is full, so a large run is throttled to the
+* transport's pace instead of filling the heap. One sender thread takes up to
+* <code>timesheet.reminders.batchSize</code> (default 50) reminders at a time and hands them
+* to the transport as one batch. The transport reports each reminder on its own: sent ones
+* are done, and only those that failed for a transient reason are retried after
+* <code>timesheet.reminders.retryMillis</code> (default 2000 ms), doubling each time, for up to
+* <code>timesheet.reminders.maxAttempts</code> (default 5) attempts. A rejected address is
+* not retried.
+* <p>
+* Each reminder is recorded in <code>timesheet_reminders</code> once its outcome is final,
+* with one multi-row upsert per outcome and attempt: <code>sent_at</code> when sent,
+* <code>rejected_at</code> when its address was rejected, otherwise only the attempt count
+* and last error.
+* {@link MissingTimesheetReminder} skips employees already reminded for the week, so a
+* reminder that was queued but never sent (restart, give-up) goes out on the next run.
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ReminderSender {
+
+    private static final Logger LOG = Logger.getLogger(ReminderSender.class.getName());
+
+    private final int batchSize = Math.max(1, AppConfig.getInt("timesheet.reminders.batchSize", 50));
+    private final int maxAttempts = Math.max(1, AppConfig.getInt("timesheet.reminders.maxAttempts", 5));
+    private final long retryMillis = Math.max(10, AppConfig.getLong("timesheet.reminders.retryMillis", 2000L));
+    private final String transportName = AppConfig.get("timesheet.reminders.transport", "log");
+
+    private final BlockingQueue<Reminder> queue =
+            new ArrayBlockingQueue<>(Math.max(1, AppConfig.getInt("timesheet.reminders.capacity", 1000)));
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    private volatile boolean stopping;
+    private volatile Thread worker;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    @Any
+    private Instance<ReminderTransport> transports;
+
+    @PostConstruct
+    public void init() {
+        Thread t = threadFactory.newThread(this::sendLoop);
+        t.setName("reminder-sender");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    /** Stop after the batch in flight; queued reminders are picked up by the next run. */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        Thread t = worker;
+        if (t == null) return;
+        t.interrupt();
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+    * Queue a reminder, waiting up to {@code timeoutMillis} for space.
+    *
+    * @return false if the queue stayed full or the sender is stopping
+    */
+    public boolean offer(Reminder r, long timeoutMillis) throws InterruptedException {
+        return !stopping && queue.offer(r, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** @return name of the transport in use */
+    public String getTransport() { return transportName; }
+
+    /** @return reminders delivered since startup */
+    public long getSent() { return sent.get(); }
+
+    /** @return reminders rejected or given up after {@code maxAttempts} */
+    public long getFailed() { return failed.get(); }
+
+    /** @return retry rounds since startup */
+    public long getRetries() { return retries.get(); }
+
+    /** @return reminders waiting to be sent */
+    public int getQueued() { return queue.size(); }
+
+    public int getCapacity() { return queue.size() + queue.remainingCapacity(); }
+
+    // ---------------- Internals ----------------
+
+    private void sendLoop() {
+        List<Reminder> batch = new ArrayList<>(batchSize);
+        while (!stopping) {
+            try {
+                Reminder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+    * Send one batch, retrying only the reminders that failed for a transient reason, and
+    * record each reminder as soon as its outcome is final so a sent one is never sent again.
+    */
+    private void deliver(List<Reminder> batch) throws InterruptedException {
+        ReminderTransport transport = transport();
+        List<Reminder> pending = new ArrayList<>(batch);
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            Map<Reminder, Exception> failures;
+            try {
+                if (transport == null) throw new IllegalStateException("No reminder transport named '" + transportName + "'");
+                failures = transport.send(pending);
+            } catch (InterruptedException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                failures = new HashMap<>();
+                for (Reminder r : pending) failures.put(r, ex);
+            }
+            List<Reminder> delivered = new ArrayList<>();
+            List<Reminder> rejected = new ArrayList<>();
+            List<Reminder> retry = new ArrayList<>();
+            for (Reminder r : pending) {
+                Exception ex = failures.get(r);
+                if (ex == null) delivered.add(r);
+                else if (transport != null && transport.isPermanent(ex)) rejected.add(r);
+                else retry.add(r);
+            }
+            sent.addAndGet(delivered.size());
+            failed.addAndGet(rejected.size());
+            record(delivered, attempt, Outcome.SENT, failures);
+            record(rejected, attempt, Outcome.REJECTED, failures);
+            if (retry.isEmpty()) return;
+
+            Exception first = failures.get(retry.get(0));
+            LOG.log(Level.WARNING, retry.size() + " of " + pending.size() + " reminders failed (attempt " + attempt + ")", first);
+            if (attempt >= maxAttempts || stopping) {
+                failed.addAndGet(retry.size());
+                record(retry, attempt, Outcome.FAILED, failures);
+                return;
+            }
+            retries.incrementAndGet();
+            Thread.sleep(retryMillis << Math.min(attempt - 1, 10));
+            pending = retry;
+        }
+    }
+
+    private ReminderTransport transport() {
+        for (ReminderTransport t : transports) {
+            if (t.getName().equalsIgnoreCase(transportName)) return t;
+        }
+        return null;
+    }
+
+    /** Final state of a reminder as stored in <code>timesheet_reminders</code>. */
+    private enum Outcome {
+        SENT("(?,?,CURRENT_TIMESTAMP(3),NULL,?,?)"),
+        REJECTED("(?,?,NULL,CURRENT_TIMESTAMP(3),?,?)"),
+        FAILED("(?,?,NULL,NULL,?,?)");
+
+        private final String row;
+
+        Outcome(String row) { this.row = row; }
+    }
+
+    private void record(List<Reminder> reminders, int attempts, Outcome outcome, Map<Reminder, Exception> failures) {
+        if (reminders.isEmpty()) return;
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO timesheet_reminders (employee_id, end_date, sent_at, rejected_at, attempts, last_error) VALUES ");
+        for (int i = 0; i < reminders.size(); i++) {
+            sql.append(i == 0 ? "" : ",").append(outcome.row);
+        }
+        sql.append("""
+             ON DUPLICATE KEY UPDATE
+                sent_at = VALUES(sent_at),
+                rejected_at = VALUES(rejected_at),
+                attempts = timesheet_reminders.attempts + VALUES(attempts),
+                last_error = VALUES(last_error)
+            """);
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (Reminder r : reminders) {
+                Exception ex = failures.get(r);
+                String error = ex == null ? null : String.valueOf(ex.getMessage());
+                ps.setLong(p++, r.getEmployeeId());
+                ps.setDate(p++, java.sql.Date.valueOf(r.getEndDate()));
+                ps.setInt(p++, attempts);
+                ps.setString(p++, error == null || error.length() <= 255 ? error : error.substring(0, 255));
+            }
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            // Unrecorded reminders are simply sent again by the next run
+            LOG.log(Level.WARNING, "Could not record " + reminders.size() + " reminders", ex);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.corejsf;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivery channel for {@link Reminder}s, used by {@link ReminderSender}.
+ *
+ * <p>Implementations are CDI beans; the sender uses the one whose name matches
+ * <code>timesheet.reminders.transport</code> (default <code>log</code>).</p>
+ */
+public interface ReminderTransport {
+
+    /** @return name selected by <code>timesheet.reminders.transport</code> */
+    String getName();
+
+    /**
+     * Deliver one batch, one message per reminder. A reminder that is not in the returned
+     * map was sent and is never handed over again; the others are retried unless
+     * {@link #isPermanent} says their failure is final.
+     *
+     * @param batch reminders to deliver, never empty
+     * @return failure per reminder that was not sent, empty if all were
+     * @throws Exception if nothing in the batch was sent, to have all of it retried
+     */
+    Map<Reminder, Exception> send(List<Reminder> batch) throws Exception;
+
+    /**
+     * @return true if {@code failure} (from {@link #send}) will not go away by retrying,
+     *         e.g. the recipient's address is rejected
+     */
+    default boolean isPermanent(Exception failure) { return false; }
+}
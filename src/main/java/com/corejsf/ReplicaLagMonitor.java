@@ -0,0 +1,24 @@
+package com.corejsf;
+
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+/**
+ * Periodically measures read-replica lag for {@link DataSourceRouter}.
+ * A no-op when no replica is configured.
+ */
+@Singleton
+@Startup
+public class ReplicaLagMonitor {
+
+    @Inject
+    private DataSourceRouter router;
+
+    /** Heartbeat every two seconds. */
+    @Schedule(hour = "*", minute = "*", second = "*/2", persistent = false)
+    public void check() {
+        router.refreshLag();
+    }
+}
@@ -0,0 +1,174 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import ca.bcit.infosys.employee.*;
+
+/**
+* Node-local read cache shared by {@link EmployeeRepo} and {@link TimeSheetRepo}.
+* <p>
+* Session beans only keep identifiers (user name, <code>timesheet_id</code>) and resolve
+* them through this cache, so a session can be served by any replica.
+* <ul>
+* <li>Employees are cached by lower-cased user name.</li>
+* <li>Timesheets are cached as immutable {@link SheetSnapshot}s by id.</li>
+* </ul>
+*
+* <p><strong>Cross-node invalidation</strong>: writers append change events to the
+* {@link Outbox} in their transaction. {@link OutboxRelay} feeds them on every node to
+* {@link CacheInvalidationSink}, which calls {@link #invalidate}. Entries also expire after
+* a TTL as a safety net. Approved sheets are final (see {@link TimesheetStatus}), so
+* they are kept without a TTL and only leave the cache by LRU eviction.</p>
+*/
+@ApplicationScoped
+public class RepoCache implements Serializable {
+
+    /** Invalidation kind for employees (key: user name). */
+    static final String EMPLOYEE = "EMP";
+
+    /** Invalidation kind for timesheets (key: timesheet id). */
+    static final String SHEET = "SHEET";
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+
+    private final Map<String, Entry<Employee>> employees = lru();
+    private final Map<Long, Entry<SheetSnapshot>> sheets = lru();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong employeeHits = new AtomicLong();
+    private final AtomicLong sheetHits = new AtomicLong();
+    private final AtomicLong employeeMisses = new AtomicLong();
+    private final AtomicLong sheetMisses = new AtomicLong();
+
+    // ---------------- Employees ----------------
+
+    /** @return cached employee for a user name, or {@code null} on miss/expiry */
+    public Employee getEmployee(String userName) {
+        if (userName == null) return null;
+        return read(employees, userName.toLowerCase(Locale.ROOT), employeeHits, employeeMisses);
+    }
+
+    /** Cache an employee under its user name. */
+    public void putEmployee(Employee e) {
+        if (e == null || e.getUserName() == null) return;
+        employees.put(e.getUserName().toLowerCase(Locale.ROOT), new Entry<>(e, false));
+    }
+
+    // ---------------- Timesheets ----------------
+
+    /** @return cached snapshot for a timesheet id, or {@code null} on miss/expiry */
+    SheetSnapshot getSheet(long timesheetId) {
+        return read(sheets, timesheetId, sheetHits, sheetMisses);
+    }
+
+    /** Cache a timesheet snapshot. */
+    void putSheet(SheetSnapshot snapshot) {
+        if (snapshot == null) return;
+        sheets.put(snapshot.timesheetId, new Entry<>(snapshot, snapshot.status.isFinal()));
+    }
+
+    // ---------------- Invalidation ----------------
+
+    /**
+    * Drop an entry on this node.
+    *
+    * @param kind {@link #EMPLOYEE} or {@link #SHEET}
+    * @param key user name or timesheet id
+    */
+    public void invalidate(String kind, String key) {
+        if (key == null) return;
+        if (EMPLOYEE.equals(kind)) {
+            employees.remove(key.toLowerCase(Locale.ROOT));
+        } else if (SHEET.equals(kind)) {
+            try {
+                sheets.remove(Long.parseLong(key));
+            } catch (NumberFormatException ignored) {
+                // Malformed key; nothing cached under it.
+            }
+        }
+    }
+
+    /** Drop everything on this node (e.g. when the invalidation log was missed). */
+    public void clear() {
+        employees.clear();
+        sheets.clear();
+    }
+
+    // ---------------- Stats ----------------
+
+    /** @return number of cache hits since startup */
+    public long getHits() { return hits.get(); }
+
+    /** @return number of cache misses since startup */
+    public long getMisses() { return misses.get(); }
+
+    /** @return cached employee count */
+    public int getEmployeeCount() { return employees.size(); }
+
+    /** @return cached timesheet count */
+    public int getSheetCount() { return sheets.size(); }
+
+    /** @return share of employee lookups answered from the cache, 0..1 */
+    public double getEmployeeHitRate() { return rate(employeeHits, employeeMisses); }
+
+    /** @return share of timesheet lookups answered from the cache, 0..1 */
+    public double getSheetHitRate() { return rate(sheetHits, sheetMisses); }
+
+    /** @return largest number of entries per cache before LRU eviction */
+    public int getMaxEntries() { return MAX_ENTRIES; }
+
+    // ---------------- Helpers ----------------
+
+    private <K, V> V read(Map<K, Entry<V>> map, K key, AtomicLong hit, AtomicLong miss) {
+        Entry<V> e = map.get(key);
+        if (e == null || e.isExpired()) {
+            if (e != null) map.remove(key);
+            misses.incrementAndGet();
+            miss.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        hit.incrementAndGet();
+        return e.value;
+    }
+
+    private static double rate(AtomicLong hit, AtomicLong miss) {
+        long h = hit.get();
+        long n = h + miss.get();
+        return n == 0 ? 0 : (double) h / n;
+    }
+
+    /** Access-ordered, size-bounded map. */
+    private static <K, V> Map<K, V> lru() {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        });
+    }
+
+    /** Cached value with its load time; pinned values never expire. */
+    private static final class Entry<V> implements Serializable {
+        final V value;
+        final boolean pinned;
+        final long loadedAt = System.currentTimeMillis();
+
+        Entry(V value, boolean pinned) {
+            this.value = value;
+            this.pinned = pinned;
+        }
+
+        boolean isExpired() {
+            return !pinned && System.currentTimeMillis() - loadedAt > TTL_MILLIS;
+        }
+    }
+}
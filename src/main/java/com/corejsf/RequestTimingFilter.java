@@ -0,0 +1,128 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures server time and response size of every Faces request.
+ *
+ * <p>Adds a <code>Server-Timing: app;dur=…</code> header when the response is still
+ * uncommitted (it usually is for pages that fit the response buffer), logs each request
+ * at FINE and accumulates per-view totals in {@link RequestTimings}, except for 404s.
+ * AJAX requests (<code>Faces-Request: partial/ajax</code>) are counted separately from
+ * full requests.
+ * Request times other than the warm-up's own also feed {@link StartupLatency}.</p>
+ */
+@WebFilter(urlPatterns = "*.xhtml")
+public class RequestTimingFilter extends HttpFilter {
+
+    private static final Logger LOG = Logger.getLogger(RequestTimingFilter.class.getName());
+
+    @Inject
+    private RequestTimings timings;
+
+    @Inject
+    private StartupLatency startup;
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        long start = System.nanoTime();
+        CountingResponse counting = new CountingResponse(res);
+        try {
+            chain.doFilter(req, counting);
+            counting.flushWriter();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (!res.isCommitted()) {
+                res.setHeader("Server-Timing", String.format(Locale.ROOT, "app;dur=%.1f", nanos / 1e6));
+            }
+            boolean partial = "partial/ajax".equals(req.getHeader("Faces-Request"));
+            String view = req.getServletPath();
+            // Unknown paths would each add a view to the totals
+            if (res.getStatus() != HttpServletResponse.SC_NOT_FOUND) {
+                timings.record(view, partial, nanos, counting.bytes);
+            }
+            if (req.getHeader(WarmUp.HEADER) == null) startup.record(nanos);
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine(String.format(Locale.ROOT, "%s %s%s: %.1f ms, %d bytes",
+                        req.getMethod(), view, partial ? " (ajax)" : "", nanos / 1e6, counting.bytes));
+            }
+        }
+    }
+
+    /** Response wrapper counting body bytes written through either the stream or the writer. */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private boolean holdFlush;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse res) {
+            super(res);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream out = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override public boolean isReady() { return out.isReady(); }
+                    @Override public void setWriteListener(WriteListener l) { out.setWriteListener(l); }
+                    @Override public void write(int b) throws IOException { out.write(b); bytes++; }
+                    @Override public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        bytes += len;
+                    }
+                    @Override public void flush() throws IOException {
+                        if (!holdFlush) out.flush();
+                    }
+                    @Override public void close() throws IOException { out.close(); }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                String enc = getCharacterEncoding();
+                Charset cs = enc == null ? StandardCharsets.ISO_8859_1 : Charset.forName(enc);
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), cs));
+            }
+            return writer;
+        }
+
+        /**
+         * Encode characters still buffered in the writer so they are counted, without
+         * flushing the servlet buffer (which would commit the response before the header).
+         */
+        void flushWriter() {
+            if (writer == null) return;
+            holdFlush = true;
+            try {
+                writer.flush();
+            } finally {
+                holdFlush = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-view request counters collected by {@link RequestTimingFilter}: count, server time
+ * and response bytes, split into full page requests and AJAX partial requests so the cost
+ * of one interaction can be compared before and after a page is changed.
+ *
+ * <p>At most {@value #MAX_VIEWS} entries (view and request kind) are kept; requests for
+ * views beyond that are summed under "(other)".</p>
+ */
+@ApplicationScoped
+public class RequestTimings {
+
+    private static final int MAX_VIEWS = 400;
+
+    private static final String OTHER = "(other)";
+
+    /** Totals for one view and request kind. */
+    public static final class Stat {
+        private final String view;
+        private final boolean partial;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        Stat(String view, boolean partial) {
+            this.view = view;
+            this.partial = partial;
+        }
+
+        public String getView() { return view; }
+
+        /** @return true for AJAX partial requests */
+        public boolean isPartial() { return partial; }
+
+        public long getCount() { return count.sum(); }
+
+        /** @return mean server time in milliseconds */
+        public double getAvgMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : nanos.sum() / 1e6 / n;
+        }
+
+        /** @return mean response body size in bytes */
+        public long getAvgBytes() {
+            long n = count.sum();
+            return n == 0 ? 0 : bytes.sum() / n;
+        }
+    }
+
+    private final Map<String, Stat> stats = new ConcurrentHashMap<>();
+
+    void record(String view, boolean partial, long nanos, long bytes) {
+        Stat s = statOf(view, partial);
+        s.count.increment();
+        s.nanos.add(nanos);
+        s.bytes.add(bytes);
+    }
+
+    private Stat statOf(String view, boolean partial) {
+        String suffix = partial ? " [ajax]" : "";
+        Stat s = stats.get(view + suffix);
+        if (s != null) return s;
+        String key = stats.size() >= MAX_VIEWS ? OTHER : view;
+        return stats.computeIfAbsent(key + suffix, k -> new Stat(key, partial));
+    }
+
+    /** @return current totals, one entry per view and request kind */
+    public List<Stat> getStats() {
+        List<Stat> list = new ArrayList<>(stats.values());
+        list.sort((a, b) -> a.view.equals(b.view)
+                ? Boolean.compare(a.partial, b.partial) : a.view.compareTo(b.view));
+        return list;
+    }
+
+    /** Start a new measurement window. */
+    public void reset() {
+        stats.clear();
+    }
+}
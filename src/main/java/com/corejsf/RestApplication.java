@@ -0,0 +1,16 @@
+package com.corejsf;
+
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+
+/**
+ * JSON API for the mobile client and integrations, next to the Faces UI.
+ *
+ * <p>Authentication shares the HTTP session with the UI: <code>POST /api/session</code>
+ * logs in and the session cookie authorises later calls. Resources are discovered by
+ * annotation scanning: {@link SessionResource}, {@link TimesheetResource},
+ * {@link EmployeeResource}.</p>
+ */
+@ApplicationPath("/api")
+public class RestApplication extends Application {
+}
@@ -0,0 +1,406 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+* Brings the database schema up to date from the versioned scripts in
+* <code>src/main/resources/db/migration</code>, at deployment or from the command line.
+* <p>
+* Scripts are named <code>V&lt;n&gt;__&lt;description&gt;.sql</code>, listed in
+* {@link #SCRIPTS} and applied once each, in order; every applied version is recorded in
+* <code>schema_version</code> with the script's checksum. A script that was changed after
+* it was applied stops the migration. A database that already has the tables of
+* <code>sql/Assignment 2.sql</code> but no <code>schema_version</code> is recorded as
+* being at version 1 (the baseline) without running it, provided every table and named
+* index that V1 creates is there; a database with only some of them (an older or foreign
+* schema) stops the migration, naming what is missing.
+* <p>
+* Online safety: replicas take a MySQL named lock, so one node migrates while the others
+* wait for it (<code>timesheet.migrate.lockTimeoutSeconds</code>, default 300). DDL waits
+* at most <code>timesheet.migrate.ddlLockWaitSeconds</code> (default 10) for the table's
+* metadata lock, so a long transaction makes the migration fail instead of queueing every
+* query on that table behind it; scripts ask for <code>ALGORITHM=INPLACE, LOCK=NONE</code>
+* so MySQL refuses changes that would block writes. MySQL DDL is not transactional: a
+* script that fails half way is not recorded and has to be finished by hand.
+* <p>
+* At deployment the scripts run when <code>timesheet.migrate.onStartup</code> is true
+* (default); otherwise pending versions are only logged and the command line applies
+* them:
+* <pre>
+* java -cp target/classes:mysql-connector-j.jar com.corejsf.SchemaMigrator \
+*      jdbc:mysql://host/timesheets timesheet_user password [--dry-run]
+* </pre>
+* If the database cannot be reached at deployment, the node starts anyway (see
+* {@link DbGuard}); any other failure fails the deployment, since the code expects the
+* new schema.
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SchemaMigrator {
+
+    private static final Logger LOG = Logger.getLogger(SchemaMigrator.class.getName());
+
+    /** Classpath folder of the scripts. */
+    private static final String LOCATION = "db/migration/";
+
+    /** All scripts, oldest first. Add new ones at the end; never edit an applied one. */
+    static final String[] SCRIPTS = {
+        "V1__baseline.sql",
+        "V2__recluster_timesheet_rows.sql",
+        "V3__covering_indexes.sql",
+        "V4__draft_tombstones.sql",
+        "V5__reminder_rejections.sql",
+    };
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("^\\s*CREATE TABLE\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAMED_KEY = Pattern.compile("^\\s*(?:UNIQUE\\s+)?KEY\\s+`?(\\w+)`?\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    /** Cluster-wide lock name (GET_LOCK). */
+    private static final String LOCK_NAME = "timesheet_schema";
+
+    private final boolean onStartup = AppConfig.getBoolean("timesheet.migrate.onStartup", true);
+    private final int lockTimeoutSeconds = AppConfig.getInt("timesheet.migrate.lockTimeoutSeconds", 300);
+    private final int ddlLockWaitSeconds = AppConfig.getInt("timesheet.migrate.ddlLockWaitSeconds", 10);
+
+    /** One script. */
+    static final class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final String sql;
+        final long checksum;
+
+        Migration(String script, String sql) {
+            int sep = script.indexOf("__");
+            this.version = Integer.parseInt(script.substring(1, sep));
+            this.description = script.substring(sep + 2, script.length() - ".sql".length()).replace('_', ' ');
+            this.script = script;
+            this.sql = sql;
+            CRC32 crc = new CRC32();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+        }
+    }
+
+    @Inject
+    private DataSourceRouter ds;
+
+    /** Version of the schema after the last run on this node; 0 before. */
+    private volatile int currentVersion;
+
+    @PostConstruct
+    public void startup() {
+        try (Connection c = ds.getPrimaryConnection()) {
+            migrate(c, onStartup);
+        } catch (SQLException ex) {
+            if (DbGuard.healthFailure(ex) == null) throw new RuntimeException("schema migration failed", ex);
+            LOG.log(Level.WARNING, "Database unreachable, schema not checked", ex);
+        }
+    }
+
+    /**
+    * Apply (or with {@code apply} false, only list) the pending scripts.
+    *
+    * @return versions applied, or pending when not applying
+    * @throws IllegalStateException if another node holds the lock too long, or an applied
+    *         script was changed
+    */
+    public List<Integer> migrate(Connection c, boolean apply) throws SQLException {
+        List<Migration> migrations = load();
+        c.setAutoCommit(true);
+        if (!acquire(c)) {
+            throw new IllegalStateException("Another node held the schema lock for more than "
+                    + lockTimeoutSeconds + " s");
+        }
+        long lockWait = sessionLockWait(c);
+        try {
+            boolean tracked = tableExists(c, "schema_version");
+            if (apply && !tracked) {
+                try (Statement st = c.createStatement()) {
+                    st.execute("""
+                        CREATE TABLE schema_version (
+                          version      INT          NOT NULL,
+                          description  VARCHAR(200) NOT NULL,
+                          script       VARCHAR(200) NOT NULL,
+                          checksum     BIGINT       NOT NULL,
+                          applied_at   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+                          duration_ms  BIGINT       NOT NULL,
+                          applied_by   VARCHAR(120) NULL,
+                          PRIMARY KEY (version)
+                        ) ENGINE=InnoDB
+                        """);
+                }
+            }
+            Map<Integer, Long> applied = tracked ? applied(c) : new HashMap<>();
+            if (applied.isEmpty() && tableExists(c, "employees")) {
+                Migration baseline = migrations.get(0);
+                List<String> missing = missingObjects(c, baseline);
+                if (!missing.isEmpty()) {
+                    throw new IllegalStateException("Existing schema is not at " + baseline.script
+                            + " (missing " + missing + "); bring it there by hand or start from an empty database");
+                }
+                if (apply) record(c, baseline, "baseline (existing schema)", 0);
+                applied.put(baseline.version, baseline.checksum);
+                LOG.info("Existing schema " + (apply ? "recorded" : "taken") + " as version " + baseline.version);
+            }
+            setSessionLockWait(c, Math.max(1, ddlLockWaitSeconds));
+            List<Integer> done = new ArrayList<>();
+            for (Migration m : migrations) {
+                Long checksum = applied.get(m.version);
+                if (checksum != null) {
+                    if (checksum != m.checksum) {
+                        throw new IllegalStateException(m.script + " was changed after it was applied");
+                    }
+                    currentVersion = m.version;
+                    continue;
+                }
+                if (!apply) {
+                    LOG.warning("Schema migration pending: " + m.script);
+                    done.add(m.version);
+                    continue;
+                }
+                LOG.info("Applying " + m.script);
+                long start = System.nanoTime();
+                int n = 0;
+                try (Statement st = c.createStatement()) {
+                    for (String sql : statements(m.sql)) {
+                        n++;
+                        st.execute(sql);
+                    }
+                } catch (SQLException ex) {
+                    throw new SQLException(m.script + ", statement " + n + ": " + ex.getMessage(),
+                            ex.getSQLState(), ex.getErrorCode(), ex);
+                }
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                record(c, m, m.description, millis);
+                currentVersion = m.version;
+                done.add(m.version);
+                LOG.info("Applied " + m.script + " in " + millis + " ms");
+            }
+            return done;
+        } finally {
+            try {
+                setSessionLockWait(c, lockWait);
+            } catch (SQLException ignored) {
+                // the pool resets or discards the connection
+            }
+            release(c);
+        }
+    }
+
+    /** @return schema version after the last run on this node */
+    public int getCurrentVersion() { return currentVersion; }
+
+    // ---------------- Scripts ----------------
+
+    static List<Migration> load() {
+        List<Migration> list = new ArrayList<>();
+        for (String script : SCRIPTS) {
+            try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + script)) {
+                if (in == null) throw new IllegalStateException("Missing " + LOCATION + script);
+                list.add(new Migration(script, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            } catch (IOException ex) {
+                throw new RuntimeException("reading " + script + " failed", ex);
+            }
+        }
+        return list;
+    }
+
+    /** Split a script into statements: <code>--</code> lines are dropped, <code>;</code> at a line end separates. */
+    static List<String> statements(String script) {
+        List<String> list = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().strip();
+                list.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) list.add(current.toString().strip());
+        return list;
+    }
+
+    /**
+    * Tables and named indexes a script creates, by table: <code>CREATE TABLE</code>
+    * statements and their <code>KEY</code> / <code>UNIQUE KEY</code> lines.
+    */
+    static Map<String, List<String>> createdObjects(String script) {
+        Map<String, List<String>> objects = new LinkedHashMap<>();
+        List<String> indexes = null;
+        for (String line : script.split("\\R")) {
+            Matcher table = CREATE_TABLE.matcher(line);
+            if (table.find()) {
+                indexes = new ArrayList<>();
+                objects.put(table.group(1), indexes);
+                continue;
+            }
+            Matcher key = NAMED_KEY.matcher(line);
+            if (indexes != null && key.find()) indexes.add(key.group(1));
+        }
+        return objects;
+    }
+
+    /** @return V1 tables and indexes missing from the database, as <code>table</code> or <code>table.index</code> */
+    private static List<String> missingObjects(Connection c, Migration baseline) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : createdObjects(baseline.sql).entrySet()) {
+            String table = e.getKey();
+            if (!tableExists(c, table)) {
+                missing.add(table);
+                continue;
+            }
+            for (String index : e.getValue()) {
+                if (!indexExists(c, table, index)) missing.add(table + "." + index);
+            }
+        }
+        return missing;
+    }
+
+    // ---------------- schema_version ----------------
+
+    private static Map<Integer, Long> applied(Connection c) throws SQLException {
+        Map<Integer, Long> map = new HashMap<>();
+        try (PreparedStatement ps = c.prepareStatement("SELECT version, checksum FROM schema_version");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) map.put(rs.getInt(1), rs.getLong(2));
+        }
+        return map;
+    }
+
+    private static long sessionLockWait(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT @@SESSION.lock_wait_timeout");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** Metadata lock wait of this session; restored afterwards, the connection is pooled. */
+    private static void setSessionLockWait(Connection c, long seconds) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("SET SESSION lock_wait_timeout = " + seconds);
+        }
+    }
+
+    private static void record(Connection c, Migration m, String description, long millis) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                INSERT INTO schema_version (version, description, script, checksum, duration_ms, applied_by)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """)) {
+            ps.setInt(1, m.version);
+            ps.setString(2, description);
+            ps.setString(3, m.script);
+            ps.setLong(4, m.checksum);
+            ps.setLong(5, millis);
+            ps.setString(6, host());
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean indexExists(Connection c, String table, String index) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1")) {
+            ps.setString(1, table);
+            ps.setString(2, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection c, String table) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT 1 FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static String host() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private boolean acquire(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, lockTimeoutSeconds);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection c) {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException ignored) {
+            // The lock is released with the session anyway.
+        }
+    }
+
+    // ---------------- Command line ----------------
+
+    /**
+    * Migrate the database at a JDBC URL; see the class comment.
+    *
+    * @param args URL, user, password, and <code>--dry-run</code> to only list pending scripts
+    */
+    public static void main(String[] args) throws SQLException {
+        List<String> positional = new ArrayList<>();
+        boolean dryRun = false;
+        for (String a : args) {
+            if (a.equals("--dry-run")) dryRun = true;
+            else positional.add(a);
+        }
+        if (positional.isEmpty()) {
+            System.err.println("usage: SchemaMigrator <jdbc-url> [user] [password] [--dry-run]");
+            System.exit(2);
+        }
+        String user = positional.size() > 1 ? positional.get(1) : null;
+        String password = positional.size() > 2 ? positional.get(2) : null;
+        try (Connection c = DriverManager.getConnection(positional.get(0), user, password)) {
+            SchemaMigrator migrator = new SchemaMigrator();
+            List<Integer> versions = migrator.migrate(c, !dryRun);
+            System.out.println((dryRun ? "Pending: " : "Applied: ") + versions
+                    + "; schema at version " + migrator.getCurrentVersion());
+        }
+    }
+}
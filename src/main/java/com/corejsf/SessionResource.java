@@ -0,0 +1,78 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+ * Login and logout for API clients (<code>/api/session</code>), backed by the same
+ * {@link AuthService} and session-scoped {@link CurrentUser} as {@link LoginBean}.
+ */
+@Path("/session")
+@RequestScoped
+public class SessionResource {
+
+    @Inject
+    private AuthService authService;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private AuditLog audit;
+
+    @Context
+    private HttpServletRequest request;
+
+    /**
+    * @param body <code>{"userName":"…","password":"…"}</code>
+    * @return 200 with the user, or 401
+    */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response login(JsonObject body) {
+        Credentials cred = new Credentials();
+        cred.setUserName(body.getString("userName", "").trim());
+        cred.setPassword(body.getString("password", ""));
+        Employee emp = authService.authenticate(cred);
+        audit.record(cred.getUserName(), AuditLog.LOGIN, "api", emp != null);
+        if (emp == null) return Response.status(Response.Status.UNAUTHORIZED).build();
+
+        // New session id on login, as the UI gets from its container
+        request.getSession(true);
+        request.changeSessionId();
+        currentUser.setEmployee(emp);
+        currentUser.clearSelectedTimesheet();
+        return Response.ok(EmployeeResource.toJson(emp)).build();
+    }
+
+    /** Invalidate the session. */
+    @DELETE
+    public Response logout() {
+        HttpSession session = request.getSession(false);
+        if (session != null) session.invalidate();
+        return Response.noContent().build();
+    }
+
+    /** @return a 401 response body for resources that need a login */
+    static Response unauthorized() {
+        return Response.status(Response.Status.UNAUTHORIZED)
+            .entity(Json.createObjectBuilder().add("error", "login required").build())
+            .type(MediaType.APPLICATION_JSON).build();
+    }
+}
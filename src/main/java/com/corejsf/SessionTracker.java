@@ -0,0 +1,133 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* Sessions and conversation-scoped beans alive on this node, for <code>diagnostics.xhtml</code>.
+* <p>
+* Sessions are registered by {@link SessionTrackingListener}; conversation beans count
+* themselves through {@link ConversationTrackingInterceptor}. Keeping the registry costs a
+* map entry per session. Memory is only estimated when asked for, as the serialized size
+* of each session's attributes (what session replication would ship), for at most
+* <code>timesheet.diagnostics.sampleSessions</code> sessions.
+*/
+@ApplicationScoped
+public class SessionTracker {
+
+    private final int sampleSessions = AppConfig.getInt("timesheet.diagnostics.sampleSessions", 200);
+
+    private final Map<String, HttpSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> conversationBeans = new ConcurrentHashMap<>();
+
+    /** Serialized size of a sample of sessions. */
+    public static final class MemoryEstimate {
+        private final int sampled;
+        private final long totalBytes;
+        private final long maxBytes;
+        private final int unserializable;
+
+        MemoryEstimate(int sampled, long totalBytes, long maxBytes, int unserializable) {
+            this.sampled = sampled;
+            this.totalBytes = totalBytes;
+            this.maxBytes = maxBytes;
+            this.unserializable = unserializable;
+        }
+
+        public int getSampled() { return sampled; }
+
+        public long getAvgBytes() { return sampled == 0 ? 0 : totalBytes / sampled; }
+
+        public long getMaxBytes() { return maxBytes; }
+
+        /** @return attributes that could not be measured */
+        public int getUnserializable() { return unserializable; }
+    }
+
+    void sessionCreated(HttpSession s) {
+        sessions.put(s.getId(), s);
+    }
+
+    void sessionDestroyed(HttpSession s) {
+        sessions.remove(s.getId());
+    }
+
+    void beanCreated(String bean) {
+        conversationBeans.computeIfAbsent(bean, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    void beanDestroyed(String bean) {
+        AtomicInteger n = conversationBeans.get(bean);
+        if (n != null) n.decrementAndGet();
+    }
+
+    /** @return sessions created on this node and not yet destroyed */
+    public int getSessionCount() { return sessions.size(); }
+
+    /** @return live conversation-scoped beans by bean class */
+    public Map<String, Integer> getConversationBeans() {
+        Map<String, Integer> result = new TreeMap<>();
+        conversationBeans.forEach((bean, n) -> result.put(bean, n.get()));
+        return result;
+    }
+
+    /** @return {@link #getConversationBeans()} as a list, for <code>ui:repeat</code> */
+    public List<Map.Entry<String, Integer>> getConversationBeanList() {
+        return new ArrayList<>(getConversationBeans().entrySet());
+    }
+
+    /** Serialize the attributes of up to the sample size of sessions; sessions in use are read as they are. */
+    public MemoryEstimate estimateMemory() {
+        List<HttpSession> sample = new ArrayList<>(sessions.values());
+        Collections.shuffle(sample);
+        if (sample.size() > sampleSessions) sample = sample.subList(0, sampleSessions);
+        int sampled = 0;
+        int unserializable = 0;
+        long total = 0;
+        long max = 0;
+        for (HttpSession s : sample) {
+            long bytes = 0;
+            try {
+                for (String name : Collections.list(s.getAttributeNames())) {
+                    try {
+                        bytes += serializedSize(s.getAttribute(name));
+                    } catch (IOException ex) {
+                        unserializable++;
+                    }
+                }
+            } catch (IllegalStateException ex) {
+                continue; // invalidated meanwhile
+            }
+            sampled++;
+            total += bytes;
+            max = Math.max(max, bytes);
+        }
+        return new MemoryEstimate(sampled, total, max, unserializable);
+    }
+
+    private static long serializedSize(Object value) throws IOException {
+        long[] count = new long[1];
+        OutputStream counter = new OutputStream() {
+            @Override
+            public void write(int b) { count[0]++; }
+
+            @Override
+            public void write(byte[] b, int off, int len) { count[0] += len; }
+        };
+        try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+            out.writeObject(value);
+        }
+        return count[0];
+    }
+}
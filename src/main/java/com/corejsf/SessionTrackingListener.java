@@ -0,0 +1,24 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+
+/** Feeds session creation and destruction on this node to {@link SessionTracker}. */
+@WebListener
+public class SessionTrackingListener implements HttpSessionListener {
+
+    @Inject
+    private SessionTracker tracker;
+
+    @Override
+    public void sessionCreated(HttpSessionEvent se) {
+        tracker.sessionCreated(se.getSession());
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent se) {
+        tracker.sessionDestroyed(se.getSession());
+    }
+}
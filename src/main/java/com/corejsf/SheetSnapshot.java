@@ -0,0 +1,52 @@
+package com.corejsf;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import ca.bcit.infosys.employee.*;
+
+/**
+ * Immutable, cache-friendly copy of one timesheet as stored in the database.
+ *
+ * <p>{@link RepoCache} holds these instead of live {@code Timesheet} objects, because the
+ * edit beans mutate the model in place. {@link TimeSheetRepo} turns a snapshot back into a
+ * fresh {@code Timesheet} for every caller.</p>
+ */
+final class SheetSnapshot implements Serializable {
+
+    /** One stored <code>timesheet_rows</code> entry. */
+    static final class Row implements Serializable {
+        final long rowId;
+        final int projectId;
+        final String workPackageId;
+        final long packedHours;
+        final String notes;
+
+        Row(long rowId, int projectId, String workPackageId, long packedHours, String notes) {
+            this.rowId = rowId;
+            this.projectId = projectId;
+            this.workPackageId = workPackageId;
+            this.packedHours = packedHours;
+            this.notes = notes;
+        }
+    }
+
+    final long timesheetId;
+    final Employee employee;
+    final LocalDate endDate;
+    final int overtimeDeci;
+    final int flextimeDeci;
+    final TimesheetStatus status;
+    final List<Row> rows;
+
+    SheetSnapshot(long timesheetId, Employee employee, LocalDate endDate,
+                  int overtimeDeci, int flextimeDeci, TimesheetStatus status, List<Row> rows) {
+        this.timesheetId = timesheetId;
+        this.employee = employee;
+        this.endDate = endDate;
+        this.overtimeDeci = overtimeDeci;
+        this.flextimeDeci = flextimeDeci;
+        this.status = status;
+        this.rows = List.copyOf(rows);
+    }
+}
@@ -0,0 +1,342 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+* Always-on counters for the JDBC traffic of this node, shown on <code>diagnostics.xhtml</code>.
+* <p>
+* {@link DataSourceRouter} hands out connections wrapped here. The wrappers
+* <ul>
+* <li>count open connections and the time spent waiting for one,</li>
+* <li>apply the query timeout of the current {@link DbWork} scope to every statement,</li>
+* <li>register each execution as in flight (SQL, calling operation, thread, start) until it
+*     returns, and</li>
+* <li>add its time to per-statement totals, from which the slowest are listed.</li>
+* </ul>
+* The cost per execution is a few map operations and two {@link System#nanoTime()} calls;
+* statements are keyed by their text as prepared and only tidied up for display, except
+* that multi-row value lists and <code>IN (?,...)</code> lists are collapsed first so a
+* statement built per batch size keeps one key (see {@link #canonical}).
+* At most {@value #MAX_STATEMENTS} distinct statements are tracked; the rest are summed
+* under "(other)". Pool figures of the server itself are read from the WildFly datasource
+* MBean when statistics are enabled on it.
+*/
+@ApplicationScoped
+public class SqlMonitor {
+
+    private static final int MAX_STATEMENTS = 500;
+
+    private static final String OTHER = "(other)";
+
+    private static final String BATCH = "(batch)";
+
+    /** A statement execution that has not returned yet. */
+    public static final class InFlight {
+        private final String sql;
+        private final String operation;
+        private final String thread;
+        private final long startNanos = System.nanoTime();
+
+        InFlight(String sql, String operation, String thread) {
+            this.sql = sql;
+            this.operation = operation;
+            this.thread = thread;
+        }
+
+        public String getSql() { return normalize(sql); }
+
+        public String getOperation() { return operation; }
+
+        public String getThread() { return thread; }
+
+        public long getElapsedMillis() { return (System.nanoTime() - startNanos) / 1_000_000; }
+    }
+
+    /** Totals of one statement text. */
+    public static final class Stat {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile String lastOperation;
+
+        Stat(String sql) {
+            this.sql = normalize(sql);
+        }
+
+        void record(long elapsed, String operation) {
+            count.increment();
+            nanos.add(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            if (operation != null) lastOperation = operation;
+        }
+
+        public String getSql() { return sql; }
+
+        public long getCount() { return count.sum(); }
+
+        public double getTotalMillis() { return nanos.sum() / 1e6; }
+
+        public double getAvgMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : nanos.sum() / 1e6 / n;
+        }
+
+        public double getMaxMillis() { return maxNanos.get() / 1e6; }
+
+        /** @return the operation that last ran it */
+        public String getOperation() { return lastOperation; }
+    }
+
+    private final String poolMBean = AppConfig.get("timesheet.diagnostics.poolMBean",
+            "jboss.as:subsystem=datasources,data-source=timesheetsDS,statistics=pool");
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Stat> stats = new ConcurrentHashMap<>();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireFailures = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    // ---------------- Wrapping ----------------
+
+    /**
+    * Record a connection acquisition and wrap the connection.
+    *
+    * @param c the connection obtained, or null if the attempt failed
+    * @param startNanos {@link System#nanoTime()} before asking the pool
+    * @param timeoutSeconds statement timeout to apply; 0 for none
+    */
+    Connection track(Connection c, long startNanos, int timeoutSeconds) {
+        long waited = System.nanoTime() - startNanos;
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (c == null) {
+            acquireFailures.increment();
+            return null;
+        }
+        acquired.increment();
+        openConnections.incrementAndGet();
+        String operation = DbGuard.currentOperation();
+        boolean[] closed = new boolean[1];
+        InvocationHandler h = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("close")) {
+                synchronized (closed) {
+                    if (!closed[0]) {
+                        closed[0] = true;
+                        openConnections.decrementAndGet();
+                    }
+                }
+                return invoke(c, method, args);
+            }
+            Object result = invoke(c, method, args);
+            if (result instanceof Statement) {
+                Statement st = (Statement) result;
+                if (timeoutSeconds > 0) st.setQueryTimeout(timeoutSeconds);
+                String sql = (args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : null;
+                return statement(st, method.getReturnType(), sql, operation);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, h);
+    }
+
+    private Object statement(Statement st, Class<?> type, String preparedSql, String operation) {
+        InvocationHandler h = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) return invoke(st, method, args);
+            String sql = (args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : preparedSql;
+            long id = ids.incrementAndGet();
+            InFlight f = new InFlight(sql == null ? BATCH : sql, operation, Thread.currentThread().getName());
+            inFlight.put(id, f);
+            try {
+                return invoke(st, method, args);
+            } finally {
+                inFlight.remove(id);
+                statOf(f.sql).record(System.nanoTime() - f.startNanos, operation);
+            }
+        };
+        Class<?> iface = type == CallableStatement.class ? CallableStatement.class
+                : type == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { iface }, h);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private Stat statOf(String sql) {
+        Stat s = stats.get(sql);
+        if (s != null) return s;
+        String key = canonical(sql);
+        s = stats.get(key);
+        if (s != null) return s;
+        if (stats.size() >= MAX_STATEMENTS) return stats.computeIfAbsent(OTHER, Stat::new);
+        return stats.computeIfAbsent(key, Stat::new);
+    }
+
+    /**
+    * Key of a statement whose length follows its batch: repeated identical value groups
+    * (<code>(?,?),(?,?)</code>, <code>ROW(?,?),ROW(?,?)</code>) become the first group and
+    * <code>,...</code>, and <code>IN (?,?,?)</code> lists become <code>IN (?,...)</code>,
+    * so every size of one multi-row statement shares a key.
+    */
+    static String canonical(String sql) {
+        if (sql.indexOf('?') < 0 || sql.indexOf(',') < 0) return sql;
+        StringBuilder out = null;
+        int copied = 0;
+        for (int i = sql.indexOf('('); i >= 0; i = sql.indexOf('(', i + 1)) {
+            int end = closing(sql, i);
+            if (end < 0) break;
+            int row = wordBefore(sql, i, "ROW");
+            int start = row >= 0 ? row : i;
+            int next = end;
+            for (int j = skipSpaces(sql, next); j < sql.length() && sql.charAt(j) == ','; j = skipSpaces(sql, next)) {
+                j = skipSpaces(sql, j + 1);
+                if (!sql.regionMatches(j, sql, start, end - start)) break;
+                next = j + end - start;
+            }
+            String group;
+            if (next > end) {
+                group = sql.substring(start, end) + ",...";
+            } else if (isInList(sql, i, end)) {
+                group = "(?,...)";
+            } else {
+                continue;
+            }
+            if (out == null) out = new StringBuilder(sql.length());
+            out.append(sql, copied, start).append(group);
+            copied = next;
+            i = next - 1;
+        }
+        return out == null ? sql : out.append(sql, copied, sql.length()).toString();
+    }
+
+    /** @return index after the parenthesis closing the one at {@code open}, or -1 */
+    private static int closing(String sql, int open) {
+        int depth = 0;
+        for (int i = open; i < sql.length(); i++) {
+            char ch = sql.charAt(i);
+            if (ch == '(') depth++;
+            else if (ch == ')' && --depth == 0) return i + 1;
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(String sql, int i) {
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) i++;
+        return i;
+    }
+
+    /** @return start of {@code word} if only whitespace separates it from {@code at}, else -1 */
+    private static int wordBefore(String sql, int at, String word) {
+        int end = at;
+        while (end > 0 && Character.isWhitespace(sql.charAt(end - 1))) end--;
+        int start = end - word.length();
+        boolean found = start >= 0 && sql.regionMatches(true, start, word, 0, word.length())
+                && (start == 0 || !Character.isLetterOrDigit(sql.charAt(start - 1)));
+        return found ? start : -1;
+    }
+
+    /** @return true for an <code>IN</code> list of at least two placeholders */
+    private static boolean isInList(String sql, int open, int end) {
+        if (wordBefore(sql, open, "IN") < 0) return false;
+        int marks = 0;
+        for (int i = open + 1; i < end - 1; i++) {
+            char ch = sql.charAt(i);
+            if (ch == '?') marks++;
+            else if (ch != ',' && !Character.isWhitespace(ch)) return false;
+        }
+        return marks > 1;
+    }
+
+    /** Collapse the whitespace of text-block SQL into one line; done when shown, not per execution. */
+    private static String normalize(String sql) {
+        return sql.strip().replaceAll("\\s+", " ");
+    }
+
+    // ---------------- Reading ----------------
+
+    /** @return executions running now, longest first */
+    public List<InFlight> getInFlight() {
+        List<InFlight> list = new ArrayList<>(inFlight.values());
+        list.sort(Comparator.comparingLong((InFlight f) -> f.startNanos));
+        return list;
+    }
+
+    /** @return the {@code n} statements with the most total time */
+    public List<Stat> topStatements(int n) {
+        List<Stat> list = new ArrayList<>(stats.values());
+        list.sort(Comparator.comparingDouble(Stat::getTotalMillis).reversed());
+        return list.size() > n ? list.subList(0, n) : list;
+    }
+
+    /** Forget the statement totals, e.g. before measuring one scenario. */
+    public void resetStatements() {
+        stats.clear();
+    }
+
+    /** @return connections handed out and not yet closed */
+    public int getOpenConnections() { return openConnections.get(); }
+
+    public long getAcquired() { return acquired.sum(); }
+
+    public long getAcquireFailures() { return acquireFailures.sum(); }
+
+    /** @return mean wait for a connection in milliseconds */
+    public double getAvgWaitMillis() {
+        long n = acquired.sum() + acquireFailures.sum();
+        return n == 0 ? 0 : waitNanos.sum() / 1e6 / n;
+    }
+
+    public double getMaxWaitMillis() { return maxWaitNanos.get() / 1e6; }
+
+    /**
+    * @return the server's own pool statistics (active, available, blocking times...), or an
+    *         empty map if the MBean is missing or statistics are disabled
+    */
+    public Map<String, String> getPoolStatistics() {
+        Map<String, String> result = new LinkedHashMap<>();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(poolMBean);
+            for (String attr : new String[] { "ActiveCount", "AvailableCount", "InUseCount", "MaxUsedCount",
+                    "WaitCount", "AverageBlockingTime", "MaxWaitTime", "TimedOut" }) {
+                Object v = server.getAttribute(name, attr);
+                if (v != null) result.put(attr, v.toString());
+            }
+        } catch (Exception ex) {
+            result.clear(); // not on WildFly, or statistics-enabled=false
+        }
+        return result;
+    }
+}
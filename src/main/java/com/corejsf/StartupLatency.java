@@ -0,0 +1,126 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+* Measures how long a fresh pod takes to serve pages at steady-state speed: the time from
+* JVM start to the end of the first window in which the 99th percentile of Faces request
+* times is within target.
+* <p>
+* {@link RequestTimingFilter} reports every request, except the ones {@link WarmUp} makes
+* itself. Requests are collected in windows of <code>timesheet.warmup.p99WindowMillis</code>
+* (default 10s); a window with at least <code>timesheet.warmup.p99MinRequests</code>
+* (default 20) requests and a p99 of at most <code>timesheet.warmup.goodP99Millis</code>
+* (default 300 ms) ends the measurement. The result is logged once and shown on
+* <code>diagnostics.xhtml</code>. After <code>timesheet.warmup.p99TrackMillis</code>
+* (default one hour) without such a window, tracking stops.
+*/
+@ApplicationScoped
+public class StartupLatency {
+
+    private static final Logger LOG = Logger.getLogger(StartupLatency.class.getName());
+
+    /** Samples kept per window; busier windows keep the first ones. */
+    private static final int MAX_SAMPLES = 4096;
+
+    /** Closed windows kept for display. */
+    private static final int MAX_WINDOWS = 30;
+
+    /** p99 of one closed window. */
+    public static final class Window {
+        private final long endMillis;
+        private final int count;
+        private final double p99Millis;
+
+        Window(long endMillis, int count, double p99Millis) {
+            this.endMillis = endMillis;
+            this.count = count;
+            this.p99Millis = p99Millis;
+        }
+
+        /** @return milliseconds from JVM start to the end of the window */
+        public long getEndMillis() { return endMillis; }
+
+        public int getCount() { return count; }
+
+        public double getP99Millis() { return p99Millis; }
+    }
+
+    private final long windowMillis = Math.max(1000, AppConfig.getLong("timesheet.warmup.p99WindowMillis", 10_000));
+    private final int minRequests = Math.max(1, AppConfig.getInt("timesheet.warmup.p99MinRequests", 20));
+    private final long goodNanos = AppConfig.getLong("timesheet.warmup.goodP99Millis", 300) * 1_000_000;
+    private final long trackMillis = AppConfig.getLong("timesheet.warmup.p99TrackMillis", 3_600_000);
+
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private final long[] samples = new long[MAX_SAMPLES];
+    private int sampleCount;
+    private int requestCount;
+    private long windowEnd;
+    private final Deque<Window> windows = new ArrayDeque<>();
+
+    /** Milliseconds from JVM start to the first good window; -1 until then. */
+    private volatile long timeToGoodMillis = -1;
+    private volatile boolean tracking = true;
+
+    void record(long nanos) {
+        if (!tracking) return;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (windowEnd == 0) windowEnd = now + windowMillis;
+            if (now >= windowEnd) {
+                closeWindow(now);
+                if (!tracking) return;
+            }
+            requestCount++;
+            if (sampleCount < MAX_SAMPLES) samples[sampleCount++] = nanos;
+        }
+    }
+
+    private void closeWindow(long now) {
+        long end = windowEnd - jvmStart;
+        if (requestCount > 0) {
+            Arrays.sort(samples, 0, sampleCount);
+            long p99 = samples[Math.min(sampleCount - 1, (int) Math.ceil(sampleCount * 0.99) - 1)];
+            windows.addLast(new Window(end, requestCount, p99 / 1e6));
+            if (windows.size() > MAX_WINDOWS) windows.removeFirst();
+            if (requestCount >= minRequests && p99 <= goodNanos) {
+                timeToGoodMillis = end;
+                tracking = false;
+                LOG.info(String.format(Locale.ROOT,
+                        "Time to first good p99: %d ms after JVM start (p99 %.1f ms over %d requests)",
+                        end, p99 / 1e6, requestCount));
+            }
+        }
+        if (tracking && now - jvmStart > trackMillis) {
+            tracking = false;
+            LOG.warning("No window with p99 <= " + goodNanos / 1_000_000 + " ms within "
+                    + trackMillis + " ms of JVM start; stopped measuring");
+        }
+        sampleCount = 0;
+        requestCount = 0;
+        windowEnd = now - (now - windowEnd) % windowMillis + windowMillis;
+    }
+
+    /** @return milliseconds from JVM start to the first good p99 window, or -1 if none yet */
+    public long getTimeToGoodMillis() { return timeToGoodMillis; }
+
+    /** @return true while windows are still being measured */
+    public boolean isTracking() { return tracking; }
+
+    public long getGoodP99Millis() { return goodNanos / 1_000_000; }
+
+    /** @return recent closed windows, oldest first */
+    public synchronized List<Window> getWindows() {
+        return new ArrayList<>(windows);
+    }
+}
@@ -0,0 +1,34 @@
+package com.corejsf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Cache headers for Faces resources (CSS, JS, images).
+ *
+ * <p>Versioned URLs (<code>v=</code> parameter: PrimeFaces resources and our own libraries,
+ * which live in version folders such as <code>resources/css/1_0/</code>) are cached for a
+ * year as immutable; bump the folder to ship a change. Anything else is cached for a day and
+ * then revalidated against the <code>Last-Modified</code> the resource handler sends.</p>
+ */
+@WebFilter(urlPatterns = "/jakarta.faces.resource/*")
+public class StaticResourceCacheFilter extends HttpFilter {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String DAILY = "public, max-age=86400";
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        if ("GET".equals(req.getMethod())) {
+            res.setHeader("Cache-Control", req.getParameter("v") != null ? IMMUTABLE : DAILY);
+        }
+        chain.doFilter(req, res);
+    }
+}
@@ -3,10 +3,12 @@ package com.corejsf;
 
 
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.Resource;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
 
 import java.io.Serializable;
 import java.sql.Connection;
@@ -14,15 +16,17 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.SQLException;
-import javax.sql.DataSource;
+import java.sql.Types;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -40,24 +44,48 @@ import ca.bcit.infosys.employee.*;
 * <li>Seed an admin employee record if the employee table is empty</li>
 * </ul>
 *
+* <p><strong>Hot / archive split</strong>: sheets of closed years are moved by
+* {@link TimesheetArchiver} to <code>timesheets_archive</code> / <code>timesheet_rows_archive</code>,
+* keeping the live tables (and their indexes) about the size of the retention window.
+* Lookups of "current" sheets only touch the live tables; full listings and
+* {@link #loadById} read both. Archived sheets keep their ids and are read-only.</p>
+*
 * <p><strong>Notes on model constraints</strong>:
 * The provided model classes do not expose getters for overtime/flextime in hours.
-* This implementation stores/reads the raw decihour values from the DB but sets zeros
-* when saving (see comments in {@link #save(Timesheet)}). Adjust here when the model API changes.</p>
+* Weekly values are therefore derived from the row totals by {@link BalanceEngine}
+* on every save and stored as raw decihours (see {@link #save(Timesheet)}).</p>
 */
 @Named("timeSheetRepo")
 @ApplicationScoped
-public class TimeSheetRepo implements TimesheetCollection, Serializable {
+@DbWork(DbWork.Kind.INTERACTIVE)
+public class TimeSheetRepo implements TimesheetStore, Serializable {
 
     @Inject
     private CurrentUser currentUser;
 
-    @Resource(lookup = "java:jboss/datasources/timesheetsDS")
-    private DataSource ds;
+    @Inject
+    private BalanceEngine balanceEngine;
+
+    @Inject
+    private RepoCache cache;
 
-    /** Keep DB ids without changing your model classes. */
-    private final Map<Timesheet, Long> timesheetIds = new WeakHashMap<>();
-    private final Map<TimesheetRow, Long> rowIds = new WeakHashMap<>();
+    /** Change events, written in the same transaction as the change. */
+    @Inject
+    private Outbox outbox;
+
+    /** Routes {@link ReadOnly} methods to the read replica when safe, everything else to the primary. */
+    @Inject
+    private DataSourceRouter ds;
+
+    /** Sheets per transaction in bulk approval. */
+    private final int approvalChunk = Math.max(1, AppConfig.getInt("timesheet.approval.chunkSize", 500));
+
+    /** Keep DB ids without changing your model classes (shared by all request threads). */
+    private final Map<Timesheet, Long> timesheetIds = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<TimesheetRow, Long> rowIds = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** Workflow state of handed-out sheets, as read with them (see {@link #statusOf}). */
+    private final Map<Timesheet, TimesheetStatus> statuses = Collections.synchronizedMap(new WeakHashMap<>());
 
     @PostConstruct
     public void startup() {
@@ -66,19 +94,74 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
 
     // ---------------- TimesheetCollection API ----------------
 
+    /** Live tables. */
+    static final String HOT_SHEETS = "timesheets";
+    static final String HOT_ROWS = "timesheet_rows";
+
+    /** Closed years, moved by {@link TimesheetArchiver}. */
+    static final String ARCHIVE_SHEETS = "timesheets_archive";
+    static final String ARCHIVE_ROWS = "timesheet_rows_archive";
+
     /**
-    * Fetch all timesheets for all employees, newest end date last for each employee.
+    * Fetch the live timesheets of all employees, newest end date first for each employee.
+    * Archived years are only read by {@link #getArchivedTimesheets()}.
     *
     * @return list of fully populated {@link Timesheet}s (header + rows)
     * @throws RuntimeException on SQL errors
     */
     @Override
+    @ReadOnly
+    @DbWork(DbWork.Kind.REPORT)
     public List<Timesheet> getTimesheets() {
+        return allSheets(false);
+    }
+
+    /**
+    * Fetch the archived timesheets (closed years) of all employees, for the history view.
+    *
+    * @return list of fully populated timesheets, newest end date first for each employee
+    */
+    @Override
+    @ReadOnly
+    @DbWork(DbWork.Kind.REPORT)
+    public List<Timesheet> getArchivedTimesheets() {
+        return allSheets(true);
+    }
+
+    /**
+    * Fetch the live timesheets of a specific employee, through the
+    * <code>(employee_id, end_date)</code> index. Archived years are only read by
+    * {@link #getArchivedTimesheets(Employee)}.
+    *
+    * @param e employee to filter by (nullable)
+    * @return list of fully populated timesheets, newest end date first
+    */
+    @Override
+    @ReadOnly
+    public List<Timesheet> getTimesheets(final Employee e) {
+        return sheetsOf(e, false);
+    }
+
+    /**
+    * Fetch the archived timesheets (closed years) of a specific employee, for the history view.
+    *
+    * @param e employee to filter by (nullable)
+    * @return list of fully populated timesheets, newest end date first
+    */
+    @Override
+    @ReadOnly
+    public List<Timesheet> getArchivedTimesheets(final Employee e) {
+        return sheetsOf(e, true);
+    }
+
+    private List<Timesheet> allSheets(boolean archived) {
         final String sql = """
-            SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci
-            FROM timesheets t
+            SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci, t.status
+            FROM %s t
+            JOIN employees e ON e.employee_id = t.employee_id
+            WHERE e.deleted_at IS NULL
             ORDER BY t.employee_id, t.end_date DESC
-        """;
+        """.formatted(archived ? ARCHIVE_SHEETS : HOT_SHEETS);
         List<Timesheet> result = new ArrayList<>();
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql);
@@ -86,43 +169,38 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
 
             while (rs.next()) {
                 Timesheet ts = materializeTimesheet(rs);
-                loadRows(c, ts);
+                loadRows(c, ts, archived);
                 result.add(ts);
             }
         } catch (SQLException e) {
-            throw new RuntimeException("getTimesheets() failed", e);
+            throw new RuntimeException((archived ? "getArchivedTimesheets()" : "getTimesheets()") + " failed", e);
         }
         return result;
     }
 
-    /**
-    * Fetch all timesheets for a specific employee.
-    *
-    * @param e employee to filter by (nullable)
-    * @return list of fully populated timesheets, newest end date first
-    */
-    @Override
-    public List<Timesheet> getTimesheets(final Employee e) {
+    private List<Timesheet> sheetsOf(final Employee e, boolean archived) {
         if (e == null) return Collections.emptyList();
         final String sql = """
-            SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci
-            FROM timesheets t
+            SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci, t.status
+            FROM %s t
             WHERE t.employee_id = ?
             ORDER BY t.end_date DESC
-        """;
+        """.formatted(archived ? ARCHIVE_SHEETS : HOT_SHEETS);
         List<Timesheet> result = new ArrayList<>();
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, requireEmployeeId(c, e));
+            Long empId = findEmployeeId(c, e);
+            if (empId == null) return result;
+            ps.setLong(1, empId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     Timesheet ts = materializeTimesheet(rs, e);
-                    loadRows(c, ts);
+                    loadRows(c, ts, archived);
                     result.add(ts);
                 }
             }
         } catch (SQLException ex) {
-            throw new RuntimeException("getTimesheets(Employee) failed", ex);
+            throw new RuntimeException((archived ? "getArchivedTimesheets" : "getTimesheets") + "(Employee) failed", ex);
         }
         return result;
     }
@@ -142,13 +220,14 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
     * @return the best-matching current {@link Timesheet}, or {@code null}
     */
     @Override
+    @ReadOnly
     public Timesheet getCurrentTimesheet(final Employee e) {
         if (e == null) return null;
 
 		// 1) Try exact match for this week's Friday, prefer newest created
 		LocalDate thisFriday = LocalDate.now().with(java.time.DayOfWeek.FRIDAY);
 		final String sqlExact = """
-			SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci
+			SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci, t.status
 			FROM timesheets t
 			WHERE t.employee_id = ? AND t.end_date = ?
 			ORDER BY t.created_at DESC, t.timesheet_id DESC
@@ -158,7 +237,9 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
 		try (Connection c = ds.getConnection();
 			PreparedStatement ps1 = c.prepareStatement(sqlExact)) {
 	
-			ps1.setLong(1, requireEmployeeId(c, e));
+			Long empId = findEmployeeId(c, e);
+			if (empId == null) return null;
+			ps1.setLong(1, empId);
 			ps1.setDate(2, java.sql.Date.valueOf(thisFriday));
 	
 			try (ResultSet rs = ps1.executeQuery()) {
@@ -171,7 +252,7 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
 	
 			// 2) Fallback: closest to today (your original ordering)
 			final String sqlClosest = """
-				SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci
+				SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci, t.status
 				FROM timesheets t
 				WHERE t.employee_id = ?
 				ORDER BY ABS(DATEDIFF(t.end_date, CURDATE())),
@@ -181,7 +262,7 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
 			""";
 	
 			try (PreparedStatement ps2 = c.prepareStatement(sqlClosest)) {
-				ps2.setLong(1, requireEmployeeId(c, e));
+				ps2.setLong(1, empId);
 				try (ResultSet rs2 = ps2.executeQuery()) {
 					if (!rs2.next()) return null;
 					Timesheet ts = materializeTimesheet(rs2, e);
@@ -212,34 +293,46 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
             INSERT INTO timesheets (employee_id, end_date, overtime_deci, flextime_deci)
             VALUES (?, ?, 0, 0)
         """;
-        try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(insertTs, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection c = ds.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(insertTs, Statement.RETURN_GENERATED_KEYS)) {
 
-            long empId = requireEmployeeId(c, me);
-            ps.setLong(1, empId);
-            ps.setDate(2, java.sql.Date.valueOf(endOfWeek));
-            ps.executeUpdate();
+                long empId = requireEmployeeId(c, me);
+                ps.setLong(1, empId);
+                ps.setDate(2, java.sql.Date.valueOf(endOfWeek));
+                ps.executeUpdate();
 
-            long tsId;
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                keys.next();
-                tsId = keys.getLong(1);
-            }
+                long tsId;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    tsId = keys.getLong(1);
+                }
+
+                Timesheet ts = new Timesheet(me, endOfWeek);
+                ts.setOvertime(0);
+                ts.setFlextime(0);
+                timesheetIds.put(ts, tsId);
+
+                for (int i = 0; i < 5; i++) {
+                    TimesheetRow row = new TimesheetRow();
+                    row.setProjectId(0);
+                    row.setWorkPackageId("");
+                    row.setHours(new float[]{0, 0, 0, 0, 0, 0, 0});
+                    ts.getDetails().add(row);
+                    insertRow(c, ts, i + 1, row); // line_no is 1-based
+                }
 
-            Timesheet ts = new Timesheet(me, endOfWeek);
-            ts.setOvertime(0);
-            ts.setFlextime(0);
-            timesheetIds.put(ts, tsId);
-
-            for (int i = 0; i < 5; i++) {
-                TimesheetRow row = new TimesheetRow();
-                row.setProjectId(0);
-                row.setWorkPackageId("");
-                row.setHours(new float[]{0, 0, 0, 0, 0, 0, 0});
-                ts.getDetails().add(row);
-                insertRow(c, ts, i + 1, row); // line_no is 1-based
+                outbox.append(c, ChangeEvent.Type.SHEET_CREATED, String.valueOf(tsId),
+                        sheetPayload(empId, endOfWeek, WeeklyBalance.ZERO, 5));
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
             }
 
+            ds.markWrite();
             return "created";
         } catch (SQLException ex) {
             throw new RuntimeException("addTimesheet() failed", ex);
@@ -263,20 +356,27 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
     * key is tracked in {@link #timesheetIds}. Otherwise the header is updated. Rows
     * are re-synchronized by deleting and re-inserting in line order.
     *
-    * <p><strong>Overtime/Flextime:</strong> The model lacks getters for hours;
-    * we currently set DB values to 0. If/when getters are added, wire them here.</p>
+    * <p><strong>Overtime/Flextime:</strong> The model lacks getters for hours, so the
+    * weekly figures are computed from the row totals by {@link BalanceEngine}. The
+    * difference to the previously stored figures is applied to the employee's running
+    * balance in the same transaction.</p>
     *
     * @param ts timesheet to save (nullable is a no-op)
     */
     public void save(final Timesheet ts) {
         if (ts == null) return;
+        WeeklyBalance week = balanceEngine.compute(ts.getDetails());
         try (Connection c = ds.getConnection()) {
             c.setAutoCommit(false);
             try {
                 Long existingId = timesheetIds.get(ts);
-                if (existingId == null) {
+                boolean created = existingId == null;
+                long empId;
+                WeeklyBalance previous;
+                if (created) {
                     // Insert new header
-                    long empId = requireEmployeeId(c, ts.getEmployee());
+                    empId = requireEmployeeId(c, ts.getEmployee());
+                    previous = WeeklyBalance.ZERO;
                     final String ins = """
                         INSERT INTO timesheets (employee_id, end_date, overtime_deci, flextime_deci)
                         VALUES (?, ?, ?, ?)
@@ -285,8 +385,8 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
                         ps.setLong(1, empId);
                         LocalDate end = (ts.getEndDate() != null) ? ts.getEndDate() : endOfWeekFriday(LocalDate.now());
                         ps.setDate(2, java.sql.Date.valueOf(end));
-                        ps.setInt(3, 0); // no getters available on your model
-                        ps.setInt(4, 0);
+                        ps.setInt(3, week.getOvertimeDeci());
+                        ps.setInt(4, week.getFlextimeDeci());
                         ps.executeUpdate();
                         try (ResultSet keys = ps.getGeneratedKeys()) {
                             keys.next();
@@ -295,16 +395,41 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
                         }
                     }
                 } else {
+                    // Lock the header and remember what it contributed to the balance so far
+                    final String lock = """
+                        SELECT employee_id, overtime_deci, flextime_deci, status
+                        FROM timesheets
+                        WHERE timesheet_id = ?
+                        FOR UPDATE
+                    """;
+                    try (PreparedStatement ps = c.prepareStatement(lock)) {
+                        ps.setLong(1, existingId);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            if (!rs.next()) {
+                                if (isArchived(c, existingId)) {
+                                    throw new IllegalStateException("Timesheet " + existingId + " is archived and read-only");
+                                }
+                                throw new SQLException("Timesheet not found: id=" + existingId);
+                            }
+                            TimesheetStatus status = TimesheetStatus.valueOf(rs.getString(4));
+                            if (!status.isEditable()) {
+                                throw new IllegalStateException("Timesheet " + existingId + " is " + status.label() + " and read-only");
+                            }
+                            empId = rs.getLong(1);
+                            previous = new WeeklyBalance(rs.getInt(2), rs.getInt(3));
+                        }
+                    }
+
                     // Update header
                     final String upd = """
                         UPDATE timesheets
-                           SET end_date = ?, overtime_deci = ?, flextime_deci = ?
+                           SET end_date = ?, overtime_deci = ?, flextime_deci = ?, version = version + 1
                          WHERE timesheet_id = ?
                     """;
                     try (PreparedStatement ps = c.prepareStatement(upd)) {
                         ps.setDate(1, java.sql.Date.valueOf(ts.getEndDate()));
-                        ps.setInt(2, 0); // no getters available on your model
-                        ps.setInt(3, 0);
+                        ps.setInt(2, week.getOvertimeDeci());
+                        ps.setInt(3, week.getFlextimeDeci());
                         ps.setLong(4, existingId);
                         ps.executeUpdate();
                     }
@@ -316,6 +441,10 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
                     }
                 }
 
+                balanceEngine.applyDelta(c, empId, week.minus(previous));
+                outbox.append(c, created ? ChangeEvent.Type.SHEET_CREATED : ChangeEvent.Type.SHEET_SAVED,
+                        String.valueOf(existingId), sheetPayload(empId, ts.getEndDate(), week, ts.getDetails().size()));
+
                 // Re-insert rows in order
                 int lineNo = 1;
                 for (TimesheetRow r : ts.getDetails()) {
@@ -332,6 +461,10 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
         } catch (SQLException ex) {
             throw new RuntimeException("save(Timesheet) failed", ex);
         }
+        ds.markWrite();
+        cache.invalidate(RepoCache.SHEET, String.valueOf(timesheetIds.get(ts)));
+        ts.setOvertime(week.getOvertimeDeci());
+        ts.setFlextime(week.getFlextimeDeci());
     }
 
     /** Overload expected by TimesheetEditBean; ensures UPDATE when id is known. */
@@ -343,40 +476,813 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
         save(ts);
     }
 
-    /** Load a single timesheet by DB id (used by TimesheetEditBean). */
+    /**
+    * Save several weeks of one employee in a single transaction (REST batch submit).
+    * <p>
+    * Each sheet replaces the employee's live sheet with the same end date, or creates it.
+    * Existing headers are locked first, then headers, rows, the balance ledger and the
+    * outbox are written with one batch each. Either every sheet is saved or none is.
+    *
+    * @param e owner of all sheets
+    * @param sheets sheets with distinct end dates; rows already validated
+    * @return timesheet ids, in the order of {@code sheets}
+    * @throws IllegalStateException if one of the weeks is closed, archived, submitted or approved (read-only)
+    */
+    public List<Long> saveWeeks(final Employee e, final List<Timesheet> sheets) {
+        if (sheets.isEmpty()) return List.of();
+        for (Timesheet ts : sheets) {
+            List<String> closed = TimesheetValidator.checkEditWindow(ts.getEndDate());
+            if (!closed.isEmpty()) throw new IllegalStateException(closed.get(0));
+        }
+        String in = String.join(",", Collections.nCopies(sheets.size(), "?"));
+        final String archived = "SELECT end_date FROM " + ARCHIVE_SHEETS + " WHERE employee_id = ? AND end_date IN (" + in + ") LIMIT 1";
+        final String lock = """
+            SELECT timesheet_id, end_date, overtime_deci, flextime_deci, status
+            FROM timesheets
+            WHERE employee_id = ? AND end_date IN (%s)
+            ORDER BY timesheet_id
+            FOR UPDATE
+        """.formatted(in);
+        final String upd = """
+            UPDATE timesheets SET overtime_deci = ?, flextime_deci = ?, version = version + 1
+            WHERE timesheet_id = ?
+        """;
+        final String insHeader = """
+            INSERT INTO timesheets (employee_id, end_date, overtime_deci, flextime_deci)
+            VALUES (?, ?, ?, ?)
+        """;
+        final String insRow = """
+            INSERT INTO timesheet_rows (timesheet_id, line_no, project_id, work_package_id, packed_hours, notes)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+        int n = sheets.size();
+        Long[] ids = new Long[n];
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                long empId = requireEmployeeId(c, e);
+
+                try (PreparedStatement ps = c.prepareStatement(archived)) {
+                    ps.setLong(1, empId);
+                    for (int i = 0; i < n; i++) ps.setDate(i + 2, java.sql.Date.valueOf(sheets.get(i).getEndDate()));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            throw new IllegalStateException("Week ending " + rs.getDate(1) + " is archived and read-only");
+                        }
+                    }
+                }
+
+                // Existing sheets of these weeks (the oldest one per week if there are several)
+                Map<LocalDate, Long> existingIds = new HashMap<>();
+                Map<LocalDate, WeeklyBalance> previous = new HashMap<>();
+                try (PreparedStatement ps = c.prepareStatement(lock)) {
+                    ps.setLong(1, empId);
+                    for (int i = 0; i < n; i++) ps.setDate(i + 2, java.sql.Date.valueOf(sheets.get(i).getEndDate()));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            LocalDate end = rs.getDate("end_date").toLocalDate();
+                            TimesheetStatus status = TimesheetStatus.valueOf(rs.getString("status"));
+                            if (!status.isEditable()) {
+                                throw new IllegalStateException("Week ending " + end + " is " + status.label() + " and read-only");
+                            }
+                            if (existingIds.putIfAbsent(end, rs.getLong("timesheet_id")) == null) {
+                                previous.put(end, new WeeklyBalance(rs.getInt("overtime_deci"), rs.getInt("flextime_deci")));
+                            }
+                        }
+                    }
+                }
+
+                WeeklyBalance[] weeks = new WeeklyBalance[n];
+                int ot = 0, ft = 0;
+                List<Integer> created = new ArrayList<>();
+                try (PreparedStatement up = c.prepareStatement(upd);
+                     PreparedStatement ins = c.prepareStatement(insHeader, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < n; i++) {
+                        Timesheet ts = sheets.get(i);
+                        WeeklyBalance week = balanceEngine.compute(ts.getDetails());
+                        WeeklyBalance delta = week.minus(previous.getOrDefault(ts.getEndDate(), WeeklyBalance.ZERO));
+                        weeks[i] = week;
+                        ot += delta.getOvertimeDeci();
+                        ft += delta.getFlextimeDeci();
+                        ids[i] = existingIds.get(ts.getEndDate());
+                        if (ids[i] != null) {
+                            up.setInt(1, week.getOvertimeDeci());
+                            up.setInt(2, week.getFlextimeDeci());
+                            up.setLong(3, ids[i]);
+                            up.addBatch();
+                        } else {
+                            ins.setLong(1, empId);
+                            ins.setDate(2, java.sql.Date.valueOf(ts.getEndDate()));
+                            ins.setInt(3, week.getOvertimeDeci());
+                            ins.setInt(4, week.getFlextimeDeci());
+                            ins.addBatch();
+                            created.add(i);
+                        }
+                    }
+                    up.executeBatch();
+                    ins.executeBatch();
+                    try (ResultSet keys = ins.getGeneratedKeys()) {
+                        for (int i : created) {
+                            if (!keys.next()) throw new SQLException("Missing generated key for week " + sheets.get(i).getEndDate());
+                            ids[i] = keys.getLong(1);
+                        }
+                    }
+                }
+
+                if (!existingIds.isEmpty()) {
+                    List<Long> old = new ArrayList<>(existingIds.values());
+                    try (PreparedStatement ps = c.prepareStatement("DELETE FROM timesheet_rows WHERE timesheet_id IN ("
+                            + String.join(",", Collections.nCopies(old.size(), "?")) + ")")) {
+                        for (int i = 0; i < old.size(); i++) ps.setLong(i + 1, old.get(i));
+                        ps.executeUpdate();
+                    }
+                }
+
+                try (PreparedStatement ps = c.prepareStatement(insRow)) {
+                    for (int i = 0; i < n; i++) {
+                        int lineNo = 1;
+                        for (TimesheetRow r : sheets.get(i).getDetails()) {
+                            ps.setLong(1, ids[i]);
+                            ps.setInt(2, lineNo++);
+                            ps.setInt(3, r.getProjectId());
+                            ps.setString(4, nvl(r.getWorkPackageId()));
+                            ps.setLong(5, packHours(safeHours(r)));
+                            ps.setString(6, r.getNotes());
+                            ps.addBatch();
+                        }
+                    }
+                    ps.executeBatch();
+                }
+
+                balanceEngine.applyDelta(c, empId, new WeeklyBalance(ot, ft));
+
+                try (PreparedStatement ps = outbox.prepareBatch(c)) {
+                    for (int i = 0; i < n; i++) {
+                        Timesheet ts = sheets.get(i);
+                        outbox.bind(ps, created.contains(i) ? ChangeEvent.Type.SHEET_CREATED : ChangeEvent.Type.SHEET_SAVED,
+                            String.valueOf(ids[i]), sheetPayload(empId, ts.getEndDate(), weeks[i], ts.getDetails().size()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("saveWeeks failed", ex);
+        }
+        ds.markWrite();
+        for (Long id : ids) cache.invalidate(RepoCache.SHEET, String.valueOf(id));
+        return Arrays.asList(ids);
+    }
+
+    /**
+    * Load a single timesheet by DB id (used by TimesheetEditBean and {@link CurrentUser}).
+    * Served from {@link RepoCache} when possible; every call returns a fresh instance.
+    * Falls back to the archive when the id is no longer in the live table. Only sheets read
+    * from the primary are cached: a lagging replica could otherwise put a copy older than
+    * the last save back into the cache after the save invalidated it.
+    */
+    @ReadOnly
     public Timesheet loadById(final Long timesheetId) {
         if (timesheetId == null) return null;
+        SheetSnapshot cached = cache.getSheet(timesheetId);
+        if (cached != null) return fromSnapshot(cached);
+
+        // Decided before asking for the connection; a replica failure then just skips caching
+        boolean cacheable = !ds.readsFromReplica();
+        try (Connection c = ds.getConnection()) {
+            Timesheet ts = loadHeader(c, timesheetId, false, cacheable);
+            if (ts == null) ts = loadHeader(c, timesheetId, true, cacheable);
+            return ts;
+        } catch (SQLException ex) {
+            throw new RuntimeException("loadById failed for id=" + timesheetId, ex);
+        }
+    }
+
+    /** Load header and rows of one sheet from the live or archive tables, caching it if asked to. */
+    private Timesheet loadHeader(Connection c, long timesheetId, boolean archived, boolean cacheable) throws SQLException {
         final String sql = """
-            SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci
-            FROM timesheets t
+            SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci, t.status
+            FROM %s t
             WHERE t.timesheet_id = ?
             LIMIT 1
-        """;
-        try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        """.formatted(archived ? ARCHIVE_SHEETS : HOT_SHEETS);
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, timesheetId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) return null;
                 Timesheet ts = materializeTimesheet(rs);
-                loadRows(c, ts);
+                loadRows(c, ts, archived);
+                if (cacheable) cache.putSheet(toSnapshot(timesheetId, ts, rs.getInt("overtime_deci"), rs.getInt("flextime_deci")));
                 return ts;
             }
+        }
+    }
+
+    /** @return true if the sheet has been moved to the archive */
+    private static boolean isArchived(Connection c, long timesheetId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT 1 FROM timesheets_archive WHERE timesheet_id = ?")) {
+            ps.setLong(1, timesheetId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+    * "Start from last week": create this week's sheet for {@code e} with the rows of their
+    * previous sheet, copied on the server with one <code>INSERT ... SELECT</code>.
+    * <p>
+    * Project and work package are always copied; hours and notes only on request. If this
+    * week's sheet already exists but is still blank (e.g. pre-created), its rows are replaced.
+    * Header, rows and the balance ledger change in one transaction.
+    *
+    * @param e employee (nullable)
+    * @param withHours also copy the hours (and therefore the weekly overtime/flextime)
+    * @param withNotes also copy the notes
+    * @return id of this week's sheet, or {@code null} if there is no earlier sheet to copy
+    * @throws IllegalStateException if this week's sheet already has entries
+    */
+    public Long copyForward(final Employee e, boolean withHours, boolean withNotes) {
+        if (e == null) return null;
+        LocalDate target = endOfWeekFriday(LocalDate.now());
+        final String findSource = """
+            SELECT timesheet_id, overtime_deci, flextime_deci
+            FROM timesheets
+            WHERE employee_id = ? AND end_date < ?
+            ORDER BY end_date DESC, timesheet_id DESC
+            LIMIT 1
+        """;
+        final String findTarget = """
+            SELECT timesheet_id, status FROM timesheets
+            WHERE employee_id = ? AND end_date = ?
+            ORDER BY timesheet_id DESC
+            LIMIT 1
+            FOR UPDATE
+        """;
+        final String usedRows = """
+            SELECT COUNT(*) FROM timesheet_rows
+            WHERE timesheet_id = ?
+              AND (project_id <> 0 OR work_package_id <> '' OR packed_hours <> 0
+                   OR COALESCE(notes, '') <> '')
+        """;
+        Long targetId;
+        WeeklyBalance week;
+        try (Connection c = ds.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                long empId = requireEmployeeId(c, e);
+                long sourceId;
+                try (PreparedStatement ps = c.prepareStatement(findSource)) {
+                    ps.setLong(1, empId);
+                    ps.setDate(2, java.sql.Date.valueOf(target));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            c.rollback();
+                            return null;
+                        }
+                        sourceId = rs.getLong(1);
+                        week = withHours ? new WeeklyBalance(rs.getInt(2), rs.getInt(3)) : WeeklyBalance.ZERO;
+                    }
+                }
+
+                targetId = null;
+                try (PreparedStatement ps = c.prepareStatement(findTarget)) {
+                    ps.setLong(1, empId);
+                    ps.setDate(2, java.sql.Date.valueOf(target));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            TimesheetStatus status = TimesheetStatus.valueOf(rs.getString(2));
+                            if (!status.isEditable()) {
+                                throw new IllegalStateException("This week's timesheet is " + status.label() + " and read-only");
+                            }
+                            targetId = rs.getLong(1);
+                        }
+                    }
+                }
+                if (targetId == null) {
+                    final String ins = """
+                        INSERT INTO timesheets (employee_id, end_date, overtime_deci, flextime_deci)
+                        VALUES (?, ?, ?, ?)
+                    """;
+                    try (PreparedStatement ps = c.prepareStatement(ins, Statement.RETURN_GENERATED_KEYS)) {
+                        ps.setLong(1, empId);
+                        ps.setDate(2, java.sql.Date.valueOf(target));
+                        ps.setInt(3, week.getOvertimeDeci());
+                        ps.setInt(4, week.getFlextimeDeci());
+                        ps.executeUpdate();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            keys.next();
+                            targetId = keys.getLong(1);
+                        }
+                    }
+                } else {
+                    // Blank rows contribute nothing to the balance, so there is nothing to subtract
+                    try (PreparedStatement ps = c.prepareStatement(usedRows)) {
+                        ps.setLong(1, targetId);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            rs.next();
+                            if (rs.getLong(1) > 0) {
+                                throw new IllegalStateException("This week's timesheet already has entries");
+                            }
+                        }
+                    }
+                    try (PreparedStatement ps = c.prepareStatement("DELETE FROM timesheet_rows WHERE timesheet_id = ?")) {
+                        ps.setLong(1, targetId);
+                        ps.executeUpdate();
+                    }
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "UPDATE timesheets SET overtime_deci = ?, flextime_deci = ?, version = version + 1 WHERE timesheet_id = ?")) {
+                        ps.setInt(1, week.getOvertimeDeci());
+                        ps.setInt(2, week.getFlextimeDeci());
+                        ps.setLong(3, targetId);
+                        ps.executeUpdate();
+                    }
+                }
+
+                final String copy = """
+                    INSERT INTO timesheet_rows (timesheet_id, line_no, project_id, work_package_id, packed_hours, notes)
+                    SELECT ?, line_no, project_id, work_package_id,
+                           CASE WHEN ? THEN packed_hours ELSE 0 END,
+                           CASE WHEN ? THEN notes ELSE NULL END
+                    FROM timesheet_rows
+                    WHERE timesheet_id = ?
+                    ORDER BY line_no
+                """;
+                try (PreparedStatement ps = c.prepareStatement(copy)) {
+                    ps.setLong(1, targetId);
+                    ps.setBoolean(2, withHours);
+                    ps.setBoolean(3, withNotes);
+                    ps.setLong(4, sourceId);
+                    ps.executeUpdate();
+                }
+
+                balanceEngine.applyDelta(c, empId, week);
+                outbox.append(c, ChangeEvent.Type.SHEET_CREATED, String.valueOf(targetId),
+                        sheetPayload(empId, target, week, -1));
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
         } catch (SQLException ex) {
-            throw new RuntimeException("loadById failed for id=" + timesheetId, ex);
+            throw new RuntimeException("copyForward failed for " + e.getUserName(), ex);
+        }
+        ds.markWrite();
+        cache.invalidate(RepoCache.SHEET, String.valueOf(targetId));
+        return targetId;
+    }
+
+    /**
+    * Weekly pre-creation: give every active employee without one a sheet ending {@code endDate}.
+    * <p>
+    * One transaction: the employees without a sheet (and their previous sheet) are read with
+    * one query and the headers inserted with one batch. Their generated ids go into a
+    * temporary table, so the following statements touch exactly the sheets of this run, not
+    * ones other sessions create for the same week meanwhile: one <code>INSERT ... SELECT</code>
+    * for the rows copied from each previous sheet (when {@code copyForward}), one for five
+    * blank rows on sheets that had nothing to copy, one ledger upsert when hours are copied,
+    * and one for the change events.
+    *
+    * @param endDate week-ending Friday to create
+    * @param copyForward copy project/work package rows from each employee's previous sheet
+    * @param withHours with {@code copyForward}, also copy hours (and weekly overtime/flextime)
+    * @param withNotes with {@code copyForward}, also copy notes
+    * @return number of sheets created
+    */
+    @DbWork(DbWork.Kind.BATCH)
+    public int precreateWeek(LocalDate endDate, boolean copyForward, boolean withHours, boolean withNotes) {
+        boolean hours = copyForward && withHours;
+        // Employees without a sheet for the week, with their newest earlier sheet
+        final String candidates = """
+            SELECT e.employee_id, p.timesheet_id AS source_id,
+                   COALESCE(p.overtime_deci, 0) AS overtime_deci, COALESCE(p.flextime_deci, 0) AS flextime_deci
+            FROM employees e
+            LEFT JOIN timesheets p ON p.timesheet_id = (
+                SELECT p2.timesheet_id FROM timesheets p2
+                 WHERE p2.employee_id = e.employee_id AND p2.end_date < ?
+                 ORDER BY p2.end_date DESC, p2.timesheet_id DESC
+                 LIMIT 1)
+            WHERE e.deleted_at IS NULL
+              AND NOT EXISTS (SELECT 1 FROM timesheets t
+                              WHERE t.employee_id = e.employee_id AND t.end_date = ?)
+            ORDER BY e.employee_id
+        """;
+        final String insHeader = """
+            INSERT INTO timesheets (employee_id, end_date, overtime_deci, flextime_deci)
+            VALUES (?, ?, ?, ?)
+        """;
+        final String createRun = """
+            CREATE TEMPORARY TABLE precreated (
+              timesheet_id  BIGINT UNSIGNED NOT NULL,
+              source_id     BIGINT UNSIGNED NULL,
+              PRIMARY KEY (timesheet_id)
+            ) ENGINE=InnoDB
+        """;
+        final String copyRows = """
+            INSERT INTO timesheet_rows (timesheet_id, line_no, project_id, work_package_id, packed_hours, notes)
+            SELECT n.timesheet_id, r.line_no, r.project_id, r.work_package_id,
+                   CASE WHEN ? THEN r.packed_hours ELSE 0 END,
+                   CASE WHEN ? THEN r.notes ELSE NULL END
+            FROM precreated n
+            JOIN timesheet_rows r ON r.timesheet_id = n.source_id
+        """;
+        final String blankRows = """
+            INSERT INTO timesheet_rows (timesheet_id, line_no, project_id, work_package_id, packed_hours, notes)
+            SELECT n.timesheet_id, l.line_no, 0, '', 0, NULL
+            FROM precreated n
+            CROSS JOIN (SELECT 1 AS line_no UNION ALL SELECT 2 UNION ALL SELECT 3
+                        UNION ALL SELECT 4 UNION ALL SELECT 5) l
+            WHERE NOT EXISTS (SELECT 1 FROM timesheet_rows x WHERE x.timesheet_id = n.timesheet_id)
+        """;
+        final String ledger = """
+            INSERT INTO employee_balances (employee_id, overtime_deci, flextime_deci)
+            SELECT t.employee_id, t.overtime_deci, t.flextime_deci
+            FROM precreated n
+            JOIN timesheets t ON t.timesheet_id = n.timesheet_id
+            WHERE t.overtime_deci <> 0 OR t.flextime_deci <> 0
+            ON DUPLICATE KEY UPDATE
+                overtime_deci = employee_balances.overtime_deci + VALUES(overtime_deci),
+                flextime_deci = employee_balances.flextime_deci + VALUES(flextime_deci)
+        """;
+        final String events = """
+            INSERT INTO outbox_events (event_type, aggregate, aggregate_key, payload)
+            SELECT 'SHEET_CREATED', 'SHEET', CAST(t.timesheet_id AS CHAR),
+                   JSON_OBJECT('employeeId', t.employee_id, 'endDate', DATE_FORMAT(t.end_date, '%Y-%m-%d'),
+                               'overtimeDeci', t.overtime_deci, 'flextimeDeci', t.flextime_deci)
+            FROM precreated n
+            JOIN timesheets t ON t.timesheet_id = n.timesheet_id
+            ORDER BY t.timesheet_id
+        """;
+        java.sql.Date end = java.sql.Date.valueOf(endDate);
+        try (Connection c = ds.getConnection()) {
+            // Serialize runs across replicas; the NOT EXISTS check alone would race
+            try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK('timesheet_precreate', 30)");
+                 ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) throw new SQLException("Pre-creation already running elsewhere");
+            }
+            try {
+                try (Statement st = c.createStatement()) {
+                    // Left over if an earlier run on this pooled connection died half way
+                    st.execute("DROP TEMPORARY TABLE IF EXISTS precreated");
+                    st.execute(createRun);
+                }
+                c.setAutoCommit(false);
+                try {
+                    List<Long> employees = new ArrayList<>();
+                    List<Long> sources = new ArrayList<>();
+                    try (PreparedStatement ps = c.prepareStatement(candidates)) {
+                        ps.setDate(1, end);
+                        ps.setDate(2, end);
+                        try (ResultSet rs = ps.executeQuery();
+                             PreparedStatement ins = c.prepareStatement(insHeader, Statement.RETURN_GENERATED_KEYS)) {
+                            while (rs.next()) {
+                                employees.add(rs.getLong("employee_id"));
+                                long source = rs.getLong("source_id");
+                                sources.add(rs.wasNull() ? null : source);
+                                ins.setLong(1, rs.getLong("employee_id"));
+                                ins.setDate(2, end);
+                                ins.setInt(3, hours ? rs.getInt("overtime_deci") : 0);
+                                ins.setInt(4, hours ? rs.getInt("flextime_deci") : 0);
+                                ins.addBatch();
+                            }
+                            if (employees.isEmpty()) {
+                                c.commit();
+                                return 0;
+                            }
+                            ins.executeBatch();
+                            try (ResultSet keys = ins.getGeneratedKeys();
+                                 PreparedStatement run = c.prepareStatement(
+                                         "INSERT INTO precreated (timesheet_id, source_id) VALUES (?, ?)")) {
+                                for (int i = 0; keys.next(); i++) {
+                                    run.setLong(1, keys.getLong(1));
+                                    if (sources.get(i) == null) run.setNull(2, Types.BIGINT);
+                                    else run.setLong(2, sources.get(i));
+                                    run.addBatch();
+                                }
+                                run.executeBatch();
+                            }
+                        }
+                    }
+                    int created = employees.size();
+                    if (copyForward) {
+                        try (PreparedStatement ps = c.prepareStatement(copyRows)) {
+                            ps.setBoolean(1, hours);
+                            ps.setBoolean(2, withNotes);
+                            ps.executeUpdate();
+                        }
+                    }
+                    try (PreparedStatement ps = c.prepareStatement(blankRows)) {
+                        ps.executeUpdate();
+                    }
+                    if (hours) {
+                        try (PreparedStatement ps = c.prepareStatement(ledger)) {
+                            ps.executeUpdate();
+                        }
+                    }
+                    try (PreparedStatement ps = c.prepareStatement(events)) {
+                        ps.executeUpdate();
+                    }
+                    c.commit();
+                    ds.markWrite();
+                    return created;
+                } catch (Exception ex) {
+                    c.rollback();
+                    throw ex;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+            } finally {
+                // Whatever failed after GET_LOCK, the pooled connection must not keep the lock
+                try (Statement st = c.createStatement()) {
+                    st.execute("DROP TEMPORARY TABLE IF EXISTS precreated");
+                } finally {
+                    try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK('timesheet_precreate')")) {
+                        ps.executeQuery().close();
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("precreateWeek failed for " + endDate, ex);
+        }
+    }
+
+    /**
+    * @param ts a timesheet obtained from this repository
+    * @return its <code>timesheet_id</code>, or {@code null} if it was never persisted
+    */
+    public Long idOf(final Timesheet ts) {
+        return (ts == null) ? null : timesheetIds.get(ts);
+    }
+
+    // ---------------- Workflow ----------------
+
+    /**
+    * @param ts a timesheet obtained from this repository
+    * @return its workflow state as read with it; {@link TimesheetStatus#DRAFT} if never saved
+    */
+    public TimesheetStatus statusOf(final Timesheet ts) {
+        TimesheetStatus status = (ts == null) ? null : statuses.get(ts);
+        return status == null ? TimesheetStatus.DRAFT : status;
+    }
+
+    /**
+    * Hand a draft or rejected sheet in for approval.
+    *
+    * @param e owner; the sheet must belong to this employee
+    * @throws IllegalStateException if the sheet is not the caller's or cannot be submitted
+    */
+    public void submit(final Employee e, final Long timesheetId) {
+        if (e == null) throw new IllegalStateException("No current user.");
+        transition(timesheetId, e, TimesheetStatus.SUBMITTED, e.getUserName(), null);
+    }
+
+    /**
+    * Send a submitted sheet back to its owner for changes.
+    *
+    * @param actor admin user name, recorded with the state
+    * @param note reason shown to the employee (nullable)
+    * @throws IllegalStateException if the sheet is not submitted
+    */
+    public void reject(final Long timesheetId, String actor, String note) {
+        transition(timesheetId, null, TimesheetStatus.REJECTED, actor, note);
+    }
+
+    /**
+    * Approve the submitted sheets among {@code ids}; others are skipped.
+    * Runs one locking <code>SELECT</code> and one <code>UPDATE ... IN</code> per chunk of
+    * <code>timesheet.approval.chunkSize</code> ids (default 500), each chunk in its own transaction.
+    *
+    * @return number of sheets approved
+    */
+    @DbWork(DbWork.Kind.ADMIN)
+    public int approve(final List<Long> ids, String actor) {
+        int approved = 0;
+        for (int from = 0; from < ids.size(); from += approvalChunk) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + approvalChunk));
+            final String lock = """
+                SELECT timesheet_id, employee_id, end_date
+                FROM timesheets
+                WHERE timesheet_id IN (%s) AND status = 'SUBMITTED'
+                ORDER BY timesheet_id
+                FOR UPDATE
+            """.formatted(String.join(",", Collections.nCopies(chunk.size(), "?")));
+            approved += approveChunk(lock, ps -> {
+                for (int i = 0; i < chunk.size(); i++) ps.setLong(i + 1, chunk.get(i));
+            }, actor).size();
+        }
+        return approved;
+    }
+
+    /**
+    * Approve every submitted sheet ending between {@code from} and {@code to}, optionally only
+    * for user names starting with {@code userPrefix}. Walks the matches in
+    * <code>timesheet_id</code> order, one chunk per transaction (see {@link #approve(List, String)}),
+    * so a large week never holds thousands of row locks at once.
+    *
+    * @return number of sheets approved
+    */
+    @DbWork(DbWork.Kind.ADMIN)
+    public int approveSubmitted(LocalDate from, LocalDate to, String userPrefix, String actor) {
+        final String lock = """
+            SELECT t.timesheet_id, t.employee_id, t.end_date
+            FROM timesheets t
+            JOIN employees e ON e.employee_id = t.employee_id
+            WHERE t.status = 'SUBMITTED' AND t.end_date BETWEEN ? AND ?
+              AND e.user_name LIKE ?
+              AND t.timesheet_id > ?
+            ORDER BY t.timesheet_id
+            LIMIT ?
+            FOR UPDATE
+        """;
+        String prefix = EmployeeRepo.toPrefix(userPrefix);
+        String like = prefix == null ? "%" : prefix;
+        int approved = 0;
+        long after = 0;
+        while (true) {
+            final long mark = after;
+            List<Long> ids = approveChunk(lock, ps -> {
+                ps.setDate(1, java.sql.Date.valueOf(from));
+                ps.setDate(2, java.sql.Date.valueOf(to));
+                ps.setString(3, like);
+                ps.setLong(4, mark);
+                ps.setInt(5, approvalChunk);
+            }, actor);
+            if (ids.isEmpty()) return approved;
+            approved += ids.size();
+            after = ids.get(ids.size() - 1);
         }
     }
 
+    /** @return number of submitted sheets ending between {@code from} and {@code to} */
+    @ReadOnly
+    @DbWork(DbWork.Kind.ADMIN)
+    public int countSubmitted(LocalDate from, LocalDate to) {
+        final String sql = """
+            SELECT COUNT(*) FROM timesheets
+            WHERE status = 'SUBMITTED' AND end_date BETWEEN ? AND ?
+        """;
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setDate(1, java.sql.Date.valueOf(from));
+            ps.setDate(2, java.sql.Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("countSubmitted failed", ex);
+        }
+    }
+
+    /** Binds the parameters of a chunk's locking query. */
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+    * Lock the sheets selected by {@code lockSql} (id, employee_id, end_date) and approve them
+    * with one <code>UPDATE</code> and one batch of change events, in one transaction.
+    *
+    * @return ids approved, ascending
+    */
+    private List<Long> approveChunk(String lockSql, Binder binder, String actor) {
+        List<Long> ids = new ArrayList<>();
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                List<JsonObject> payloads = new ArrayList<>();
+                try (PreparedStatement ps = c.prepareStatement(lockSql)) {
+                    binder.bind(ps);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong(1));
+                            payloads.add(statusPayload(rs.getLong(2), rs.getDate(3).toLocalDate(), TimesheetStatus.APPROVED));
+                        }
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    final String upd = """
+                        UPDATE timesheets
+                           SET status = 'APPROVED', status_at = CURRENT_TIMESTAMP(3), status_by = ?,
+                               status_note = NULL, version = version + 1
+                         WHERE timesheet_id IN (%s)
+                    """.formatted(String.join(",", Collections.nCopies(ids.size(), "?")));
+                    try (PreparedStatement ps = c.prepareStatement(upd)) {
+                        ps.setString(1, actor);
+                        for (int i = 0; i < ids.size(); i++) ps.setLong(i + 2, ids.get(i));
+                        ps.executeUpdate();
+                    }
+                    try (PreparedStatement ps = outbox.prepareBatch(c)) {
+                        for (int i = 0; i < ids.size(); i++) {
+                            outbox.bind(ps, ChangeEvent.Type.SHEET_STATUS, String.valueOf(ids.get(i)), payloads.get(i));
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("approve failed", ex);
+        }
+        if (!ids.isEmpty()) ds.markWrite();
+        for (Long id : ids) cache.invalidate(RepoCache.SHEET, String.valueOf(id));
+        return ids;
+    }
+
+    /** Move one sheet to {@code next}, checking ownership (when {@code owner} is given) and the workflow. */
+    private void transition(Long timesheetId, Employee owner, TimesheetStatus next, String actor, String note) {
+        if (timesheetId == null) throw new IllegalStateException("Timesheet has not been saved yet");
+        final String lock = """
+            SELECT employee_id, end_date, status
+            FROM timesheets
+            WHERE timesheet_id = ?
+            FOR UPDATE
+        """;
+        final String upd = """
+            UPDATE timesheets
+               SET status = ?, status_at = CURRENT_TIMESTAMP(3), status_by = ?, status_note = ?,
+                   version = version + 1
+             WHERE timesheet_id = ?
+        """;
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                long empId;
+                LocalDate end;
+                TimesheetStatus current;
+                try (PreparedStatement ps = c.prepareStatement(lock)) {
+                    ps.setLong(1, timesheetId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            if (isArchived(c, timesheetId)) {
+                                throw new IllegalStateException("Timesheet " + timesheetId + " is archived and read-only");
+                            }
+                            throw new IllegalStateException("Timesheet not found: id=" + timesheetId);
+                        }
+                        empId = rs.getLong(1);
+                        end = rs.getDate(2).toLocalDate();
+                        current = TimesheetStatus.valueOf(rs.getString(3));
+                    }
+                }
+                if (owner != null && empId != requireEmployeeId(c, owner)) {
+                    throw new IllegalStateException("Timesheet " + timesheetId + " belongs to another employee");
+                }
+                if (!current.canMoveTo(next)) {
+                    throw new IllegalStateException("Timesheet " + timesheetId + " is " + current.label()
+                            + " and cannot be " + next.label());
+                }
+                try (PreparedStatement ps = c.prepareStatement(upd)) {
+                    ps.setString(1, next.name());
+                    ps.setString(2, actor);
+                    ps.setString(3, note == null || note.length() <= 255 ? note : note.substring(0, 255));
+                    ps.setLong(4, timesheetId);
+                    ps.executeUpdate();
+                }
+                outbox.append(c, ChangeEvent.Type.SHEET_STATUS, String.valueOf(timesheetId),
+                        statusPayload(empId, end, next));
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Moving timesheet " + timesheetId + " to " + next + " failed", ex);
+        }
+        ds.markWrite();
+        cache.invalidate(RepoCache.SHEET, String.valueOf(timesheetId));
+    }
+
     
     /**
     * Fetch the newest-created timesheet for the current user.
     *
     * @return most recently created {@link Timesheet}, or {@code null}
     */
+    @ReadOnly
     public Timesheet getMyNewest() {
         Employee me = currentUser.getEmployee();
 		if (me == null) return null;
 		final String sql = """
-			SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci
+			SELECT t.timesheet_id, t.employee_id, t.end_date, t.overtime_deci, t.flextime_deci, t.status
 			FROM timesheets t
 			WHERE t.employee_id = ?
 			ORDER BY t.created_at DESC, t.timesheet_id DESC
@@ -384,7 +1290,9 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
 		""";
 		try (Connection c = ds.getConnection();
 			PreparedStatement ps = c.prepareStatement(sql)) {
-			ps.setLong(1, requireEmployeeId(c, me));
+			Long empId = findEmployeeId(c, me);
+			if (empId == null) return null;
+			ps.setLong(1, empId);
 			try (ResultSet rs = ps.executeQuery()) {
 				if (!rs.next()) return null;
 				Timesheet ts = materializeTimesheet(rs, me);
@@ -410,6 +1318,7 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
         ts.setOvertime(rs.getInt("overtime_deci"));
         ts.setFlextime(rs.getInt("flextime_deci"));
         timesheetIds.put(ts, rs.getLong("timesheet_id"));
+        statuses.put(ts, TimesheetStatus.valueOf(rs.getString("status")));
         return ts;
     }
 
@@ -420,23 +1329,29 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
         ts.setOvertime(rs.getInt("overtime_deci"));
         ts.setFlextime(rs.getInt("flextime_deci"));
         timesheetIds.put(ts, rs.getLong("timesheet_id"));
+        statuses.put(ts, TimesheetStatus.valueOf(rs.getString("status")));
         return ts;
     }
 
     
     /**
-    * Load all rows for a given timesheet and attach them to its details list.
+    * Load all rows for a given live timesheet and attach them to its details list.
     */
     private void loadRows(Connection c, Timesheet ts) throws SQLException {
+        loadRows(c, ts, false);
+    }
+
+    /** As above, reading <code>timesheet_rows_archive</code> for archived sheets. */
+    private void loadRows(Connection c, Timesheet ts, boolean archived) throws SQLException {
         Long tsId = timesheetIds.get(ts);
         if (tsId == null) return;
 
         final String sql = """
             SELECT row_id, line_no, project_id, work_package_id, packed_hours, notes
-            FROM timesheet_rows
+            FROM %s
             WHERE timesheet_id = ?
             ORDER BY line_no ASC
-        """;
+        """.formatted(archived ? ARCHIVE_ROWS : HOT_ROWS);
         try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setLong(1, tsId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -446,6 +1361,7 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
                     r.setProjectId(rs.getInt("project_id"));
                     r.setWorkPackageId(rs.getString("work_package_id"));
                     r.setHours(unpackHours(rs.getLong("packed_hours")));
+                    r.setNotes(rs.getString("notes"));
                     ts.getDetails().add(r);
                     rowIds.put(r, rs.getLong("row_id"));
                 }
@@ -453,6 +1369,37 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
         }
     }
 
+    /** Capture a freshly loaded timesheet as an immutable cache entry. */
+    private SheetSnapshot toSnapshot(long tsId, Timesheet ts, int overtimeDeci, int flextimeDeci) {
+        List<SheetSnapshot.Row> rows = new ArrayList<>();
+        for (TimesheetRow r : ts.getDetails()) {
+            Long rowId = rowIds.get(r);
+            rows.add(new SheetSnapshot.Row(rowId == null ? 0L : rowId, r.getProjectId(),
+                    r.getWorkPackageId(), packHours(safeHours(r)), r.getNotes()));
+        }
+        return new SheetSnapshot(tsId, ts.getEmployee(), ts.getEndDate(), overtimeDeci, flextimeDeci,
+                statusOf(ts), rows);
+    }
+
+    /** Build a new, independently mutable {@link Timesheet} from a cache entry. */
+    private Timesheet fromSnapshot(SheetSnapshot snap) {
+        Timesheet ts = new Timesheet(snap.employee, snap.endDate);
+        ts.setOvertime(snap.overtimeDeci);
+        ts.setFlextime(snap.flextimeDeci);
+        timesheetIds.put(ts, snap.timesheetId);
+        statuses.put(ts, snap.status);
+        for (SheetSnapshot.Row row : snap.rows) {
+            TimesheetRow r = new TimesheetRow();
+            r.setProjectId(row.projectId);
+            r.setWorkPackageId(row.workPackageId);
+            r.setHours(unpackHours(row.packedHours));
+            r.setNotes(row.notes);
+            ts.getDetails().add(r);
+            rowIds.put(r, row.rowId);
+        }
+        return ts;
+    }
+
     /**
     * Insert one detail row for a timesheet.
     *
@@ -486,18 +1433,30 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
     }
 
     /**
-    * Find an employee id by <code>emp_number</code>, inserting a new record if missing.
+    * Find an employee id by <code>emp_number</code> without writing anything, so it is
+    * safe on a replica connection.
     *
-    * @return the existing or newly generated <code>employee_id</code>
+    * @return the <code>employee_id</code>, or {@code null} if there is none
     */
-    private long requireEmployeeId(Connection c, Employee e) throws SQLException {
+    private Long findEmployeeId(Connection c, Employee e) throws SQLException {
         final String find = "SELECT employee_id FROM employees WHERE emp_number = ?";
         try (PreparedStatement ps = c.prepareStatement(find)) {
             ps.setInt(1, e.getEmpNumber());
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return rs.getLong(1);
+                return rs.next() ? rs.getLong(1) : null;
             }
         }
+    }
+
+    /**
+    * Find an employee id by <code>emp_number</code>, inserting a new record if missing.
+    * Write paths only; reads use {@link #findEmployeeId}.
+    *
+    * @return the existing or newly generated <code>employee_id</code>
+    */
+    private long requireEmployeeId(Connection c, Employee e) throws SQLException {
+        Long found = findEmployeeId(c, e);
+        if (found != null) return found;
         final String ins = "INSERT INTO employees (name, emp_number, user_name, role) VALUES (?, ?, ?, ?)";
         try (PreparedStatement ps = c.prepareStatement(ins, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, nvl(e.getName(), "User " + e.getEmpNumber()));
@@ -561,13 +1520,37 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
         }
     }
 
+    /** Compact outbox payload describing a sheet header. */
+    static JsonObject sheetPayload(long employeeId, LocalDate endDate, WeeklyBalance week, int rows) {
+        JsonObjectBuilder b = Json.createObjectBuilder()
+            .add("employeeId", employeeId)
+            .add("endDate", String.valueOf(endDate))
+            .add("overtimeDeci", week.getOvertimeDeci())
+            .add("flextimeDeci", week.getFlextimeDeci());
+        if (rows >= 0) b.add("rows", rows);
+        return b.build();
+    }
+
+    /** Compact outbox payload for a workflow change. */
+    static JsonObject statusPayload(long employeeId, LocalDate endDate, TimesheetStatus status) {
+        return Json.createObjectBuilder()
+            .add("employeeId", employeeId)
+            .add("endDate", String.valueOf(endDate))
+            .add("status", status.name())
+            .build();
+    }
+
     /** @return the Friday of the week containing {@code ref}. */
     private static LocalDate endOfWeekFriday(LocalDate ref) {
         return ref.with(DayOfWeek.FRIDAY);
     }
 
-    /** Defensive copy for hours array: must be length 7 (Sat..Fri). */
-    private static float[] safeHours(TimesheetRow r) {
+    /**
+    * The hours of a row as stored: seven values Sat..Fri, or all zero when the row has
+    * none or not exactly seven. Package-private so {@link BalanceEngine} and the other
+    * stores count exactly the hours that are saved.
+    */
+    static float[] safeHours(TimesheetRow r) {
         float[] h = r.getHours();
         if (h == null || h.length != 7) return new float[]{0,0,0,0,0,0,0};
         return h;
@@ -581,8 +1564,9 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
     /**
     * Pack seven day-hour values (in hours, fractional to 0.1h) into a 56-bit long.
     * Each day is stored as an unsigned byte of <em>tenths</em> of an hour.
+    * Package-private so the bulk importers write exactly the same layout.
     */
-    private static long packHours(float[] hours) {
+    static long packHours(float[] hours) {
         long v = 0L;
         for (int i = 0; i < 7; i++) {
             int tenths = Math.round(hours[i] * 10f);
@@ -594,7 +1578,7 @@ public class TimeSheetRepo implements TimesheetCollection, Serializable {
     }
 
     /** Reverse of {@link #packHours(float[])}. */
-    private static float[] unpackHours(long packed) {
+    static float[] unpackHours(long packed) {
         float[] out = new float[7];
         for (int i = 0; i < 7; i++) {
             int tenths = (int) ((packed >> (i * 8)) & 0xFFL);
@@ -23,7 +23,16 @@ import ca.bcit.infosys.employee.*;
 public class TimeSheetViewBean implements Serializable {
     
     /** Repository for accessing and creating timesheets. */
-    @Inject private TimeSheetRepo timeSheetRepo;
+    @Inject private TimesheetStore timeSheetRepo;
+
+    /** Source of the running overtime/flextime balance. */
+    @Inject private BalanceEngine balanceEngine;
+
+    /** Logged-in user whose balance is shown. */
+    @Inject private CurrentUser currentUser;
+
+    /** Running balance, read once per request. */
+    private WeeklyBalance balance;
 
     /** The currently displayed timesheet. */
     private Timesheet sheet;
@@ -92,4 +101,14 @@ public class TimeSheetViewBean implements Serializable {
         if (sheet == null) return 0f;
         return sheet.getDailyHours()[dayIndex];
     }
+
+    /**
+     * @return the current user's running overtime/flextime balance (one ledger lookup per request).
+     */
+    public WeeklyBalance getBalance() {
+        if (balance == null) {
+            balance = balanceEngine.getBalance(currentUser.getEmployee());
+        }
+        return balance;
+    }
 }
@@ -0,0 +1,186 @@
+package com.corejsf;
+
+import jakarta.ejb.Asynchronous;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Moves timesheets of closed years from the live tables to
+* <code>timesheets_archive</code> / <code>timesheet_rows_archive</code>.
+* <p>
+* The live tables keep the current year plus <code>timesheet.archive.keepYears</code> - 1
+* previous ones (default 2, i.e. this year and last). Sheets are moved
+* <code>timesheet.archive.chunkSheets</code> (default 500) at a time, each chunk in its own
+* transaction with ids preserved, with a short pause in between. A MySQL named lock keeps
+* replicas from archiving concurrently. Runs nightly and on demand from the admin dashboard.
+*/
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class TimesheetArchiver {
+
+    private static final Logger LOG = Logger.getLogger(TimesheetArchiver.class.getName());
+
+    /** Cluster-wide lock name (GET_LOCK). */
+    private static final String LOCK_NAME = "timesheet_archiver";
+
+    private final int keepYears = Math.max(1, AppConfig.getInt("timesheet.archive.keepYears", 2));
+    private final int chunkSheets = Math.max(1, AppConfig.getInt("timesheet.archive.chunkSheets", 500));
+    private final long pauseMillis = Math.max(0, AppConfig.getLong("timesheet.archive.pauseMillis", 100L));
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Sheets moved by the last completed run on this node. */
+    private volatile long lastMoved;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    /** Nightly run, outside office hours. */
+    @Schedule(hour = "2", minute = "30", persistent = false)
+    public void nightly() {
+        archive();
+    }
+
+    /** Start a run in the background (admin action). */
+    @Asynchronous
+    public void archiveAsync() {
+        archive();
+    }
+
+    /** @return true while a run is in progress on this node */
+    public boolean isRunning() { return running.get(); }
+
+    /** @return sheets moved by the last run on this node */
+    public long getLastMoved() { return lastMoved; }
+
+    /** @return first end date that stays in the live tables */
+    public LocalDate cutoff() {
+        return LocalDate.now().withDayOfYear(1).minusYears(keepYears - 1L);
+    }
+
+    /**
+    * Archive every live sheet ending before {@link #cutoff()}.
+    *
+    * @return number of sheets moved (0 if another node or thread is already archiving)
+    */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) return 0;
+        long moved = 0;
+        try (Connection lockConn = ds.getPrimaryConnection()) {
+            if (!acquire(lockConn)) return 0;
+            try {
+                LocalDate cutoff = cutoff();
+                List<Long> ids;
+                while (!(ids = moveChunk(cutoff)).isEmpty()) {
+                    moved += ids.size();
+                    if (pauseMillis > 0) Thread.sleep(pauseMillis);
+                }
+                lastMoved = moved;
+                if (moved > 0) LOG.info("Archived " + moved + " timesheets ending before " + cutoff);
+            } finally {
+                release(lockConn);
+            }
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Archiving stopped after " + moved + " sheets; resumes on the next run", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+        return moved;
+    }
+
+    /** Copy one chunk to the archive and delete it from the live tables, atomically. */
+    private List<Long> moveChunk(LocalDate cutoff) throws SQLException {
+        final String pick = """
+            SELECT timesheet_id FROM timesheets
+            WHERE end_date < ?
+            ORDER BY end_date, timesheet_id
+            LIMIT ?
+            FOR UPDATE
+        """;
+        List<Long> ids = new ArrayList<>(chunkSheets);
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = c.prepareStatement(pick)) {
+                    ps.setDate(1, java.sql.Date.valueOf(cutoff));
+                    ps.setInt(2, chunkSheets);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) ids.add(rs.getLong(1));
+                    }
+                }
+                if (ids.isEmpty()) {
+                    c.commit();
+                    return ids;
+                }
+                String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                execute(c, """
+                    INSERT INTO timesheets_archive
+                        (timesheet_id, employee_id, end_date, overtime_deci, flextime_deci, created_at,
+                         version, updated_at, status, status_at, status_by, status_note)
+                    SELECT timesheet_id, employee_id, end_date, overtime_deci, flextime_deci, created_at,
+                           version, updated_at, status, status_at, status_by, status_note
+                    FROM timesheets WHERE timesheet_id IN (%s)
+                """.formatted(in), ids);
+                execute(c, """
+                    INSERT INTO timesheet_rows_archive
+                        (row_id, timesheet_id, line_no, project_id, work_package_id, packed_hours, notes)
+                    SELECT row_id, timesheet_id, line_no, project_id, work_package_id, packed_hours, notes
+                    FROM timesheet_rows WHERE timesheet_id IN (%s)
+                """.formatted(in), ids);
+                execute(c, "DELETE FROM timesheet_rows WHERE timesheet_id IN (" + in + ")", ids);
+                execute(c, "DELETE FROM timesheets WHERE timesheet_id IN (" + in + ")", ids);
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+        return ids;
+    }
+
+    private static void execute(Connection c, String sql, List<Long> ids) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean acquire(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, LOCK_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection c) {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException ignored) {
+            // The lock is released with the session anyway.
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.corejsf;
+
+import java.io.Serializable;
+
+/**
+ * Latest autosaved state of a timesheet being edited: the grid as compact JSON
+ * (<code>{"rows":[{"project":1,"wp":"A","hours":["8","",…],"notes":"…"}]}</code>).
+ */
+public final class TimesheetDraft implements Serializable {
+
+    private final long timesheetId;
+    private final String payload;
+    private final long savedAt;
+
+    public TimesheetDraft(long timesheetId, String payload, long savedAt) {
+        this.timesheetId = timesheetId;
+        this.payload = payload;
+        this.savedAt = savedAt;
+    }
+
+    public long getTimesheetId() { return timesheetId; }
+
+    /** @return the grid as JSON */
+    public String getPayload() { return payload; }
+
+    /** @return when the client sent it (epoch millis) */
+    public long getSavedAt() { return savedAt; }
+}
@@ -12,11 +12,15 @@ import java.util.List;
 import java.lang.Float;
 import jakarta.annotation.PostConstruct;
 import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.Locale;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
 import ca.bcit.infosys.timesheet.*;
 import ca.bcit.infosys.employee.*;
 
@@ -32,11 +36,12 @@ import ca.bcit.infosys.employee.*;
  */
 @Named("timesheetEdit")
 @ConversationScoped
+@ConversationTracked
 public class TimesheetEditBean implements Serializable {
 
     /** Repository that stores all timesheets in memory. */
     @Inject 
-    private TimeSheetRepo timeSheetRepo;
+    private TimesheetStore timeSheetRepo;
     
     /** CDI conversation to maintain multi-request editing sessions. */
     @Inject
@@ -46,8 +51,25 @@ public class TimesheetEditBean implements Serializable {
 	@Inject
 	private CurrentUser currentUser;
 
-	/** The timesheet currently being edited. */
-    private Timesheet sheet;
+	/** Asynchronous audit trail for timesheet saves. */
+	@Inject
+	private AuditLog audit;
+
+	/** Autosaved drafts; restored on open, discarded on save. */
+	@Inject
+	private DraftStore drafts;
+
+	/** When the restored draft was autosaved, or null if the grid shows the saved sheet. */
+	private LocalDateTime draftSavedAt;
+
+	/** Set by {@link #discardDraft()} so the reload shows the saved sheet. */
+	private boolean skipDraft;
+
+	/**
+	 * The timesheet currently being edited, as loaded on this node. Not replicated with
+	 * the session: after a failover it is reloaded by {@link #tsId} (see {@link #getSheet()}).
+	 */
+    private transient Timesheet sheet;
     
     /** Backing list of timesheet rows (projects/work packages). */
     private final List<TimesheetRow> rows = new ArrayList<>();
@@ -61,10 +83,8 @@ public class TimesheetEditBean implements Serializable {
     /** Optional target week ending date for loading or creating a timesheet. */
 	private LocalDate targetDate;
 	
-	private Long tsId; 
-
-	
-	private static final String[] DAY_NAMES = {"Sat", "Sun", "Mon", "Tue", "Wed", "Thu", "Fri"};
+	/** <code>timesheet_id</code> of the sheet being edited; the identity kept in the session. */
+	private Long tsId;
 
 	/**
      * Returns the target week-ending date associated with the timesheet.
@@ -90,9 +110,10 @@ public class TimesheetEditBean implements Serializable {
      * <p>Steps performed:</p>
      * <ul>
      *   <li>Starts a conversation if not already active (20-minute timeout).</li>
-     *   <li>Loads the selected timesheet from {@link CurrentUser}, or creates a new one if none exists.</li>
+     *   <li>Loads the timesheet selected in {@link CurrentUser} by id, or creates a new one if none exists.</li>
      *   <li>Ensures at least 5 rows exist.</li>
      *   <li>Builds editable grids (hours and notes) from the current timesheet rows.</li>
+     *   <li>Replaces them with the autosaved draft, if there is one (see {@link DraftStore}).</li>
      * </ul>
      */
 	@PostConstruct
@@ -101,13 +122,14 @@ public class TimesheetEditBean implements Serializable {
             conversation.begin();
             conversation.setTimeout(20 * 60 * 1000L);
         }
-        if (sheet != null) return; 
+        if (tsId != null) return;
         sheet = currentUser.getSelectedTimesheet();
         if (sheet == null) {
             timeSheetRepo.addTimesheet();
             sheet = timeSheetRepo.getMyNewest();
+            currentUser.setSelectedTimesheet(sheet);
         }
-		currentUser.setSelectedTimesheet(sheet);
+        tsId = currentUser.getSelectedTimesheetId();
         while (sheet.getDetails().size() < 5) {
             sheet.addRow();
         }
@@ -127,17 +149,86 @@ public class TimesheetEditBean implements Serializable {
 			notesGrid.add(r.getNotes());
 		}
 
+		if (!skipDraft) restoreDraft();
     }
+
+	/**
+     * Loads the autosaved grid of this sheet over the saved one. The sheet itself only
+     * changes when the user saves.
+     */
+	private void restoreDraft() {
+		TimesheetDraft draft = drafts.find(tsId);
+		if (draft == null) return;
+		JsonArray saved;
+		try (JsonReader reader = Json.createReader(new StringReader(draft.getPayload()))) {
+			saved = reader.readObject().getJsonArray("rows");
+		}
+		sheet.getDetails().clear();
+		rows.clear();
+		hoursGrid.clear();
+		notesGrid.clear();
+		for (JsonValue v : saved) {
+			JsonObject o = v.asJsonObject();
+			TimesheetRow r = new TimesheetRow();
+			try {
+				r.setProjectId(Integer.parseInt(o.getString("project", "").trim()));
+			} catch (NumberFormatException ignored) {
+				// Left at 0, as an empty project field would be
+			}
+			r.setWorkPackageId(o.getString("wp", ""));
+			sheet.getDetails().add(r);
+			rows.add(r);
+			JsonArray h = o.getJsonArray("hours");
+			List<String> week = new ArrayList<>(Timesheet.DAYS_IN_WEEK);
+			for (int d = 0; d < Timesheet.DAYS_IN_WEEK; d++) week.add(h.getString(d, ""));
+			hoursGrid.add(week);
+			notesGrid.add(o.getString("notes", ""));
+		}
+		if (rows.isEmpty()) addRow();
+		draftSavedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(draft.getSavedAt()), ZoneId.systemDefault());
+	}
+
+	/**
+     * Throws away the autosaved draft and shows the saved sheet again.
+     *
+     * @return null to stay on the current view
+     */
+	public String discardDraft() {
+		drafts.discard(tsId);
+		reset();
+		skipDraft = true;
+		init();
+		skipDraft = false;
+		return null;
+	}
+
+	/** @return when the shown draft was autosaved, or null if none was restored */
+	public LocalDateTime getDraftSavedAt() { return draftSavedAt; }
+
+	/** @return id of the sheet being edited, for the autosave requests */
+	public Long getSheetId() { return tsId; }
+
+	/** Forgets the loaded sheet and grids so {@link #init()} loads them again. */
+	private void reset() {
+		sheet = null;
+		tsId = null;
+		rows.clear();
+		hoursGrid.clear();
+		notesGrid.clear();
+		draftSavedAt = null;
+	}
 	
 	/**
      * Adds a blank row (project/work package) to the editable timesheet.
      * Also expands the hours and notes grids accordingly.
      *
-     * @return navigation outcome string ("timesheetEdit") to remain on the edit page
+     * <p>Called via AJAX; only the grid is processed and re-rendered.</p>
+     *
+     * @return null to stay on the current view
      */
 	public String addRow() {
         TimesheetRow r = new TimesheetRow();
-        sheet.getDetails().add(r);
+        getSheet().getDetails().add(r);
         rows.add(r);
 
         List<String> blankWeek = new ArrayList<>(Timesheet.DAYS_IN_WEEK);
@@ -145,9 +236,25 @@ public class TimesheetEditBean implements Serializable {
         hoursGrid.add(blankWeek);
         notesGrid.add("");
 		
-		return "timesheetEdit";
+		return null;
     }
 
+	/**
+     * Removes a row from the editable timesheet, keeping at least one.
+     * Called via AJAX like {@link #addRow()}.
+     *
+     * @param index zero-based row index in the grid
+     * @return null to stay on the current view
+     */
+	public String removeRow(int index) {
+		if (index < 0 || index >= rows.size() || rows.size() <= 1) return null;
+		TimesheetRow r = rows.remove(index);
+		getSheet().getDetails().remove(r);
+		hoursGrid.remove(index);
+		notesGrid.remove(index);
+		return null;
+	}
+
 	/**
      * Saves user-entered data from the editable grids back into the timesheet model.
      *
@@ -165,6 +272,10 @@ public class TimesheetEditBean implements Serializable {
 		if (!validateUniqueProjectWP()) {
 			return null;
 		}
+
+		if (!addErrors(TimesheetValidator.checkEditWindow(getSheet().getEndDate()))) {
+			return null;
+		}
 		
         for (int i = 0; i < rows.size(); i++) {
             TimesheetRow r = rows.get(i);
@@ -178,7 +289,25 @@ public class TimesheetEditBean implements Serializable {
             r.setNotes(notesGrid.get(i));
         }
 		
-		timeSheetRepo.save(sheet);
+		Timesheet sheet = getSheet();
+		String actor = currentUser.getEmployee() == null ? null : currentUser.getEmployee().getUserName();
+		String target = (sheet.getEmployee() == null ? "" : sheet.getEmployee().getUserName()) + "@" + sheet.getEndDate();
+		try {
+			timeSheetRepo.save(sheet, tsId);
+			audit.record(actor, AuditLog.TIMESHEET_SAVE, target, true);
+			drafts.discard(tsId);
+			draftSavedAt = null;
+		} catch (IllegalStateException ex) {
+			audit.record(actor, AuditLog.TIMESHEET_SAVE, target, false);
+			// Closed years are archived and read-only
+			FacesContext.getCurrentInstance().addMessage(null,
+				new FacesMessage(FacesMessage.SEVERITY_ERROR, ex.getMessage(), null));
+			return null;
+		} catch (RuntimeException ex) {
+			// Database and other failures: audit, then leave them to the error page
+			audit.record(actor, AuditLog.TIMESHEET_SAVE, target, false);
+			throw ex;
+		}
 		
         return "timesheetForm";
     }
@@ -211,17 +340,52 @@ public class TimesheetEditBean implements Serializable {
 	
     /**
      * Checks whether the current timesheet is editable.
-     * A timesheet is considered editable if its end date is today or in the future.
+     * A timesheet is considered editable if its end date is today or in the future
+     * and it is a draft or was rejected; submitted and approved sheets are read-only.
      *
      * @return true if editing is allowed, false otherwise
      */
 	public boolean isEditable() {
-        if (sheet == null || sheet.getEndDate() == null) return false;
-        java.time.LocalDate thisFriday =
-            java.time.LocalDate.now().with(java.time.DayOfWeek.FRIDAY);
-        return !sheet.getEndDate().isBefore(thisFriday);
+        Timesheet sheet = getSheet();
+        if (sheet == null) return false;
+        return TimesheetValidator.isOpen(sheet.getEndDate()) && getStatus().isEditable();
     }
 
+	/** @return workflow state of the sheet being shown */
+	public TimesheetStatus getStatus() { return timeSheetRepo.statusOf(getSheet()); }
+
+	/**
+     * Hands the shown sheet in for approval. The sheet is read-only until an
+     * admin rejects it.
+     *
+     * @return navigation outcome "timesheetForm", or null on failure
+     */
+	public String submit() {
+		Timesheet sheet = getSheet();
+		String actor = currentUser.getEmployee() == null ? null : currentUser.getEmployee().getUserName();
+		String target = (sheet.getEmployee() == null ? "" : sheet.getEmployee().getUserName()) + "@" + sheet.getEndDate();
+		Long id = tsId;
+		try {
+			timeSheetRepo.submit(currentUser.getEmployee(), id);
+			audit.record(actor, AuditLog.TIMESHEET_SUBMIT, target, true);
+		} catch (IllegalStateException ex) {
+			audit.record(actor, AuditLog.TIMESHEET_SUBMIT, target, false);
+			FacesContext.getCurrentInstance().addMessage(null,
+				new FacesMessage(FacesMessage.SEVERITY_ERROR, ex.getMessage(), null));
+			return null;
+		} catch (RuntimeException ex) {
+			audit.record(actor, AuditLog.TIMESHEET_SUBMIT, target, false);
+			throw ex;
+		}
+		FacesContext.getCurrentInstance().addMessage(null,
+			new FacesMessage(FacesMessage.SEVERITY_INFO, "Timesheet submitted for approval.", null));
+		// Reload so the view shows the new status
+		currentUser.setSelectedTimesheetId(id);
+		reset();
+		init();
+		return "timesheetForm";
+	}
+
   
 	/**
      * Returns the list of {@link TimesheetRow} objects that make up this timesheet.
@@ -255,17 +419,28 @@ public class TimesheetEditBean implements Serializable {
      * @return numeric week number (1–52) or 0 if unavailable
      */
 	public int getWeekNumber() {
+		Timesheet sheet = getSheet();
 		if (sheet == null || sheet.getEndDate() == null) return 0;
 		java.time.temporal.WeekFields wf = java.time.temporal.WeekFields.of(java.util.Locale.getDefault());
 		return sheet.getEndDate().get(wf.weekOfWeekBasedYear());
 	}
 
 	/**
-     * Returns the current {@link Timesheet} object being edited.
+     * Returns the current {@link Timesheet} object being edited. On a node that has not
+     * loaded it yet (after a failover) it is reloaded by id and given the rows being edited.
      *
      * @return active timesheet, or null if none is loaded
      */
-    public Timesheet getSheet() { return sheet; }
+    public Timesheet getSheet() {
+        if (sheet == null && tsId != null) {
+            sheet = timeSheetRepo.loadById(tsId);
+            if (sheet != null) {
+                sheet.getDetails().clear();
+                sheet.getDetails().addAll(rows);
+            }
+        }
+        return sheet;
+    }
     
     /**
      * Returns the employee number of the user associated with this timesheet.
@@ -274,6 +449,7 @@ public class TimesheetEditBean implements Serializable {
      * @return employee number as a string, or empty if unavailable
      */
     public String getEmpNumber() {
+        Timesheet sheet = getSheet();
         return sheet!=null && sheet.getEmployee()!=null ? String.valueOf(sheet.getEmployee().getEmpNumber()) : "";
     }
     
@@ -284,6 +460,7 @@ public class TimesheetEditBean implements Serializable {
      * @return employee's full name or empty string if not available
      */
     public String getEmployeeName() {
+        Timesheet sheet = getSheet();
         return sheet!=null && sheet.getEmployee()!=null ? sheet.getEmployee().getName() : "";
     }
 	
@@ -294,10 +471,10 @@ public class TimesheetEditBean implements Serializable {
 	private boolean validateTotalsFromGrid() {
 		if (hoursGrid == null || hoursGrid.isEmpty()) return true;
 	
-		double[] dayTotals = new double[7];
-	
+		List<double[]> hours = new ArrayList<>(hoursGrid.size());
 		for (List<String> week : hoursGrid) {
 			if (week == null) continue;
+			double[] values = new double[7];
 			for (int d = 0; d < 7; d++) {
 				String s = (d < week.size()) ? week.get(d) : null;
 				if (s == null || s.isBlank()) continue;
@@ -305,38 +482,14 @@ public class TimesheetEditBean implements Serializable {
 					double v = Double.parseDouble(s.trim());
 					if (v < 0) v = 0;
 					if (v > 24) v = 24;
-					v = Math.round(v * 10.0) / 10.0;
-					dayTotals[d] += v;
+					values[d] = Math.round(v * 10.0) / 10.0;
 				} catch (NumberFormatException ignored) {
 
 				}
 			}
+			hours.add(values);
 		}
-	
-		boolean valid = true;
-	
-		// Per-day cap
-		for (int d = 0; d < 7; d++) {
-			if (dayTotals[d] > 24.0 + 1e-6) {
-				valid = false;
-				jakarta.faces.context.FacesContext.getCurrentInstance().addMessage(
-				    null, new jakarta.faces.application.FacesMessage(
-				        jakarta.faces.application.FacesMessage.SEVERITY_ERROR,
-				        String.format("Total for %s exceeds 24 hours (%.1f h).", DAY_NAMES[d], dayTotals[d]), null));
-			}
-		}
-	
-		// Weekly cap (optional)
-		double weekTotal = Arrays.stream(dayTotals).sum();
-		if (weekTotal > 168.0 + 1e-6) {
-			valid = false;
-			jakarta.faces.context.FacesContext.getCurrentInstance().addMessage(
-			    null, new jakarta.faces.application.FacesMessage(
-			        jakarta.faces.application.FacesMessage.SEVERITY_ERROR,
-			        String.format("Weekly total exceeds 168 hours (%.1f h).", weekTotal), null));
-		}
-	
-		return valid;
+		return addErrors(TimesheetValidator.checkTotals(hours));
 	}
 	
 	/**
@@ -345,38 +498,17 @@ public class TimesheetEditBean implements Serializable {
 	* Emits {@link FacesMessage}s describing the duplicates.
 	*/
 	private boolean validateUniqueProjectWP() {
-		boolean ok = true;
-		Map<String, Integer> firstSeenAtRow = new LinkedHashMap<>(); 
-	
-		for (int i = 0; i < rows.size(); i++) {
-			TimesheetRow r = rows.get(i);
-	
-			int projectId = r.getProjectId(); 
-			String wp = Optional.ofNullable(r.getWorkPackageId()).orElse("").trim();
-	
-			// Ignore “empty” rows (lets users keep spare rows)
-			if (projectId == 0 && wp.isEmpty()) continue;
-	
-			// Normalize key (case-insensitive WP)
-			String key = projectId + "||" + wp.toUpperCase(Locale.ROOT);
-	
-			Integer other = firstSeenAtRow.putIfAbsent(key, i + 1);
-			if (other != null) {
-				FacesContext.getCurrentInstance().addMessage(
-					null,
-					new FacesMessage(
-						FacesMessage.SEVERITY_ERROR,
-						String.format(
-							"Duplicate Project/WP: project %d with WP \"%s\" appears in rows %d and %d.",
-							projectId, wp, other, i + 1),
-						null
-					)
-				);
-				ok = false;
-			}
+		return addErrors(TimesheetValidator.checkUniqueProjectWp(rows));
+	}
+
+	/** @return true if there were no errors; otherwise adds each as a {@link FacesMessage} */
+	private boolean addErrors(List<String> errors) {
+		for (String e : errors) {
+			FacesContext.getCurrentInstance().addMessage(null,
+				new FacesMessage(FacesMessage.SEVERITY_ERROR, e, null));
 		}
-		return ok;
-}
+		return errors.isEmpty();
+	}
 	
 	/** @return the ID of the timesheet being edited (may be null). */
 	public Long getTsId() { return tsId; }
@@ -0,0 +1,99 @@
+package com.corejsf;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * CSV download of the logged-in user's timesheets (<code>GET /export/timesheets.csv</code>),
+ * in the format {@link TimesheetImportService} reads back.
+ *
+ * <p>Rows are streamed straight from the result set, live and archived sheets alike.
+ * Repeated downloads of an unchanged list are answered by {@link ConditionalGetFilter}.</p>
+ */
+@WebServlet("/export/timesheets.csv")
+public class TimesheetExportServlet extends HttpServlet {
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private DbGuard guard;
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (req.getSession(false) == null || !currentUser.isLoggedIn()) {
+            res.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        String user = currentUser.getEmployee().getUserName();
+        guard.call(DbWork.Kind.REPORT, "TimesheetExportServlet.export", () -> {
+            export(res, user);
+            return null;
+        });
+    }
+
+    /** Stream every sheet of {@code user} as CSV rows. */
+    private void export(HttpServletResponse res, String user) throws IOException {
+        final String sql = """
+            SELECT s.end_date, r.project_id, r.work_package_id, r.packed_hours, r.notes
+            FROM employees e
+            JOIN (SELECT timesheet_id, employee_id, end_date FROM %s
+                  UNION ALL
+                  SELECT timesheet_id, employee_id, end_date FROM %s) s ON s.employee_id = e.employee_id
+            JOIN (SELECT timesheet_id, line_no, project_id, work_package_id, packed_hours, notes FROM %s
+                  UNION ALL
+                  SELECT timesheet_id, line_no, project_id, work_package_id, packed_hours, notes FROM %s) r
+              ON r.timesheet_id = s.timesheet_id
+            WHERE e.user_name = ? AND e.deleted_at IS NULL
+            ORDER BY s.end_date, s.timesheet_id, r.line_no
+        """.formatted(TimeSheetRepo.HOT_SHEETS, TimeSheetRepo.ARCHIVE_SHEETS,
+                      TimeSheetRepo.HOT_ROWS, TimeSheetRepo.ARCHIVE_ROWS);
+
+        res.setContentType("text/csv");
+        res.setCharacterEncoding("UTF-8");
+        res.setHeader("Content-Disposition", "attachment; filename=\"timesheets-" + user + ".csv\"");
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, user);
+            ps.setFetchSize(Integer.MIN_VALUE); // stream rows (MySQL Connector/J)
+            try (ResultSet rs = ps.executeQuery()) {
+                PrintWriter out = res.getWriter();
+                out.print("user_name,end_date,project_id,work_package_id,sat,sun,mon,tue,wed,thu,fri,notes\r\n");
+                while (rs.next()) {
+                    StringBuilder line = new StringBuilder(96);
+                    line.append(csv(user)).append(',')
+                        .append(rs.getDate("end_date")).append(',')
+                        .append(rs.getInt("project_id")).append(',')
+                        .append(csv(rs.getString("work_package_id")));
+                    for (float h : TimeSheetRepo.unpackHours(rs.getLong("packed_hours"))) {
+                        line.append(',').append(h == 0f ? "" : Float.toString(h));
+                    }
+                    line.append(',').append(csv(rs.getString("notes"))).append("\r\n");
+                    out.print(line);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("export failed for " + user, ex);
+        }
+    }
+
+    /** Quote a field when it contains a separator, quote or line break. */
+    private static String csv(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
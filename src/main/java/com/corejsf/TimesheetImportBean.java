@@ -0,0 +1,81 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.context.FacesContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Backing bean for the historical timesheet import on the admin dashboard.
+ *
+ * <p>Scope: {@link RequestScoped}. Migration files are large, so they are not uploaded
+ * through the browser; the admin names a file already placed in the server-side import
+ * directory (<code>timesheet.import.dir</code>) and the job runs in the background.
+ * Progress is read from {@link TimesheetImportService#getJobs()}.</p>
+ */
+@Named("timesheetImportBean")
+@RequestScoped
+public class TimesheetImportBean implements Serializable {
+
+    /** Directory migration files are read from. */
+    private static final Path IMPORT_DIR =
+        Paths.get(AppConfig.get("timesheet.import.dir", "/var/lib/timesheet/import"));
+
+    @Inject
+    private TimesheetImportService importService;
+
+    /** File name inside the import directory. */
+    private String fileName;
+
+    /** Resume key; defaults to the file name. */
+    private String jobName;
+
+    public String getFileName() { return fileName; }
+
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getJobName() { return jobName; }
+
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    /** @return import jobs run on this node, for the progress table */
+    public List<ImportProgress> getJobs() {
+        Collection<ImportProgress> jobs = importService.getJobs();
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Starts (or resumes) importing the named file in the background.
+     */
+    public void start() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        if (fileName == null || fileName.isBlank()) {
+            ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, "Enter a file name first.", null));
+            return;
+        }
+        Path file = IMPORT_DIR.resolve(fileName.trim()).normalize();
+        if (!file.startsWith(IMPORT_DIR) || !Files.isRegularFile(file)) {
+            ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR,
+                "No such file in " + IMPORT_DIR + ": " + fileName, null));
+            return;
+        }
+        String job = (jobName == null || jobName.isBlank()) ? file.getFileName().toString() : jobName.trim();
+        try {
+            importService.importFileAsync(job, file);
+        } catch (IllegalStateException ex) {
+            ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, ex.getMessage(), null));
+            return;
+        }
+        ctx.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
+            "Import '" + job + "' started; refresh to follow progress.", null));
+    }
+}
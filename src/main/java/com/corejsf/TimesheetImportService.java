@@ -0,0 +1,629 @@
+package com.corejsf;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* Streaming import of historical timesheets, for migrating a client's past hours.
+* <p>
+* Input is one timesheet row per line, either CSV
+* (<code>user_name,end_date,project_id,work_package_id,sat,sun,mon,tue,wed,thu,fri,notes</code>,
+* optional header) or JSON Lines
+* (<code>{"user":"jdoe","endDate":"2021-03-05","projectId":7,"wp":"A1","hours":[0,0,8,8,8,8,8],"notes":""}</code>).
+* Lines belonging to one sheet (same user and end date) must be contiguous, and the end
+* date must be a Friday. A week the employee already has a sheet for, live or archived, is
+* not written again; its lines are reported as errors, like unknown users and bad lines.
+*
+* <p>How it scales:
+* <ul>
+* <li>The input is read line by line; only the current chunk (about
+*     <code>timesheet.import.chunkRows</code> rows, default 5000) is held in memory.</li>
+* <li>Employees are resolved per chunk with one <code>IN (...)</code> query and remembered;
+*     existing weeks are found per chunk with one <code>(employee_id, end_date) IN (...)</code>
+*     query over both sheet tables.</li>
+* <li>Headers and rows are written with JDBC batches, hours packed exactly like
+*     {@link TimeSheetRepo#packHours}, one transaction per chunk. Weekly overtime/flextime and
+*     the balance ledger are updated, and change events appended to the {@link Outbox}, in the
+*     same transaction.</li>
+* <li>Each commit also records the last committed input line in <code>import_jobs</code>;
+*     re-running a job with the same name skips everything up to that line.</li>
+* </ul>
+* A job name runs once at a time: a second start while it runs, on this node or (through
+* a MySQL named lock) on another, is refused with {@link IllegalStateException}.
+*/
+@ApplicationScoped
+public class TimesheetImportService implements Serializable {
+
+    private static final Logger LOG = Logger.getLogger(TimesheetImportService.class.getName());
+
+    /** Target rows per transaction; chunks always end on a sheet boundary. */
+    private final int chunkRows = Math.max(100, AppConfig.getInt("timesheet.import.chunkRows", 5000));
+
+    /** Upper bound on remembered user-name to id mappings. */
+    private static final int EMPLOYEE_CACHE_MAX = 50_000;
+
+    /** Columns of the optional CSV header line. */
+    private static final List<String> CSV_HEADER = List.of("user_name", "end_date", "project_id",
+            "work_package_id", "sat", "sun", "mon", "tue", "wed", "thu", "fri", "notes");
+
+    /** Prefix of the cluster-wide lock (GET_LOCK) held while a job runs. */
+    private static final String LOCK_PREFIX = "timesheet_import_";
+
+    /** Longest name GET_LOCK accepts. */
+    private static final int MAX_LOCK_NAME = 64;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private BalanceEngine balanceEngine;
+
+    @Inject
+    private Outbox outbox;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    /** Progress of jobs started on this node, by job name. */
+    private final Map<String, ImportProgress> jobs = new ConcurrentHashMap<>();
+
+    /** Jobs running on this node right now. */
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    /** One parsed input line. */
+    private static final class Line {
+        long lineNo;
+        String user;
+        LocalDate endDate;
+        int projectId;
+        String wp;
+        float[] hours;
+        String notes;
+    }
+
+    /** Consecutive lines forming one timesheet. */
+    private static final class PendingSheet {
+        final String userKey;
+        final LocalDate endDate;
+        final List<Line> rows = new ArrayList<>();
+        long firstLine;
+        long lastLine;
+
+        PendingSheet(Line first) {
+            this.userKey = first.user.toLowerCase(Locale.ROOT);
+            this.endDate = first.endDate;
+            this.firstLine = first.lineNo;
+        }
+
+        boolean sameSheet(Line l) {
+            return userKey.equals(l.user.toLowerCase(Locale.ROOT)) && endDate.equals(l.endDate);
+        }
+    }
+
+    // ---------------- Entry points ----------------
+
+    /**
+    * Import a server-side file in the background.
+    *
+    * @param jobName resume key; re-use it to continue an interrupted import
+    * @param file CSV or <code>.jsonl</code> file
+    * @return future completing with the report of this run
+    * @throws IllegalStateException if a job of that name is already running on this node
+    */
+    public CompletableFuture<ImportReport> importFileAsync(String jobName, Path file) {
+        boolean json = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jsonl");
+        claim(jobName);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try (InputStream in = Files.newInputStream(file)) {
+                    return run(jobName, in, json);
+                } catch (IOException ex) {
+                    throw new RuntimeException("Cannot read " + file, ex);
+                } finally {
+                    running.remove(jobName);
+                }
+            }, executor);
+        } catch (RuntimeException ex) {
+            running.remove(jobName);
+            throw ex;
+        }
+    }
+
+    /**
+    * Import from a stream on the calling thread.
+    *
+    * @param jobName resume key
+    * @param in UTF-8 input (closed by the caller)
+    * @param jsonLines true for JSON Lines, false for CSV
+    * @return report of this run
+    * @throws IllegalStateException if a job of that name is already running
+    */
+    public ImportReport importStream(String jobName, InputStream in, boolean jsonLines) throws IOException {
+        claim(jobName);
+        try {
+            return run(jobName, in, jsonLines);
+        } finally {
+            running.remove(jobName);
+        }
+    }
+
+    /** @return true while a job of that name runs on this node */
+    public boolean isRunning(String jobName) { return running.contains(jobName); }
+
+    private void claim(String jobName) {
+        if (!running.add(jobName)) {
+            throw new IllegalStateException("Import job " + jobName + " is already running");
+        }
+    }
+
+    /** Run a claimed job while holding its cluster-wide lock. */
+    private ImportReport run(String jobName, InputStream in, boolean jsonLines) throws IOException {
+        try (Connection lockConn = ds.getPrimaryConnection()) {
+            String lock = lockName(jobName);
+            if (!acquire(lockConn, lock)) {
+                LOG.warning("Import job " + jobName + " not started: it is running on another node");
+                throw new IllegalStateException("Import job " + jobName + " is already running on another node");
+            }
+            try {
+                return runLocked(jobName, in, jsonLines);
+            } finally {
+                release(lockConn, lock);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Cannot lock import job " + jobName, ex);
+        }
+    }
+
+    private ImportReport runLocked(String jobName, InputStream in, boolean jsonLines) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        ImportProgress progress = new ImportProgress(jobName);
+        jobs.put(jobName, progress);
+
+        Map<String, Long> employeeIds = new HashMap<>();
+        try {
+            long resumeAfter = openJob(jobName);
+            progress.setResumedFromLine(resumeAfter);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<PendingSheet> chunk = new ArrayList<>();
+            int rowsInChunk = 0;
+            PendingSheet current = null;
+            String raw;
+            long lineNo = 0;
+            while ((raw = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo <= resumeAfter || raw.isBlank()) continue;
+                if (!jsonLines && lineNo == 1 && isCsvHeader(raw)) continue;
+
+                Line line;
+                try {
+                    line = jsonLines ? parseJson(raw) : parseCsv(raw);
+                    line.lineNo = lineNo;
+                } catch (IllegalArgumentException | JsonException | DateTimeParseException ex) {
+                    report.addError(lineNo, ex.getMessage());
+                    continue;
+                }
+
+                if (current != null && !current.sameSheet(line)) {
+                    chunk.add(current);
+                    rowsInChunk += current.rows.size();
+                    current = null;
+                    if (rowsInChunk >= chunkRows) {
+                        flush(jobName, chunk, employeeIds, report, progress);
+                        chunk.clear();
+                        rowsInChunk = 0;
+                    }
+                }
+                if (current == null) current = new PendingSheet(line);
+                current.rows.add(line);
+                current.lastLine = lineNo;
+            }
+            if (current != null) chunk.add(current);
+            if (!chunk.isEmpty()) flush(jobName, chunk, employeeIds, report, progress);
+
+            finishJob(jobName, "DONE");
+            progress.setStatus("DONE");
+        } catch (IOException | RuntimeException ex) {
+            progress.setStatus("FAILED");
+            finishJob(jobName, "FAILED");
+            LOG.log(Level.WARNING, "Timesheet import " + jobName + " failed; re-run to resume", ex);
+            throw ex;
+        } finally {
+            progress.setErrorCount(report.getErrorCount());
+            report.setElapsedMillis(System.currentTimeMillis() - started);
+        }
+        return report;
+    }
+
+    /** @return progress of jobs run on this node since startup */
+    public Collection<ImportProgress> getJobs() {
+        return Collections.unmodifiableCollection(jobs.values());
+    }
+
+    // ---------------- Parsing ----------------
+
+    /** @return true if the line names the CSV columns (notes optional), in any case */
+    private static boolean isCsvHeader(String raw) {
+        List<String> f = CsvParser.parseLine(raw);
+        if (f.size() != CSV_HEADER.size() && f.size() != CSV_HEADER.size() - 1) return false;
+        for (int i = 0; i < f.size(); i++) {
+            if (!CSV_HEADER.get(i).equals(CsvParser.field(f, i).trim().toLowerCase(Locale.ROOT))) return false;
+        }
+        return true;
+    }
+
+    private static Line parseCsv(String raw) {
+        List<String> f = CsvParser.parseLine(raw);
+        if (f.size() < 11) throw new IllegalArgumentException("Expected at least 11 columns, got " + f.size());
+        Line l = new Line();
+        l.user = require(CsvParser.field(f, 0), "user_name");
+        l.endDate = friday(LocalDate.parse(CsvParser.field(f, 1)));
+        l.projectId = parseInt(CsvParser.field(f, 2), "project_id");
+        l.wp = CsvParser.field(f, 3);
+        l.hours = new float[7];
+        for (int d = 0; d < 7; d++) l.hours[d] = parseHours(CsvParser.field(f, 4 + d));
+        l.notes = emptyToNull(CsvParser.field(f, 11));
+        return l;
+    }
+
+    private static Line parseJson(String raw) {
+        JsonObject o;
+        try (JsonReader r = Json.createReader(new StringReader(raw))) {
+            o = r.readObject();
+        }
+        Line l = new Line();
+        l.user = require(o.getString("user", ""), "user");
+        l.endDate = friday(LocalDate.parse(o.getString("endDate", "")));
+        l.projectId = o.getInt("projectId", 0);
+        l.wp = o.getString("wp", "");
+        JsonArray h = o.getJsonArray("hours");
+        if (h == null || h.size() != 7) throw new IllegalArgumentException("hours must have 7 entries");
+        l.hours = new float[7];
+        for (int d = 0; d < 7; d++) l.hours[d] = checkHours((float) h.getJsonNumber(d).doubleValue());
+        l.notes = emptyToNull(o.getString("notes", ""));
+        return l;
+    }
+
+    private static LocalDate friday(LocalDate endDate) {
+        if (endDate.getDayOfWeek() != DayOfWeek.FRIDAY) {
+            throw new IllegalArgumentException("End date " + endDate + " is not a Friday");
+        }
+        return endDate;
+    }
+
+    private static String require(String v, String field) {
+        if (v == null || v.isBlank()) throw new IllegalArgumentException(field + " is required");
+        return v.trim();
+    }
+
+    private static int parseInt(String v, String field) {
+        try {
+            return v.isEmpty() ? 0 : Integer.parseInt(v);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + v);
+        }
+    }
+
+    private static float parseHours(String v) {
+        if (v.isEmpty()) return 0f;
+        try {
+            return checkHours(Float.parseFloat(v));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Not a number of hours: " + v);
+        }
+    }
+
+    private static float checkHours(float h) {
+        if (h < 0f || h > 24f) throw new IllegalArgumentException("Hours must be between 0 and 24: " + h);
+        return h;
+    }
+
+    private static String emptyToNull(String s) {
+        return (s == null || s.isEmpty()) ? null : s;
+    }
+
+    // ---------------- Writing ----------------
+
+    /** Resolve employees, then write one chunk and its progress marker in one transaction. */
+    private void flush(String jobName, List<PendingSheet> chunk, Map<String, Long> employeeIds,
+                       ImportReport report, ImportProgress progress) {
+        resolveEmployees(chunk, employeeIds);
+
+        List<PendingSheet> known = new ArrayList<>(chunk.size());
+        for (PendingSheet s : chunk) {
+            if (employeeIds.containsKey(s.userKey)) {
+                known.add(s);
+            } else {
+                report.addError(s.firstLine, "Unknown user: " + s.rows.get(0).user);
+            }
+        }
+        long lastLine = chunk.get(chunk.size() - 1).lastLine;
+
+        final String insHeader = """
+            INSERT INTO timesheets (employee_id, end_date, overtime_deci, flextime_deci)
+            VALUES (?, ?, ?, ?)
+        """;
+        final String insRow = """
+            INSERT INTO timesheet_rows (timesheet_id, line_no, project_id, work_package_id, packed_hours, notes)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+        final String mark = """
+            UPDATE import_jobs
+               SET committed_line = ?, sheets_written = sheets_written + ?, rows_written = rows_written + ?
+             WHERE job_name = ?
+        """;
+
+        int rowCount = 0;
+        List<PendingSheet> writable;
+        try (Connection c = ds.getPrimaryConnection()) {
+            c.setAutoCommit(false);
+            try {
+                writable = withoutExistingWeeks(c, known, employeeIds, report);
+                Map<Long, WeeklyBalance> deltas = new HashMap<>();
+                List<WeeklyBalance> weeks = new ArrayList<>(writable.size());
+                List<Long> ids = new ArrayList<>(writable.size());
+                try (PreparedStatement ps = c.prepareStatement(insHeader, Statement.RETURN_GENERATED_KEYS)) {
+                    for (PendingSheet s : writable) {
+                        long empId = employeeIds.get(s.userKey);
+                        WeeklyBalance week = BalanceEngine.fromTotal(totalTenths(s));
+                        weeks.add(week);
+                        deltas.merge(empId, week, (a, b) -> new WeeklyBalance(
+                            a.getOvertimeDeci() + b.getOvertimeDeci(), a.getFlextimeDeci() + b.getFlextimeDeci()));
+                        ps.setLong(1, empId);
+                        ps.setDate(2, java.sql.Date.valueOf(s.endDate));
+                        ps.setInt(3, week.getOvertimeDeci());
+                        ps.setInt(4, week.getFlextimeDeci());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) ids.add(keys.getLong(1));
+                    }
+                }
+                if (ids.size() != writable.size()) {
+                    throw new SQLException("Expected " + writable.size() + " generated keys, got " + ids.size());
+                }
+
+                try (PreparedStatement ps = c.prepareStatement(insRow)) {
+                    for (int i = 0; i < writable.size(); i++) {
+                        int lineNo = 1;
+                        for (Line l : writable.get(i).rows) {
+                            ps.setLong(1, ids.get(i));
+                            ps.setInt(2, lineNo++);
+                            ps.setInt(3, l.projectId);
+                            ps.setString(4, l.wp == null ? "" : l.wp);
+                            ps.setLong(5, TimeSheetRepo.packHours(l.hours));
+                            ps.setString(6, l.notes);
+                            ps.addBatch();
+                            if (++rowCount % 1000 == 0) ps.executeBatch();
+                        }
+                    }
+                    ps.executeBatch();
+                }
+
+                for (Map.Entry<Long, WeeklyBalance> d : deltas.entrySet()) {
+                    balanceEngine.applyDelta(c, d.getKey(), d.getValue());
+                }
+
+                try (PreparedStatement ps = outbox.prepareBatch(c)) {
+                    for (int i = 0; i < writable.size(); i++) {
+                        PendingSheet s = writable.get(i);
+                        outbox.bind(ps, ChangeEvent.Type.SHEET_CREATED, String.valueOf(ids.get(i)),
+                            TimeSheetRepo.sheetPayload(employeeIds.get(s.userKey), s.endDate, weeks.get(i), s.rows.size()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                try (PreparedStatement ps = c.prepareStatement(mark)) {
+                    ps.setLong(1, lastLine);
+                    ps.setInt(2, writable.size());
+                    ps.setInt(3, rowCount);
+                    ps.setString(4, jobName);
+                    ps.executeUpdate();
+                }
+                c.commit();
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Import chunk ending at line " + lastLine + " failed", ex);
+        }
+        report.addImported(rowCount);
+        progress.chunkCommitted(lastLine, writable.size(), rowCount);
+        progress.setErrorCount(report.getErrorCount());
+    }
+
+    /**
+    * Drop sheets whose employee already has a sheet for that week, live or archived, or
+    * that repeat a week earlier in the chunk, reporting each of their lines. One query per
+    * 1000 sheets, on the chunk's transaction.
+    */
+    private static List<PendingSheet> withoutExistingWeeks(Connection c, List<PendingSheet> sheets,
+            Map<String, Long> employeeIds, ImportReport report) throws SQLException {
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < sheets.size(); from += 1000) {
+            List<PendingSheet> part = sheets.subList(from, Math.min(from + 1000, sheets.size()));
+            String pairs = String.join(",", Collections.nCopies(part.size(), "(?,?)"));
+            String sql = """
+                SELECT employee_id, end_date FROM %s WHERE (employee_id, end_date) IN (%s)
+                UNION
+                SELECT employee_id, end_date FROM %s WHERE (employee_id, end_date) IN (%s)
+            """.formatted(TimeSheetRepo.HOT_SHEETS, pairs, TimeSheetRepo.ARCHIVE_SHEETS, pairs);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                int p = 1;
+                for (int round = 0; round < 2; round++) {
+                    for (PendingSheet s : part) {
+                        ps.setLong(p++, employeeIds.get(s.userKey));
+                        ps.setDate(p++, java.sql.Date.valueOf(s.endDate));
+                    }
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) taken.add(rs.getLong(1) + "/" + rs.getDate(2).toLocalDate());
+                }
+            }
+        }
+        List<PendingSheet> writable = new ArrayList<>(sheets.size());
+        for (PendingSheet s : sheets) {
+            // add() also catches a week repeated within this chunk
+            if (taken.add(employeeIds.get(s.userKey) + "/" + s.endDate)) {
+                writable.add(s);
+            } else {
+                for (Line l : s.rows) {
+                    report.addError(l.lineNo, "A timesheet of " + l.user + " for the week ending "
+                            + s.endDate + " already exists");
+                }
+            }
+        }
+        return writable;
+    }
+
+    /** Weekly total in tenths, rounded and capped like the packed format. */
+    private static int totalTenths(PendingSheet s) {
+        int total = 0;
+        for (Line l : s.rows) {
+            for (float h : l.hours) total += Math.min(255, Math.max(0, Math.round(h * 10f)));
+        }
+        return total;
+    }
+
+    /** Look up the ids of all not-yet-known users of a chunk with one query. */
+    private void resolveEmployees(List<PendingSheet> chunk, Map<String, Long> employeeIds) {
+        if (employeeIds.size() > EMPLOYEE_CACHE_MAX) employeeIds.clear();
+        List<String> unknown = chunk.stream()
+            .map(s -> s.userKey)
+            .filter(k -> !employeeIds.containsKey(k))
+            .distinct()
+            .toList();
+        for (int from = 0; from < unknown.size(); from += 1000) {
+            List<String> part = unknown.subList(from, Math.min(from + 1000, unknown.size()));
+            String sql = "SELECT employee_id, user_name FROM employees WHERE user_name IN ("
+                    + String.join(",", Collections.nCopies(part.size(), "?")) + ")";
+            try (Connection c = ds.getPrimaryConnection();
+                 PreparedStatement ps = c.prepareStatement(sql)) {
+                for (int i = 0; i < part.size(); i++) ps.setString(i + 1, part.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        employeeIds.put(rs.getString(2).toLowerCase(Locale.ROOT), rs.getLong(1));
+                    }
+                }
+            } catch (SQLException ex) {
+                throw new RuntimeException("Employee lookup failed during import", ex);
+            }
+        }
+    }
+
+    // ---------------- Job bookkeeping ----------------
+
+    /** Create or reopen a job row. @return last committed line (0 for a new job) */
+    private long openJob(String jobName) {
+        final String upsert = """
+            INSERT INTO import_jobs (job_name, status) VALUES (?, 'RUNNING')
+            ON DUPLICATE KEY UPDATE status = 'RUNNING'
+        """;
+        try (Connection c = ds.getPrimaryConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(upsert)) {
+                ps.setString(1, jobName);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT committed_line FROM import_jobs WHERE job_name = ?")) {
+                ps.setString(1, jobName);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Cannot open import job " + jobName, ex);
+        }
+    }
+
+    /**
+    * @return <code>LOCK_PREFIX</code> and the job name, or a SHA-256 of a job name too long
+    *         for MySQL's 64-character lock names
+    */
+    private static String lockName(String jobName) {
+        String name = LOCK_PREFIX + jobName;
+        if (name.length() <= MAX_LOCK_NAME) return name;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jobName.getBytes(StandardCharsets.UTF_8));
+            return (LOCK_PREFIX + HexFormat.of().formatHex(digest)).substring(0, MAX_LOCK_NAME);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static boolean acquire(Connection c, String lock) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, lock);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection c, String lock) {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, lock);
+            ps.executeQuery().close();
+        } catch (SQLException ignored) {
+            // The lock is released with the session anyway.
+        }
+    }
+
+    private void finishJob(String jobName, String status) {
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement("UPDATE import_jobs SET status = ? WHERE job_name = ?")) {
+            ps.setString(1, status);
+            ps.setString(2, jobName);
+            ps.executeUpdate();
+        } catch (SQLException ex) {
+            LOG.log(Level.WARNING, "Cannot update import job " + jobName, ex);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.faces.context.FacesContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import ca.bcit.infosys.timesheet.*;
@@ -25,11 +26,12 @@ import ca.bcit.infosys.employee.*;
  */
 @Named("timesheetListBean")
 @ConversationScoped
+@ConversationTracked
 public class TimesheetListBean implements Serializable{
 	
     /** Repository of all available timesheets (acts as in-memory database). */
 	@Inject
-	private TimeSheetRepo timesheets;
+	private TimesheetStore timesheets;
 	
 	/** The current logged-in user (used to filter timesheets). */
 	@Inject 
@@ -41,6 +43,9 @@ public class TimesheetListBean implements Serializable{
 	
 	/** The currently selected timesheet in the list view. */
 	private Timesheet selected;
+
+	/** Whether the list also shows archived (closed) years; off unless asked for. */
+	private boolean includeArchive;
 	
 	/**
      * Begins a new conversation if none exists.
@@ -73,17 +78,35 @@ public class TimesheetListBean implements Serializable{
      *   <li>If the user is an admin, returns all timesheets in the system.</li>
      *   <li>If the user is a regular employee, returns only their own timesheets.</li>
      * </ul>
+     * Archived years are appended only when {@link #isIncludeArchive()} is set.
      *
      * @return list of timesheets to display in the UI
      */
 	public List<Timesheet> getMyTimesheets() {
         begin();
+        List<Timesheet> result;
         if (currentUser.isAdmin()) {
-            return timesheets.getTimesheets();
+            result = new ArrayList<>(timesheets.getTimesheets());
+            if (includeArchive) result.addAll(timesheets.getArchivedTimesheets());
         } else {
-            return timesheets.getTimesheets(currentUser.getEmployee());
+            result = new ArrayList<>(timesheets.getTimesheets(currentUser.getEmployee()));
+            if (includeArchive) result.addAll(timesheets.getArchivedTimesheets(currentUser.getEmployee()));
         }
+        return result;
     }
+
+	/** @return true if archived years are listed too */
+	public boolean isIncludeArchive() { return includeArchive; }
+
+	/**
+     * Shows or hides the archived years in the list.
+     *
+     * @return null to stay on the current view
+     */
+	public String toggleArchive() {
+		includeArchive = !includeArchive;
+		return null;
+	}
 	
 	/**
      * Handles navigation to a specific timesheet’s detail view.
@@ -0,0 +1,320 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+ * The caller's timesheets over JSON (<code>/api/timesheets</code>).
+ *
+ * <p><code>GET ?from=YYYY-MM-DD&amp;to=YYYY-MM-DD</code> returns every week in the range
+ * (live and archived) in one streamed response, written row by row from a single query:
+ * <pre>[{"id":12,"endDate":"2025-03-07","version":3,"status":"DRAFT","archived":false,
+ *   "rows":[{"p":7,"wp":"A1","h":[0,0,80,80,80,80,75],"n":""}]}]</pre>
+ * Hours are in tenths, Saturday to Friday.</p>
+ *
+ * <p><code>POST /batch</code> takes up to {@value #MAX_BATCH} sheets
+ * (<code>[{"endDate":…,"rows":[{"p":…,"wp":…,"h":[…],"n":…}]}]</code>, same row format),
+ * checks each with {@link TimesheetValidator} and saves them all in one transaction via
+ * {@link TimeSheetRepo#saveWeeks}. Any invalid sheet, including one for a week that is
+ * already closed, rejects the whole batch with 422.</p>
+ *
+ * <p><code>POST /{id}/submit</code> hands one of the caller's sheets in for approval.
+ * Admins approve with <code>POST /approve</code>, either listed sheets
+ * (<code>{"ids":[…]}</code>) or everything submitted in a range
+ * (<code>{"from":…,"to":…,"user":"prefix"}</code>). Sheets that are submitted or approved
+ * cannot be saved or submitted again: 409.</p>
+ */
+@Path("/timesheets")
+@RequestScoped
+public class TimesheetResource {
+
+    /** Largest range for one GET, in weeks (two years). */
+    private static final int MAX_WEEKS = 105;
+
+    /** Largest number of sheets per batch submit. */
+    static final int MAX_BATCH = 53;
+
+    private static final int MAX_ROWS = 100;
+
+    @Inject
+    private CurrentUser currentUser;
+
+    @Inject
+    private TimesheetStore timeSheetRepo;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private AuditLog audit;
+
+    @Inject
+    private DbGuard guard;
+
+    /**
+    * @param from first week end date (inclusive); default: twelve weeks back
+    * @param to last week end date (inclusive); default: this week
+    */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response range(@QueryParam("from") String from, @QueryParam("to") String to) {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return SessionResource.unauthorized();
+        LocalDate end, start;
+        try {
+            end = to == null ? LocalDate.now().with(DayOfWeek.FRIDAY) : LocalDate.parse(to);
+            start = from == null ? end.minusWeeks(12) : LocalDate.parse(from);
+        } catch (DateTimeParseException ex) {
+            return badRequest("Dates must be YYYY-MM-DD");
+        }
+        if (start.isAfter(end) || ChronoUnit.WEEKS.between(start, end) > MAX_WEEKS) {
+            return badRequest("Range must be ascending and at most " + MAX_WEEKS + " weeks");
+        }
+        final String user = me.getUserName();
+        guard.checkAvailable(); // the body is written after the 200 is decided
+        StreamingOutput body = out -> guard.call(DbWork.Kind.REPORT, "TimesheetResource.range", () -> {
+            try (JsonGenerator g = Json.createGenerator(out)) {
+                g.writeStartArray();
+                writeRange(g, user, start, end);
+                g.writeEnd();
+            }
+            return null;
+        });
+        return Response.ok(body).build();
+    }
+
+    /**
+    * @param batch sheets to save
+    * @return 200 <code>{"ids":[…]}</code> in input order, or 422 <code>{"errors":[{"index":i,"messages":[…]}]}</code>
+    */
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submit(JsonArray batch) {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return SessionResource.unauthorized();
+        if (batch.isEmpty() || batch.size() > MAX_BATCH) {
+            return badRequest("Submit between 1 and " + MAX_BATCH + " sheets");
+        }
+
+        List<Timesheet> sheets = new ArrayList<>(batch.size());
+        JsonArrayBuilder errors = Json.createArrayBuilder();
+        boolean valid = true;
+        Set<LocalDate> weeks = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            List<String> messages = new ArrayList<>();
+            Timesheet ts = null;
+            try {
+                ts = toTimesheet(me, batch.getJsonObject(i));
+                if (ts.getEndDate().getDayOfWeek() != DayOfWeek.FRIDAY) messages.add("endDate must be a Friday");
+                if (!weeks.add(ts.getEndDate())) messages.add("Week " + ts.getEndDate() + " appears twice");
+                messages.addAll(TimesheetValidator.checkEditWindow(ts.getEndDate()));
+                messages.addAll(TimesheetValidator.validate(ts.getDetails()));
+            } catch (RuntimeException ex) {
+                messages.add("Malformed sheet: " + ex.getMessage());
+            }
+            if (!messages.isEmpty()) {
+                valid = false;
+                JsonArrayBuilder m = Json.createArrayBuilder();
+                messages.forEach(m::add);
+                errors.add(Json.createObjectBuilder().add("index", i).add("messages", m));
+            }
+            sheets.add(ts);
+        }
+        if (!valid) {
+            return Response.status(422).type(MediaType.APPLICATION_JSON)
+                .entity(Json.createObjectBuilder().add("errors", errors).build()).build();
+        }
+
+        List<Long> ids;
+        try {
+            ids = timeSheetRepo.saveWeeks(me, sheets);
+        } catch (IllegalStateException ex) {
+            return conflict(ex.getMessage());
+        }
+        JsonArrayBuilder out = Json.createArrayBuilder();
+        ids.forEach(out::add);
+        return Response.ok(Json.createObjectBuilder().add("ids", out).build()).build();
+    }
+
+    /** @return 204, or 409 if the sheet is not the caller's or cannot be submitted */
+    @POST
+    @Path("/{id}/submit")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submitForApproval(@PathParam("id") long id) {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return SessionResource.unauthorized();
+        try {
+            timeSheetRepo.submit(me, id);
+        } catch (IllegalStateException ex) {
+            audit.record(me.getUserName(), AuditLog.TIMESHEET_SUBMIT, String.valueOf(id), false);
+            return conflict(ex.getMessage());
+        }
+        audit.record(me.getUserName(), AuditLog.TIMESHEET_SUBMIT, String.valueOf(id), true);
+        return Response.noContent().build();
+    }
+
+    /**
+    * Admin only.
+    *
+    * @param req <code>{"ids":[…]}</code>, or <code>{"from":…,"to":…,"user":…}</code> (user optional)
+    * @return 200 <code>{"approved":n}</code>; sheets not currently submitted are skipped
+    */
+    @POST
+    @Path("/approve")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response approve(JsonObject req) {
+        Employee me = currentUser.getEmployee();
+        if (me == null) return SessionResource.unauthorized();
+        if (!currentUser.isAdmin()) return Response.status(Response.Status.FORBIDDEN).build();
+        int approved;
+        String target;
+        try {
+            if (req.containsKey("ids")) {
+                List<Long> ids = new ArrayList<>();
+                for (JsonValue v : req.getJsonArray("ids")) ids.add(((JsonNumber) v).longValueExact());
+                approved = timeSheetRepo.approve(ids, me.getUserName());
+                target = ids.size() + " ids";
+            } else {
+                LocalDate from = LocalDate.parse(req.getString("from"));
+                LocalDate to = LocalDate.parse(req.getString("to"));
+                if (from.isAfter(to)) return badRequest("Range must be ascending");
+                String user = req.getString("user", null);
+                approved = timeSheetRepo.approveSubmitted(from, to, user, me.getUserName());
+                target = from + ".." + to + (user == null ? "" : " " + user + "*");
+            }
+        } catch (IllegalStateException ex) {
+            return conflict(ex.getMessage());
+        } catch (RuntimeException ex) {
+            return badRequest("Send {\"ids\":[…]} or {\"from\":\"YYYY-MM-DD\",\"to\":\"YYYY-MM-DD\"}");
+        }
+        audit.record(me.getUserName(), AuditLog.TIMESHEET_APPROVE, target + ": " + approved, true);
+        return Response.ok(Json.createObjectBuilder().add("approved", approved).build()).build();
+    }
+
+    // ---------------- Internals ----------------
+
+    /** Stream the sheets of one employee and range, grouping the ordered rows by sheet. */
+    private void writeRange(JsonGenerator g, String user, LocalDate start, LocalDate end) {
+        final String sql = """
+            SELECT s.timesheet_id, s.end_date, s.version, s.status, s.archived,
+                   r.project_id, r.work_package_id, r.packed_hours, r.notes
+            FROM employees e
+            JOIN (SELECT timesheet_id, employee_id, end_date, version, status, 0 AS archived FROM %s
+                  UNION ALL
+                  SELECT timesheet_id, employee_id, end_date, version, status, 1 AS archived FROM %s) s
+              ON s.employee_id = e.employee_id
+            LEFT JOIN (SELECT timesheet_id, line_no, project_id, work_package_id, packed_hours, notes FROM %s
+                       UNION ALL
+                       SELECT timesheet_id, line_no, project_id, work_package_id, packed_hours, notes FROM %s) r
+              ON r.timesheet_id = s.timesheet_id
+            WHERE e.user_name = ? AND e.deleted_at IS NULL
+              AND s.end_date BETWEEN ? AND ?
+            ORDER BY s.end_date, s.timesheet_id, r.line_no
+        """.formatted(TimeSheetRepo.HOT_SHEETS, TimeSheetRepo.ARCHIVE_SHEETS,
+                      TimeSheetRepo.HOT_ROWS, TimeSheetRepo.ARCHIVE_ROWS);
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, user);
+            ps.setDate(2, java.sql.Date.valueOf(start));
+            ps.setDate(3, java.sql.Date.valueOf(end));
+            ps.setFetchSize(Integer.MIN_VALUE); // stream rows (MySQL Connector/J)
+            try (ResultSet rs = ps.executeQuery()) {
+                long current = -1;
+                while (rs.next()) {
+                    long id = rs.getLong("timesheet_id");
+                    if (id != current) {
+                        if (current != -1) g.writeEnd().writeEnd();
+                        current = id;
+                        g.writeStartObject()
+                            .write("id", id)
+                            .write("endDate", rs.getDate("end_date").toString())
+                            .write("version", rs.getLong("version"))
+                            .write("status", rs.getString("status"))
+                            .write("archived", rs.getInt("archived") == 1)
+                            .writeStartArray("rows");
+                    }
+                    long packed = rs.getLong("packed_hours");
+                    if (rs.wasNull()) continue; // sheet without rows
+                    g.writeStartObject()
+                        .write("p", rs.getInt("project_id"))
+                        .write("wp", rs.getString("work_package_id"));
+                    g.writeStartArray("h");
+                    for (int d = 0; d < 7; d++) g.write((int) ((packed >> (d * 8)) & 0xFFL));
+                    g.writeEnd();
+                    String notes = rs.getString("notes");
+                    g.write("n", notes == null ? "" : notes).writeEnd();
+                }
+                if (current != -1) g.writeEnd().writeEnd();
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("timesheet range failed for " + user, ex);
+        }
+    }
+
+    /** Build an unsaved sheet from its JSON form; hours arrive in tenths. */
+    private static Timesheet toTimesheet(Employee me, JsonObject o) {
+        Timesheet ts = new Timesheet(me, LocalDate.parse(o.getString("endDate")));
+        ts.getDetails().clear();
+        JsonArray rows = o.getJsonArray("rows");
+        if (rows.size() > MAX_ROWS) throw new IllegalArgumentException("more than " + MAX_ROWS + " rows");
+        for (JsonValue v : rows) {
+            JsonObject r = v.asJsonObject();
+            TimesheetRow row = new TimesheetRow();
+            row.setProjectId(r.getInt("p", 0));
+            row.setWorkPackageId(r.getString("wp", ""));
+            JsonArray h = r.getJsonArray("h");
+            float[] hours = new float[7];
+            for (int d = 0; d < 7; d++) hours[d] = d < h.size() ? h.getInt(d) / 10f : 0f;
+            row.setHours(hours);
+            row.setNotes(r.getString("n", ""));
+            ts.getDetails().add(row);
+        }
+        return ts;
+    }
+
+    private static Response conflict(String message) {
+        return Response.status(Response.Status.CONFLICT).type(MediaType.APPLICATION_JSON)
+            .entity(Json.createObjectBuilder().add("error", message).build()).build();
+    }
+
+    private static Response badRequest(String message) {
+        return Response.status(Response.Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON)
+            .entity(Json.createObjectBuilder().add("error", message).build()).build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.corejsf;
+
+import java.util.Locale;
+
+/**
+ * Workflow state of a timesheet, stored in <code>timesheets.status</code>.
+ *
+ * <pre>
+ * DRAFT --submit--&gt; SUBMITTED --approve--&gt; APPROVED (final)
+ *                        |
+ *                        +----reject----&gt; REJECTED --submit--&gt; SUBMITTED
+ * </pre>
+ * Only drafts and rejected sheets can be edited. Approved sheets never change again,
+ * which is why {@link RepoCache} keeps them without expiry.
+ */
+public enum TimesheetStatus {
+    DRAFT,
+    SUBMITTED,
+    APPROVED,
+    REJECTED;
+
+    /** @return true if hours may still be changed */
+    public boolean isEditable() {
+        return this == DRAFT || this == REJECTED;
+    }
+
+    /** @return true if the sheet can never change again */
+    public boolean isFinal() {
+        return this == APPROVED;
+    }
+
+    /** @return true if the workflow allows going from this state to {@code next} */
+    public boolean canMoveTo(TimesheetStatus next) {
+        return switch (next) {
+            case SUBMITTED -> isEditable();
+            case APPROVED, REJECTED -> this == SUBMITTED;
+            case DRAFT -> false;
+        };
+    }
+
+    /** @return lower-case name for messages ("approved") */
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,104 @@
+package com.corejsf;
+
+import java.time.LocalDate;
+import java.util.List;
+import ca.bcit.infosys.timesheet.*;
+import ca.bcit.infosys.employee.*;
+
+/**
+* Storage SPI for timesheets: the library's {@link TimesheetCollection} plus the operations
+* the beans, jobs and REST resources need.
+* <p>
+* Beans depend on this interface, never on an implementation. The default backend is
+* {@link TimeSheetRepo} (JDBC/MySQL); {@link InMemoryTimesheetStore} is a CDI alternative
+* selected in <code>beans.xml</code>. Both are named <code>timeSheetRepo</code> so pages
+* resolve whichever is enabled.
+*/
+public interface TimesheetStore extends TimesheetCollection {
+
+    /** @return the current user's best-matching current sheet */
+    Timesheet getMyCurrentTimesheet();
+
+    /** @return all sheets of the current user, newest end date first */
+    List<Timesheet> getMyTimesheets();
+
+    /** @return the current user's most recently created sheet, or null */
+    Timesheet getMyNewest();
+
+    /**
+    * Insert or update a sheet and its rows; recomputes its weekly overtime/flextime.
+    *
+    * @param ts sheet obtained from this store, or a new one (nullable is a no-op)
+    */
+    void save(Timesheet ts);
+
+    /** As {@link #save(Timesheet)}, updating sheet {@code timesheetId} when it is known. */
+    void save(Timesheet ts, Long timesheetId);
+
+    /**
+    * Save several weeks of one employee atomically; each replaces the sheet with the same
+    * end date or creates it.
+    *
+    * @return timesheet ids, in the order of {@code sheets}
+    * @throws IllegalStateException if one of the weeks is read-only (archived, submitted or approved)
+    */
+    List<Long> saveWeeks(Employee e, List<Timesheet> sheets);
+
+    /** @return all archived sheets (closed years), by employee, newest end date first */
+    List<Timesheet> getArchivedTimesheets();
+
+    /** @return archived sheets (closed years) of {@code e}, newest end date first */
+    List<Timesheet> getArchivedTimesheets(Employee e);
+
+    /** @return a fresh copy of the sheet, or null */
+    Timesheet loadById(Long timesheetId);
+
+    /**
+    * Create this week's sheet from the employee's previous one.
+    *
+    * @return id of this week's sheet, or null if there is no earlier sheet
+    * @throws IllegalStateException if this week's sheet already has entries
+    */
+    Long copyForward(Employee e, boolean withHours, boolean withNotes);
+
+    /**
+    * Give every active employee without one a sheet ending {@code endDate}.
+    *
+    * @return number of sheets created
+    */
+    int precreateWeek(LocalDate endDate, boolean copyForward, boolean withHours, boolean withNotes);
+
+    /** @return id of a sheet obtained from this store, or null if it was never saved */
+    Long idOf(Timesheet ts);
+
+    /** @return workflow state of a sheet obtained from this store; DRAFT if never saved */
+    TimesheetStatus statusOf(Timesheet ts);
+
+    /**
+    * Hand a draft or rejected sheet of {@code e} in for approval.
+    *
+    * @throws IllegalStateException if the sheet is not {@code e}'s or cannot be submitted
+    */
+    void submit(Employee e, Long timesheetId);
+
+    /**
+    * Send a submitted sheet back for changes.
+    *
+    * @throws IllegalStateException if the sheet is not submitted
+    */
+    void reject(Long timesheetId, String actor, String note);
+
+    /** @return number of sheets approved; ids not currently submitted are skipped */
+    int approve(List<Long> ids, String actor);
+
+    /**
+    * Approve every submitted sheet ending in {@code [from, to]} whose owner's user name
+    * starts with {@code userPrefix} (null for everyone).
+    *
+    * @return number of sheets approved
+    */
+    int approveSubmitted(LocalDate from, LocalDate to, String userPrefix, String actor);
+
+    /** @return number of submitted sheets ending in {@code [from, to]} */
+    int countSubmitted(LocalDate from, LocalDate to);
+}
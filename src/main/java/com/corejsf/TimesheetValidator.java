@@ -0,0 +1,140 @@
+package com.corejsf;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import ca.bcit.infosys.timesheet.TimesheetRow;
+
+/**
+ * Timesheet rules shared by the edit page ({@link TimesheetEditBean}) and the
+ * REST API ({@link TimesheetResource}).
+ *
+ * <ul>
+ * <li>each entry between 0 and 24 hours;</li>
+ * <li>at most 24 hours per day and 168 hours per week, over all rows;</li>
+ * <li>each (project, work package) pair at most once; rows with project 0 and no
+ *     work package are spare rows and ignored;</li>
+ * <li>only weeks ending this Friday or later can be changed.</li>
+ * </ul>
+ * Every method returns the user-facing messages of the violated rules (empty when valid).
+ */
+public final class TimesheetValidator {
+
+    public static final double MAX_DAY_HOURS = 24.0;
+    public static final double MAX_WEEK_HOURS = 168.0;
+
+    private static final String[] DAY_NAMES = {"Sat", "Sun", "Mon", "Tue", "Wed", "Thu", "Fri"};
+
+    private TimesheetValidator() {
+    }
+
+    /**
+    * @param rows rows of one sheet
+    * @return messages for entries outside 0..24 hours
+    */
+    public static List<String> checkEntries(List<TimesheetRow> rows) {
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            float[] h = rows.get(i).getHours();
+            for (int d = 0; d < 7; d++) {
+                if (h[d] < 0f || h[d] > MAX_DAY_HOURS) {
+                    errors.add(String.format("Row %d, %s: hours must be between 0 and 24.", i + 1, DAY_NAMES[d]));
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+    * @param hours per row, seven values Sat..Fri (already rounded to tenths)
+    * @return messages for days over 24 hours and a week over 168 hours
+    */
+    public static List<String> checkTotals(List<double[]> hours) {
+        double[] dayTotals = new double[7];
+        for (double[] week : hours) {
+            for (int d = 0; d < 7; d++) dayTotals[d] += week[d];
+        }
+        List<String> errors = new ArrayList<>();
+        double weekTotal = 0;
+        for (int d = 0; d < 7; d++) {
+            weekTotal += dayTotals[d];
+            if (dayTotals[d] > MAX_DAY_HOURS + 1e-6) {
+                errors.add(String.format("Total for %s exceeds 24 hours (%.1f h).", DAY_NAMES[d], dayTotals[d]));
+            }
+        }
+        if (weekTotal > MAX_WEEK_HOURS + 1e-6) {
+            errors.add(String.format("Weekly total exceeds 168 hours (%.1f h).", weekTotal));
+        }
+        return errors;
+    }
+
+    /**
+    * @param rows rows of one sheet
+    * @return one message per repeated (project, work package) pair
+    */
+    public static List<String> checkUniqueProjectWp(List<TimesheetRow> rows) {
+        List<String> errors = new ArrayList<>();
+        Map<String, Integer> firstSeenAtRow = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TimesheetRow r = rows.get(i);
+            int projectId = r.getProjectId();
+            String wp = r.getWorkPackageId() == null ? "" : r.getWorkPackageId().trim();
+            if (projectId == 0 && wp.isEmpty()) continue;
+
+            // Work packages compare case-insensitively
+            String key = projectId + "||" + wp.toUpperCase(Locale.ROOT);
+            Integer other = firstSeenAtRow.putIfAbsent(key, i + 1);
+            if (other != null) {
+                errors.add(String.format(
+                    "Duplicate Project/WP: project %d with WP \"%s\" appears in rows %d and %d.",
+                    projectId, wp, other, i + 1));
+            }
+        }
+        return errors;
+    }
+
+    /**
+    * @param endDate week end date of a sheet
+    * @return true if the week can still be changed: it ends this Friday or later
+    */
+    public static boolean isOpen(LocalDate endDate) {
+        return endDate != null && !endDate.isBefore(LocalDate.now().with(DayOfWeek.FRIDAY));
+    }
+
+    /**
+    * @param endDate week end date of a sheet
+    * @return a message if the week is closed for changes
+    */
+    public static List<String> checkEditWindow(LocalDate endDate) {
+        List<String> errors = new ArrayList<>();
+        if (!isOpen(endDate)) {
+            errors.add("Week ending " + endDate + " is closed; only this week and later can be changed.");
+        }
+        return errors;
+    }
+
+    /**
+    * All rules, for callers holding complete rows.
+    *
+    * @param rows rows of one sheet
+    * @return all messages
+    */
+    public static List<String> validate(List<TimesheetRow> rows) {
+        List<String> errors = checkEntries(rows);
+        List<double[]> hours = new ArrayList<>(rows.size());
+        for (TimesheetRow r : rows) {
+            float[] h = r.getHours();
+            double[] week = new double[7];
+            for (int d = 0; d < 7; d++) week[d] = Math.round(h[d] * 10.0) / 10.0;
+            hours.add(week);
+        }
+        errors.addAll(checkTotals(hours));
+        errors.addAll(checkUniqueProjectWp(rows));
+        return errors;
+    }
+}
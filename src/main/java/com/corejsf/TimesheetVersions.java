@@ -0,0 +1,74 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Cheap version stamps for conditional GET, read with one indexed query and without
+ * loading any {@link ca.bcit.infosys.timesheet.Timesheet}.
+ *
+ * <p>An employee's list stamp is the count, newest <code>updated_at</code> and summed
+ * <code>version</code> over their live and archived sheets (covering index
+ * <code>idx_ts_emp_ver</code>), so additions, deletions and edits all change it.</p>
+ */
+@ApplicationScoped
+public class TimesheetVersions {
+
+    /** Version of a resource: opaque tag plus last change time (epoch millis). */
+    public static final class Stamp {
+        private final String tag;
+        private final long lastModified;
+
+        Stamp(String tag, long lastModified) {
+            this.tag = tag;
+            this.lastModified = lastModified;
+        }
+
+        public String getTag() { return tag; }
+
+        public long getLastModified() { return lastModified; }
+    }
+
+    @Inject
+    private DataSourceRouter ds;
+
+    /**
+    * @param userName owner of the list
+    * @return stamp of all their sheets, or null if there is no such employee
+    */
+    public Stamp ofList(String userName) {
+        final String sql = """
+            SELECT e.employee_id,
+                   (SELECT COUNT(*) FROM timesheets t WHERE t.employee_id = e.employee_id)
+                 + (SELECT COUNT(*) FROM timesheets_archive a WHERE a.employee_id = e.employee_id) AS n,
+                   (SELECT COALESCE(SUM(t.version), 0) FROM timesheets t WHERE t.employee_id = e.employee_id)
+                 + (SELECT COALESCE(SUM(a.version), 0) FROM timesheets_archive a WHERE a.employee_id = e.employee_id) AS v,
+                   (SELECT MAX(t.updated_at) FROM timesheets t WHERE t.employee_id = e.employee_id) AS hot_at,
+                   (SELECT MAX(a.updated_at) FROM timesheets_archive a WHERE a.employee_id = e.employee_id) AS archive_at
+            FROM employees e
+            WHERE e.user_name = ? AND e.deleted_at IS NULL
+        """;
+        try (Connection c = ds.getPrimaryConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, userName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                long at = Math.max(millis(rs.getTimestamp("hot_at")), millis(rs.getTimestamp("archive_at")));
+                return new Stamp("l" + rs.getLong("employee_id") + "." + rs.getLong("n")
+                        + "." + rs.getLong("v") + "." + at, at);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("ofList failed", ex);
+        }
+    }
+
+    private static long millis(Timestamp t) {
+        return t == null ? 0L : t.getTime();
+    }
+}
@@ -0,0 +1,249 @@
+package com.corejsf;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.DependsOn;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+* Warms a freshly started node up before it reports ready (<code>/ready</code>, see
+* {@link ReadinessServlet}), so the first users do not pay for cold pools, caches and JIT.
+* <p>
+* Runs once, on its own thread, right after deployment:
+* <ol>
+* <li><b>pool</b> – holds <code>timesheet.warmup.connections</code> (default 10) primary
+*     connections open at once, so the pool creates them now instead of under load, and
+*     validates each with a query;</li>
+* <li><b>repository</b> – calls the hot read paths of {@link EmployeeStore} and
+*     {@link TimesheetStore} <code>timesheet.warmup.iterations</code> times (default 200):
+*     this seeds the admin account, prepares the hot statements, fills {@link RepoCache}
+*     and gives the JIT something to compile;</li>
+* <li><b>pages</b> – once the HTTP listener answers, requests the login page and posts
+*     it back empty <code>timesheet.warmup.pageRequests</code> times (default 20), which
+*     builds the Facelets and PrimeFaces component trees and runs the whole Faces
+*     lifecycle. These requests carry {@value #HEADER} and are not counted by
+*     {@link StartupLatency}.</li>
+* </ol>
+* Every phase is best effort: a failure is logged and the next phase runs, and the whole
+* warm-up gives up after <code>timesheet.warmup.maxMillis</code> (default 2 min) so a
+* database outage cannot keep a pod out of service forever. Disabled with
+* <code>timesheet.warmup.enabled=false</code> (the image build does this for its class
+* data sharing training run).
+*/
+@Singleton
+@Startup
+@DependsOn("SchemaMigrator")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class WarmUp {
+
+    private static final Logger LOG = Logger.getLogger(WarmUp.class.getName());
+
+    /** Marks the requests made by the warm-up itself. */
+    static final String HEADER = "X-Timesheet-Warmup";
+
+    private static final Pattern VIEW_STATE =
+            Pattern.compile("name=\"jakarta\\.faces\\.ViewState\"[^>]*value=\"([^\"]*)\"");
+
+    private final boolean enabled = AppConfig.getBoolean("timesheet.warmup.enabled", true);
+    private final int connections = Math.max(0, AppConfig.getInt("timesheet.warmup.connections", 10));
+    private final int iterations = Math.max(0, AppConfig.getInt("timesheet.warmup.iterations", 200));
+    private final int pageRequests = Math.max(0, AppConfig.getInt("timesheet.warmup.pageRequests", 20));
+    private final String baseUrl = AppConfig.get("timesheet.warmup.baseUrl", "http://127.0.0.1:8080/");
+    private final String userName = AppConfig.get("timesheet.warmup.user", "admin");
+    private final long maxMillis = AppConfig.getLong("timesheet.warmup.maxMillis", 120_000);
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private DataSourceRouter ds;
+
+    @Inject
+    private EmployeeStore employees;
+
+    @Inject
+    private TimesheetStore timesheets;
+
+    private volatile boolean done;
+    private volatile long readyAfterMillis = -1;
+    private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+    private final List<String> failures = new ArrayList<>();
+
+    private long deadline;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            finish();
+            return;
+        }
+        threadFactory.newThread(this::run).start();
+    }
+
+    private void run() {
+        deadline = System.currentTimeMillis() + maxMillis;
+        try {
+            phase("pool", this::fillPool);
+            phase("repository", this::exerciseRepository);
+            phase("pages", this::renderPages);
+        } finally {
+            finish();
+        }
+    }
+
+    private void finish() {
+        readyAfterMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        done = true;
+        if (enabled) LOG.info("Warm-up finished " + readyAfterMillis + " ms after JVM start: " + getPhases());
+    }
+
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    private void phase(String name, Phase phase) {
+        long start = System.nanoTime();
+        try {
+            if (System.currentTimeMillis() < deadline) phase.run();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Warm-up phase " + name + " failed", ex);
+            synchronized (failures) {
+                failures.add(name + ": " + ex);
+            }
+        } finally {
+            synchronized (phaseMillis) {
+                phaseMillis.put(name, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    // ---------------- Phases ----------------
+
+    private void fillPool() throws SQLException {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection c = ds.getPrimaryConnection();
+                held.add(c);
+                try (PreparedStatement ps = c.prepareStatement("SELECT 1");
+                     ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                }
+            }
+        } finally {
+            for (Connection c : held) {
+                try {
+                    c.close();
+                } catch (SQLException ignored) {
+                    // the pool discards it
+                }
+            }
+        }
+    }
+
+    private void exerciseRepository() {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusWeeks(4);
+        for (int i = 0; i < iterations && System.currentTimeMillis() < deadline; i++) {
+            employees.findEmployee(userName);
+            employees.countEmployees(null);
+            employees.findEmployees(null, "name", true, 0, 20);
+            timesheets.countSubmitted(from, to);
+        }
+    }
+
+    private void renderPages() throws IOException, InterruptedException {
+        if (pageRequests == 0) return;
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        URI login = URI.create(baseUrl).resolve("login.xhtml");
+
+        // Deployment is still finishing when this thread starts; wait until the page answers.
+        String page = null;
+        while (page == null) {
+            try {
+                HttpResponse<String> res = client.send(request(login).GET().build(), HttpResponse.BodyHandlers.ofString());
+                if (res.statusCode() == 200) page = res.body();
+            } catch (IOException ex) {
+                if (System.currentTimeMillis() >= deadline) throw ex;
+            }
+            if (page == null) {
+                if (System.currentTimeMillis() >= deadline) throw new IOException(login + " did not answer in time");
+                Thread.sleep(500);
+            }
+        }
+        for (int i = 0; i < pageRequests && System.currentTimeMillis() < deadline; i++) {
+            Matcher m = VIEW_STATE.matcher(page);
+            if (m.find()) {
+                // Empty credentials: fails validation, so the full lifecycle runs without a login.
+                String form = "loginForm=loginForm&loginForm%3Auser=&loginForm%3Apw="
+                        + "&jakarta.faces.ViewState=" + URLEncoder.encode(m.group(1), StandardCharsets.UTF_8);
+                client.send(request(login)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+            page = client.send(request(login).GET().build(), HttpResponse.BodyHandlers.ofString()).body();
+        }
+    }
+
+    private static HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).header(HEADER, "1");
+    }
+
+    // ---------------- Reading ----------------
+
+    /** @return true once the warm-up has run (or is disabled) */
+    public boolean isDone() { return done; }
+
+    /** @return milliseconds from JVM start until this node was ready; -1 before */
+    public long getReadyAfterMillis() { return readyAfterMillis; }
+
+    /** @return time per phase in milliseconds, in run order */
+    public Map<String, Long> getPhases() {
+        synchronized (phaseMillis) {
+            return new LinkedHashMap<>(phaseMillis);
+        }
+    }
+
+    /** @return phases that failed, with their error */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.corejsf;
+
+import java.io.Serializable;
+
+/**
+ * Immutable pair of overtime / flextime figures, stored in decihours (tenths of an hour)
+ * exactly as the <code>overtime_deci</code> / <code>flextime_deci</code> columns hold them.
+ *
+ * <p>Used both for a single week (computed by {@link BalanceEngine#compute}) and for an
+ * employee's running balance read from the <code>employee_balances</code> ledger.</p>
+ */
+public final class WeeklyBalance implements Serializable {
+
+    /** Balance with no overtime and no flextime. */
+    public static final WeeklyBalance ZERO = new WeeklyBalance(0, 0);
+
+    private final int overtimeDeci;
+    private final int flextimeDeci;
+
+    public WeeklyBalance(int overtimeDeci, int flextimeDeci) {
+        this.overtimeDeci = overtimeDeci;
+        this.flextimeDeci = flextimeDeci;
+    }
+
+    /** @return overtime in decihours */
+    public int getOvertimeDeci() { return overtimeDeci; }
+
+    /** @return flextime in decihours (negative when short of a full week) */
+    public int getFlextimeDeci() { return flextimeDeci; }
+
+    /** @return overtime in hours, for display */
+    public float getOvertimeHours() { return overtimeDeci / 10f; }
+
+    /** @return flextime in hours, for display */
+    public float getFlextimeHours() { return flextimeDeci / 10f; }
+
+    /** @return difference {@code this - other}, used to apply incremental ledger updates */
+    public WeeklyBalance minus(WeeklyBalance other) {
+        return new WeeklyBalance(overtimeDeci - other.overtimeDeci, flextimeDeci - other.flextimeDeci);
+    }
+
+    /** @return true when both figures are zero (no ledger write needed) */
+    public boolean isZero() {
+        return overtimeDeci == 0 && flextimeDeci == 0;
+    }
+}
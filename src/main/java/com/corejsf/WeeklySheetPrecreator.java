@@ -0,0 +1,56 @@
+package com.corejsf;
+
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates next week's timesheets for everyone on Friday evening, via
+ * {@link TimeSheetRepo#precreateWeek}.
+ *
+ * <p>Off unless <code>timesheet.precreate.enabled</code> is true. With
+ * <code>timesheet.precreate.copyForward</code> (default true) each new sheet starts with the
+ * projects and work packages of the employee's previous week; hours are copied as well
+ * when <code>timesheet.precreate.copyHours</code> is true.</p>
+ */
+@Singleton
+@Startup
+public class WeeklySheetPrecreator {
+
+    private static final Logger LOG = Logger.getLogger(WeeklySheetPrecreator.class.getName());
+
+    private final boolean enabled = AppConfig.getBoolean("timesheet.precreate.enabled", false);
+    private final boolean copyForward = AppConfig.getBoolean("timesheet.precreate.copyForward", true);
+    private final boolean copyHours = AppConfig.getBoolean("timesheet.precreate.copyHours", false);
+
+    @Inject
+    private TimesheetStore timesheets;
+
+    /** Friday 18:00, for the week ending next Friday. */
+    @Schedule(dayOfWeek = "Fri", hour = "18", minute = "0", persistent = false)
+    public void weekly() {
+        if (!enabled) return;
+        try {
+            int created = run();
+            LOG.info("Pre-created " + created + " timesheets");
+        } catch (RuntimeException ex) {
+            LOG.log(Level.WARNING, "Weekly timesheet pre-creation failed", ex);
+        }
+    }
+
+    /** @return sheets created for the week ending next Friday, with the configured options */
+    public int run() {
+        return timesheets.precreateWeek(nextFriday(), copyForward, copyHours, false);
+    }
+
+    /** @return the week-ending Friday after this week's (same week rule as the repository) */
+    public LocalDate nextFriday() {
+        return LocalDate.now().with(DayOfWeek.FRIDAY).plusWeeks(1);
+    }
+}
@@ -0,0 +1,24 @@
+package com.corejsf;
+
+import jakarta.enterprise.context.SessionScoped;
+
+import java.io.Serializable;
+
+/**
+ * Remembers when the current session last wrote to the primary database.
+ *
+ * <p>{@link DataSourceRouter} keeps the session's reads on the primary for a short window
+ * after a write, so a redirect straight after {@code save} never reads stale replica data.</p>
+ */
+@SessionScoped
+public class WriteToken implements Serializable {
+
+    /** Epoch millis of the last write, 0 if none. */
+    private volatile long lastWriteMillis;
+
+    /** Record a write now. */
+    public void touch() { lastWriteMillis = System.currentTimeMillis(); }
+
+    /** @return epoch millis of the last write, 0 if none */
+    public long getLastWriteMillis() { return lastWriteMillis; }
+}
@@ -0,0 +1,224 @@
+-- Schema as of the first versioned release; the sum of what sql/Assignment 2.sql used to
+-- create and alter. Databases created by that script are recorded as being at this
+-- version without running it (see SchemaMigrator).
+
+CREATE TABLE employees (
+  employee_id   BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  name          VARCHAR(120)    NOT NULL,
+  emp_number    INT             NOT NULL,
+  user_name     VARCHAR(80)     NOT NULL,
+  role          ENUM('ADMIN','USER') NOT NULL DEFAULT 'USER',
+  created_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  deleted_at    TIMESTAMP       NULL DEFAULT NULL,
+  PRIMARY KEY (employee_id),
+  UNIQUE KEY uq_emp_emp_number (emp_number),
+  UNIQUE KEY uq_emp_user_name  (user_name),
+  KEY idx_emp_name (name),
+  KEY idx_emp_deleted (deleted_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE credentials (
+  employee_id   BIGINT UNSIGNED NOT NULL,
+  password_hash VARCHAR(255)    NOT NULL,
+  last_changed  TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (employee_id),
+  CONSTRAINT fk_cred_employee
+    FOREIGN KEY (employee_id)
+    REFERENCES employees(employee_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE timesheets (
+  timesheet_id  BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  employee_id   BIGINT UNSIGNED NOT NULL,
+  end_date      DATE            NOT NULL,
+  overtime_deci INT             NOT NULL DEFAULT 0,
+  flextime_deci INT             NOT NULL DEFAULT 0,
+  created_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  version       INT UNSIGNED    NOT NULL DEFAULT 0,
+  updated_at    TIMESTAMP(3)    NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  status        ENUM('DRAFT','SUBMITTED','APPROVED','REJECTED') NOT NULL DEFAULT 'DRAFT',
+  status_at     TIMESTAMP(3)    NULL,
+  status_by     VARCHAR(80)     NULL,
+  status_note   VARCHAR(255)    NULL,
+  PRIMARY KEY (timesheet_id),
+  CONSTRAINT fk_ts_employee
+    FOREIGN KEY (employee_id)
+    REFERENCES employees(employee_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  KEY idx_ts_emp_date (employee_id, end_date DESC),
+  KEY idx_ts_end (end_date),
+  KEY idx_ts_emp_ver (employee_id, updated_at, version),
+  KEY idx_ts_status (status, end_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE timesheet_rows (
+  row_id          BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  timesheet_id    BIGINT UNSIGNED NOT NULL,
+  line_no         INT             NOT NULL,
+  project_id      INT             NOT NULL DEFAULT 0,
+  work_package_id VARCHAR(64)     NOT NULL DEFAULT '',
+  packed_hours    BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  notes           VARCHAR(512)    NULL,
+  PRIMARY KEY (row_id),
+  CONSTRAINT fk_tsr_timesheet
+    FOREIGN KEY (timesheet_id)
+    REFERENCES timesheets(timesheet_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  KEY idx_tsr_ts (timesheet_id, line_no)
+) ENGINE=InnoDB;
+
+-- Running overtime/flextime balances (decihours), maintained incrementally on save
+CREATE TABLE employee_balances (
+  employee_id   BIGINT UNSIGNED NOT NULL,
+  overtime_deci BIGINT          NOT NULL DEFAULT 0,
+  flextime_deci BIGINT          NOT NULL DEFAULT 0,
+  updated_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (employee_id),
+  CONSTRAINT fk_bal_employee
+    FOREIGN KEY (employee_id)
+    REFERENCES employees(employee_id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+) ENGINE=InnoDB;
+
+-- Heartbeat row used by DataSourceRouter to measure read-replica lag
+CREATE TABLE replication_heartbeat (
+  id       TINYINT     NOT NULL,
+  beat_at  TIMESTAMP(3) NOT NULL,
+  PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+-- Hi/lo sequences (EmpNumberAllocator reserves blocks of emp_number from here)
+CREATE TABLE id_sequences (
+  name      VARCHAR(40) NOT NULL,
+  next_val  INT         NOT NULL,
+  PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+-- Resume cursors for TimesheetImportService (one row per named import job)
+CREATE TABLE import_jobs (
+  job_name        VARCHAR(120)    NOT NULL,
+  status          ENUM('RUNNING','DONE','FAILED') NOT NULL DEFAULT 'RUNNING',
+  committed_line  BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  sheets_written  BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  rows_written    BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  started_at      TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at      TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (job_name)
+) ENGINE=InnoDB;
+
+-- Background purge queue / progress (one row per deleted employee)
+CREATE TABLE purge_jobs (
+  employee_id     BIGINT UNSIGNED NOT NULL,
+  user_name       VARCHAR(80)     NOT NULL,
+  status          ENUM('PENDING','RUNNING','DONE') NOT NULL DEFAULT 'PENDING',
+  sheets_total    BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  sheets_deleted  BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  owner           VARCHAR(64)     NULL,
+  lease_until     TIMESTAMP       NULL DEFAULT NULL,
+  requested_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  finished_at     TIMESTAMP       NULL DEFAULT NULL,
+  PRIMARY KEY (employee_id),
+  KEY idx_purge_status (status, requested_at)
+) ENGINE=InnoDB;
+
+-- Hot/archive split: TimesheetArchiver moves closed years here (ids preserved).
+-- No foreign keys, so archiving and EmployeePurger never trigger large cascades.
+CREATE TABLE timesheets_archive (
+  timesheet_id  BIGINT UNSIGNED NOT NULL,
+  employee_id   BIGINT UNSIGNED NOT NULL,
+  end_date      DATE            NOT NULL,
+  overtime_deci INT             NOT NULL DEFAULT 0,
+  flextime_deci INT             NOT NULL DEFAULT 0,
+  created_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  version       INT UNSIGNED    NOT NULL DEFAULT 0,
+  updated_at    TIMESTAMP(3)    NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  status        ENUM('DRAFT','SUBMITTED','APPROVED','REJECTED') NOT NULL DEFAULT 'DRAFT',
+  status_at     TIMESTAMP(3)    NULL,
+  status_by     VARCHAR(80)     NULL,
+  status_note   VARCHAR(255)    NULL,
+  PRIMARY KEY (timesheet_id),
+  KEY idx_tsa_emp_date (employee_id, end_date DESC),
+  KEY idx_tsa_emp_ver (employee_id, updated_at, version)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED;
+
+CREATE TABLE timesheet_rows_archive (
+  row_id          BIGINT UNSIGNED NOT NULL,
+  timesheet_id    BIGINT UNSIGNED NOT NULL,
+  line_no         INT             NOT NULL,
+  project_id      INT             NOT NULL DEFAULT 0,
+  work_package_id VARCHAR(64)     NOT NULL DEFAULT '',
+  packed_hours    BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  notes           VARCHAR(512)    NULL,
+  PRIMARY KEY (row_id),
+  KEY idx_tsra_ts (timesheet_id, line_no)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED;
+
+-- Transactional outbox: compact change events written with each mutation, relayed by OutboxRelay
+CREATE TABLE outbox_events (
+  seq           BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  event_type    VARCHAR(32)     NOT NULL,
+  aggregate     VARCHAR(16)     NOT NULL,
+  aggregate_key VARCHAR(120)    NOT NULL,
+  payload       JSON            NOT NULL,
+  created_at    TIMESTAMP(3)    NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (seq),
+  KEY idx_outbox_created (created_at)
+) ENGINE=InnoDB;
+
+-- Position of each cluster-wide sink (node-local sinks keep theirs in memory)
+CREATE TABLE outbox_cursors (
+  sink      VARCHAR(40)     NOT NULL,
+  last_seq  BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  PRIMARY KEY (sink)
+) ENGINE=InnoDB;
+
+-- Audit trail, batch-inserted by AuditLog's background writer (append-only)
+CREATE TABLE audit_log (
+  audit_id  BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+  at        TIMESTAMP(3)    NOT NULL,
+  actor     VARCHAR(80)     NULL,
+  action    VARCHAR(32)     NOT NULL,
+  target    VARCHAR(120)    NULL,
+  success   TINYINT(1)      NOT NULL,
+  client    VARCHAR(64)     NULL,
+  PRIMARY KEY (audit_id),
+  KEY idx_audit_at (at),
+  KEY idx_audit_actor (actor, at)
+) ENGINE=InnoDB;
+
+-- Latest autosaved edit grid per timesheet, written in batches by DraftStore
+CREATE TABLE timesheet_drafts (
+  timesheet_id  BIGINT UNSIGNED NOT NULL,
+  employee_id   BIGINT UNSIGNED NOT NULL,
+  payload       JSON            NOT NULL,
+  saved_at      TIMESTAMP(3)    NOT NULL,
+  PRIMARY KEY (timesheet_id),
+  KEY idx_draft_emp (employee_id),
+  CONSTRAINT fk_draft_ts FOREIGN KEY (timesheet_id) REFERENCES timesheets(timesheet_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- One row per employee and week reminded by MissingTimesheetReminder / ReminderSender.
+-- sent_at stays NULL while delivery keeps failing; such rows are retried by the next run.
+CREATE TABLE timesheet_reminders (
+  employee_id  BIGINT UNSIGNED NOT NULL,
+  end_date     DATE            NOT NULL,
+  sent_at      TIMESTAMP(3)    NULL,
+  attempts     INT             NOT NULL DEFAULT 0,
+  last_error   VARCHAR(255)    NULL,
+  PRIMARY KEY (employee_id, end_date),
+  CONSTRAINT fk_reminder_emp FOREIGN KEY (employee_id) REFERENCES employees(employee_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Seed admin
+INSERT INTO employees (name, emp_number, user_name, role)
+VALUES ('System Admin', 0, 'admin', 'ADMIN');
+
+INSERT INTO credentials (employee_id, password_hash)
+SELECT e.employee_id, 'admin123'
+FROM employees e
+WHERE e.user_name = 'admin';
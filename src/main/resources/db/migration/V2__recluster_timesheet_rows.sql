@@ -0,0 +1,22 @@
+-- Cluster rows by (timesheet_id, line_no) instead of the row_id counter, so the rows of
+-- one sheet sit together in the primary key: loading, copying and replacing a sheet's
+-- rows touches one or two pages instead of one page per row. row_id stays unique: it is
+-- still generated for new rows and kept by the archive.
+--
+-- Rebuilds the tables in place while reads and writes go on (ALGORITHM=INPLACE,
+-- LOCK=NONE makes MySQL refuse rather than lock). Fails, changing nothing, if a sheet
+-- has two rows with the same line_no.
+
+ALTER TABLE timesheet_rows
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (timesheet_id, line_no),
+  ADD UNIQUE KEY uq_tsr_row (row_id),
+  DROP KEY idx_tsr_ts,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE timesheet_rows_archive
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (timesheet_id, line_no),
+  ADD UNIQUE KEY uq_tsra_row (row_id),
+  DROP KEY idx_tsra_ts,
+  ALGORITHM=INPLACE, LOCK=NONE;
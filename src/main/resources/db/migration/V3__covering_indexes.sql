@@ -0,0 +1,44 @@
+-- Covering indexes for the TimeSheetRepo / EmployeeRepo queries, so the hot ones are
+-- answered from one index range without reading the table rows. Secondary indexes end
+-- with the primary key, so "ORDER BY end_date DESC, timesheet_id DESC" and the like are
+-- read backwards straight off the index, with no sort.
+-- Each statement adds the new index before dropping the one it replaces, so foreign keys
+-- keep their index; INPLACE / LOCK=NONE keeps the tables writable while indexes build.
+
+-- A user's sheets: list (getTimesheets), the sheet of a week (getCurrentTimesheet,
+-- saveWeeks, precreateWeek) and the sheet before a week (copyForward, precreateWeek).
+ALTER TABLE timesheets
+  ADD KEY idx_ts_emp_end_cov (employee_id, end_date, timesheet_id, status, overtime_deci, flextime_deci, created_at),
+  DROP KEY idx_ts_emp_date,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- A user's newest sheet (getMyNewest): ORDER BY created_at DESC, timesheet_id DESC LIMIT 1.
+ALTER TABLE timesheets
+  ADD KEY idx_ts_emp_created_cov (employee_id, created_at, timesheet_id, end_date, status, overtime_deci, flextime_deci),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Submitted sheets of a period (countSubmitted, approveSubmitted joins on employee_id).
+ALTER TABLE timesheets
+  ADD KEY idx_ts_status_cov (status, end_date, employee_id),
+  DROP KEY idx_ts_status,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE timesheets_archive
+  ADD KEY idx_tsa_emp_end_cov (employee_id, end_date, timesheet_id, status, overtime_deci, flextime_deci),
+  DROP KEY idx_tsa_emp_date,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Employee directory (getEmployees, findEmployees, countEmployees): live employees in each
+-- sort order, with every listed column. Prefix search on name is a range on the second part.
+ALTER TABLE employees
+  ADD KEY idx_emp_live_num  (deleted_at, emp_number, name, user_name, role),
+  ADD KEY idx_emp_live_name (deleted_at, name, emp_number, user_name, role),
+  ADD KEY idx_emp_live_user (deleted_at, user_name, emp_number, name, role),
+  DROP KEY idx_emp_name,
+  DROP KEY idx_emp_deleted,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Administrators (getAdministrator).
+ALTER TABLE employees
+  ADD KEY idx_emp_role (role, deleted_at),
+  ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,6 @@
+-- A discarded draft is kept as a tombstone (payload NULL, saved_at = discard time) so a
+-- flush still queued on another node cannot bring back an older draft. DraftStore
+-- deletes tombstones after a day. Making a column nullable is done in place.
+ALTER TABLE timesheet_drafts
+  MODIFY payload JSON NULL,
+  ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,5 @@
+-- A reminder the mail server refused for its address is not retried: rejected_at marks
+-- it so MissingTimesheetReminder skips the employee for that week, like sent_at does.
+ALTER TABLE timesheet_reminders
+  ADD COLUMN rejected_at TIMESTAMP(3) NULL AFTER sent_at,
+  ALGORITHM=INSTANT;
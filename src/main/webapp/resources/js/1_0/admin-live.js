@@ -0,0 +1,105 @@
+/*
+ * Live patches for adminDashboard.xhtml from the /admin/events Server-Sent Events stream.
+ *
+ * Only the affected row of the users table is touched: a saved sheet fills its
+ * "Last save" cell (a submitted, approved or rejected one its new state), a deleted employee is struck through, a new employee is added on top
+ * of the current page. A BULK notification (import, weekly pre-creation) reloads the
+ * table through its lazy model instead. If the server drops the stream (for instance
+ * because this page fell behind), EventSource reconnects and the table is reloaded once,
+ * since events may have been missed meanwhile.
+ */
+(function () {
+  "use strict";
+
+  var status = document.getElementById("live");
+  if (!status || !window.EventSource) return;
+
+  var source = new EventSource(status.getAttribute("data-events-url"));
+  var dropped = false;
+
+  function setStatus(text) {
+    status.textContent = "Live updates: " + text;
+  }
+
+  function reloadTable() {
+    if (window.PF && PF("usersTbl")) PF("usersTbl").filter();
+  }
+
+  function row(empNumber) {
+    return document.querySelector(".users-table tr.emp-" + empNumber);
+  }
+
+  function flash(tr) {
+    tr.classList.add("live-changed");
+    setTimeout(function () { tr.classList.remove("live-changed"); }, 2000);
+  }
+
+  function cell(text, cls) {
+    var td = document.createElement("td");
+    if (cls) td.className = cls;
+    td.textContent = text;
+    return td;
+  }
+
+  function addRow(n) {
+    var body = document.querySelector(".users-table tbody");
+    if (!body || row(n.emp)) return;
+    var tr = document.createElement("tr");
+    tr.className = "emp-" + n.emp;
+    tr.appendChild(cell(n.name, "name"));
+    tr.appendChild(cell(String(n.emp)));
+    tr.appendChild(cell(n.u, "username"));
+    tr.appendChild(cell(n.role === "ADMIN" ? "Admin" : "User"));
+    tr.appendChild(cell("", "last-save"));
+    tr.appendChild(cell("reload for actions", "actions"));
+    body.insertBefore(tr, body.firstChild);
+    flash(tr);
+  }
+
+  source.addEventListener("open", function () {
+    setStatus("on");
+    if (dropped) {
+      dropped = false;
+      reloadTable();
+    }
+  });
+
+  source.addEventListener("error", function () {
+    dropped = true;
+    setStatus("reconnecting…");
+  });
+
+  source.addEventListener("change", function (e) {
+    var n = JSON.parse(e.data);
+    var tr;
+    switch (n.t) {
+      case "SHEET_CREATED":
+      case "SHEET_SAVED":
+        tr = row(n.emp);
+        if (!tr) return;
+        var last = tr.querySelector("td.last-save");
+        if (last) last.textContent = "w/e " + n.week + " at " + new Date().toLocaleTimeString();
+        flash(tr);
+        break;
+      case "SHEET_STATUS":
+        tr = row(n.emp);
+        if (!tr) return;
+        var cell = tr.querySelector("td.last-save");
+        if (cell) cell.textContent = "w/e " + n.week + " " + n.status.toLowerCase();
+        flash(tr);
+        break;
+      case "EMPLOYEE_DELETED":
+        tr = row(n.emp);
+        if (!tr) return;
+        tr.classList.add("live-deleted");
+        tr.querySelectorAll("input, button, a").forEach(function (b) { b.disabled = true; });
+        break;
+      case "EMPLOYEE_ADDED":
+        addRow(n);
+        break;
+      case "BULK":
+        reloadTable();
+        break;
+    }
+  });
+})();
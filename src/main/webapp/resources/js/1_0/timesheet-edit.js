@@ -0,0 +1,128 @@
+/*
+ * Running totals for timesheet-edit.xhtml.
+ *
+ * Mirrors TimesheetEditBean.validateTotalsFromGrid: each entry is clamped to 0..24 and
+ * rounded to tenths; a day over 24 h or a week over 168 h is highlighted. The server
+ * still validates on Save. Listeners are delegated from the document, so rows added or
+ * removed by AJAX need no re-binding; totals are recomputed after each AJAX update.
+ *
+ * Autosave: edits are debounced (DEBOUNCE_MS after the last keystroke, but at least every
+ * MAX_WAIT_MS while typing) and the whole grid is posted to DraftServlet. The server keeps
+ * only the latest draft per sheet; nothing is written to the sheet until Save.
+ */
+(function () {
+  "use strict";
+
+  var DAY_CAP = 24, WEEK_CAP = 168;
+  var DEBOUNCE_MS = 2000, MAX_WAIT_MS = 10000, RETRY_MS = 10000;
+
+  function value(input) {
+    var v = parseFloat((input.value || "").trim());
+    if (isNaN(v)) return 0;
+    v = Math.min(DAY_CAP, Math.max(0, v));
+    return Math.round(v * 10) / 10;
+  }
+
+  function fmt(v) {
+    return (Math.round(v * 10) / 10).toFixed(1);
+  }
+
+  function recompute() {
+    var grid = document.querySelector(".ts-grid");
+    if (!grid) return;
+    var days = [0, 0, 0, 0, 0, 0, 0];
+
+    grid.querySelectorAll("tr.ts-row").forEach(function (tr) {
+      var sum = 0;
+      tr.querySelectorAll("input.hrs").forEach(function (input) {
+        var v = value(input);
+        days[+input.getAttribute("data-day")] += v;
+        sum += v;
+      });
+      var cell = tr.querySelector(".row-total");
+      if (cell) cell.textContent = fmt(sum);
+    });
+
+    var week = 0;
+    grid.querySelectorAll(".day-total").forEach(function (cell) {
+      var d = days[+cell.getAttribute("data-day")];
+      week += d;
+      cell.textContent = fmt(d);
+      cell.style.color = d > DAY_CAP + 1e-6 ? "#c00" : "";
+    });
+
+    var total = grid.querySelector(".week-total");
+    if (total) {
+      total.textContent = fmt(week);
+      total.style.color = week > WEEK_CAP + 1e-6 ? "#c00" : "";
+    }
+  }
+
+  // ---------------- Autosave ----------------
+
+  var timer = null, firstEdit = 0;
+
+  function snapshot(grid) {
+    var rows = [];
+    grid.querySelectorAll("tr.ts-row").forEach(function (tr) {
+      var field = function (cls) {
+        var input = tr.querySelector("input." + cls);
+        return input ? input.value : "";
+      };
+      var hours = [];
+      tr.querySelectorAll("input.hrs").forEach(function (input) {
+        hours[+input.getAttribute("data-day")] = input.value;
+      });
+      rows.push({ project: field("proj"), wp: field("wp"), hours: hours, notes: field("notes") });
+    });
+    return { timesheetId: +grid.getAttribute("data-ts"), rows: rows };
+  }
+
+  function send() {
+    timer = null;
+    firstEdit = 0;
+    var panel = document.querySelector("[data-draft-url]");
+    if (!panel || !panel.getAttribute("data-ts")) return;
+    fetch(panel.getAttribute("data-draft-url"), {
+      method: "POST",
+      credentials: "same-origin",
+      keepalive: true,
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify(snapshot(panel))
+    }).then(function (res) {
+      if (res.status === 429 || res.status >= 500) schedule(RETRY_MS);
+    }).catch(function () {
+      schedule(RETRY_MS);
+    });
+  }
+
+  function schedule(delay) {
+    var now = Date.now();
+    if (!firstEdit) firstEdit = now;
+    if (timer) clearTimeout(timer);
+    timer = setTimeout(send, Math.min(delay, Math.max(0, firstEdit + MAX_WAIT_MS - now)));
+  }
+
+  window.tsDraft = {
+    /** Drop a pending autosave (the form is being saved). */
+    cancel: function () {
+      if (timer) clearTimeout(timer);
+      timer = null;
+      firstEdit = 0;
+    }
+  };
+
+  document.addEventListener("input", function (e) {
+    if (!e.target.closest || !e.target.closest(".ts-grid")) return;
+    if (e.target.classList.contains("hrs")) recompute();
+    schedule(DEBOUNCE_MS);
+  });
+
+  if (window.faces && faces.ajax) {
+    faces.ajax.addOnEvent(function (data) {
+      if (data.status === "success") recompute();
+    });
+  }
+
+  recompute();
+})();